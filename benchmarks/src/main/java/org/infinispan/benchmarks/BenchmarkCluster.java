@@ -0,0 +1,103 @@
+package org.infinispan.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
+
+/**
+ * Starts the cache managers used by a benchmark. Clustered caches are formed by several cache managers inside the
+ * benchmark's JVM, using the JGroups {@code SHARED_LOOPBACK} transport, so the results include the marshalling and the
+ * RPC handling costs but no network latency.
+ *
+ * @since 9.0
+ */
+final class BenchmarkCluster {
+   static final String CACHE_NAME = "benchmark";
+   static final int CLUSTER_SIZE = 3;
+   private static final String JGROUPS_CONFIGURATION = "benchmark-jgroups.xml";
+   private static final long STARTUP_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+
+   private final List<EmbeddedCacheManager> cacheManagers = new ArrayList<>();
+   private final List<Cache<Object, Object>> caches = new ArrayList<>();
+
+   /**
+    * Starts one cache manager for local caches, or {@link #CLUSTER_SIZE} cache managers otherwise, and waits until the
+    * cache has been started on all of them.
+    */
+   BenchmarkCluster(ConfigurationBuilder builder) {
+      boolean clustered = builder.clustering().cacheMode() != CacheMode.LOCAL;
+      int nodes = clustered ? CLUSTER_SIZE : 1;
+      for (int i = 0; i < nodes; i++) {
+         GlobalConfigurationBuilder global = clustered ? GlobalConfigurationBuilder.defaultClusteredBuilder() :
+               new GlobalConfigurationBuilder().nonClusteredDefault();
+         global.globalJmxStatistics().allowDuplicateDomains(true);
+         if (clustered) {
+            global.transport().clusterName("benchmark").nodeName("node-" + i)
+                  .addProperty(JGroupsTransport.CONFIGURATION_FILE, JGROUPS_CONFIGURATION);
+         }
+         EmbeddedCacheManager cm = new DefaultCacheManager(global.build());
+         cm.defineConfiguration(CACHE_NAME, builder.build());
+         cacheManagers.add(cm);
+      }
+      for (EmbeddedCacheManager cm : cacheManagers) {
+         caches.add(cm.getCache(CACHE_NAME));
+      }
+      if (clustered) {
+         waitForRebalance();
+      }
+   }
+
+   /**
+    * @return the cache on the first node, which every benchmark thread invokes
+    */
+   Cache<Object, Object> cache() {
+      return caches.get(0);
+   }
+
+   List<EmbeddedCacheManager> cacheManagers() {
+      return cacheManagers;
+   }
+
+   void stop() {
+      // Stop the last joiner first, so the coordinator does not change
+      for (int i = cacheManagers.size() - 1; i >= 0; i--) {
+         cacheManagers.get(i).stop();
+      }
+      cacheManagers.clear();
+      caches.clear();
+   }
+
+   private void waitForRebalance() {
+      long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT;
+      for (Cache<Object, Object> cache : caches) {
+         StateTransferManager stm = cache.getAdvancedCache().getComponentRegistry()
+               .getComponent(StateTransferManager.class);
+         while (true) {
+            CacheTopology topology = stm.getCacheTopology();
+            if (topology != null && topology.getMembers().size() == caches.size() && topology.getPendingCH() == null
+                  && !stm.isStateTransferInProgress()) {
+               break;
+            }
+            if (System.currentTimeMillis() > deadline) {
+               throw new IllegalStateException("Timed out waiting for the benchmark cluster to form: " + topology);
+            }
+            try {
+               Thread.sleep(10);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               throw new IllegalStateException(e);
+            }
+         }
+      }
+   }
+}
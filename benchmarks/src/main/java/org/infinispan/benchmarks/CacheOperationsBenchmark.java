@@ -0,0 +1,103 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.transaction.TransactionMode;
+import org.infinispan.transaction.lookup.DummyTransactionManagerLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures get, put and remove in local, replicated and distributed caches, with and without transactions. In the
+ * clustered modes the operations are invoked on the first of {@link BenchmarkCluster#CLUSTER_SIZE} nodes, so about a
+ * third of the distributed reads are remote.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheOperationsBenchmark {
+   static final int KEY_SPACE = 10_000;
+
+   @Param({"LOCAL", "REPL_SYNC", "DIST_SYNC"})
+   public CacheMode cacheMode;
+
+   @Param({"false", "true"})
+   public boolean transactional;
+
+   @Param({"100"})
+   public int valueSize;
+
+   private BenchmarkCluster cluster;
+   private Cache<Object, Object> cache;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(cacheMode);
+      if (transactional) {
+         builder.transaction().transactionMode(TransactionMode.TRANSACTIONAL)
+               .transactionManagerLookup(new DummyTransactionManagerLookup());
+      }
+      cluster = new BenchmarkCluster(builder);
+      cache = cluster.cache();
+      keys = new String[KEY_SPACE];
+      value = new byte[valueSize];
+      for (int i = 0; i < KEY_SPACE; i++) {
+         keys[i] = "key-" + i;
+         cache.put(keys[i], value);
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cluster.stop();
+   }
+
+   @Benchmark
+   public Object get() {
+      return cache.get(randomKey());
+   }
+
+   @Benchmark
+   public Object put() {
+      return cache.put(randomKey(), value);
+   }
+
+   /**
+    * Removes an existing key and puts it back, so that every removal finds an entry. The cost of the removal alone is
+    * the difference with {@link #put()}.
+    */
+   @Benchmark
+   public Object remove() {
+      String key = randomKey();
+      Object previous = cache.remove(key);
+      cache.put(key, value);
+      return previous;
+   }
+
+   private String randomKey() {
+      return keys[ThreadLocalRandom.current().nextInt(KEY_SPACE)];
+   }
+}
@@ -0,0 +1,85 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads and writes of a local cache bounded by each eviction strategy. The keys are drawn from a space twice
+ * as large as the cache, so that writes keep evicting entries and roughly half of the reads miss.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvictionBenchmark {
+   @Param({"NONE", "LRU", "LIRS", "TINY_LFU"})
+   public EvictionStrategy strategy;
+
+   @Param({"10000"})
+   public int maxEntries;
+
+   @Param({"100"})
+   public int valueSize;
+
+   private BenchmarkCluster cluster;
+   private Cache<Object, Object> cache;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      if (strategy.isEnabled()) {
+         builder.eviction().strategy(strategy).type(EvictionType.COUNT).size(maxEntries);
+      }
+      cluster = new BenchmarkCluster(builder);
+      cache = cluster.cache();
+      keys = new String[2 * maxEntries];
+      value = new byte[valueSize];
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = "key-" + i;
+         cache.put(keys[i], value);
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cluster.stop();
+   }
+
+   @Benchmark
+   public Object get() {
+      return cache.get(randomKey());
+   }
+
+   @Benchmark
+   public Object put() {
+      return cache.put(randomKey(), value);
+   }
+
+   private String randomKey() {
+      return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+   }
+}
@@ -0,0 +1,102 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads and writes of a local cache whose entries are immortal or expire with a lifespan, a max idle or both.
+ * The expiration times are much longer than the benchmark, so the entries never expire while it runs and the results
+ * show the cost of creating, indexing and touching the expirable entries.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpirationBenchmark {
+   private static final long EXPIRATION = TimeUnit.HOURS.toMillis(1);
+
+   public enum Expiration {
+      IMMORTAL(-1, -1),
+      LIFESPAN(EXPIRATION, -1),
+      MAX_IDLE(-1, EXPIRATION),
+      LIFESPAN_AND_MAX_IDLE(EXPIRATION, EXPIRATION);
+
+      final long lifespan;
+      final long maxIdle;
+
+      Expiration(long lifespan, long maxIdle) {
+         this.lifespan = lifespan;
+         this.maxIdle = maxIdle;
+      }
+   }
+
+   @Param({"IMMORTAL", "LIFESPAN", "MAX_IDLE", "LIFESPAN_AND_MAX_IDLE"})
+   public Expiration expiration;
+
+   @Param({"10000"})
+   public int keySpace;
+
+   @Param({"100"})
+   public int valueSize;
+
+   private BenchmarkCluster cluster;
+   private Cache<Object, Object> cache;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      cluster = new BenchmarkCluster(new ConfigurationBuilder());
+      cache = cluster.cache();
+      keys = new String[keySpace];
+      value = new byte[valueSize];
+      for (int i = 0; i < keySpace; i++) {
+         keys[i] = "key-" + i;
+         put(keys[i]);
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cluster.stop();
+   }
+
+   @Benchmark
+   public Object get() {
+      return cache.get(randomKey());
+   }
+
+   @Benchmark
+   public Object put() {
+      return put(randomKey());
+   }
+
+   private Object put(String key) {
+      return cache.put(key, value, expiration.lifespan, TimeUnit.MILLISECONDS, expiration.maxIdle,
+            TimeUnit.MILLISECONDS);
+   }
+
+   private String randomKey() {
+      return keys[ThreadLocalRandom.current().nextInt(keySpace)];
+   }
+}
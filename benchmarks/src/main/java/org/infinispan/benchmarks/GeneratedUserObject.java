@@ -0,0 +1,32 @@
+package org.infinispan.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.infinispan.commons.marshall.GenerateExternalizer;
+
+/**
+ * A user class marshalled by the externalizer generated at build time. Same fields as {@link SerializableUserObject}.
+ *
+ * @since 9.0
+ */
+@GenerateExternalizer(id = 9000)
+public class GeneratedUserObject {
+   String name;
+   int age;
+   long created;
+   boolean active;
+   byte[] data;
+   List<String> tags;
+
+   static GeneratedUserObject create() {
+      GeneratedUserObject object = new GeneratedUserObject();
+      object.name = "user-12345";
+      object.age = 42;
+      object.created = 1476700000000L;
+      object.active = true;
+      object.data = new byte[64];
+      object.tags = Arrays.asList("red", "green", "blue");
+      return object;
+   }
+}
@@ -0,0 +1,164 @@
+package org.infinispan.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast the global marshaller converts common payloads to and from bytes, and how large the marshalled
+ * form is. The {@code bytes} secondary result of {@link #marshall(Bytes)} is the throughput in bytes, so dividing it by
+ * the primary result gives the marshalled size of the payload.
+ * <p/>
+ * {@code USER_GENERATED} and {@code USER_SERIALIZABLE} hold the same data, in a class with an externalizer generated
+ * from {@link org.infinispan.commons.marshall.GenerateExternalizer} and in a plain {@link java.io.Serializable} class
+ * marshalled by JBoss Marshalling.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+   public enum Payload {
+      INTEGER {
+         @Override
+         Object create() {
+            return 42;
+         }
+      },
+      STRING {
+         @Override
+         Object create() {
+            return "key-12345";
+         }
+      },
+      LARGE_STRING {
+         @Override
+         Object create() {
+            StringBuilder sb = new StringBuilder(1024);
+            while (sb.length() < 1024) {
+               sb.append("value-").append(sb.length());
+            }
+            return sb.toString();
+         }
+      },
+      BYTE_ARRAY {
+         @Override
+         Object create() {
+            return new byte[1024];
+         }
+      },
+      LIST {
+         @Override
+         Object create() {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+               list.add(i);
+            }
+            return list;
+         }
+      },
+      MAP {
+         @Override
+         Object create() {
+            Map<String, String> map = new HashMap<>();
+            for (int i = 0; i < 16; i++) {
+               map.put("key-" + i, "value-" + i);
+            }
+            return map;
+         }
+      },
+      METADATA {
+         @Override
+         Object create() {
+            return new EmbeddedMetadata.Builder().lifespan(60, TimeUnit.SECONDS).maxIdle(10, TimeUnit.SECONDS).build();
+         }
+      },
+      USER_GENERATED {
+         @Override
+         Object create() {
+            return GeneratedUserObject.create();
+         }
+      },
+      USER_SERIALIZABLE {
+         @Override
+         Object create() {
+            return SerializableUserObject.create();
+         }
+      };
+
+      abstract Object create();
+   }
+
+   /**
+    * Counts the marshalled bytes of each measurement iteration.
+    */
+   @State(Scope.Thread)
+   @AuxCounters(AuxCounters.Type.OPERATIONS)
+   public static class Bytes {
+      public long bytes;
+
+      @Setup(Level.Iteration)
+      public void reset() {
+         bytes = 0;
+      }
+   }
+
+   @Param({"INTEGER", "STRING", "LARGE_STRING", "BYTE_ARRAY", "LIST", "MAP", "METADATA", "USER_GENERATED",
+         "USER_SERIALIZABLE"})
+   public Payload payload;
+
+   private BenchmarkCluster cluster;
+   private StreamingMarshaller marshaller;
+   private Object object;
+   private byte[] marshalled;
+
+   @Setup(Level.Trial)
+   public void setUp() throws Exception {
+      cluster = new BenchmarkCluster(new ConfigurationBuilder());
+      marshaller = cluster.cacheManagers().get(0).getGlobalComponentRegistry().getComponent(StreamingMarshaller.class);
+      object = payload.create();
+      marshalled = marshaller.objectToByteBuffer(object);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cluster.stop();
+   }
+
+   @Benchmark
+   public byte[] marshall(Bytes counter) throws Exception {
+      byte[] bytes = marshaller.objectToByteBuffer(object);
+      counter.bytes += bytes.length;
+      return bytes;
+   }
+
+   @Benchmark
+   public Object unmarshall() throws Exception {
+      return marshaller.objectFromByteBuffer(marshalled);
+   }
+}
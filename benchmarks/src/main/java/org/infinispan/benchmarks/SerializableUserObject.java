@@ -0,0 +1,30 @@
+package org.infinispan.benchmarks;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A user class without externalizer, marshalled by JBoss Marshalling. Same fields as {@link GeneratedUserObject}.
+ *
+ * @since 9.0
+ */
+public class SerializableUserObject implements Serializable {
+   String name;
+   int age;
+   long created;
+   boolean active;
+   byte[] data;
+   List<String> tags;
+
+   static SerializableUserObject create() {
+      SerializableUserObject object = new SerializableUserObject();
+      object.name = "user-12345";
+      object.age = 42;
+      object.created = 1476700000000L;
+      object.active = true;
+      object.data = new byte[64];
+      object.tags = Arrays.asList("red", "green", "blue");
+      return object;
+   }
+}
@@ -0,0 +1,34 @@
+package org.infinispan.commons.marshall;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests a {@link GeneratedExternalizer} for the annotated class, to be generated at build time by the annotation
+ * processor of the {@code infinispan-marshall-processor} module. The generated externalizer writes the fields of the
+ * class one after the other, without class descriptors or reflection, and is registered automatically with the global
+ * marshaller of any cache manager whose class loader can see it.
+ * <p/>
+ * All the non-static, non-transient fields of the class and of its superclasses are marshalled. They must not be
+ * {@code private} or {@code final}, and the class must have a non-private constructor without parameters. Primitive
+ * fields, {@link String}s, {@code byte[]}s and enums are written directly; the other fields are written with
+ * {@link java.io.ObjectOutput#writeObject(Object)}, so they can be annotated classes themselves.
+ * <p/>
+ * The generated externalizer is named after the class, with an {@code _Externalizer} suffix, in the same package.
+ *
+ * @since 9.0
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+@Documented
+public @interface GenerateExternalizer {
+
+   /**
+    * The id of the generated externalizer. It has the same meaning as {@link AdvancedExternalizer#getId()} for user
+    * externalizers, and must not clash with the ids of the other externalizers of the cache manager.
+    */
+   int id();
+}
@@ -0,0 +1,10 @@
+package org.infinispan.commons.marshall;
+
+/**
+ * An {@link AdvancedExternalizer} generated for a class annotated with {@link GenerateExternalizer}. The generated
+ * externalizers are listed as services of this type, which is how the global marshaller finds them.
+ *
+ * @since 9.0
+ */
+public interface GeneratedExternalizer<T> extends AdvancedExternalizer<T> {
+}
@@ -34,6 +34,7 @@
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountedCompleter;
 import java.util.concurrent.ForkJoinPool;
@@ -554,6 +555,10 @@ public K getKey() {
             new SizeAndEvicting(0, 0));
       final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
       final boolean countingMemory;
+      // Reads only record the access, the deque is reordered by a single thread at a time
+      final StripedReadBuffer<Node<K, V>> readBuffer = new StripedReadBuffer<>();
+      final ReentrantLock readDrainLock = new ReentrantLock();
+      final Consumer<Node<K, V>> moveToTail = this::moveToTail;
 
       static final long NODE_ARRAY_BASE_OFFSET = getUnsafe().arrayBaseOffset(Node[].class);
       static final long NODE_ARRAY_OFFSET = getUnsafe().arrayIndexScale(Node[].class);
@@ -591,6 +596,23 @@ public LRUEvictionPolicy(BoundedEquivalentConcurrentHashMapV8<K, V> map, long ma
 
       @Override
       public void onEntryHitRead(Node<K, V> e, V value) {
+         // Moving the entry on every read makes all the readers contend on the tail of the deque
+         if (readBuffer.offer(e)) {
+            drainReads();
+         }
+      }
+
+      void drainReads() {
+         if (readDrainLock.tryLock()) {
+            try {
+               readBuffer.drainTo(moveToTail);
+            } finally {
+               readDrainLock.unlock();
+            }
+         }
+      }
+
+      private void moveToTail(Node<K, V> e) {
          LRUNode<K, V> eviction = (LRUNode<K, V>) e.eviction;
          // We synchronize in case if multiple threads are hitting this entry at the same
          // time so we don't link it last twice
@@ -615,7 +637,7 @@ public void onEntryHitRead(Node<K, V> e, V value) {
 
       @Override
       public void onEntryHitWrite(BoundedEquivalentConcurrentHashMapV8.Node<K,V> e, V value) {
-         onEntryHitRead(e, value);
+         moveToTail(e);
       }
 
       @Override
@@ -697,6 +719,8 @@ public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
          }
          List<Node<K, V>> evictedEntries = null;
          if (extra > 0) {
+            // Apply the recorded reads first, so recently read entries are not evicted
+            drainReads();
             evictedEntries = new ArrayList<>((int)extra & 0x7fffffff);
             long decCreate = 0;
             while (decCreate < extra) {
@@ -871,6 +895,11 @@ static SizeAndEvicting incrementSizeEviction(AtomicReference<SizeAndEvicting> cu
 
       final ThreadLocal<Collection<LIRSNode<K, V>>> nodesToEvictTL = new ThreadLocal<>();
 
+      // Reads only record the access, the stack and queue are updated by a single thread at a time
+      final StripedReadBuffer<Node<K, V>> readBuffer = new StripedReadBuffer<>();
+      final ReentrantLock readDrainLock = new ReentrantLock();
+      final Consumer<Node<K, V>> applyRead = this::applyRead;
+
       public LIRSEvictionPolicy(BoundedEquivalentConcurrentHashMapV8<K, V> map, long maxSize) {
          this.map = map;
          this.maximumSize = maxSize;
@@ -1200,6 +1229,28 @@ void promoteHIRToLIR(LIRSNode<K, V> lirsNode) {
 
       @Override
       public void onEntryHitRead(Node<K,V> e, V value) {
+         // Updating the stack on every read makes the readers contend on it and sometimes on the table lock
+         if (readBuffer.offer(e)) {
+            drainReads();
+         }
+      }
+
+      void drainReads() {
+         if (readDrainLock.tryLock()) {
+            try {
+               readBuffer.drainTo(applyRead);
+            } finally {
+               readDrainLock.unlock();
+            }
+         }
+      }
+
+      private void applyRead(Node<K, V> e) {
+         V value = e.val;
+         if (value == null || value == NULL_VALUE) {
+            // Removed or no longer resident since it was read
+            return;
+         }
          boolean reAttempt = false;
          LIRSNode<K, V> lirsNode = (LIRSNode<K, V>) e.eviction;
          synchronized (lirsNode) {
@@ -1406,6 +1457,11 @@ public void onEntryRemove(Node<K, V> e) {
 
       @Override
       public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
+         SizeAndEvicting currentSizeEvict = currentSize.get();
+         if (currentSizeEvict.size - currentSizeEvict.evicting > maximumSize) {
+            // Apply the recorded reads first, so recently read entries are not evicted
+            drainReads();
+         }
          long hotDemotions;
          while ((hotDemotions = hotDemotion.get()) > 0) {
             if (hotDemotion.compareAndSet(hotDemotions, 0)) {
@@ -1589,6 +1645,369 @@ public void resize(long newSize) {
 
    }
 
+   static final class TinyLFUNode<K, V> implements EvictionEntry<K, V> {
+      private final Node<K, V> attachedNode;
+      // The following fields are guarded by the eviction lock of the policy
+      TinyLFUNode<K, V> previous;
+      TinyLFUNode<K, V> next;
+      long weight;
+      byte queue;
+      boolean alive;
+      boolean retired;
+
+      public TinyLFUNode(Node<K, V> item) {
+         this.attachedNode = item;
+      }
+
+      @Override
+      public K getKey() {
+         return attachedNode.key;
+      }
+   }
+
+   /**
+    * Doubly linked list threaded through the {@link TinyLFUNode}s, ordered from the least to the most recently used.
+    * It is only accessed while holding the eviction lock.
+    */
+   static final class AccessQueue<K, V> {
+      TinyLFUNode<K, V> first;
+      TinyLFUNode<K, V> last;
+
+      void addLast(TinyLFUNode<K, V> node) {
+         node.previous = last;
+         node.next = null;
+         if (last == null) {
+            first = node;
+         } else {
+            last.next = node;
+         }
+         last = node;
+      }
+
+      void remove(TinyLFUNode<K, V> node) {
+         if (node.previous == null) {
+            first = node.next;
+         } else {
+            node.previous.next = node.next;
+         }
+         if (node.next == null) {
+            last = node.previous;
+         } else {
+            node.next.previous = node.previous;
+         }
+         node.previous = null;
+         node.next = null;
+      }
+
+      void moveToLast(TinyLFUNode<K, V> node) {
+         if (node != last) {
+            remove(node);
+            addLast(node);
+         }
+      }
+   }
+
+   /**
+    * Window TinyLFU eviction policy. New entries are first placed in a small LRU window; entries leaving the window
+    * compete with the least recently used entry of the main space and are only admitted if they have been accessed
+    * more often, according to a {@link FrequencySketch}. The main space is a segmented LRU split into a probation and a
+    * protected area, entries being promoted to the protected area when they are accessed again.
+    * <p>
+    * The policy state is guarded by a single lock that is never acquired while holding a lock of the map. Writes
+    * record their changes in a queue and reads in a lossy {@link StripedReadBuffer}, and the changes are applied in
+    * batches by the thread that next checks for entries to evict. Reads therefore never block and only contend on the
+    * eviction lock, with a try lock, when their buffer is full.
+    */
+   static final class TinyLFUEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
+      static final byte WINDOW = 0;
+      static final byte PROBATION = 1;
+      static final byte PROTECTED = 2;
+      /**
+       * The percentage of the capacity used by the admission window.
+       */
+      static final int WINDOW_PERCENTAGE = 1;
+      /**
+       * The percentage of the main space dedicated to entries that have been accessed more than once.
+       */
+      static final int PROTECTED_PERCENTAGE = 80;
+
+      final BoundedEquivalentConcurrentHashMapV8<K, V> map;
+      final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
+      final boolean countingMemory;
+      final ReentrantLock evictionLock = new ReentrantLock();
+      final ConcurrentLinkedQueue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+      final StripedReadBuffer<TinyLFUNode<K, V>> readBuffer = new StripedReadBuffer<>();
+      final Consumer<TinyLFUNode<K, V>> accessConsumer = this::onAccess;
+      volatile long maxSize;
+      volatile boolean drainRequired;
+
+      // The following fields are guarded by evictionLock
+      final FrequencySketch sketch = new FrequencySketch();
+      final AccessQueue<K, V> window = new AccessQueue<>();
+      final AccessQueue<K, V> probation = new AccessQueue<>();
+      final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+      long weightedSize;
+      long windowWeight;
+      long protectedWeight;
+      long entries;
+
+      public TinyLFUEvictionPolicy(BoundedEquivalentConcurrentHashMapV8<K, V> map, long maxSize,
+            EntrySizeCalculator<? super K, ? super V> sizeCalculator, boolean countingMemory) {
+         this.map = map;
+         this.maxSize = maxSize;
+         this.sizeCalculator = sizeCalculator;
+         this.countingMemory = countingMemory;
+      }
+
+      @Override
+      public Node<K, V> createNewEntry(K key, int hash, Node<K, V> next, V value,
+            EvictionEntry<K, V> evictionEntry) {
+         Node<K, V> node = new Node<K, V>(hash, map.nodeEq, key, value, next);
+         if (evictionEntry == null) {
+            node.lazySetEviction(new TinyLFUNode<>(node));
+         } else {
+            node.lazySetEviction(evictionEntry);
+         }
+         return node;
+      }
+
+      @Override
+      public TreeNode<K, V> createNewEntry(K key, int hash, TreeNode<K, V> next,
+            TreeNode<K, V> parent, V value, EvictionEntry<K, V> evictionEntry) {
+         TreeNode<K, V> treeNode;
+         if (evictionEntry == null) {
+            treeNode = new TreeNode<>(hash, map.nodeEq, key, value, next, parent, null);
+            treeNode.lazySetEviction(new TinyLFUNode<>(treeNode));
+         } else {
+            treeNode = new TreeNode<>(hash, map.nodeEq, key, value, next, parent,
+                  evictionEntry);
+         }
+         return treeNode;
+      }
+
+      @Override
+      public void onEntryMiss(Node<K, V> e, V value) {
+         TinyLFUNode<K, V> node = (TinyLFUNode<K, V>) e.eviction;
+         long weight = sizeCalculator.calculateSize(e.key, value);
+         writeBuffer.add(() -> onAdd(node, weight));
+      }
+
+      @Override
+      public void onEntryHitRead(Node<K, V> e, V value) {
+         if (readBuffer.offer((TinyLFUNode<K, V>) e.eviction)) {
+            drainRequired = true;
+         }
+      }
+
+      @Override
+      public void onEntryHitWrite(Node<K, V> e, V value) {
+         TinyLFUNode<K, V> node = (TinyLFUNode<K, V>) e.eviction;
+         long weight = sizeCalculator.calculateSize(e.key, value);
+         writeBuffer.add(() -> onUpdate(node, weight));
+      }
+
+      @Override
+      public void onEntryRemove(Node<K, V> e) {
+         TinyLFUNode<K, V> node = (TinyLFUNode<K, V>) e.eviction;
+         writeBuffer.add(() -> onRemove(node));
+      }
+
+      @Override
+      public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
+         if (writeBuffer.isEmpty()) {
+            // Only reads to apply, these can wait if another thread is already applying changes
+            if (!drainRequired || !evictionLock.tryLock()) {
+               return Collections.emptyList();
+            }
+         } else {
+            evictionLock.lock();
+         }
+         List<TinyLFUNode<K, V>> victims;
+         try {
+            drainRequired = false;
+            readBuffer.drainTo(accessConsumer);
+            Runnable task;
+            while ((task = writeBuffer.poll()) != null) {
+               task.run();
+            }
+            victims = evict();
+         } finally {
+            evictionLock.unlock();
+         }
+         if (victims.isEmpty()) {
+            return Collections.emptyList();
+         }
+         // The victims are already unlinked from the policy, remove them from the map without holding the lock
+         List<Node<K, V>> evictedEntries = new ArrayList<>(victims.size());
+         for (TinyLFUNode<K, V> victim : victims) {
+            Node<K, V> node = victim.attachedNode;
+            if (map.replaceNode(node.key, null, null, true) != null) {
+               evictedEntries.add(node);
+            }
+         }
+         return evictedEntries;
+      }
+
+      private void onAdd(TinyLFUNode<K, V> node, long weight) {
+         if (node.retired) {
+            return;
+         }
+         if (node.alive) {
+            onUpdate(node, weight);
+            return;
+         }
+         node.alive = true;
+         node.weight = weight;
+         node.queue = WINDOW;
+         window.addLast(node);
+         windowWeight += weight;
+         weightedSize += weight;
+         if (++entries > sketch.capacity()) {
+            sketch.ensureCapacity(entries * 2);
+         }
+         sketch.increment(node.attachedNode.hash);
+      }
+
+      private void onUpdate(TinyLFUNode<K, V> node, long weight) {
+         if (!node.alive) {
+            return;
+         }
+         long delta = weight - node.weight;
+         node.weight = weight;
+         weightedSize += delta;
+         if (node.queue == WINDOW) {
+            windowWeight += delta;
+         } else if (node.queue == PROTECTED) {
+            protectedWeight += delta;
+         }
+         onAccess(node);
+      }
+
+      private void onRemove(TinyLFUNode<K, V> node) {
+         if (node.alive) {
+            unlink(node);
+         }
+         node.retired = true;
+      }
+
+      private void onAccess(TinyLFUNode<K, V> node) {
+         sketch.increment(node.attachedNode.hash);
+         if (!node.alive) {
+            return;
+         }
+         switch (node.queue) {
+            case WINDOW:
+               window.moveToLast(node);
+               break;
+            case PROBATION:
+               // Accessed again while on probation, promote it and demote the least recently used protected entries
+               probation.remove(node);
+               node.queue = PROTECTED;
+               protectedQueue.addLast(node);
+               protectedWeight += node.weight;
+               long maxProtected = maxProtected();
+               while (protectedWeight > maxProtected && protectedQueue.first != node) {
+                  TinyLFUNode<K, V> demoted = protectedQueue.first;
+                  protectedQueue.remove(demoted);
+                  protectedWeight -= demoted.weight;
+                  demoted.queue = PROBATION;
+                  probation.addLast(demoted);
+               }
+               break;
+            case PROTECTED:
+               protectedQueue.moveToLast(node);
+               break;
+         }
+      }
+
+      private List<TinyLFUNode<K, V>> evict() {
+         // Entries leaving the window become candidates for admission to the main space
+         TinyLFUNode<K, V> candidate = null;
+         long maxWindow = maxWindow();
+         while (windowWeight > maxWindow && window.first != null) {
+            TinyLFUNode<K, V> node = window.first;
+            window.remove(node);
+            windowWeight -= node.weight;
+            node.queue = PROBATION;
+            probation.addLast(node);
+            if (candidate == null) {
+               candidate = node;
+            }
+         }
+
+         List<TinyLFUNode<K, V>> victims = null;
+         while (weightedSize > maxSize) {
+            TinyLFUNode<K, V> victim = probation.first;
+            TinyLFUNode<K, V> evict;
+            if (victim == null) {
+               evict = protectedQueue.first != null ? protectedQueue.first : window.first;
+               if (evict == null) {
+                  break;
+               }
+            } else if (candidate == null || candidate == victim) {
+               evict = victim;
+               if (candidate != null) {
+                  candidate = candidate.next;
+               }
+            } else if (sketch.frequency(candidate.attachedNode.hash) > sketch.frequency(victim.attachedNode.hash)) {
+               evict = victim;
+            } else {
+               evict = candidate;
+               candidate = candidate.next;
+            }
+            unlink(evict);
+            evict.retired = true;
+            if (victims == null) {
+               victims = new ArrayList<>();
+            }
+            victims.add(evict);
+         }
+         return victims == null ? Collections.emptyList() : victims;
+      }
+
+      private void unlink(TinyLFUNode<K, V> node) {
+         switch (node.queue) {
+            case WINDOW:
+               window.remove(node);
+               windowWeight -= node.weight;
+               break;
+            case PROBATION:
+               probation.remove(node);
+               break;
+            case PROTECTED:
+               protectedQueue.remove(node);
+               protectedWeight -= node.weight;
+               break;
+         }
+         weightedSize -= node.weight;
+         node.alive = false;
+         entries--;
+      }
+
+      private long maxWindow() {
+         return Math.max(1, maxSize * WINDOW_PERCENTAGE / 100);
+      }
+
+      private long maxProtected() {
+         return (maxSize - maxWindow()) * PROTECTED_PERCENTAGE / 100;
+      }
+
+      @Override
+      public void onResize(long oldSize, long newSize) {
+         if (countingMemory && newSize > oldSize) {
+            // Need to increment the overall size
+            long delta = (newSize - oldSize) * LRUEvictionPolicy.NODE_ARRAY_OFFSET;
+            writeBuffer.add(() -> weightedSize += delta);
+         }
+      }
+
+      @Override
+      public void resize(long newSize) {
+         this.maxSize = newSize;
+         drainRequired = true;
+      }
+   }
+
    public enum Eviction {
       NONE {
          @Override
@@ -1622,6 +2041,19 @@ public <K, V> EvictionPolicy<K, V> make(BoundedEquivalentConcurrentHashMapV8<K,
             }
             return new LIRSEvictionPolicy<K, V>(map, capacity);
          }
+      },
+      TINY_LFU {
+         @Override
+         public <K, V> EvictionPolicy<K, V> make(BoundedEquivalentConcurrentHashMapV8<K, V> map,
+               EntrySizeCalculator<? super K, ? super V> sizeCalculator, long capacity) {
+            if (sizeCalculator == null) {
+               return new TinyLFUEvictionPolicy<K, V>(map, capacity,
+                     SingleEntrySizeCalculator.SINGLETON, false);
+            } else {
+               return new TinyLFUEvictionPolicy<K, V>(map, capacity,
+                     new NodeSizeCalculatorWrapper<K, V>(sizeCalculator), true);
+            }
+         }
       };
 
       abstract <K, V> EvictionPolicy<K, V> make(
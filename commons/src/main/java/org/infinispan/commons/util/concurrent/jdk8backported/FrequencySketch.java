@@ -0,0 +1,116 @@
+package org.infinispan.commons.util.concurrent.jdk8backported;
+
+/**
+ * A probabilistic estimate of how often an element has been accessed, used by the TinyLFU admission filter.
+ * <p>
+ * This is a count-min sketch with four 4-bit counters per element, all of them packed in the same {@code long} so
+ * that an increment touches a single cache line. Once the number of increments reaches ten times the capacity all the
+ * counters are halved, so that the sketch favours recent frequency over historic popularity.
+ * <p>
+ * This class is not thread safe, the caller must provide the necessary synchronization.
+ *
+ * @since 9.0
+ */
+final class FrequencySketch {
+   private static final long[] SEEDS = {
+         0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+   private static final long RESET_MASK = 0x7777777777777777L;
+   private static final long ONE_MASK = 0x1111111111111111L;
+   private static final int MIN_CAPACITY = 16;
+
+   private long[] table;
+   private int tableMask;
+   private int sampleSize;
+   private int size;
+
+   FrequencySketch() {
+      ensureCapacity(MIN_CAPACITY);
+   }
+
+   /**
+    * Grows the sketch so that it can track the given number of elements with a low error rate. Growing discards the
+    * frequencies collected so far.
+    */
+   void ensureCapacity(long capacity) {
+      int maximum = (int) Math.min(Math.max(capacity, MIN_CAPACITY), Integer.MAX_VALUE >>> 1);
+      if (table != null && table.length >= maximum) {
+         return;
+      }
+      table = new long[ceilingPowerOfTwo(maximum)];
+      tableMask = table.length - 1;
+      sampleSize = 10 * maximum;
+      if (sampleSize <= 0) {
+         sampleSize = Integer.MAX_VALUE;
+      }
+      size = 0;
+   }
+
+   int capacity() {
+      return table.length;
+   }
+
+   /**
+    * @return the estimated number of accesses of the element with the given hash, up to 15
+    */
+   int frequency(int hash) {
+      int item = spread(hash);
+      int start = (item & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++) {
+         int index = indexOf(item, i);
+         int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return frequency;
+   }
+
+   /**
+    * Records an access to the element with the given hash.
+    */
+   void increment(int hash) {
+      int item = spread(hash);
+      int start = (item & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+         added |= incrementAt(indexOf(item, i), start + i);
+      }
+      if (added && ++size == sampleSize) {
+         reset();
+      }
+   }
+
+   private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      if ((table[index] & mask) != mask) {
+         table[index] += 1L << offset;
+         return true;
+      }
+      return false;
+   }
+
+   private void reset() {
+      int oddCounters = 0;
+      for (int i = 0; i < table.length; i++) {
+         oddCounters += Long.bitCount(table[i] & ONE_MASK);
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      size = (size >>> 1) - (oddCounters >>> 2);
+   }
+
+   private int indexOf(int item, int i) {
+      long hash = (item + SEEDS[i]) * SEEDS[i];
+      hash += hash >>> 32;
+      return ((int) hash) & tableMask;
+   }
+
+   private static int spread(int x) {
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      return (x >>> 16) ^ x;
+   }
+
+   private static int ceilingPowerOfTwo(int x) {
+      return 1 << -Integer.numberOfLeadingZeros(x - 1);
+   }
+}
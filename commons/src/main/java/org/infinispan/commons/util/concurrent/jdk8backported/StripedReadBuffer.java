@@ -0,0 +1,91 @@
+package org.infinispan.commons.util.concurrent.jdk8backported;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A lossy buffer used to record reads without taking any lock. Each thread writes to one of several small ring
+ * buffers selected by its id, so concurrent readers rarely contend with each other. When a ring buffer is full, or a
+ * concurrent reader won the slot, the element is simply dropped: losing some accesses only makes the eviction policy
+ * slightly less precise.
+ * <p>
+ * Elements are consumed by {@link #drainTo(Consumer)}, which must only be invoked by one thread at a time.
+ *
+ * @since 9.0
+ */
+final class StripedReadBuffer<E> {
+   static final int BUFFER_SIZE = 16;
+   private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+   private final RingBuffer<E>[] buffers;
+   private final int stripeMask;
+
+   @SuppressWarnings("unchecked")
+   StripedReadBuffer() {
+      int stripes = 1 << -Integer.numberOfLeadingZeros(Runtime.getRuntime().availableProcessors() * 4 - 1);
+      buffers = new RingBuffer[stripes];
+      for (int i = 0; i < stripes; i++) {
+         buffers[i] = new RingBuffer<>();
+      }
+      stripeMask = stripes - 1;
+   }
+
+   /**
+    * Records the element in the buffer of the current thread.
+    *
+    * @return true if the buffer is now full and should be drained
+    */
+   boolean offer(E e) {
+      long id = Thread.currentThread().getId();
+      int hash = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+      return buffers[(hash >>> 16) & stripeMask].offer(e);
+   }
+
+   /**
+    * Passes all the recorded elements to the consumer, emptying the buffers.
+    */
+   void drainTo(Consumer<? super E> consumer) {
+      for (RingBuffer<E> buffer : buffers) {
+         buffer.drainTo(consumer);
+      }
+   }
+
+   private static final class RingBuffer<E> {
+      final AtomicReferenceArray<E> elements = new AtomicReferenceArray<>(BUFFER_SIZE);
+      final AtomicLong writeCounter = new AtomicLong();
+      volatile long readCounter;
+
+      boolean offer(E e) {
+         long head = readCounter;
+         long tail = writeCounter.get();
+         long size = tail - head;
+         if (size >= BUFFER_SIZE) {
+            return true;
+         }
+         if (writeCounter.compareAndSet(tail, tail + 1)) {
+            elements.lazySet((int) (tail & BUFFER_MASK), e);
+            return size + 1 >= BUFFER_SIZE;
+         }
+         // Another reader took the slot, dropping this access is fine
+         return false;
+      }
+
+      void drainTo(Consumer<? super E> consumer) {
+         long head = readCounter;
+         long tail = writeCounter.get();
+         while (head != tail) {
+            int index = (int) (head & BUFFER_MASK);
+            E e = elements.get(index);
+            if (e == null) {
+               // The writer has claimed the slot but not yet published the element
+               break;
+            }
+            elements.lazySet(index, null);
+            consumer.accept(e);
+            head++;
+         }
+         readCounter = head;
+      }
+   }
+}
@@ -3,6 +3,7 @@
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.infinispan.context.Flag.FAIL_SILENTLY;
 import static org.infinispan.context.Flag.FORCE_ASYNCHRONOUS;
+import static org.infinispan.context.Flag.FORCE_WRITE_LOCK;
 import static org.infinispan.context.Flag.IGNORE_RETURN_VALUES;
 import static org.infinispan.context.Flag.PUT_FOR_EXTERNAL_READ;
 import static org.infinispan.context.Flag.ZERO_LOCK_ACQUISITION_TIMEOUT;
@@ -397,14 +398,14 @@ public final V get(Object key) {
    @SuppressWarnings("unchecked")
    final V get(Object key, long explicitFlags) {
       assertKeyNotNull(key);
-      InvocationContext ctx = getInvocationContextForRead(1);
+      InvocationContext ctx = getInvocationContextForRead(1, explicitFlags);
       GetKeyValueCommand command = commandsFactory.buildGetKeyValueCommand(key, explicitFlags);
       return (V) invoker.invoke(ctx, command);
    }
 
    final CacheEntry getCacheEntry(Object key, long explicitFlags) {
       assertKeyNotNull(key);
-      InvocationContext ctx = getInvocationContextForRead(1);
+      InvocationContext ctx = getInvocationContextForRead(1, explicitFlags);
       GetCacheEntryCommand command = commandsFactory.buildGetCacheEntryCommand(key, explicitFlags);
       Object ret = invoker.invoke(ctx, command);
       return (CacheEntry) ret;
@@ -421,7 +422,7 @@ public Map<K, V> getAll(Set<?> keys) {
    }
 
    final Map<K, V> getAll(Set<?> keys, long explicitFlags) {
-      InvocationContext ctx = getInvocationContextForRead(keys.size());
+      InvocationContext ctx = getInvocationContextForRead(keys.size(), explicitFlags);
       GetAllCommand command = commandsFactory.buildGetAllCommand(keys, explicitFlags, false);
       Map<K, V> map = (Map<K, V>) invoker.invoke(ctx, command);
       Iterator<Map.Entry<K, V>> entryIterator = map.entrySet().iterator();
@@ -441,8 +442,9 @@ public Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys) {
 
    public final Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys,
          EnumSet<Flag> explicitFlags) {
-      InvocationContext ctx = getInvocationContextForRead(keys.size());
-      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, EnumUtil.bitSetOf(explicitFlags), true);
+      long flagsBitSet = EnumUtil.bitSetOf(explicitFlags);
+      InvocationContext ctx = getInvocationContextForRead(keys.size(), flagsBitSet);
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, flagsBitSet, true);
       Map<K, CacheEntry<K, V>> map = (Map<K, CacheEntry<K, V>>) invoker.invoke(ctx, command);
       Iterator<Map.Entry<K, CacheEntry<K, V>>> entryIterator = map.entrySet().iterator();
       while (entryIterator.hasNext()) {
@@ -727,6 +729,14 @@ private InvocationContext getInvocationContextForRead(int keyCount) {
       return invocationContextFactory.createInvocationContext(false, keyCount);
    }
 
+   private InvocationContext getInvocationContextForRead(int keyCount, long explicitFlags) {
+      if (EnumUtil.hasEnum(explicitFlags, FORCE_WRITE_LOCK)) {
+         return getInvocationContextForRead(keyCount);
+      }
+      //without a lock to hold for the transaction's lifespan, the factory decides if the transaction is needed at all
+      return invocationContextFactory.createInvocationContext(false, keyCount);
+   }
+
    private InvocationContext getInvocationContextWithImplicitTransactionForAsyncOps(boolean isPutForExternalRead, int keyCount) {
       InvocationContext ctx = getInvocationContextWithImplicitTransaction(isPutForExternalRead, keyCount);
       //If the transaction was injected then we should not have it associated to caller's thread, but with the async thread
@@ -1415,6 +1425,13 @@ public CompletableFuture<V> getAsync(K key) {
 
    @SuppressWarnings("unchecked")
    CompletableFuture<V> getAsync(final K key, final long explicitFlags) {
+      if (!config.transaction().transactionMode().isTransactional()) {
+         // The read interceptors wait for remote gets and store loads without blocking the caller thread
+         assertKeyNotNull(key);
+         InvocationContext ctx = invocationContextFactory.createInvocationContext(false, 1);
+         GetKeyValueCommand command = commandsFactory.buildGetKeyValueCommand(key, explicitFlags);
+         return (CompletableFuture<V>) invoker.invokeAsync(ctx, command);
+      }
       // Optimization to not start a new thread only when the operation is cheap:
       if (asyncSkipsThread(explicitFlags, key)) {
          return wrapInFuture(get(key, explicitFlags));
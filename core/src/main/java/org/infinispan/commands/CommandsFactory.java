@@ -35,9 +35,13 @@
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
+import org.infinispan.commands.remote.BackupAckCommand;
+import org.infinispan.commands.remote.BackupWriteRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.RemoveExpiredBatchCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -50,6 +54,7 @@
 import org.infinispan.commands.tx.VersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -284,6 +289,39 @@ public interface CommandsFactory {
     */
    SingleRpcCommand buildSingleRpcCommand(ReplicableCommand call);
 
+   /**
+    * Builds a RemoveExpiredBatchCommand, which sends several expired entry removals to their primary owner at once
+    * @param commands the expired entry removals, all for keys with the same primary owner
+    * @return a RemoveExpiredBatchCommand
+    */
+   RemoveExpiredBatchCommand buildRemoveExpiredBatchCommand(Collection<RemoveExpiredCommand> commands);
+
+   /**
+    * Builds a BackupWriteRpcCommand, which replicates a non-transactional write from the primary owner to a backup
+    * owner that acknowledges it directly to the originator
+    * @param command the write to apply on the backup owners
+    * @param originator the node that invoked the write and waits for the acknowledgements
+    * @param topologyId the topology id of the consistent hash the primary owner used to find the backup owners
+    * @return a BackupWriteRpcCommand
+    */
+   BackupWriteRpcCommand buildBackupWriteRpcCommand(DataWriteCommand command, Address originator, int topologyId);
+
+   /**
+    * Builds a BackupAckCommand, which acknowledges a write received in a BackupWriteRpcCommand to its originator
+    * @param id the id of the write
+    * @param topologyId the topology id of the BackupWriteRpcCommand
+    * @param throwable the exception thrown while applying the write, or {@code null} if it was applied
+    * @return a BackupAckCommand
+    */
+   BackupAckCommand buildBackupAckCommand(CommandInvocationId id, int topologyId, Throwable throwable);
+
+   /**
+    * Builds a SegmentSizeCommand, which asks an owner for the number of entries it holds in some segments
+    * @param segments the segments to count the entries of
+    * @return a SegmentSizeCommand
+    */
+   SegmentSizeCommand buildSegmentSizeCommand(Set<Integer> segments);
+
    /**
     * Builds a ClusteredGetCommand, which is a remote lookup command
     * @param key key to look up
@@ -37,9 +37,13 @@
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
+import org.infinispan.commands.remote.BackupAckCommand;
+import org.infinispan.commands.remote.BackupWriteRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.RemoveExpiredBatchCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -57,6 +61,7 @@
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
@@ -91,6 +96,7 @@
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
+import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.statetransfer.StateConsumer;
@@ -110,6 +116,7 @@
 import org.infinispan.transaction.xa.recovery.RecoveryManager;
 import org.infinispan.util.ByteString;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CommandAckCollector;
 import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -165,6 +172,8 @@ public class CommandsFactoryImpl implements CommandsFactory {
 
    private Map<Byte, ModuleCommandInitializer> moduleCommandInitializers;
    private ExternalizerTable externalizerTable;
+   private RpcManager rpcManager;
+   private CommandAckCollector commandAckCollector;
 
    @Inject
    public void setupDependencies(DataContainer container, CacheNotifier<Object, Object> notifier, Cache<Object, Object> cache,
@@ -178,7 +187,8 @@ public void setupDependencies(DataContainer container, CacheNotifier<Object, Obj
                                  XSiteStateTransferManager xSiteStateTransferManager,
                                  GroupManager groupManager, PartitionHandlingManager partitionHandlingManager,
                                  LocalStreamManager localStreamManager, ClusterStreamManager clusterStreamManager,
-                                 ClusteringDependentLogic clusteringDependentLogic, ExternalizerTable externalizerTable) {
+                                 ClusteringDependentLogic clusteringDependentLogic, ExternalizerTable externalizerTable,
+                                 RpcManager rpcManager, CommandAckCollector commandAckCollector) {
       this.dataContainer = container;
       this.notifier = notifier;
       this.cache = cache;
@@ -205,6 +215,8 @@ public void setupDependencies(DataContainer container, CacheNotifier<Object, Obj
       this.clusteringDependentLogic = clusteringDependentLogic;
       this.timeService = timeService;
       this.externalizerTable = externalizerTable;
+      this.rpcManager = rpcManager;
+      this.commandAckCollector = commandAckCollector;
    }
 
    @Start(priority = 1)
@@ -325,6 +337,27 @@ public SingleRpcCommand buildSingleRpcCommand(ReplicableCommand call) {
       return new SingleRpcCommand(cacheName, call);
    }
 
+   @Override
+   public RemoveExpiredBatchCommand buildRemoveExpiredBatchCommand(Collection<RemoveExpiredCommand> commands) {
+      return new RemoveExpiredBatchCommand(cacheName, commands);
+   }
+
+   @Override
+   public BackupWriteRpcCommand buildBackupWriteRpcCommand(DataWriteCommand command, Address originator,
+         int topologyId) {
+      return new BackupWriteRpcCommand(cacheName, command, originator, topologyId);
+   }
+
+   @Override
+   public BackupAckCommand buildBackupAckCommand(CommandInvocationId id, int topologyId, Throwable throwable) {
+      return new BackupAckCommand(cacheName, id, topologyId, throwable);
+   }
+
+   @Override
+   public SegmentSizeCommand buildSegmentSizeCommand(Set<Integer> segments) {
+      return new SegmentSizeCommand(cacheName, segments);
+   }
+
    @Override
    public ClusteredGetCommand buildClusteredGetCommand(Object key, long flagsBitSet, boolean acquireRemoteLock, GlobalTransaction gtx) {
       return new ClusteredGetCommand(key, cacheName, flagsBitSet, acquireRemoteLock, gtx,
@@ -356,6 +389,26 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             if (src.getCommand() != null)
                initializeReplicableCommand(src.getCommand(), false);
 
+            break;
+         case RemoveExpiredBatchCommand.COMMAND_ID:
+            RemoveExpiredBatchCommand rebc = (RemoveExpiredBatchCommand) c;
+            rebc.init(interceptorChain, icf);
+            if (rebc.getCommands() != null) {
+               for (RemoveExpiredCommand command : rebc.getCommands()) {
+                  initializeReplicableCommand(command, false);
+               }
+            }
+            break;
+         case BackupWriteRpcCommand.COMMAND_ID:
+            BackupWriteRpcCommand bwc = (BackupWriteRpcCommand) c;
+            bwc.init(interceptorChain, icf, rpcManager, this, commandAckCollector);
+            initializeReplicableCommand(bwc.getCommand(), false);
+            break;
+         case BackupAckCommand.COMMAND_ID:
+            ((BackupAckCommand) c).init(commandAckCollector);
+            break;
+         case SegmentSizeCommand.COMMAND_ID:
+            ((SegmentSizeCommand) c).init(dataContainer, stateTransferManager);
             break;
          case InvalidateCommand.COMMAND_ID:
             InvalidateCommand ic = (InvalidateCommand) c;
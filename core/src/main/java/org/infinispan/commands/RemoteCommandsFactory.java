@@ -16,9 +16,13 @@
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.remote.BackupAckCommand;
+import org.infinispan.commands.remote.BackupWriteRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.RemoveExpiredBatchCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -238,6 +242,18 @@ public CacheRpcCommand fromStream(byte id, byte type, ByteString cacheName) {
             case SingleRpcCommand.COMMAND_ID:
                command = new SingleRpcCommand(cacheName);
                break;
+            case RemoveExpiredBatchCommand.COMMAND_ID:
+               command = new RemoveExpiredBatchCommand(cacheName);
+               break;
+            case BackupWriteRpcCommand.COMMAND_ID:
+               command = new BackupWriteRpcCommand(cacheName);
+               break;
+            case BackupAckCommand.COMMAND_ID:
+               command = new BackupAckCommand(cacheName);
+               break;
+            case SegmentSizeCommand.COMMAND_ID:
+               command = new SegmentSizeCommand(cacheName);
+               break;
             case ClusteredGetCommand.COMMAND_ID:
                command = new ClusteredGetCommand(cacheName);
                break;
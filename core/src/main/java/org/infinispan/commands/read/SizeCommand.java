@@ -1,15 +1,48 @@
 package org.infinispan.commands.read;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
+import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.Visitor;
+import org.infinispan.commands.remote.SegmentSizeCommand;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.remoting.RemoteException;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.jgroups.SuspectException;
+import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.statetransfer.StateTransferLock;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Command to calculate the size of the cache
+ * <p>
+ * When the entries are held in a {@link SegmentedDataContainer}, the size is the sum of the number of entries that
+ * the owners of each segment keep, so the entries don't need to be iterated. Otherwise, or if the entries of the cache
+ * stores or of the current transaction must be counted as well, or with {@link Flag#EXACT_SIZE}, the entries are
+ * iterated.
  *
  * @author Manik Surtani (<a href="mailto:manik@jboss.org">manik@jboss.org</a>)
  * @author Mircea.Markus@jboss.com
@@ -17,6 +50,9 @@
  * @since 4.0
  */
 public class SizeCommand extends AbstractLocalCommand implements VisitableCommand {
+   private static final Log log = LogFactory.getLog(SizeCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
    private final Cache<Object, ?> cache;
 
    public SizeCommand(Cache<Object, ?> cache, Set<Flag> flags) {
@@ -40,7 +76,12 @@ public boolean readsExistingValues() {
 
    @Override
    public Integer perform(InvocationContext ctx) throws Throwable {
-      long size = cache.keySet().stream().count();
+      long size;
+      if (canCountSegments(ctx)) {
+         size = countSegments();
+      } else {
+         size = cache.keySet().stream().count();
+      }
       if (size > Integer.MAX_VALUE) {
          return Integer.MAX_VALUE;
       } else {
@@ -48,6 +89,96 @@ public Integer perform(InvocationContext ctx) throws Throwable {
       }
    }
 
+   private boolean canCountSegments(InvocationContext ctx) {
+      if (hasFlag(Flag.EXACT_SIZE) || ctx.isInTxScope()) {
+         return false;
+      }
+      AdvancedCache<Object, ?> advancedCache = cache.getAdvancedCache();
+      if (!(advancedCache.getDataContainer() instanceof SegmentedDataContainer)) {
+         return false;
+      }
+      // The data container doesn't know about the entries that are only in the stores
+      Configuration configuration = advancedCache.getCacheConfiguration();
+      return !configuration.persistence().usingStores() || hasFlag(Flag.SKIP_CACHE_LOAD);
+   }
+
+   private long countSegments() throws Throwable {
+      AdvancedCache<Object, ?> advancedCache = cache.getAdvancedCache();
+      SegmentedDataContainer<?, ?> dataContainer = (SegmentedDataContainer<?, ?>) advancedCache.getDataContainer();
+      RpcManager rpcManager = advancedCache.getRpcManager();
+      if (rpcManager == null || hasFlag(Flag.CACHE_MODE_LOCAL)) {
+         return dataContainer.size();
+      }
+      ComponentRegistry componentRegistry = advancedCache.getComponentRegistry();
+      StateTransferManager stateTransferManager = componentRegistry.getStateTransferManager();
+      StateTransferLock stateTransferLock = componentRegistry.getComponent(StateTransferLock.class);
+      CommandsFactory commandsFactory = componentRegistry.getComponent(CommandsFactory.class);
+      long timeout = advancedCache.getCacheConfiguration().clustering().remoteTimeout();
+      while (true) {
+         CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+         try {
+            long size = countSegments(cacheTopology, dataContainer, rpcManager, commandsFactory);
+            if (stateTransferManager.getCacheTopology().getTopologyId() == cacheTopology.getTopologyId()) {
+               return size;
+            }
+         } catch (ExecutionException e) {
+            if (!isTopologyChange(e.getCause())) {
+               throw e.getCause();
+            }
+         } catch (OutdatedTopologyException e) {
+            // An owner could not count its segments
+         }
+         // Each segment must be counted on an owner of the same topology, so count all of them again
+         int newTopologyId = Math.max(stateTransferManager.getCacheTopology().getTopologyId(),
+               cacheTopology.getTopologyId() + 1);
+         if (trace) log.tracef("Counting the entries again in topology %d", newTopologyId);
+         stateTransferLock.waitForTopology(newTopologyId, timeout, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   private static boolean isTopologyChange(Throwable t) {
+      Throwable ce = t;
+      while (ce instanceof RemoteException) {
+         ce = ce.getCause();
+      }
+      return ce instanceof OutdatedTopologyException || ce instanceof SuspectException;
+   }
+
+   private long countSegments(CacheTopology cacheTopology, SegmentedDataContainer<?, ?> dataContainer,
+         RpcManager rpcManager, CommandsFactory commandsFactory) throws Exception {
+      // Count each segment on the local node if it owns it, otherwise on its primary owner
+      ConsistentHash readCH = cacheTopology.getReadConsistentHash();
+      Address localAddress = rpcManager.getAddress();
+      Set<Integer> localSegments = new HashSet<>();
+      Map<Address, Set<Integer>> remoteSegments = new HashMap<>();
+      for (int segment = 0; segment < readCH.getNumSegments(); ++segment) {
+         List<Address> owners = readCH.locateOwnersForSegment(segment);
+         if (owners.contains(localAddress)) {
+            localSegments.add(segment);
+         } else {
+            remoteSegments.computeIfAbsent(owners.get(0), owner -> new HashSet<>()).add(segment);
+         }
+      }
+
+      List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(remoteSegments.size());
+      for (Map.Entry<Address, Set<Integer>> entry : remoteSegments.entrySet()) {
+         SegmentSizeCommand command = commandsFactory.buildSegmentSizeCommand(entry.getValue());
+         command.setTopologyId(cacheTopology.getTopologyId());
+         futures.add(rpcManager.invokeRemotelyAsync(Collections.singleton(entry.getKey()), command,
+               rpcManager.getDefaultRpcOptions(true)));
+      }
+      long size = dataContainer.size(localSegments);
+      for (CompletableFuture<Map<Address, Response>> future : futures) {
+         for (Response response : future.get().values()) {
+            if (!(response instanceof SuccessfulResponse)) {
+               throw new OutdatedTopologyException("Unexpected response " + response + " while counting the entries");
+            }
+            size += (Integer) ((SuccessfulResponse) response).getResponseValue();
+         }
+      }
+      return size;
+   }
+
    @Override
    public String toString() {
       return "SizeCommand{}";
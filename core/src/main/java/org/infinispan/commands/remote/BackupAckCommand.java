@@ -0,0 +1,89 @@
+package org.infinispan.commands.remote;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.util.ByteString;
+import org.infinispan.util.concurrent.CommandAckCollector;
+
+/**
+ * Sent by a backup owner to the originator of a non-transactional write, once it applied the write received in a
+ * {@link BackupWriteRpcCommand}, or with the exception that prevented it from applying it.
+ *
+ * @since 9.0
+ */
+public class BackupAckCommand extends BaseRpcCommand {
+   public static final byte COMMAND_ID = 63;
+
+   private CommandInvocationId commandInvocationId;
+   private int topologyId;
+   private Throwable throwable;
+   private CommandAckCollector commandAckCollector;
+
+   private BackupAckCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public BackupAckCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public BackupAckCommand(ByteString cacheName, CommandInvocationId commandInvocationId, int topologyId,
+         Throwable throwable) {
+      super(cacheName);
+      this.commandInvocationId = commandInvocationId;
+      this.topologyId = topologyId;
+      this.throwable = throwable;
+   }
+
+   public void init(CommandAckCollector commandAckCollector) {
+      this.commandAckCollector = commandAckCollector;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      if (throwable == null) {
+         commandAckCollector.backupAck(commandInvocationId, getOrigin(), topologyId);
+      } else {
+         commandAckCollector.backupFailed(commandInvocationId, getOrigin(), topologyId, throwable);
+      }
+      return null;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      CommandInvocationId.writeTo(output, commandInvocationId);
+      output.writeInt(topologyId);
+      output.writeObject(throwable);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      commandInvocationId = CommandInvocationId.readFrom(input);
+      topologyId = input.readInt();
+      throwable = (Throwable) input.readObject();
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return "BackupAckCommand{" +
+            "cacheName=" + cacheName +
+            ", commandInvocationId=" + commandInvocationId +
+            ", topologyId=" + topologyId +
+            ", throwable=" + throwable +
+            '}';
+   }
+}
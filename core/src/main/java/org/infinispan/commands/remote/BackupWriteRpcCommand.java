@@ -0,0 +1,154 @@
+package org.infinispan.commands.remote;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.TopologyAffectedCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.ByteString;
+import org.infinispan.util.concurrent.CommandAckCollector;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Sent by the primary owner of a key to its backup owners to replicate a non-transactional write that was forwarded by
+ * another node. The backup owners apply the write and acknowledge it with a {@link BackupAckCommand} sent directly to
+ * the originator, so the primary owner does not need to wait for them.
+ * <p>
+ * The primary owner sends this command while it holds the lock of the key and with {@link DeliverOrder#PER_SENDER},
+ * so the backup owners receive the writes to the same key in the same order. The backup owners apply them on the
+ * remote executor, one at a time for each key, so that a write waiting for a topology does not block the delivery of
+ * the other messages.
+ * <p>
+ * The topology id of the command is the one the primary owner used to find the backup owners, and it is sent back in
+ * the acknowledgement, so that the originator can tell whether it waits for the right backup owners.
+ *
+ * @since 9.0
+ */
+public class BackupWriteRpcCommand extends BaseRpcInvokingCommand implements TopologyAffectedCommand {
+   public static final byte COMMAND_ID = 62;
+   private static final Log log = LogFactory.getLog(BackupWriteRpcCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private DataWriteCommand command;
+   private Address originator;
+   private int topologyId;
+   private RpcManager rpcManager;
+   private CommandsFactory commandsFactory;
+   private CommandAckCollector commandAckCollector;
+
+   private BackupWriteRpcCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public BackupWriteRpcCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public BackupWriteRpcCommand(ByteString cacheName, DataWriteCommand command, Address originator,
+         int topologyId) {
+      super(cacheName);
+      this.command = command;
+      this.originator = originator;
+      this.topologyId = topologyId;
+   }
+
+   public void init(InterceptorChain interceptorChain, InvocationContextFactory icf, RpcManager rpcManager,
+         CommandsFactory commandsFactory, CommandAckCollector commandAckCollector) {
+      init(interceptorChain, icf);
+      this.rpcManager = rpcManager;
+      this.commandsFactory = commandsFactory;
+      this.commandAckCollector = commandAckCollector;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      Throwable throwable = null;
+      try {
+         processVisitableCommand(command);
+      } catch (Throwable t) {
+         log.debugf(t, "Could not apply the backup write %s", command);
+         throwable = t;
+      }
+      CommandInvocationId id = command.getCommandInvocationId();
+      if (originator.equals(rpcManager.getAddress())) {
+         // The originator is a backup owner, no need to go through the transport
+         if (throwable == null) {
+            commandAckCollector.backupAck(id, originator, topologyId);
+         } else {
+            commandAckCollector.backupFailed(id, originator, topologyId, throwable);
+         }
+      } else {
+         if (trace) log.tracef("Acknowledging %s to %s", id, originator);
+         rpcManager.invokeRemotely(Collections.singleton(originator),
+               commandsFactory.buildBackupAckCommand(id, topologyId, throwable),
+               rpcManager.getDefaultRpcOptions(false, DeliverOrder.NONE));
+      }
+      return null;
+   }
+
+   public DataWriteCommand getCommand() {
+      return command;
+   }
+
+   public Address getOriginator() {
+      return originator;
+   }
+
+   @Override
+   public int getTopologyId() {
+      return topologyId;
+   }
+
+   @Override
+   public void setTopologyId(int topologyId) {
+      this.topologyId = topologyId;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeObject(command);
+      output.writeObject(originator);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      command = (DataWriteCommand) input.readObject();
+      originator = (Address) input.readObject();
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "BackupWriteRpcCommand{" +
+            "cacheName=" + cacheName +
+            ", command=" + command +
+            ", originator=" + originator +
+            ", topologyId=" + topologyId +
+            '}';
+   }
+}
@@ -0,0 +1,83 @@
+package org.infinispan.commands.remote;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.infinispan.commands.write.RemoveExpiredCommand;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.util.ByteString;
+
+/**
+ * Sends the expiration of several entries to their primary owner in a single RPC. The primary owner invokes each
+ * {@link RemoveExpiredCommand} as if it had been received on its own, so each of them is locked and replicated to the
+ * backup owners separately.
+ *
+ * @since 9.0
+ */
+public class RemoveExpiredBatchCommand extends BaseRpcInvokingCommand {
+   public static final byte COMMAND_ID = 61;
+
+   private Collection<RemoveExpiredCommand> commands;
+
+   private RemoveExpiredBatchCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public RemoveExpiredBatchCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public RemoveExpiredBatchCommand(ByteString cacheName, Collection<RemoveExpiredCommand> commands) {
+      super(cacheName);
+      this.commands = commands;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      for (RemoveExpiredCommand command : commands) {
+         processVisitableCommand(command);
+      }
+      return null;
+   }
+
+   public Collection<RemoveExpiredCommand> getCommands() {
+      return commands;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      MarshallUtil.marshallCollection(commands, output);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      commands = MarshallUtil.unmarshallCollection(input, ArrayList::new);
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "RemoveExpiredBatchCommand{" +
+            "cacheName=" + cacheName +
+            ", commands=" + commands +
+            '}';
+   }
+}
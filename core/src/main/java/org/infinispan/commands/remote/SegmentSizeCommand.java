@@ -0,0 +1,119 @@
+package org.infinispan.commands.remote;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.commands.TopologyAffectedCommand;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.util.ByteString;
+
+/**
+ * Asks an owner for the number of entries it holds in some segments, as part of {@link org.infinispan.Cache#size()}.
+ * The owner answers from the entry counts of its {@link SegmentedDataContainer} instead of iterating over the entries.
+ * An owner whose data container is not segmented iterates over its entries instead.
+ * <p>
+ * The segments are chosen from the read consistent hash of the originator's topology, so the command fails with an
+ * {@link OutdatedTopologyException} if the owner has installed a different topology in the meantime.
+ *
+ * @since 9.0
+ */
+public class SegmentSizeCommand extends BaseRpcCommand implements TopologyAffectedCommand {
+   public static final byte COMMAND_ID = 64;
+
+   private Set<Integer> segments;
+   private int topologyId = -1;
+   private DataContainer<?, ?> dataContainer;
+   private StateTransferManager stateTransferManager;
+
+   private SegmentSizeCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public SegmentSizeCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public SegmentSizeCommand(ByteString cacheName, Set<Integer> segments) {
+      super(cacheName);
+      this.segments = segments;
+   }
+
+   public void init(DataContainer<?, ?> dataContainer, StateTransferManager stateTransferManager) {
+      this.dataContainer = dataContainer;
+      this.stateTransferManager = stateTransferManager;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
+      if (currentTopologyId != topologyId) {
+         throw new OutdatedTopologyException("Cache topology changed from " + topologyId + " to " + currentTopologyId);
+      }
+      if (dataContainer instanceof SegmentedDataContainer) {
+         return ((SegmentedDataContainer<?, ?>) dataContainer).size(segments);
+      }
+      ConsistentHash readCH = stateTransferManager.getCacheTopology().getReadConsistentHash();
+      int size = 0;
+      for (InternalCacheEntry<?, ?> entry : dataContainer) {
+         if (segments.contains(readCH.getSegment(entry.getKey()))) {
+            size++;
+         }
+      }
+      return size;
+   }
+
+   public Set<Integer> getSegments() {
+      return segments;
+   }
+
+   @Override
+   public int getTopologyId() {
+      return topologyId;
+   }
+
+   @Override
+   public void setTopologyId(int topologyId) {
+      this.topologyId = topologyId;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      MarshallUtil.marshallCollection(segments, output);
+      output.writeInt(topologyId);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      segments = MarshallUtil.unmarshallCollectionUnbounded(input, HashSet::new);
+      topologyId = input.readInt();
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "SegmentSizeCommand{" +
+            "cacheName=" + cacheName +
+            ", segments=" + segments +
+            ", topologyId=" + topologyId +
+            '}';
+   }
+}
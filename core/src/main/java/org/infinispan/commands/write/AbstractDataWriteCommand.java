@@ -52,6 +52,11 @@ public final Object getKeyLockOwner() {
       return commandInvocationId;
    }
 
+   @Override
+   public final CommandInvocationId getCommandInvocationId() {
+      return commandInvocationId;
+   }
+
    @Override
    public final boolean hasZeroLockAcquisition() {
       return hasFlag(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT);
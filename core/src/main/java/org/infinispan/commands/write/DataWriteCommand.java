@@ -1,5 +1,6 @@
 package org.infinispan.commands.write;
 
+import org.infinispan.commands.CommandInvocationId;
 import org.infinispan.commands.DataCommand;
 
 /**
@@ -9,4 +10,9 @@
  * @since 4.0
  */
 public interface DataWriteCommand extends WriteCommand, DataCommand {
+
+   /**
+    * @return the id that identifies this invocation of the command in the cluster, also when it is retried
+    */
+   CommandInvocationId getCommandInvocationId();
 }
@@ -98,6 +98,13 @@ public Object perform(InvocationContext ctx) throws Throwable {
       return false;
    }
 
+   /**
+    * @return the lifespan of the expired entry, or {@code null} if it was expired from a store
+    */
+   public Long getLifespan() {
+      return lifespan;
+   }
+
    @Override
    public boolean isConditional() {
       return true;
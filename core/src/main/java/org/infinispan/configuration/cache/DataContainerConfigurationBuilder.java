@@ -95,6 +95,18 @@ public <V> DataContainerConfigurationBuilder valueEquivalence(Equivalence<V> val
       return this;
    }
 
+   /**
+    * Sets the equivalence of the keys and of the values, unless they were explicitly configured.
+    */
+   void defaultEquivalence(Equivalence<?> equivalence) {
+      if (!attributes.attribute(KEY_EQUIVALENCE).isModified()) {
+         attributes.attribute(KEY_EQUIVALENCE).set(equivalence);
+      }
+      if (!attributes.attribute(VALUE_EQUIVALENCE).isModified()) {
+         attributes.attribute(VALUE_EQUIVALENCE).set(equivalence);
+      }
+   }
+
    @Override
    public void validate() {
    }
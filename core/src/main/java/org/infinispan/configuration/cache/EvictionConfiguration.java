@@ -3,6 +3,8 @@
 import org.infinispan.commons.configuration.attributes.Attribute;
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.configuration.attributes.SimpleInstanceAttributeCopier;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.eviction.EvictionType;
@@ -18,15 +20,21 @@ public class EvictionConfiguration {
    public static final AttributeDefinition<EvictionType> TYPE  = AttributeDefinition.builder("type", EvictionType.COUNT).build();
    public static final AttributeDefinition<EvictionStrategy> STRATEGY = AttributeDefinition.builder("strategy", EvictionStrategy.NONE).immutable().build();
    public static final AttributeDefinition<EvictionThreadPolicy> THREAD_POLICY = AttributeDefinition.builder("threadPolicy", EvictionThreadPolicy.DEFAULT).immutable().build();
+   public static final AttributeDefinition<StorageType> STORAGE = AttributeDefinition.builder("storage", StorageType.OBJECT).immutable().build();
+   public static final AttributeDefinition<EntrySizeCalculator> SIZE_CALCULATOR = AttributeDefinition
+         .builder("sizeCalculator", null, EntrySizeCalculator.class)
+         .copier(SimpleInstanceAttributeCopier.INSTANCE).immutable().build();
    static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(EvictionConfiguration.class, SIZE,
-            TYPE, STRATEGY, THREAD_POLICY);
+            TYPE, STRATEGY, THREAD_POLICY, STORAGE, SIZE_CALCULATOR);
    }
 
    private final Attribute<Long> size;
    private final Attribute<EvictionType> type;
    private final Attribute<EvictionStrategy> strategy;
    private final Attribute<EvictionThreadPolicy> threadPolicy;
+   private final Attribute<StorageType> storage;
+   private final Attribute<EntrySizeCalculator> sizeCalculator;
    private final AttributeSet attributes;
 
    EvictionConfiguration(AttributeSet attributes) {
@@ -35,6 +43,8 @@ static AttributeSet attributeDefinitionSet() {
       type = attributes.attribute(TYPE);
       strategy = attributes.attribute(STRATEGY);
       threadPolicy = attributes.attribute(THREAD_POLICY);
+      storage = attributes.attribute(STORAGE);
+      sizeCalculator = attributes.attribute(SIZE_CALCULATOR);
    }
 
    /**
@@ -77,6 +87,22 @@ public EvictionType type() {
       return type.get();
    }
 
+   /**
+    * The storage type used by the data container. When {@link StorageType#OFF_HEAP} is used, a MEMORY based eviction
+    * bounds the number of native bytes allocated by the container.
+    */
+   public StorageType storage() {
+      return storage.get();
+   }
+
+   /**
+    * The calculator used to estimate the size of each entry when using MEMORY based eviction. When not configured, a
+    * calculator suited to the storage settings of the cache is used.
+    */
+   public EntrySizeCalculator<Object, Object> sizeCalculator() {
+      return sizeCalculator.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
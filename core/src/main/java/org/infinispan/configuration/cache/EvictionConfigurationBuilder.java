@@ -1,6 +1,8 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.EvictionConfiguration.SIZE;
+import static org.infinispan.configuration.cache.EvictionConfiguration.SIZE_CALCULATOR;
+import static org.infinispan.configuration.cache.EvictionConfiguration.STORAGE;
 import static org.infinispan.configuration.cache.EvictionConfiguration.STRATEGY;
 import static org.infinispan.configuration.cache.EvictionConfiguration.THREAD_POLICY;
 import static org.infinispan.configuration.cache.EvictionConfiguration.TYPE;
@@ -8,6 +10,8 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.equivalence.ByteArrayEquivalence;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
@@ -30,7 +34,7 @@ public class EvictionConfigurationBuilder extends AbstractConfigurationChildBuil
    }
 
    /**
-    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS' and 'NONE' (to disable
+    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS', 'TINY_LFU' and 'NONE' (to disable
     * eviction).
     *
     * @param evictionStrategy
@@ -98,6 +102,37 @@ public EvictionConfigurationBuilder type(EvictionType type) {
       return this;
    }
 
+   /**
+    * Sets where the data container stores its entries. {@link StorageType#OBJECT} keeps entries as objects on the
+    * Java heap, {@link StorageType#BINARY} keeps byte[] keys and values untouched all the way to the cache stores,
+    * whereas {@link StorageType#OFF_HEAP} stores marshalled keys, values and metadata in native memory.
+    * <p>
+    * {@link StorageType#BINARY} also makes the data container compare keys and values with
+    * {@link ByteArrayEquivalence}, unless another equivalence was explicitly configured, which is then rejected.
+    *
+    * @param storage
+    */
+   public EvictionConfigurationBuilder storage(StorageType storage) {
+      attributes.attribute(STORAGE).set(storage);
+      if (storage == StorageType.BINARY) {
+         // byte[] keys and values must be compared by content
+         getBuilder().dataContainer().defaultEquivalence(ByteArrayEquivalence.INSTANCE);
+      }
+      return this;
+   }
+
+   /**
+    * Sets the calculator used to estimate the size of each key and value when using {@link EvictionType#MEMORY}
+    * eviction with on-heap storage. By default entries stored as binary are sized from their marshalled form, while
+    * any other object is sized from its field layout.
+    *
+    * @param sizeCalculator
+    */
+   public EvictionConfigurationBuilder sizeCalculator(EntrySizeCalculator<?, ?> sizeCalculator) {
+      attributes.attribute(SIZE_CALCULATOR).set(sizeCalculator);
+      return this;
+   }
+
    @Override
    public void validate() {
       EvictionStrategy strategy = attributes.attribute(STRATEGY).get();
@@ -108,7 +143,7 @@ public void validate() {
          throw new CacheConfigurationException("Eviction maxEntries value cannot be less than or equal to zero if eviction is enabled");
       if (!strategy.isEnabled()) {
          if (maxEntries > 0) {
-            strategy(EvictionStrategy.LIRS);
+            strategy(attributes.attribute(STORAGE).get() == StorageType.OFF_HEAP ? EvictionStrategy.LRU : EvictionStrategy.LIRS);
             log.debugf("Max entries configured (%d) without eviction strategy. Eviction strategy overriden to %s", maxEntries, strategy);
          } else if (getBuilder().persistence().passivation() && strategy != EvictionStrategy.MANUAL) {
             log.passivationWithoutEviction();
@@ -117,10 +152,24 @@ public void validate() {
       if (strategy == EvictionStrategy.LIRS && attributes.attribute(TYPE).get() == EvictionType.MEMORY) {
          throw new CacheConfigurationException("Eviction cannot use memory based approximation with LIRS");
       }
+      if (attributes.attribute(STORAGE).get() == StorageType.OFF_HEAP &&
+            (strategy() == EvictionStrategy.LIRS || strategy() == EvictionStrategy.TINY_LFU)) {
+         throw log.offHeapUnsupportedEvictionStrategy(strategy());
+      }
+      if (attributes.attribute(STORAGE).get() == StorageType.BINARY) {
+         if (getBuilder().storeAsBinary().create().enabled() || getBuilder().compatibility().create().enabled()) {
+            throw log.binaryStorageRequiresRawBytes();
+         }
+         DataContainerConfiguration dataContainer = getBuilder().dataContainer().create();
+         if (!(dataContainer.keyEquivalence() instanceof ByteArrayEquivalence)
+               || !(dataContainer.valueEquivalence() instanceof ByteArrayEquivalence)) {
+            throw log.binaryStorageRequiresByteArrayEquivalence();
+         }
+      }
       if (maxEntries > EVICTION_MAX_SIZE) {
          throw log.evictionSizeTooLarge(maxEntries);
       }
-      if (attributes.attribute(TYPE).get() == EvictionType.MEMORY) {
+      if (attributes.attribute(TYPE).get() == EvictionType.MEMORY && attributes.attribute(STORAGE).get() == StorageType.OBJECT) {
          String javaVM = SecurityActions.getSystemProperty("java.vm.name");
          if (!javaVM.contains("HotSpot")) {
             log.memoryApproximationUnsupportedVM(javaVM);
@@ -14,15 +14,19 @@ public class ExpirationConfiguration {
    public static final AttributeDefinition<Long> MAX_IDLE = AttributeDefinition.builder("maxIdle", -1l).build();
    public static final AttributeDefinition<Boolean> REAPER_ENABLED = AttributeDefinition.builder("reaperEnabled", true).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Long> WAKEUP_INTERVAL = AttributeDefinition.builder("wakeUpInterval", TimeUnit.MINUTES.toMillis(1)).xmlName("interval").build();
+   public static final AttributeDefinition<Integer> BATCH_SIZE = AttributeDefinition.builder("batchSize", 100).build();
+   public static final AttributeDefinition<Long> BATCH_LATENCY = AttributeDefinition.builder("batchLatency", 100l).build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL);
+      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL, BATCH_SIZE, BATCH_LATENCY);
    }
 
    private final Attribute<Long> lifespan;
    private final Attribute<Long> maxIdle;
    private final Attribute<Boolean> reaperEnabled;
    private final Attribute<Long> wakeUpInterval;
+   private final Attribute<Integer> batchSize;
+   private final Attribute<Long> batchLatency;
    private final AttributeSet attributes;
 
    ExpirationConfiguration(AttributeSet attributes) {
@@ -31,6 +35,8 @@ static AttributeSet attributeDefinitionSet() {
       maxIdle = attributes.attribute(MAX_IDLE);
       reaperEnabled = attributes.attribute(REAPER_ENABLED);
       wakeUpInterval = attributes.attribute(WAKEUP_INTERVAL);
+      batchSize = attributes.attribute(BATCH_SIZE);
+      batchLatency = attributes.attribute(BATCH_LATENCY);
    }
 
    /**
@@ -71,6 +77,22 @@ public long wakeUpInterval() {
       return wakeUpInterval.get();
    }
 
+   /**
+    * Maximum number of expired entries with the same primary owner that are removed with a single RPC in clustered
+    * caches. 1 means every expired entry is removed with its own RPC.
+    */
+   public int batchSize() {
+      return batchSize.get();
+   }
+
+   /**
+    * Maximum time (in milliseconds) an expired entry waits for its batch to fill up before the batch is sent to the
+    * primary owner anyway.
+    */
+   public long batchLatency() {
+      return batchLatency.get();
+   }
+
    @Override
    public String toString() {
       return "ExpirationConfiguration [attributes=" + attributes + "]";
@@ -1,21 +1,26 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.ExpirationConfiguration.BATCH_LATENCY;
+import static org.infinispan.configuration.cache.ExpirationConfiguration.BATCH_SIZE;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.LIFESPAN;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.MAX_IDLE;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.REAPER_ENABLED;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.WAKEUP_INTERVAL;
 
+import java.lang.invoke.MethodHandles;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Controls the default expiration settings for entries in the cache.
  */
 public class ExpirationConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<ExpirationConfiguration> {
-
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass(), Log.class);
 
    private final AttributeSet attributes;
 
@@ -123,8 +128,39 @@ public ExpirationConfigurationBuilder wakeUpInterval(long l, TimeUnit unit) {
       return wakeUpInterval(unit.toMillis(l));
    }
 
+   /**
+    * Maximum number of expired entries with the same primary owner that are removed with a single RPC in clustered
+    * caches. 1 means every expired entry is removed with its own RPC.
+    */
+   public ExpirationConfigurationBuilder batchSize(int batchSize) {
+      attributes.attribute(BATCH_SIZE).set(batchSize);
+      return this;
+   }
+
+   /**
+    * Maximum time (in milliseconds) an expired entry waits for its batch to fill up before the batch is sent to the
+    * primary owner anyway.
+    */
+   public ExpirationConfigurationBuilder batchLatency(long l) {
+      attributes.attribute(BATCH_LATENCY).set(l);
+      return this;
+   }
+
+   /**
+    * Maximum time an expired entry waits for its batch to fill up before the batch is sent to the primary owner
+    * anyway.
+    */
+   public ExpirationConfigurationBuilder batchLatency(long l, TimeUnit unit) {
+      return batchLatency(unit.toMillis(l));
+   }
+
    @Override
    public void validate() {
+      int batchSize = attributes.attribute(BATCH_SIZE).get();
+      long batchLatency = attributes.attribute(BATCH_LATENCY).get();
+      if (batchSize < 1 || batchLatency < 0) {
+         throw log.invalidExpirationBatch(batchSize, batchLatency);
+      }
    }
 
    @Override
@@ -28,10 +28,11 @@ public class HashConfiguration {
    public static final AttributeDefinition<KeyPartitioner> KEY_PARTITIONER = AttributeDefinition
          .builder("keyPartitioner", new HashFunctionPartitioner(), KeyPartitioner.class)
          .copier(SimpleInstanceAttributeCopier.INSTANCE).immutable().build();
+   public static final AttributeDefinition<Boolean> TRIANGLE = AttributeDefinition.builder("triangle", false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(HashConfiguration.class, CONSISTENT_HASH_FACTORY, HASH, NUM_OWNERS,
-            NUM_SEGMENTS, CAPACITY_FACTOR, KEY_PARTITIONER);
+            NUM_SEGMENTS, CAPACITY_FACTOR, KEY_PARTITIONER, TRIANGLE);
    }
 
    private final Attribute<ConsistentHashFactory> consistentHashFactory;
@@ -40,6 +41,7 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<Integer> numSegments;
    private final Attribute<Float> capacityFactor;
    private final Attribute<KeyPartitioner> keyPartitioner;
+   private final Attribute<Boolean> triangle;
 
    private final GroupsConfiguration groupsConfiguration;
    private final StateTransferConfiguration stateTransferConfiguration;
@@ -56,6 +58,7 @@ static AttributeSet attributeDefinitionSet() {
       numSegments = attributes.attribute(NUM_SEGMENTS);
       capacityFactor = attributes.attribute(CAPACITY_FACTOR);
       keyPartitioner = attributes.attribute(KEY_PARTITIONER);
+      triangle = attributes.attribute(TRIANGLE);
    }
 
    /**
@@ -144,6 +147,14 @@ public KeyPartitioner keyPartitioner() {
       return keyPartitioner.get();
    }
 
+   /**
+    * If true, the primary owner of a key replicates the synchronous non-transactional writes forwarded by other nodes
+    * without waiting for the backup owners, which acknowledge the write directly to the originator.
+    */
+   public boolean triangle() {
+      return triangle.get();
+   }
+
    /**
     * Configuration for various grouper definitions. See the user guide for more information.
     */
@@ -6,6 +6,7 @@
 import static org.infinispan.configuration.cache.HashConfiguration.KEY_PARTITIONER;
 import static org.infinispan.configuration.cache.HashConfiguration.NUM_OWNERS;
 import static org.infinispan.configuration.cache.HashConfiguration.NUM_SEGMENTS;
+import static org.infinispan.configuration.cache.HashConfiguration.TRIANGLE;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
@@ -179,6 +180,21 @@ public HashConfigurationBuilder keyPartitioner(KeyPartitioner keyPartitioner) {
       return this;
    }
 
+   /**
+    * Enables the triangle write protocol for synchronous non-transactional caches. When a node writes a key it does
+    * not own as primary, the primary owner sends the write to the backup owners without waiting for them, and the
+    * backup owners acknowledge it directly to the originator. This saves half a round trip per write and does not block
+    * a thread on the primary owner while the backup owners apply the write.
+    * <p>
+    * Ignored in transactional and asynchronous caches.
+    *
+    * @since 9.0
+    */
+   public HashConfigurationBuilder triangle(boolean enabled) {
+      attributes.attribute(TRIANGLE).set(enabled);
+      return this;
+   }
+
    public GroupsConfigurationBuilder groups() {
       return groupsConfigurationBuilder;
    }
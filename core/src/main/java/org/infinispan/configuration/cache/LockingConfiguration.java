@@ -19,9 +19,10 @@ public class LockingConfiguration {
    public static final AttributeDefinition<Long> LOCK_ACQUISITION_TIMEOUT  = AttributeDefinition.builder("lockAcquisitionTimeout", TimeUnit.SECONDS.toMillis(10)).xmlName("acquire-timeout").build();
    public static final AttributeDefinition<Boolean> USE_LOCK_STRIPING = AttributeDefinition.builder("striping", false).immutable().build();
    public static final AttributeDefinition<Boolean> WRITE_SKEW_CHECK = AttributeDefinition.builder("writeSkewCheck", false).xmlName("write-skew").immutable().build();
+   public static final AttributeDefinition<Boolean> PER_KEY_ORDERING = AttributeDefinition.builder("perKeyOrdering", false).immutable().build();
 
    static final AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(LockingConfiguration.class, CONCURRENCY_LEVEL, ISOLATION_LEVEL, LOCK_ACQUISITION_TIMEOUT, USE_LOCK_STRIPING, WRITE_SKEW_CHECK);
+      return new AttributeSet(LockingConfiguration.class, CONCURRENCY_LEVEL, ISOLATION_LEVEL, LOCK_ACQUISITION_TIMEOUT, USE_LOCK_STRIPING, WRITE_SKEW_CHECK, PER_KEY_ORDERING);
    }
 
    private final Attribute<Integer> concurrencyLevel;
@@ -29,6 +30,7 @@ static final AttributeSet attributeDefinitionSet() {
    private final Attribute<Long> lockAcquisitionTimeout;
    private final Attribute<Boolean> useLockStriping;
    private final Attribute<Boolean> writeSkewCheck;
+   private final Attribute<Boolean> perKeyOrdering;
 
    private final AttributeSet attributes;
 
@@ -40,6 +42,7 @@ static final AttributeSet attributeDefinitionSet() {
       lockAcquisitionTimeout = attributes.attribute(LOCK_ACQUISITION_TIMEOUT);
       useLockStriping = attributes.attribute(USE_LOCK_STRIPING);
       writeSkewCheck = attributes.attribute(WRITE_SKEW_CHECK);
+      perKeyOrdering = attributes.attribute(PER_KEY_ORDERING);
    }
 
    /**
@@ -104,6 +107,14 @@ public boolean writeSkewCheck() {
       return writeSkewCheck.get();
    }
 
+   /**
+    * If true, the writes received by the primary owner from other nodes are queued per key and executed one at a
+    * time, instead of each of them taking a remote executor thread while it waits for the lock.
+    */
+   public boolean perKeyOrdering() {
+      return perKeyOrdering.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -3,6 +3,7 @@
 import static org.infinispan.configuration.cache.LockingConfiguration.CONCURRENCY_LEVEL;
 import static org.infinispan.configuration.cache.LockingConfiguration.ISOLATION_LEVEL;
 import static org.infinispan.configuration.cache.LockingConfiguration.LOCK_ACQUISITION_TIMEOUT;
+import static org.infinispan.configuration.cache.LockingConfiguration.PER_KEY_ORDERING;
 import static org.infinispan.configuration.cache.LockingConfiguration.USE_LOCK_STRIPING;
 import static org.infinispan.configuration.cache.LockingConfiguration.WRITE_SKEW_CHECK;
 
@@ -104,6 +105,21 @@ public LockingConfigurationBuilder writeSkewCheck(boolean b) {
       return this;
    }
 
+   /**
+    * If true, the non-transactional writes received by the primary owner from other nodes are serialized per key
+    * before they are handed to the remote executor: a write waits in a queue while an earlier write of the same key is
+    * running, instead of occupying a thread while it waits for the lock. Writes of other keys, and the writes received
+    * as backup owner, still run in parallel.
+    * <p>
+    * Ignored in local and transactional caches.
+    *
+    * @since 9.0
+    */
+   public LockingConfigurationBuilder perKeyOrdering(boolean b) {
+      attributes.attribute(PER_KEY_ORDERING).set(b);
+      return this;
+   }
+
    @Override
    public void validate() {
       if (attributes.attribute(WRITE_SKEW_CHECK).get()) {
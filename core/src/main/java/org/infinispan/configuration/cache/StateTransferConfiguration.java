@@ -17,15 +17,28 @@ public class StateTransferConfiguration {
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder("fetchInMemoryState", true).xmlName("enabled").immutable().build();
    public static final AttributeDefinition<Long> TIMEOUT = AttributeDefinition.builder("timeout", TimeUnit.MINUTES.toMillis(4)).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder("chunkSize", 512).immutable().build();
+   public static final AttributeDefinition<Integer> CHUNK_BYTES = AttributeDefinition.builder("chunkBytes", 0).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_IN_FLIGHT_CHUNKS = AttributeDefinition.builder("maxInFlightChunks", 1).immutable().build();
+   public static final AttributeDefinition<Boolean> COMPRESSION = AttributeDefinition.builder("compression", false).immutable().build();
+   public static final AttributeDefinition<Boolean> TRANSFER_STORE_RECORDS = AttributeDefinition.builder("transferStoreRecords", false).immutable().build();
+   public static final AttributeDefinition<Integer> DIGEST_BUCKETS = AttributeDefinition.builder("digestBuckets", 0).immutable().build();
+   public static final AttributeDefinition<Boolean> BULK_APPLY = AttributeDefinition.builder("bulkApply", false).immutable().build();
 
    static final AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StoreAsBinaryConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StoreAsBinaryConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER, BULK_APPLY,
+            CHUNK_BYTES, MAX_IN_FLIGHT_CHUNKS, COMPRESSION, TRANSFER_STORE_RECORDS, DIGEST_BUCKETS);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
    private final Attribute<Boolean> fetchInMemoryState;
    private final Attribute<Long> timeout;
    private final Attribute<Integer> chunkSize;
+   private final Attribute<Boolean> bulkApply;
+   private final Attribute<Integer> chunkBytes;
+   private final Attribute<Integer> maxInFlightChunks;
+   private final Attribute<Boolean> compression;
+   private final Attribute<Boolean> transferStoreRecords;
+   private final Attribute<Integer> digestBuckets;
    private final AttributeSet attributes;
 
    StateTransferConfiguration(AttributeSet attributes) {
@@ -34,6 +47,12 @@ static final AttributeSet attributeDefinitionSet() {
       fetchInMemoryState = attributes.attribute(FETCH_IN_MEMORY_STATE);
       timeout = attributes.attribute(TIMEOUT);
       chunkSize = attributes.attribute(CHUNK_SIZE);
+      bulkApply = attributes.attribute(BULK_APPLY);
+      chunkBytes = attributes.attribute(CHUNK_BYTES);
+      maxInFlightChunks = attributes.attribute(MAX_IN_FLIGHT_CHUNKS);
+      compression = attributes.attribute(COMPRESSION);
+      transferStoreRecords = attributes.attribute(TRANSFER_STORE_RECORDS);
+      digestBuckets = attributes.attribute(DIGEST_BUCKETS);
    }
 
    /**
@@ -73,6 +92,54 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * If {@code true}, the received state chunks are inserted directly in the data container and the private stores,
+    * instead of invoking a put command for every received entry. The chunks are still applied one entry at a time
+    * while the cache has listeners.
+    */
+   public boolean bulkApply() {
+      return bulkApply.get();
+   }
+
+   /**
+    * If &gt; 0, the entries are marshalled by the sender and a chunk is sent as soon as it reaches {@code chunkBytes}
+    * bytes, even if it has less than {@link #chunkSize()} entries.
+    */
+   public int chunkBytes() {
+      return chunkBytes.get();
+   }
+
+   /**
+    * The number of chunks a sender can send to the same destination before the destination has applied the previous
+    * ones.
+    */
+   public int maxInFlightChunks() {
+      return maxInFlightChunks.get();
+   }
+
+   /**
+    * If {@code true}, the entries are marshalled and compressed by the sender.
+    */
+   public boolean compression() {
+      return compression.get();
+   }
+
+   /**
+    * If {@code true}, the entries fetched from a store that supports it are sent in the form they are stored in, and
+    * imported as is by the same kind of store on the receiver.
+    */
+   public boolean transferStoreRecords() {
+      return transferStoreRecords.get();
+   }
+
+   /**
+    * If &gt; 0, the receiver sends a digest of the entries it already has, with this number of buckets per segment, and
+    * the sender skips the buckets that hold the same entries.
+    */
+   public int digestBuckets() {
+      return digestBuckets.get();
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -1,9 +1,15 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.StateTransferConfiguration.AWAIT_INITIAL_TRANSFER;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.BULK_APPLY;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_BYTES;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.COMPRESSION;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.DIGEST_BUCKETS;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.FETCH_IN_MEMORY_STATE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.MAX_IN_FLIGHT_CHUNKS;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.TIMEOUT;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.TRANSFER_STORE_RECORDS;
 
 import java.util.concurrent.TimeUnit;
 
@@ -63,6 +69,68 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * If {@code true}, the received state is inserted directly in the data container and the private stores, one chunk
+    * at a time, instead of invoking a put command (and, in transactional caches, a transaction) for every received
+    * entry. Keys updated by regular operations during the state transfer are still not overwritten. Interceptors are
+    * bypassed, so it cannot be enabled together with indexing, compatibility mode or custom interceptors. Defaults to
+    * {@code false}.
+    */
+   public StateTransferConfigurationBuilder bulkApply(boolean b) {
+      attributes.attribute(BULK_APPLY).set(b);
+      return this;
+   }
+
+   /**
+    * If &gt; 0, the entries are marshalled by the sender, and a chunk is sent as soon as its entries reach
+    * {@code chunkBytes} bytes, so that large values do not produce huge messages. The {@link #chunkSize(int)} still
+    * bounds the number of entries in a chunk. Defaults to 0 (chunks are only bounded by the number of entries).
+    */
+   public StateTransferConfigurationBuilder chunkBytes(int chunkBytes) {
+      attributes.attribute(CHUNK_BYTES).set(chunkBytes);
+      return this;
+   }
+
+   /**
+    * The number of chunks a sender can send to the same destination before the destination has applied the previous
+    * ones. Each applied chunk gives the sender a credit to send another one. Defaults to 1.
+    */
+   public StateTransferConfigurationBuilder maxInFlightChunks(int maxInFlightChunks) {
+      attributes.attribute(MAX_IN_FLIGHT_CHUNKS).set(maxInFlightChunks);
+      return this;
+   }
+
+   /**
+    * If {@code true}, the entries are marshalled and compressed by the sender, trading CPU for network bandwidth.
+    * Defaults to {@code false}.
+    */
+   public StateTransferConfigurationBuilder compression(boolean compression) {
+      attributes.attribute(COMPRESSION).set(compression);
+      return this;
+   }
+
+   /**
+    * If {@code true}, the entries fetched from a store that implements
+    * {@link org.infinispan.persistence.spi.TransferableStore} are sent in the form they are stored in, without
+    * unmarshalling them, and the same kind of store on the receiver imports them directly, bypassing the data container
+    * and its regular write path. Only applies if the store fetches persistent state. Defaults to {@code false}.
+    */
+   public StateTransferConfigurationBuilder transferStoreRecords(boolean transferStoreRecords) {
+      attributes.attribute(TRANSFER_STORE_RECORDS).set(transferStoreRecords);
+      return this;
+   }
+
+   /**
+    * If &gt; 0, a node requesting segments sends a digest of the entries it already holds in them, splitting each
+    * segment in {@code digestBuckets} buckets, and the sender only sends the entries of the buckets whose digest differs.
+    * This saves bandwidth when a node rejoins with most of its previous entries, e.g. in a persistent store, at the cost
+    * of reading the entries twice on both sides. Defaults to 0 (all the entries are sent).
+    */
+   public StateTransferConfigurationBuilder digestBuckets(int digestBuckets) {
+      attributes.attribute(DIGEST_BUCKETS).set(digestBuckets);
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -85,6 +153,24 @@ public void validate() {
       if (attributes.attribute(CHUNK_SIZE).get() <= 0) {
          throw new CacheConfigurationException("chunkSize can not be <= 0");
       }
+      if (attributes.attribute(CHUNK_BYTES).get() < 0) {
+         throw new CacheConfigurationException("chunkBytes can not be < 0");
+      }
+      if (attributes.attribute(MAX_IN_FLIGHT_CHUNKS).get() <= 0) {
+         throw new CacheConfigurationException("maxInFlightChunks can not be <= 0");
+      }
+      if (attributes.attribute(DIGEST_BUCKETS).get() < 0) {
+         throw new CacheConfigurationException("digestBuckets can not be < 0");
+      }
+
+      if (attributes.attribute(BULK_APPLY).get()) {
+         ConfigurationBuilder builder = getBuilder();
+         if (builder.indexing().enabled() || builder.compatibility().create().enabled()
+               || !builder.customInterceptors().create().interceptors().isEmpty()) {
+            throw new CacheConfigurationException(
+                  "bulkApply cannot be enabled together with indexing, compatibility mode or custom interceptors.");
+         }
+      }
 
       Attribute<Boolean> awaitInitialTransfer = attributes.attribute(AWAIT_INITIAL_TRANSFER);
       if (awaitInitialTransfer.isModified() && awaitInitialTransfer.get()
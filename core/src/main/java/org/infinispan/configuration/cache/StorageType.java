@@ -0,0 +1,24 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining the various storage types for the data container.
+ *
+ * @since 9.0
+ */
+public enum StorageType {
+   /**
+    * Objects are stored on the Java heap as they are passed to the cache.
+    */
+   OBJECT,
+   /**
+    * Keys and values are byte arrays, such as the ones received by the Hot Rod server, which are kept untouched in
+    * the data container, handed to the cache stores without being marshalled again and compared by content. Other
+    * key or value types are not supported.
+    */
+   BINARY,
+   /**
+    * Entries are stored in native memory outside of the Java heap in their marshalled form. Keys, values and
+    * metadata are only unmarshalled on demand, so the heap only holds transient objects.
+    */
+   OFF_HEAP,
+}
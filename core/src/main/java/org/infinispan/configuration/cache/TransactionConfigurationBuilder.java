@@ -14,6 +14,7 @@
 import static org.infinispan.configuration.cache.TransactionConfiguration.TRANSACTION_PROTOCOL;
 import static org.infinispan.configuration.cache.TransactionConfiguration.TRANSACTION_SYNCHRONIZATION_REGISTRY_LOOKUP;
 import static org.infinispan.configuration.cache.TransactionConfiguration.USE_1_PC_FOR_AUTO_COMMIT_TRANSACTIONS;
+import static org.infinispan.configuration.cache.TransactionConfiguration.USE_1_PC_FOR_SINGLE_OWNER_TRANSACTIONS;
 import static org.infinispan.configuration.cache.TransactionConfiguration.USE_EAGER_LOCKING;
 import static org.infinispan.configuration.cache.TransactionConfiguration.USE_SYNCHRONIZATION;
 
@@ -253,6 +254,17 @@ public TransactionConfigurationBuilder use1PcForAutoCommitTransactions(boolean b
       return this;
    }
 
+   /**
+    * Commits the optimistic transactions whose modified keys are all owned by the same single node in one phase,
+    * saving the round trip of the commit RPC. Only used for the transactions in which the cache is the only
+    * participant, i.e. auto-commit transactions and batches that did not enlist any other resource, and by
+    * distributed caches without write skew check, recovery or L1. Defaults to false.
+    */
+   public TransactionConfigurationBuilder use1PcForSingleOwnerTransactions(boolean b) {
+      attributes.attribute(USE_1_PC_FOR_SINGLE_OWNER_TRANSACTIONS).set(b);
+      return this;
+   }
+
    /**
     *The time interval (millis) at which the thread that cleans up transaction completion information kicks in. Defaults to 30000.
     */
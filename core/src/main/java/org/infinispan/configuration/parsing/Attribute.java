@@ -26,18 +26,24 @@ public enum Attribute {
     AUTO_CONFIG("auto-config"),
     AWAIT_INITIAL_TRANSFER("await-initial-transfer"),
     BACKUP_FAILURE_POLICY("failure-policy"),
+    BATCH_LATENCY("batch-latency"),
+    BATCH_SIZE("batch-size"),
     BEFORE("before"),
+    BULK_APPLY("bulk-apply"),
     CAPACITY_FACTOR("capacity"),
+    CHUNK_BYTES("chunk-bytes"),
     CHUNK_SIZE("chunk-size"),
     CLASS("class"),
     CLUSTER("cluster"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
+    COMPRESSION("compression"),
     CONCURRENCY_LEVEL("concurrency-level"),
     CONFIGURATION("configuration"),
     CONSISTENT_HASH_FACTORY("consistent-hash-factory"),
     CORE_THREADS("core-threads"),
     DATA_CONTAINER("data-container"),
     DEFAULT_CACHE("default-cache"),
+    DIGEST_BUCKETS("digest-buckets"),
     ENABLED("enabled"),
     EXECUTOR("executor"),
     @Deprecated
@@ -71,6 +77,7 @@ public enum Attribute {
     MARSHALLER_CLASS("marshaller"),
     MAX_ENTRIES("max-entries"),
     MAX_IDLE("max-idle"),
+    MAX_IN_FLIGHT_CHUNKS("max-in-flight-chunks"),
     MAX_RETRIES("max-retries"),
     MAX_THREADS("max-threads"),
     MBEAN_SERVER_LOOKUP("mbean-server-lookup"),
@@ -84,6 +91,7 @@ public enum Attribute {
     ON_REHASH("onRehash"),
     OWNERS("owners"),
     PATH("path"),
+    PER_KEY_ORDERING("per-key-ordering"),
     PASSIVATION("passivation"),
     PERMISSIONS("permissions"),
     PERSISTENCE_EXECUTOR("persistence-executor"),
@@ -118,11 +126,13 @@ public enum Attribute {
     SINGLETON("singleton"),
     SITE("site"),
     SIZE("size"),
+    SIZE_CALCULATOR("size-calculator"),
     SPIN_DURATION("deadlock-detection-spin"),
     STATISTICS("statistics"),
     STATISTICS_AVAILABLE("statistics-available"),
     START("start"),
     STATE_TRANSFER_EXECUTOR("state-transfer-executor"),
+    STORAGE("storage"),
     STORE_KEYS_AS_BINARY("keys"),
     STORE_VALUES_AS_BINARY("values"),
     STRATEGY("strategy"),
@@ -140,7 +150,9 @@ public enum Attribute {
     TRANSACTION_MANAGER_LOOKUP_CLASS("transaction-manager-lookup"),
     TRANSACTION_PROTOCOL("protocol"),
     TRANSACTIONAL("transactional"),
+    TRANSFER_STORE_RECORDS("transfer-store-records"),
     TRANSPORT("transport"),
+    TRIANGLE("triangle"),
     TYPE("type"),
     UNRELIABLE_RETURN_VALUES("unreliable-return-values"),
     USE_TWO_PHASE_COMMIT("two-phase-commit"),
@@ -30,6 +30,7 @@
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.AsyncStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.AuthorizationConfigurationBuilder;
@@ -47,6 +48,7 @@
 import org.infinispan.configuration.cache.PartitionHandlingConfigurationBuilder;
 import org.infinispan.configuration.cache.SecurityConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfigurationBuilder;
 import org.infinispan.configuration.cache.VersioningScheme;
 import org.infinispan.configuration.global.GlobalAuthorizationConfigurationBuilder;
@@ -1438,7 +1440,7 @@ protected void parseCacheElement(XMLExtendedStreamReader reader, Element element
             break;
          }
          case EVICTION: {
-            this.parseEviction(reader, builder);
+            this.parseEviction(reader, builder, holder);
             break;
          }
          case EXPIRATION: {
@@ -1664,6 +1666,10 @@ protected void parseLocking(XMLExtendedStreamReader reader, ConfigurationBuilder
                builder.locking().writeSkewCheck(Boolean.valueOf(value));
                break;
             }
+            case PER_KEY_ORDERING: {
+               builder.locking().perKeyOrdering(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1732,7 +1738,7 @@ protected void parseTransaction(XMLExtendedStreamReader reader, ConfigurationBui
       ParseUtils.requireNoContent(reader);
    }
 
-   protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilder builder) throws XMLStreamException {
+   protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilder builder, ConfigurationBuilderHolder holder) throws XMLStreamException {
       for (int i = 0; i < reader.getAttributeCount(); i++) {
          String value = replaceProperties(reader.getAttributeValue(i));
          Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
@@ -1758,6 +1764,14 @@ protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilde
                builder.eviction().size(Long.parseLong(value));
                break;
             }
+            case STORAGE: {
+               builder.eviction().storage(StorageType.valueOf(value));
+               break;
+            }
+            case SIZE_CALCULATOR: {
+               builder.eviction().sizeCalculator(Util.<EntrySizeCalculator>getInstance(value, holder.getClassLoader()));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1783,6 +1797,14 @@ private void parseExpiration(XMLExtendedStreamReader reader, ConfigurationBuilde
                builder.expiration().wakeUpInterval(Long.parseLong(value));
                break;
             }
+            case BATCH_SIZE: {
+               builder.expiration().batchSize(Integer.parseInt(value));
+               break;
+            }
+            case BATCH_LATENCY: {
+               builder.expiration().batchLatency(Long.parseLong(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1919,6 +1941,30 @@ private void parseStateTransfer(XMLExtendedStreamReader reader, ConfigurationBui
                builder.clustering().stateTransfer().chunkSize(Integer.parseInt(value));
                break;
             }
+            case BULK_APPLY: {
+               builder.clustering().stateTransfer().bulkApply(Boolean.parseBoolean(value));
+               break;
+            }
+            case CHUNK_BYTES: {
+               builder.clustering().stateTransfer().chunkBytes(Integer.parseInt(value));
+               break;
+            }
+            case MAX_IN_FLIGHT_CHUNKS: {
+               builder.clustering().stateTransfer().maxInFlightChunks(Integer.parseInt(value));
+               break;
+            }
+            case COMPRESSION: {
+               builder.clustering().stateTransfer().compression(Boolean.parseBoolean(value));
+               break;
+            }
+            case TRANSFER_STORE_RECORDS: {
+               builder.clustering().stateTransfer().transferStoreRecords(Boolean.parseBoolean(value));
+               break;
+            }
+            case DIGEST_BUCKETS: {
+               builder.clustering().stateTransfer().digestBuckets(Integer.parseInt(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1961,6 +2007,10 @@ private void parseDistributedCache(XMLExtendedStreamReader reader, Configuration
                builder.clustering().hash().capacityFactor(Float.parseFloat(value));
                break;
             }
+            case TRIANGLE: {
+               builder.clustering().hash().triangle(Boolean.parseBoolean(value));
+               break;
+            }
             case CONSISTENT_HASH_FACTORY: {
                builder.clustering().hash().consistentHashFactory(
                      Util.getInstance(value, holder.getClassLoader()));
@@ -5,15 +5,18 @@
 
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
@@ -36,6 +39,7 @@
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.eviction.PassivationManager;
 import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.expiration.impl.TimerWheel;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.filter.KeyValueFilter;
@@ -71,9 +75,10 @@
    private PassivationManager passivator;
    private ActivationManager activator;
    private PersistenceManager pm;
-   private TimeService timeService;
+   protected TimeService timeService;
    private CacheNotifier cacheNotifier;
    private ExpirationManager<K, V> expirationManager;
+   private volatile TimerWheel<K> timerWheel;
 
    public DefaultDataContainer(int concurrencyLevel) {
       // If no comparing implementations passed, could fallback on JDK CHM
@@ -86,6 +91,14 @@ public DefaultDataContainer(int concurrencyLevel,
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel, keyEq, AnyEquivalence.getInstance());
    }
 
+   /**
+    * Allows subclasses to provide the map holding the entries. The map must also implement
+    * {@link ParallelIterableMap}.
+    */
+   protected DefaultDataContainer(ConcurrentMap<K, InternalCacheEntry<K, V>> entries) {
+      this.entries = entries;
+   }
+
    protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
          EvictionStrategy strategy, EvictionThreadPolicy policy,
          Equivalence<? super K> keyEquivalence, EvictionType thresholdPolicy) {
@@ -113,6 +126,9 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
                throw new IllegalArgumentException("Memory based approximation eviction cannot be used with LIRS!");
             }
             break;
+         case TINY_LFU:
+            eviction = Eviction.TINY_LFU;
+            break;
          default:
             throw new IllegalArgumentException("No such eviction strategy " + strategy);
       }
@@ -141,7 +157,8 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
 
       EntrySizeCalculator<K, InternalCacheEntry<K, V>> calc = new CacheEntrySizeCalculator<>(sizeCalculator);
 
-      entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, Eviction.LRU, evictionListener, keyEquivalence,
+      Eviction eviction = strategy == EvictionStrategy.TINY_LFU ? Eviction.TINY_LFU : Eviction.LRU;
+      entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, eviction, evictionListener, keyEquivalence,
               AnyEquivalence.getInstance(), calc);
    }
 
@@ -199,7 +216,8 @@ public InternalCacheEntry<K, V> get(Object k) {
          if (e.isExpired(currentTimeMillis)) {
             expirationManager.handleInMemoryExpiration(e, currentTimeMillis);
             e = null;
-         } else {
+         } else if (e.getLastUsed() != currentTimeMillis) {
+            // Concurrent readers of the same entry would all write the same value, only the first one has to
             e.touch(currentTimeMillis);
          }
       }
@@ -233,6 +251,7 @@ public void put(K k, V v, Metadata metadata) {
 
       entries.compute(copy.getKey(), (key, entry) -> {
          activator.onUpdate(key, entry == null);
+         updateTimerWheel(key, entry, copy);
          return copy;
       });
    }
@@ -241,7 +260,14 @@ public void put(K k, V v, Metadata metadata) {
    public boolean containsKey(Object k) {
       InternalCacheEntry<K, V> ice = peek(k);
       if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
-         entries.remove(k);
+         if (timerWheel == null) {
+            entries.remove(k);
+         } else {
+            entries.computeIfPresent((K) k, (key, entry) -> {
+               updateTimerWheel(key, entry, null);
+               return null;
+            });
+         }
          ice = null;
       }
       return ice != null;
@@ -252,6 +278,7 @@ public InternalCacheEntry<K, V> remove(Object k) {
       final InternalCacheEntry<K,V>[] reference = new InternalCacheEntry[1];
       entries.compute((K) k, (key, entry) -> {
          activator.onRemove(key, entry == null);
+         updateTimerWheel(key, entry, null);
          reference[0] = entry;
          return null;
       });
@@ -294,6 +321,11 @@ public int sizeIncludingExpired() {
    @Override
    public void clear() {
       log.tracef("Clearing data container");
+      TimerWheel<K> wheel = timerWheel;
+      if (wheel != null) {
+         // Entries written after the wheel is cleared are either removed below or indexed again
+         wheel.clear();
+      }
       entries.clear();
    }
 
@@ -322,6 +354,7 @@ public void purgeExpired() {
    public void evict(K key) {
       entries.computeIfPresent(key, (o, entry) -> {
          passivator.passivate(entry);
+         updateTimerWheel(o, entry, null);
          return null;
       });
    }
@@ -334,15 +367,84 @@ public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
             return oldEntry;
          } else if (newEntry == null) {
             activator.onRemove(k, false);
+            updateTimerWheel(k, oldEntry, null);
             return null;
          }
          activator.onUpdate(k, oldEntry == null);
+         updateTimerWheel(k, oldEntry, newEntry);
          if (trace)
             log.tracef("Store %s in container", newEntry);
          return newEntry;
       });
    }
 
+   /**
+    * Starts indexing the entries that can expire in a {@link TimerWheel}, so that the expiration reaper can use
+    * {@link #expireDueEntries(long, Consumer)} instead of iterating over the whole container. The entries already in
+    * the container are indexed as well.
+    */
+   public synchronized void enableTimerWheel(Equivalence<? super K> keyEquivalence) {
+      if (timerWheel == null) {
+         TimerWheel<K> wheel = new TimerWheel<>(keyEquivalence, timeService.wallClockTime());
+         timerWheel = wheel;
+         for (InternalCacheEntry<K, V> entry : entries.values()) {
+            if (entry.canExpire()) {
+               wheel.schedule(entry.getKey(), entry.getExpiryTime());
+            }
+         }
+      }
+   }
+
+   /**
+    * @return whether the entries that can expire are indexed by expiration time
+    */
+   public boolean isTimerWheelEnabled() {
+      return timerWheel != null;
+   }
+
+   /**
+    * Passes the entries that are expired at the given time to the action, visiting only the entries that were
+    * scheduled to expire by then. Entries whose expiration time was pushed back, e.g. because they have been accessed
+    * since, are scheduled again. Must only be invoked after {@link #enableTimerWheel(Equivalence)}.
+    * <p>
+    * The entries are only peeked at, so visiting them doesn't count as an access for the eviction policy.
+    *
+    * @return the number of entries visited
+    */
+   public int expireDueEntries(long now, Consumer<InternalCacheEntry<K, V>> expiredAction) {
+      TimerWheel<K> wheel = timerWheel;
+      List<InternalCacheEntry<K, V>> expired = new ArrayList<>();
+      int visited = wheel.advance(now, key -> {
+         InternalCacheEntry<K, V> entry = peek(key);
+         while (entry != null && entry.canExpire()) {
+            if (entry.isExpired(now)) {
+               expired.add(entry);
+               return;
+            }
+            wheel.schedule(key, entry.getExpiryTime());
+            // Without the lock of the key a writer may have scheduled its entry before us, if so schedule it again
+            InternalCacheEntry<K, V> current = peek(key);
+            if (current == entry) {
+               return;
+            }
+            entry = current;
+         }
+      });
+      expired.forEach(expiredAction);
+      return visited;
+   }
+
+   private void updateTimerWheel(K key, InternalCacheEntry<K, V> oldEntry, InternalCacheEntry<K, V> newEntry) {
+      TimerWheel<K> wheel = timerWheel;
+      if (wheel != null) {
+         if (newEntry != null && newEntry.canExpire()) {
+            wheel.schedule(key, newEntry.getExpiryTime());
+         } else if (oldEntry != null && oldEntry.canExpire()) {
+            wheel.cancel(key);
+         }
+      }
+   }
+
    @Override
    public Iterator<InternalCacheEntry<K, V>> iterator() {
       return new EntryIterator(entries.values().iterator(), false);
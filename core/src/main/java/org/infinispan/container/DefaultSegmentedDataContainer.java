@@ -0,0 +1,106 @@
+package org.infinispan.container;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.annotations.Inject;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Unbounded data container that keeps a separate map per segment, so that iterating over or counting the entries of
+ * some segments only needs to visit those segments.
+ * <p>
+ * The number of live entries of a segment is read from the size of its map, unless the segment may hold entries that
+ * can expire: only those segments are visited to leave out the expired entries. This makes {@link #size()} and
+ * {@link #size(Set)} proportional to the number of segments when the entries are immortal.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class DefaultSegmentedDataContainer<K, V> extends DefaultDataContainer<K, V>
+      implements SegmentedDataContainer<K, V> {
+
+   private final SegmentedConcurrentMap<K, InternalCacheEntry<K, V>> segmentedEntries;
+
+   public DefaultSegmentedDataContainer(int concurrencyLevel, int numSegments, Equivalence<? super K> keyEquivalence) {
+      this(new SegmentedConcurrentMap<>(concurrencyLevel, numSegments, keyEquivalence, InternalCacheEntry::canExpire));
+   }
+
+   private DefaultSegmentedDataContainer(SegmentedConcurrentMap<K, InternalCacheEntry<K, V>> segmentedEntries) {
+      super(segmentedEntries);
+      this.segmentedEntries = segmentedEntries;
+   }
+
+   @Inject
+   public void injectKeyPartitioner(KeyPartitioner keyPartitioner) {
+      segmentedEntries.setKeyPartitioner(keyPartitioner);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator(Set<Integer> segments) {
+      return new EntryIterator(segmentedEntries.valueIterator(segments), false);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(Set<Integer> segments) {
+      return new EntryIterator(segmentedEntries.valueIterator(segments), true);
+   }
+
+   @Override
+   public int sizeIncludingExpired(Set<Integer> segments) {
+      return segmentedEntries.size(segments);
+   }
+
+   @Override
+   public int size() {
+      long now = timeService.wallClockTime();
+      long size = 0;
+      for (int segment = 0; segment < segmentedEntries.getNumSegments(); ++segment) {
+         size += segmentSize(segment, now);
+      }
+      return (int) Math.min(size, Integer.MAX_VALUE);
+   }
+
+   @Override
+   public int size(Set<Integer> segments) {
+      long now = timeService.wallClockTime();
+      long size = 0;
+      for (int segment : segments) {
+         if (segment < segmentedEntries.getNumSegments()) {
+            size += segmentSize(segment, now);
+         }
+      }
+      return (int) Math.min(size, Integer.MAX_VALUE);
+   }
+
+   private int segmentSize(int segment, long now) {
+      return segmentedEntries.mayContainExpirable(segment) ? liveEntries(segment, now) : segmentedEntries.size(segment);
+   }
+
+   /**
+    * Counts the entries of the segment that are not expired, and records it if none of them can expire.
+    */
+   private int liveEntries(int segment, long now) {
+      long stamp = segmentedEntries.expirableStamp(segment);
+      boolean expirable = false;
+      int size = 0;
+      for (Iterator<InternalCacheEntry<K, V>> it = segmentedEntries.valueIterator(segment); it.hasNext(); ) {
+         InternalCacheEntry<K, V> entry = it.next();
+         if (entry.canExpire()) {
+            expirable = true;
+            if (entry.isExpired(now)) {
+               continue;
+            }
+         }
+         size++;
+      }
+      if (!expirable) {
+         segmentedEntries.markNoExpirable(segment, stamp);
+      }
+      return size;
+   }
+}
@@ -21,6 +21,11 @@
 import org.infinispan.container.entries.metadata.MetadataTransientCacheValue;
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheValue;
+import org.infinispan.container.entries.versioned.InlinedMetadata;
+import org.infinispan.container.entries.versioned.VersionedImmortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedMortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientMortalCacheEntry;
 import org.infinispan.container.versioning.EntryVersion;
 import org.infinispan.container.versioning.EntryVersionsMap;
 import org.infinispan.context.InvocationContext;
@@ -55,6 +60,10 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata) {
          if (lifespan < 0 && maxIdle > -1) return new TransientCacheEntry(key, value, maxIdle, timeService.wallClockTime());
          return new TransientMortalCacheEntry(key, value, maxIdle, lifespan, timeService.wallClockTime());
       } else {
+         if (InlinedMetadata.isInlinable(metadata)) {
+            long ctm = timeService.wallClockTime();
+            return createVersioned(key, value, metadata, ctm, ctm);
+         }
          if (lifespan < 0 && maxIdle < 0) return new MetadataImmortalCacheEntry(key, value, metadata);
          if (lifespan > -1 && maxIdle < 0) return new MetadataMortalCacheEntry(key, value, metadata, timeService.wallClockTime());
          if (lifespan < 0 && maxIdle > -1) return new MetadataTransientCacheEntry(key, value, metadata, timeService.wallClockTime());
@@ -85,6 +94,7 @@ public InternalCacheEntry create(Object key, Object value, EntryVersion version,
          // If no metadata passed, assumed embedded metadata
          Metadata metadata = new EmbeddedMetadata.Builder()
                .lifespan(lifespan).maxIdle(maxIdle).version(version).build();
+         if (InlinedMetadata.isInlinable(metadata)) return createVersioned(key, value, metadata, created, lastUsed);
          if (lifespan < 0 && maxIdle < 0) return new MetadataImmortalCacheEntry(key, value, metadata);
          if (lifespan > -1 && maxIdle < 0) return new MetadataMortalCacheEntry(key, value, metadata, created);
          if (lifespan < 0 && maxIdle > -1) return new MetadataTransientCacheEntry(key, value, metadata, lastUsed);
@@ -100,6 +110,7 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata, lo
          if (lifespan < 0 && maxIdle > -1) return new TransientCacheEntry(key, value, maxIdle, lastUsed);
          return new TransientMortalCacheEntry(key, value, maxIdle, lifespan, lastUsed, created);
       } else {
+         if (InlinedMetadata.isInlinable(metadata)) return createVersioned(key, value, metadata, created, lastUsed);
          // Metadata to store, take lifespan and maxIdle settings from it
          long metaLifespan = metadata.lifespan();
          long metaMaxIdle = metadata.maxIdle();
@@ -137,6 +148,10 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata, lo
          if (lifespan < 0 && maxIdle > -1) return new TransientCacheEntry(key, value, maxIdle, timeService.wallClockTime());
          return new TransientMortalCacheEntry(key, value, maxIdle, lifespan, timeService.wallClockTime());
       } else {
+         if (InlinedMetadata.isInlinable(metadata)) {
+            long ctm = timeService.wallClockTime();
+            return createVersioned(key, value, metadata, ctm, ctm);
+         }
          // Metadata to store, take lifespan and maxIdle settings from it
          long metaLifespan = metadata.lifespan();
          long metaMaxIdle = metadata.maxIdle();
@@ -150,6 +165,8 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata, lo
 
    @Override
    public InternalCacheEntry update(InternalCacheEntry ice, Metadata metadata) {
+      if (isEntryVersionInlined(ice))
+         return updateVersionedEntry(ice, metadata);
       if (!isStoreMetadata(metadata, ice))
          return updateMetadataUnawareEntry(ice, metadata.lifespan(), metadata.maxIdle());
       else
@@ -290,6 +307,34 @@ private InternalCacheEntry updateMetadataUnawareEntry(InternalCacheEntry ice, lo
       return ice;
    }
 
+   /**
+    * Creates an entry that stores the version of the given metadata, which must be
+    * {@link InlinedMetadata#isInlinable(Metadata) inlinable}, as primitive fields. This saves the metadata and
+    * version instances that would otherwise be allocated for every versioned entry.
+    */
+   private InternalCacheEntry createVersioned(Object key, Object value, Metadata metadata, long created, long lastUsed) {
+      long lifespan = metadata.lifespan();
+      long maxIdle = metadata.maxIdle();
+      if (lifespan < 0 && maxIdle < 0) return new VersionedImmortalCacheEntry(key, value, metadata);
+      if (lifespan > -1 && maxIdle < 0) return new VersionedMortalCacheEntry(key, value, metadata, created);
+      if (lifespan < 0 && maxIdle > -1) return new VersionedTransientCacheEntry(key, value, metadata, lastUsed);
+      return new VersionedTransientMortalCacheEntry(key, value, metadata, lastUsed, created);
+   }
+
+   private InternalCacheEntry updateVersionedEntry(InternalCacheEntry ice, Metadata metadata) {
+      long lifespan = metadata.lifespan();
+      long maxIdle = metadata.maxIdle();
+      // The entry can be updated in place as long as the new metadata can still be inlined and uses the same kind
+      // of expiration, otherwise a new entry must be created
+      if (InlinedMetadata.isInlinable(metadata) && (lifespan > -1) == (ice.getLifespan() > -1)
+            && (maxIdle > -1) == (ice.getMaxIdle() > -1)) {
+         ice.setMetadata(metadata);
+         return ice;
+      }
+      long ctm = timeService.wallClockTime();
+      return create(ice.getKey(), ice.getValue(), metadata, ctm, lifespan, ctm, maxIdle);
+   }
+
    private InternalCacheEntry updateMetadataAwareEntry(InternalCacheEntry ice, Metadata metadata) {
       long lifespan = metadata.lifespan();
       long maxIdle = metadata.maxIdle();
@@ -383,7 +428,15 @@ private boolean isEntryMetadataAware(InternalCacheEntry ice) {
       return ice instanceof MetadataImmortalCacheEntry
             || ice instanceof MetadataMortalCacheEntry
             || ice instanceof MetadataTransientCacheEntry
-            || ice instanceof MetadataTransientMortalCacheEntry;
+            || ice instanceof MetadataTransientMortalCacheEntry
+            || isEntryVersionInlined(ice);
+   }
+
+   private boolean isEntryVersionInlined(InternalCacheEntry ice) {
+      return ice instanceof VersionedImmortalCacheEntry
+            || ice instanceof VersionedMortalCacheEntry
+            || ice instanceof VersionedTransientCacheEntry
+            || ice instanceof VersionedTransientMortalCacheEntry;
    }
 
 }
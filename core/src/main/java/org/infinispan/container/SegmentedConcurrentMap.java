@@ -0,0 +1,372 @@
+package org.infinispan.container;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.concurrent.ParallelIterableMap;
+import org.infinispan.distribution.ch.KeyPartitioner;
+
+/**
+ * {@link ConcurrentMap} that keeps a separate map for every segment, routing each key to the map of its segment as
+ * determined by the {@link KeyPartitioner}. Operations on a single key are delegated to the map of its segment, so
+ * they have the same atomicity guarantees as the underlying maps.
+ * <p>
+ * The key partitioner is only known once the owning container has been wired, so it has to be provided through
+ * {@link #setKeyPartitioner(KeyPartitioner)} before the map is used.
+ * <p>
+ * The size of every segment map is kept by the map itself, so counting the entries of a segment doesn't visit them.
+ * To also count only the live entries cheaply, the map stamps a segment every time a value that can expire is written
+ * to it: a segment whose stamp was verified by {@link #markNoExpirable(int, long)} since the last such write holds no
+ * entry that can expire, and its size is exact.
+ *
+ * @since 9.0
+ */
+class SegmentedConcurrentMap<K, V> extends AbstractMap<K, V>
+      implements ConcurrentMap<K, V>, ParallelIterableMap<K, V> {
+   private final ConcurrentMap<K, V>[] maps;
+   private final Predicate<? super V> expirable;
+   // Number of writes of a value that can expire, per segment
+   private final AtomicLongArray expirableWrites;
+   // Value of expirableWrites when the segment was last seen without any value that can expire
+   private final AtomicLongArray verifiedWrites;
+   private KeyPartitioner keyPartitioner;
+
+   @SuppressWarnings("unchecked")
+   SegmentedConcurrentMap(int concurrencyLevel, int numSegments, Equivalence<? super K> keyEquivalence,
+         Predicate<? super V> expirable) {
+      this.expirable = expirable;
+      this.expirableWrites = new AtomicLongArray(numSegments);
+      this.verifiedWrites = new AtomicLongArray(numSegments);
+      maps = new ConcurrentMap[numSegments];
+      // Each segment gets a share of the concurrency level, but never less than 1
+      int segmentConcurrency = Math.max(1, concurrencyLevel / numSegments);
+      for (int i = 0; i < numSegments; ++i) {
+         maps[i] = CollectionFactory.makeConcurrentParallelMap(16, segmentConcurrency, keyEquivalence,
+               AnyEquivalence.getInstance());
+      }
+   }
+
+   void setKeyPartitioner(KeyPartitioner keyPartitioner) {
+      this.keyPartitioner = keyPartitioner;
+   }
+
+   int getNumSegments() {
+      return maps.length;
+   }
+
+   private ConcurrentMap<K, V> mapForKey(Object key) {
+      return maps[keyPartitioner.getSegment(key)];
+   }
+
+   /**
+    * Stamps the segment of the key if the value written to it can expire.
+    */
+   private V written(Object key, V value) {
+      if (value != null && expirable.test(value)) {
+         expirableWrites.incrementAndGet(keyPartitioner.getSegment(key));
+      }
+      return value;
+   }
+
+   /**
+    * @return the number of entries in the segment, including the ones that expired but were not removed yet
+    */
+   int size(int segment) {
+      return maps[segment].size();
+   }
+
+   /**
+    * @return the values of the segment
+    */
+   Iterator<V> valueIterator(int segment) {
+      return maps[segment].values().iterator();
+   }
+
+   /**
+    * @return whether the segment may contain a value that can expire
+    */
+   boolean mayContainExpirable(int segment) {
+      return verifiedWrites.get(segment) != expirableWrites.get(segment);
+   }
+
+   /**
+    * @return the stamp to pass to {@link #markNoExpirable(int, long)}, must be read before visiting the segment
+    */
+   long expirableStamp(int segment) {
+      return expirableWrites.get(segment);
+   }
+
+   /**
+    * Records that visiting the segment found no value that can expire. If such a value was written after the stamp
+    * was read, the segment is still considered to contain values that can expire.
+    */
+   void markNoExpirable(int segment, long stamp) {
+      verifiedWrites.accumulateAndGet(segment, stamp, Math::max);
+   }
+
+   /**
+    * @return the values of all the given segments, ignoring segments this map doesn't know about
+    */
+   Iterator<V> valueIterator(Set<Integer> segments) {
+      return new SegmentsIterator<>(segments.iterator(), map -> map.values().iterator());
+   }
+
+   /**
+    * @return the number of entries in the given segments
+    */
+   int size(Set<Integer> segments) {
+      long size = 0;
+      for (Integer segment : segments) {
+         if (segment < maps.length) {
+            size += maps[segment].size();
+         }
+      }
+      return (int) Math.min(size, Integer.MAX_VALUE);
+   }
+
+   @Override
+   public V get(Object key) {
+      return mapForKey(key).get(key);
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return mapForKey(key).containsKey(key);
+   }
+
+   @Override
+   public V put(K key, V value) {
+      V previous = mapForKey(key).put(key, value);
+      written(key, value);
+      return previous;
+   }
+
+   @Override
+   public V remove(Object key) {
+      return mapForKey(key).remove(key);
+   }
+
+   @Override
+   public V putIfAbsent(K key, V value) {
+      V previous = mapForKey(key).putIfAbsent(key, value);
+      if (previous == null) {
+         written(key, value);
+      }
+      return previous;
+   }
+
+   @Override
+   public boolean remove(Object key, Object value) {
+      return mapForKey(key).remove(key, value);
+   }
+
+   @Override
+   public boolean replace(K key, V oldValue, V newValue) {
+      if (mapForKey(key).replace(key, oldValue, newValue)) {
+         written(key, newValue);
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public V replace(K key, V value) {
+      V previous = mapForKey(key).replace(key, value);
+      if (previous != null) {
+         written(key, value);
+      }
+      return previous;
+   }
+
+   @Override
+   public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return written(key, mapForKey(key).compute(key, remappingFunction));
+   }
+
+   @Override
+   public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      return written(key, mapForKey(key).computeIfPresent(key, remappingFunction));
+   }
+
+   @Override
+   public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      return written(key, mapForKey(key).computeIfAbsent(key, mappingFunction));
+   }
+
+   @Override
+   public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      return written(key, mapForKey(key).merge(key, value, remappingFunction));
+   }
+
+   @Override
+   public int size() {
+      long size = 0;
+      for (ConcurrentMap<K, V> map : maps) {
+         size += map.size();
+      }
+      return (int) Math.min(size, Integer.MAX_VALUE);
+   }
+
+   @Override
+   public boolean isEmpty() {
+      for (ConcurrentMap<K, V> map : maps) {
+         if (!map.isEmpty()) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   @Override
+   public void clear() {
+      for (ConcurrentMap<K, V> map : maps) {
+         map.clear();
+      }
+   }
+
+   @Override
+   public void forEach(BiConsumer<? super K, ? super V> action) {
+      for (ConcurrentMap<K, V> map : maps) {
+         map.forEach(action);
+      }
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) throws InterruptedException {
+      for (ConcurrentMap<K, V> map : maps) {
+         ((ParallelIterableMap<K, V>) map).forEach(parallelismThreshold, action);
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new AbstractSet<K>() {
+         @Override
+         public Iterator<K> iterator() {
+            return new SegmentsIterator<>(new RangeIterator(maps.length), map -> map.keySet().iterator());
+         }
+
+         @Override
+         public boolean contains(Object o) {
+            return containsKey(o);
+         }
+
+         @Override
+         public int size() {
+            return SegmentedConcurrentMap.this.size();
+         }
+      };
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new AbstractCollection<V>() {
+         @Override
+         public Iterator<V> iterator() {
+            return new SegmentsIterator<>(new RangeIterator(maps.length), map -> map.values().iterator());
+         }
+
+         @Override
+         public int size() {
+            return SegmentedConcurrentMap.this.size();
+         }
+      };
+   }
+
+   @Override
+   public Set<Entry<K, V>> entrySet() {
+      return new AbstractSet<Entry<K, V>>() {
+         @Override
+         public Iterator<Entry<K, V>> iterator() {
+            return new SegmentsIterator<>(new RangeIterator(maps.length), map -> map.entrySet().iterator());
+         }
+
+         @Override
+         public int size() {
+            return SegmentedConcurrentMap.this.size();
+         }
+      };
+   }
+
+   /**
+    * Iterates over the elements of several segments, one segment after another.
+    */
+   private class SegmentsIterator<E> implements Iterator<E> {
+      private final Iterator<Integer> segments;
+      private final Function<ConcurrentMap<K, V>, Iterator<E>> iteratorFunction;
+      private Iterator<E> current;
+      private Iterator<E> lastReturned;
+
+      SegmentsIterator(Iterator<Integer> segments, Function<ConcurrentMap<K, V>, Iterator<E>> iteratorFunction) {
+         this.segments = segments;
+         this.iteratorFunction = iteratorFunction;
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (current == null || !current.hasNext()) {
+            if (!segments.hasNext()) {
+               return false;
+            }
+            int segment = segments.next();
+            current = segment < maps.length ? iteratorFunction.apply(maps[segment]) : null;
+         }
+         return true;
+      }
+
+      @Override
+      public E next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         lastReturned = current;
+         return current.next();
+      }
+
+      @Override
+      public void remove() {
+         if (lastReturned == null) {
+            throw new IllegalStateException();
+         }
+         lastReturned.remove();
+         lastReturned = null;
+      }
+   }
+
+   private static class RangeIterator implements Iterator<Integer> {
+      private final int end;
+      private int next;
+
+      RangeIterator(int end) {
+         this.end = end;
+      }
+
+      @Override
+      public boolean hasNext() {
+         return next < end;
+      }
+
+      @Override
+      public Integer next() {
+         if (next >= end) {
+            throw new NoSuchElementException();
+         }
+         return next++;
+      }
+   }
+}
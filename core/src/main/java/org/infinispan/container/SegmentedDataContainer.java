@@ -0,0 +1,45 @@
+package org.infinispan.container;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * A {@link DataContainer} that stores its entries grouped by the segment of their key, as determined by the cache's
+ * {@link org.infinispan.distribution.ch.KeyPartitioner}. This allows operations that only care about a subset of the
+ * segments, such as state transfer or segment filtered streams, to only visit the entries in those segments instead of
+ * the whole container.
+ *
+ * @since 9.0
+ */
+public interface SegmentedDataContainer<K, V> extends DataContainer<K, V> {
+
+   /**
+    * Same as {@link DataContainer#iterator()} except that only entries that map to the given segments are returned.
+    * @param segments the segments to return entries for
+    * @return iterator that doesn't produce expired entries
+    */
+   Iterator<InternalCacheEntry<K, V>> iterator(Set<Integer> segments);
+
+   /**
+    * Same as {@link DataContainer#iteratorIncludingExpired()} except that only entries that map to the given segments
+    * are returned.
+    * @param segments the segments to return entries for
+    * @return iterator that returns all entries of the segments including expired ones
+    */
+   Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(Set<Integer> segments);
+
+   /**
+    * Same as {@link DataContainer#size()} except that only entries that map to the given segments are counted.
+    * @param segments the segments to count entries for
+    * @return count of the number of entries in the given segments excluding expired entries
+    */
+   int size(Set<Integer> segments);
+
+   /**
+    * @param segments the segments to count entries for
+    * @return count of the number of entries in the given segments including expired entries
+    */
+   int sizeIncludingExpired(Set<Integer> segments);
+}
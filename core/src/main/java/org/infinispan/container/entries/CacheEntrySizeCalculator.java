@@ -6,6 +6,10 @@
 import org.infinispan.container.entries.metadata.MetadataMortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataTransientCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedImmortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedMortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientMortalCacheEntry;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
 
@@ -93,6 +97,11 @@ public long calculateSize(K key, InternalCacheEntry<K, V> ice) {
             metadataSize = roundUpToNearest8(metadataSize);
          }
       }
+      // Versioned entries extend the plain ones and inline the version as an int and a long
+      if (ice instanceof VersionedImmortalCacheEntry || ice instanceof VersionedMortalCacheEntry ||
+            ice instanceof VersionedTransientCacheEntry || ice instanceof VersionedTransientMortalCacheEntry) {
+         iceSize += 12;
+      }
       // Mortal uses 2 longs to keep track of created and lifespan
       iceSize += mortalEntry ? 16 : 0;
       // Transient uses 2 longs to keep track of last access and max idle
@@ -20,6 +20,8 @@
  * @since 4.0
  */
 public class ImmortalCacheEntry extends AbstractInternalCacheEntry {
+   // The metadata is immutable, so all the immortal entries can share it
+   private static final Metadata IMMORTAL_METADATA = new EmbeddedMetadata.Builder().build();
 
    public Object value;
 
@@ -105,7 +107,7 @@ public Object setValue(Object value) {
 
    @Override
    public Metadata getMetadata() {
-      return new EmbeddedMetadata.Builder().build();
+      return IMMORTAL_METADATA;
    }
 
    @Override
@@ -0,0 +1,140 @@
+package org.infinispan.container.entries;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import sun.misc.Unsafe;
+
+/**
+ * Entry size calculator that estimates the retained size of arbitrary key and value objects, so that
+ * {@link org.infinispan.eviction.EvictionType#MEMORY} eviction can be used without storing entries as binary.
+ * <p>
+ * Strings, primitive wrappers and arrays are sized as in {@link PrimitiveEntrySizeCalculator}. Any other object is
+ * sized from its field layout, as reported by {@link Unsafe#objectFieldOffset(Field)}, and the objects it references
+ * are then visited in turn. The layout of each class is computed only once. Objects reachable more than once from the
+ * same entry are only counted once, while classes, enum constants and class loaders are considered shared and are not
+ * counted at all.
+ *
+ * @since 9.0
+ */
+public class ReflectionEntrySizeCalculator extends PrimitiveEntrySizeCalculator {
+   private static final Unsafe UNSAFE = getUnsafe();
+   private static final long[] NO_OFFSETS = new long[0];
+
+   private final ClassValue<ClassLayout> layouts = new ClassValue<ClassLayout>() {
+      @Override
+      protected ClassLayout computeValue(Class<?> type) {
+         return computeLayout(type);
+      }
+   };
+
+   @Override
+   public long calculateSize(Object key, Object value) {
+      Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      return retainedSize(key, visited) + retainedSize(value, visited);
+   }
+
+   private long retainedSize(Object root, Set<Object> visited) {
+      if (root == null) {
+         return 0;
+      }
+      long size = 0;
+      Deque<Object> pending = new ArrayDeque<>();
+      pending.push(root);
+      while (!pending.isEmpty()) {
+         Object object = pending.pop();
+         if (isShared(object) || !visited.add(object)) {
+            continue;
+         }
+         Class<?> objClass = object.getClass();
+         if (objClass.isArray()) {
+            size += roundUpToNearest8(UNSAFE.arrayBaseOffset(objClass) +
+                  (long) UNSAFE.arrayIndexScale(objClass) * java.lang.reflect.Array.getLength(object));
+            if (!objClass.getComponentType().isPrimitive()) {
+               for (Object element : (Object[]) object) {
+                  if (element != null) {
+                     pending.push(element);
+                  }
+               }
+            }
+         } else if (isKnownType(objClass)) {
+            size += handleObject(object);
+         } else {
+            ClassLayout layout = layouts.get(objClass);
+            size += layout.shallowSize;
+            for (long offset : layout.referenceOffsets) {
+               Object referenced = UNSAFE.getObject(object, offset);
+               if (referenced != null) {
+                  pending.push(referenced);
+               }
+            }
+         }
+      }
+      return size;
+   }
+
+   private static boolean isShared(Object object) {
+      return object == null || object instanceof Class || object instanceof Enum || object instanceof ClassLoader ||
+            object instanceof Thread;
+   }
+
+   private static boolean isKnownType(Class<?> objClass) {
+      return objClass == String.class || objClass == Long.class || objClass == Integer.class ||
+            objClass == Short.class || objClass == Double.class || objClass == Float.class ||
+            objClass == Boolean.class || objClass == Character.class || objClass == Byte.class;
+   }
+
+   private ClassLayout computeLayout(Class<?> type) {
+      // Every object has a header and a reference to its class, even without any fields
+      long end = OBJECT_SIZE + POINTER_SIZE;
+      List<Long> referenceOffsets = new ArrayList<>();
+      for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+         for (Field field : c.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+               continue;
+            }
+            long offset = UNSAFE.objectFieldOffset(field);
+            Class<?> fieldType = field.getType();
+            end = Math.max(end, offset + fieldSize(fieldType));
+            if (!fieldType.isPrimitive()) {
+               referenceOffsets.add(offset);
+            }
+         }
+      }
+      long[] offsets = referenceOffsets.isEmpty() ? NO_OFFSETS : new long[referenceOffsets.size()];
+      for (int i = 0; i < offsets.length; i++) {
+         offsets[i] = referenceOffsets.get(i);
+      }
+      return new ClassLayout(roundUpToNearest8(end), offsets);
+   }
+
+   private static int fieldSize(Class<?> fieldType) {
+      if (fieldType == long.class || fieldType == double.class) {
+         return 8;
+      } else if (fieldType == int.class || fieldType == float.class) {
+         return 4;
+      } else if (fieldType == short.class || fieldType == char.class) {
+         return 2;
+      } else if (fieldType == byte.class || fieldType == boolean.class) {
+         return 1;
+      }
+      return POINTER_SIZE;
+   }
+
+   private static final class ClassLayout {
+      final long shallowSize;
+      final long[] referenceOffsets;
+
+      ClassLayout(long shallowSize, long[] referenceOffsets) {
+         this.shallowSize = shallowSize;
+         this.referenceOffsets = referenceOffsets;
+      }
+   }
+}
@@ -0,0 +1,72 @@
+package org.infinispan.container.entries.versioned;
+
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.container.versioning.SimpleClusteredVersion;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * Helper for the versioned cache entries, which store the version of an {@link EmbeddedMetadata} as primitive fields
+ * instead of keeping references to the metadata and version instances.
+ * <p>
+ * Both {@link NumericVersion} and {@link SimpleClusteredVersion} can be inlined: a numeric version is stored with
+ * a topology id of {@link #NUMERIC_VERSION}.
+ *
+ * @since 9.0
+ */
+public final class InlinedMetadata {
+   static final int NUMERIC_VERSION = Integer.MIN_VALUE;
+   // The builder picks a different EmbeddedMetadata subclass depending on the expiration settings, subclasses from
+   // other modules may hold more information and are never inlined
+   private static final Class<?> IMMORTAL_METADATA = new EmbeddedMetadata.Builder().build().getClass();
+   private static final Class<?> MORTAL_METADATA = new EmbeddedMetadata.Builder().lifespan(1).build().getClass();
+   private static final Class<?> TRANSIENT_METADATA = new EmbeddedMetadata.Builder().maxIdle(1).build().getClass();
+   private static final Class<?> TRANSIENT_MORTAL_METADATA = new EmbeddedMetadata.Builder().lifespan(1).maxIdle(1)
+         .build().getClass();
+
+   private InlinedMetadata() {
+   }
+
+   /**
+    * @return true if the metadata can be stored by the versioned cache entries without losing any information
+    */
+   public static boolean isInlinable(Metadata metadata) {
+      if (metadata == null) {
+         return false;
+      }
+      Class<?> metadataClass = metadata.getClass();
+      if (metadataClass != IMMORTAL_METADATA && metadataClass != MORTAL_METADATA &&
+            metadataClass != TRANSIENT_METADATA && metadataClass != TRANSIENT_MORTAL_METADATA) {
+         return false;
+      }
+      EntryVersion version = metadata.version();
+      return version != null && (version.getClass() == NumericVersion.class ||
+            (version.getClass() == SimpleClusteredVersion.class &&
+                  ((SimpleClusteredVersion) version).getTopologyId() != NUMERIC_VERSION));
+   }
+
+   static int topologyId(EntryVersion version) {
+      return version instanceof SimpleClusteredVersion ? ((SimpleClusteredVersion) version).getTopologyId() : NUMERIC_VERSION;
+   }
+
+   static long version(EntryVersion version) {
+      return version instanceof SimpleClusteredVersion ? ((SimpleClusteredVersion) version).getVersion() :
+            ((NumericVersion) version).getVersion();
+   }
+
+   static EntryVersion toVersion(int topologyId, long version) {
+      return topologyId == NUMERIC_VERSION ? new NumericVersion(version) : new SimpleClusteredVersion(topologyId, version);
+   }
+
+   static Metadata toMetadata(long lifespan, long maxIdle, int topologyId, long version) {
+      Metadata.Builder builder = new EmbeddedMetadata.Builder().version(toVersion(topologyId, version));
+      if (lifespan > -1) {
+         builder.lifespan(lifespan);
+      }
+      if (maxIdle > -1) {
+         builder.maxIdle(maxIdle);
+      }
+      return builder.build();
+   }
+}
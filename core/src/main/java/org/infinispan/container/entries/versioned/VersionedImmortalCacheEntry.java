@@ -0,0 +1,98 @@
+package org.infinispan.container.entries.versioned;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.container.entries.metadata.MetadataImmortalCacheValue;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * A form of {@link ImmortalCacheEntry} that stores the version of its metadata as primitive fields, instead of
+ * referencing a separate metadata and version instance as {@link org.infinispan.container.entries.metadata.MetadataImmortalCacheEntry}
+ * does.
+ *
+ * @see InlinedMetadata
+ * @since 9.0
+ */
+public class VersionedImmortalCacheEntry extends ImmortalCacheEntry implements MetadataAware {
+
+   int topologyId;
+   long version;
+
+   public VersionedImmortalCacheEntry(Object key, Object value, Metadata metadata) {
+      super(key, value);
+      setMetadata(metadata);
+   }
+
+   VersionedImmortalCacheEntry(Object key, Object value, int topologyId, long version) {
+      super(key, value);
+      this.topologyId = topologyId;
+      this.version = version;
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return InlinedMetadata.toMetadata(-1, -1, topologyId, version);
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      topologyId = InlinedMetadata.topologyId(metadata.version());
+      version = InlinedMetadata.version(metadata.version());
+   }
+
+   @Override
+   public InternalCacheValue toInternalCacheValue() {
+      return new MetadataImmortalCacheValue(value, getMetadata());
+   }
+
+   @Override
+   public VersionedImmortalCacheEntry clone() {
+      return (VersionedImmortalCacheEntry) super.clone();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("VersionedImmortalCacheEntry{key=%s, value=%s, version=%s}",
+            toStr(key), toStr(value), InlinedMetadata.toVersion(topologyId, version));
+   }
+
+   public static class Externalizer extends AbstractExternalizer<VersionedImmortalCacheEntry> {
+      @Override
+      public void writeObject(ObjectOutput output, VersionedImmortalCacheEntry entry) throws IOException {
+         output.writeObject(entry.key);
+         output.writeObject(entry.value);
+         output.writeInt(entry.topologyId);
+         output.writeLong(entry.version);
+      }
+
+      @Override
+      public VersionedImmortalCacheEntry readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         Object k = input.readObject();
+         Object v = input.readObject();
+         int topologyId = input.readInt();
+         long version = input.readLong();
+         return new VersionedImmortalCacheEntry(k, v, topologyId, version);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.VERSIONED_IMMORTAL_ENTRY;
+      }
+
+      @Override
+      public Set<Class<? extends VersionedImmortalCacheEntry>> getTypeClasses() {
+         return Util.<Class<? extends VersionedImmortalCacheEntry>>asSet(VersionedImmortalCacheEntry.class);
+      }
+   }
+}
@@ -0,0 +1,104 @@
+package org.infinispan.container.entries.versioned;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.MortalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.container.entries.metadata.MetadataMortalCacheValue;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * A form of {@link MortalCacheEntry} that stores the version of its metadata as primitive fields, instead of
+ * referencing a separate metadata and version instance as {@link org.infinispan.container.entries.metadata.MetadataMortalCacheEntry}
+ * does.
+ *
+ * @see InlinedMetadata
+ * @since 9.0
+ */
+public class VersionedMortalCacheEntry extends MortalCacheEntry implements MetadataAware {
+
+   int topologyId;
+   long version;
+
+   public VersionedMortalCacheEntry(Object key, Object value, Metadata metadata, long created) {
+      super(key, value, metadata.lifespan(), created);
+      setMetadata(metadata);
+   }
+
+   VersionedMortalCacheEntry(Object key, Object value, long lifespan, long created, int topologyId, long version) {
+      super(key, value, lifespan, created);
+      this.topologyId = topologyId;
+      this.version = version;
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return InlinedMetadata.toMetadata(lifespan, -1, topologyId, version);
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      lifespan = metadata.lifespan();
+      topologyId = InlinedMetadata.topologyId(metadata.version());
+      version = InlinedMetadata.version(metadata.version());
+   }
+
+   @Override
+   public InternalCacheValue toInternalCacheValue() {
+      return new MetadataMortalCacheValue(value, getMetadata(), created);
+   }
+
+   @Override
+   public VersionedMortalCacheEntry clone() {
+      return (VersionedMortalCacheEntry) super.clone();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("VersionedMortalCacheEntry{key=%s, value=%s, lifespan=%d, version=%s}",
+            toStr(key), toStr(value), lifespan, InlinedMetadata.toVersion(topologyId, version));
+   }
+
+   public static class Externalizer extends AbstractExternalizer<VersionedMortalCacheEntry> {
+      @Override
+      public void writeObject(ObjectOutput output, VersionedMortalCacheEntry entry) throws IOException {
+         output.writeObject(entry.key);
+         output.writeObject(entry.value);
+         UnsignedNumeric.writeUnsignedLong(output, entry.created);
+         output.writeLong(entry.lifespan); // could be negative so should not use unsigned longs
+         output.writeInt(entry.topologyId);
+         output.writeLong(entry.version);
+      }
+
+      @Override
+      public VersionedMortalCacheEntry readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         Object k = input.readObject();
+         Object v = input.readObject();
+         long created = UnsignedNumeric.readUnsignedLong(input);
+         long lifespan = input.readLong();
+         int topologyId = input.readInt();
+         long version = input.readLong();
+         return new VersionedMortalCacheEntry(k, v, lifespan, created, topologyId, version);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.VERSIONED_MORTAL_ENTRY;
+      }
+
+      @Override
+      public Set<Class<? extends VersionedMortalCacheEntry>> getTypeClasses() {
+         return Util.<Class<? extends VersionedMortalCacheEntry>>asSet(VersionedMortalCacheEntry.class);
+      }
+   }
+}
@@ -0,0 +1,104 @@
+package org.infinispan.container.entries.versioned;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.TransientCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.container.entries.metadata.MetadataTransientCacheValue;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * A form of {@link TransientCacheEntry} that stores the version of its metadata as primitive fields, instead of
+ * referencing a separate metadata and version instance as {@link org.infinispan.container.entries.metadata.MetadataTransientCacheEntry}
+ * does.
+ *
+ * @see InlinedMetadata
+ * @since 9.0
+ */
+public class VersionedTransientCacheEntry extends TransientCacheEntry implements MetadataAware {
+
+   int topologyId;
+   long version;
+
+   public VersionedTransientCacheEntry(Object key, Object value, Metadata metadata, long lastUsed) {
+      super(key, value, metadata.maxIdle(), lastUsed);
+      setMetadata(metadata);
+   }
+
+   VersionedTransientCacheEntry(Object key, Object value, long maxIdle, long lastUsed, int topologyId, long version) {
+      super(key, value, maxIdle, lastUsed);
+      this.topologyId = topologyId;
+      this.version = version;
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return InlinedMetadata.toMetadata(-1, maxIdle, topologyId, version);
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      maxIdle = metadata.maxIdle();
+      topologyId = InlinedMetadata.topologyId(metadata.version());
+      version = InlinedMetadata.version(metadata.version());
+   }
+
+   @Override
+   public InternalCacheValue toInternalCacheValue() {
+      return new MetadataTransientCacheValue(value, getMetadata(), lastUsed);
+   }
+
+   @Override
+   public VersionedTransientCacheEntry clone() {
+      return (VersionedTransientCacheEntry) super.clone();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("VersionedTransientCacheEntry{key=%s, value=%s, maxIdle=%d, version=%s}",
+            toStr(key), toStr(value), maxIdle, InlinedMetadata.toVersion(topologyId, version));
+   }
+
+   public static class Externalizer extends AbstractExternalizer<VersionedTransientCacheEntry> {
+      @Override
+      public void writeObject(ObjectOutput output, VersionedTransientCacheEntry entry) throws IOException {
+         output.writeObject(entry.key);
+         output.writeObject(entry.value);
+         UnsignedNumeric.writeUnsignedLong(output, entry.lastUsed);
+         output.writeLong(entry.maxIdle); // could be negative so should not use unsigned longs
+         output.writeInt(entry.topologyId);
+         output.writeLong(entry.version);
+      }
+
+      @Override
+      public VersionedTransientCacheEntry readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         Object k = input.readObject();
+         Object v = input.readObject();
+         long lastUsed = UnsignedNumeric.readUnsignedLong(input);
+         long maxIdle = input.readLong();
+         int topologyId = input.readInt();
+         long version = input.readLong();
+         return new VersionedTransientCacheEntry(k, v, maxIdle, lastUsed, topologyId, version);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.VERSIONED_TRANSIENT_ENTRY;
+      }
+
+      @Override
+      public Set<Class<? extends VersionedTransientCacheEntry>> getTypeClasses() {
+         return Util.<Class<? extends VersionedTransientCacheEntry>>asSet(VersionedTransientCacheEntry.class);
+      }
+   }
+}
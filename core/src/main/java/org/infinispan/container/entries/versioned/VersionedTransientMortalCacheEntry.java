@@ -0,0 +1,110 @@
+package org.infinispan.container.entries.versioned;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.entries.TransientMortalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheValue;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * A form of {@link TransientMortalCacheEntry} that stores the version of its metadata as primitive fields, instead
+ * of referencing a separate metadata and version instance as
+ * {@link org.infinispan.container.entries.metadata.MetadataTransientMortalCacheEntry} does.
+ *
+ * @see InlinedMetadata
+ * @since 9.0
+ */
+public class VersionedTransientMortalCacheEntry extends TransientMortalCacheEntry implements MetadataAware {
+
+   int topologyId;
+   long version;
+
+   public VersionedTransientMortalCacheEntry(Object key, Object value, Metadata metadata, long lastUsed, long created) {
+      super(key, value, metadata.maxIdle(), metadata.lifespan(), lastUsed, created);
+      setMetadata(metadata);
+   }
+
+   VersionedTransientMortalCacheEntry(Object key, Object value, long maxIdle, long lifespan, long lastUsed,
+                                      long created, int topologyId, long version) {
+      super(key, value, maxIdle, lifespan, lastUsed, created);
+      this.topologyId = topologyId;
+      this.version = version;
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return InlinedMetadata.toMetadata(lifespan, maxIdle, topologyId, version);
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      lifespan = metadata.lifespan();
+      maxIdle = metadata.maxIdle();
+      topologyId = InlinedMetadata.topologyId(metadata.version());
+      version = InlinedMetadata.version(metadata.version());
+   }
+
+   @Override
+   public InternalCacheValue toInternalCacheValue() {
+      return new MetadataTransientMortalCacheValue(value, getMetadata(), created, lastUsed);
+   }
+
+   @Override
+   public VersionedTransientMortalCacheEntry clone() {
+      return (VersionedTransientMortalCacheEntry) super.clone();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("VersionedTransientMortalCacheEntry{key=%s, value=%s, lifespan=%d, maxIdle=%d, version=%s}",
+            toStr(key), toStr(value), lifespan, maxIdle, InlinedMetadata.toVersion(topologyId, version));
+   }
+
+   public static class Externalizer extends AbstractExternalizer<VersionedTransientMortalCacheEntry> {
+      @Override
+      public void writeObject(ObjectOutput output, VersionedTransientMortalCacheEntry entry) throws IOException {
+         output.writeObject(entry.key);
+         output.writeObject(entry.value);
+         UnsignedNumeric.writeUnsignedLong(output, entry.created);
+         output.writeLong(entry.lifespan); // could be negative so should not use unsigned longs
+         UnsignedNumeric.writeUnsignedLong(output, entry.lastUsed);
+         output.writeLong(entry.maxIdle); // could be negative so should not use unsigned longs
+         output.writeInt(entry.topologyId);
+         output.writeLong(entry.version);
+      }
+
+      @Override
+      public VersionedTransientMortalCacheEntry readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         Object k = input.readObject();
+         Object v = input.readObject();
+         long created = UnsignedNumeric.readUnsignedLong(input);
+         long lifespan = input.readLong();
+         long lastUsed = UnsignedNumeric.readUnsignedLong(input);
+         long maxIdle = input.readLong();
+         int topologyId = input.readInt();
+         long version = input.readLong();
+         return new VersionedTransientMortalCacheEntry(k, v, maxIdle, lifespan, lastUsed, created, topologyId, version);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.VERSIONED_TRANSIENT_MORTAL_ENTRY;
+      }
+
+      @Override
+      public Set<Class<? extends VersionedTransientMortalCacheEntry>> getTypeClasses() {
+         return Util.<Class<? extends VersionedTransientMortalCacheEntry>>asSet(VersionedTransientMortalCacheEntry.class);
+      }
+   }
+}
@@ -0,0 +1,165 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.infinispan.eviction.EvictionType;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Off heap data container that evicts entries in LRU order once its size is exceeded. The size is either the number of
+ * entries ({@link EvictionType#COUNT}) or the number of native bytes allocated for the entries
+ * ({@link EvictionType#MEMORY}). The bucket table is not part of the latter, it is sized from the bound instead.
+ * <p>
+ * The LRU list is a doubly linked list threaded through the native entries themselves and is guarded by a single lock
+ * that is always acquired after the bucket lock. The evicting thread reads the head of the list while holding only the
+ * LRU lock and then removes the entry through the regular bucket locking, so the two locks are never acquired in the
+ * opposite order.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class BoundedOffHeapDataContainer<K, V> extends OffHeapDataContainer<K, V> {
+   private final EvictionType type;
+   private final Lock lruLock = new ReentrantLock();
+   private volatile long maxSize;
+
+   @GuardedBy("lruLock")
+   private long firstAddress;
+   @GuardedBy("lruLock")
+   private long lastAddress;
+
+   public BoundedOffHeapDataContainer(int concurrencyLevel, int addressCount, long maxSize, EvictionType type) {
+      super(concurrencyLevel, addressCount);
+      this.maxSize = maxSize;
+      this.type = type;
+   }
+
+   @Override
+   protected void entryCreated(long address) {
+      lruLock.lock();
+      try {
+         addLast(address);
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   @Override
+   protected void entryReplaced(long newAddress, long oldAddress) {
+      lruLock.lock();
+      try {
+         removeNode(oldAddress);
+         addLast(newAddress);
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   @Override
+   protected void entryRemoved(long address) {
+      lruLock.lock();
+      try {
+         removeNode(address);
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   @Override
+   protected void entryRetrieved(long address) {
+      lruLock.lock();
+      try {
+         if (address != lastAddress) {
+            removeNode(address);
+            addLast(address);
+         }
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   @Override
+   protected void afterWrite() {
+      ensureSize();
+   }
+
+   @Override
+   protected void performClear() {
+      lruLock.lock();
+      try {
+         super.performClear();
+         firstAddress = 0;
+         lastAddress = 0;
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   @GuardedBy("lruLock")
+   private void addLast(long address) {
+      offHeapEntryFactory.setLruPrevious(address, lastAddress);
+      offHeapEntryFactory.setLruNext(address, 0);
+      if (lastAddress == 0) {
+         firstAddress = address;
+      } else {
+         offHeapEntryFactory.setLruNext(lastAddress, address);
+      }
+      lastAddress = address;
+   }
+
+   @GuardedBy("lruLock")
+   private void removeNode(long address) {
+      long previous = offHeapEntryFactory.getLruPrevious(address);
+      long next = offHeapEntryFactory.getLruNext(address);
+      if (previous == 0) {
+         firstAddress = next;
+      } else {
+         offHeapEntryFactory.setLruNext(previous, next);
+      }
+      if (next == 0) {
+         lastAddress = previous;
+      } else {
+         offHeapEntryFactory.setLruPrevious(next, previous);
+      }
+   }
+
+   private long currentSize() {
+      return type == EvictionType.MEMORY ? getEntriesMemory() : size.sum();
+   }
+
+   private void ensureSize() {
+      while (currentSize() > maxSize) {
+         byte[] key;
+         int hashCode;
+         lruLock.lock();
+         try {
+            if (firstAddress == 0) {
+               return;
+            }
+            // The entry cannot be freed while we hold the lock, as it has to be unlinked from the LRU list first
+            key = offHeapEntryFactory.getKey(firstAddress);
+            hashCode = offHeapEntryFactory.getHashCode(firstAddress);
+         } finally {
+            lruLock.unlock();
+         }
+         if (trace) {
+            log.tracef("Off heap container size %d exceeds %d, evicting the least recently used entry", currentSize(), maxSize);
+         }
+         evictEntry(key, hashCode, true);
+      }
+   }
+
+   @Override
+   public long capacity() {
+      return maxSize;
+   }
+
+   @Override
+   public void resize(long newSize) {
+      maxSize = newSize;
+      ensureSize();
+   }
+}
@@ -0,0 +1,673 @@
+package org.infinispan.container.offheap;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Data container that stores its entries in native memory outside of the Java heap. Keys, values and metadata are
+ * kept in their marshalled form (see {@link OffHeapEntryFactory}) and are only unmarshalled when an entry is read, so
+ * the heap only holds transient objects.
+ * <p>
+ * Entries are indexed by a fixed size table of bucket addresses, also living in native memory, with collisions chained
+ * through the entries themselves. Buckets are guarded by a striped set of read/write locks.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class OffHeapDataContainer<K, V> implements DataContainer<K, V> {
+   protected static final Log log = LogFactory.getLog(OffHeapDataContainer.class);
+   protected static final boolean trace = log.isTraceEnabled();
+
+   public static final int DEFAULT_ADDRESS_COUNT = 1 << 20;
+   /**
+    * Lower bound of the native memory used by a single entry, used to size the bucket table of a container bounded by
+    * memory
+    */
+   public static final int MIN_ENTRY_MEMORY = 64;
+
+   private final int addressCount;
+   private final ReadWriteLock[] locks;
+   private final int lockMask;
+   protected final OffHeapMemoryAllocator allocator;
+   protected final LongAdder size = new LongAdder();
+
+   // Native array of bucket head addresses, 0 whenever the container is not running
+   private volatile long memoryAddresses;
+
+   protected OffHeapEntryFactory offHeapEntryFactory;
+   protected InternalEntryFactory entryFactory;
+   protected EvictionManager evictionManager;
+   protected PassivationManager passivator;
+   private ActivationManager activator;
+   private TimeService timeService;
+   private ExpirationManager<K, V> expirationManager;
+
+   public OffHeapDataContainer(int concurrencyLevel, int addressCount) {
+      this.addressCount = Util.findNextHighestPowerOfTwo(addressCount);
+      int lockCount = Math.min(Util.findNextHighestPowerOfTwo(concurrencyLevel), this.addressCount);
+      locks = new ReadWriteLock[lockCount];
+      for (int i = 0; i < lockCount; ++i) {
+         locks[i] = new ReentrantReadWriteLock();
+      }
+      lockMask = lockCount - 1;
+      allocator = new UnpooledOffHeapMemoryAllocator();
+   }
+
+   @Inject
+   public void initialize(StreamingMarshaller marshaller, EvictionManager evictionManager,
+                          PassivationManager passivator, InternalEntryFactory entryFactory,
+                          ActivationManager activator, TimeService timeService,
+                          ExpirationManager<K, V> expirationManager) {
+      this.evictionManager = evictionManager;
+      this.passivator = passivator;
+      this.entryFactory = entryFactory;
+      this.activator = activator;
+      this.timeService = timeService;
+      this.expirationManager = expirationManager;
+      this.offHeapEntryFactory = new OffHeapEntryFactory(marshaller, allocator, entryFactory);
+   }
+
+   @Start
+   public void allocate() {
+      long bucketsSize = (long) addressCount * 8;
+      long address = allocator.allocate(bucketsSize);
+      OffHeapMemory.setMemory(address, bucketsSize, (byte) 0);
+      memoryAddresses = address;
+   }
+
+   @Stop(priority = 1000)
+   public void deallocate() {
+      clear();
+      long address = memoryAddresses;
+      if (address != 0) {
+         memoryAddresses = 0;
+         allocator.deallocate(address, (long) addressCount * 8);
+      }
+   }
+
+   /**
+    * @return the amount of native memory currently allocated by this container, including the bucket table
+    */
+   public long getAllocatedMemory() {
+      return allocator.getAllocatedAmount();
+   }
+
+   /**
+    * @return the amount of native memory currently allocated for the entries, excluding the bucket table
+    */
+   public long getEntriesMemory() {
+      long allocated = allocator.getAllocatedAmount();
+      return memoryAddresses != 0 ? allocated - (long) addressCount * 8 : allocated;
+   }
+
+   private static int spread(int h) {
+      return (h ^ (h >>> 16)) & 0x7fffffff;
+   }
+
+   int hashCode(byte[] key) {
+      return spread(Arrays.hashCode(key));
+   }
+
+   private int bucket(int hashCode) {
+      return hashCode & (addressCount - 1);
+   }
+
+   private ReadWriteLock lockFor(int bucket) {
+      return locks[bucket & lockMask];
+   }
+
+   private long bucketAddress(int bucket) {
+      long address = memoryAddresses;
+      if (address == 0) {
+         throw new IllegalStateException("Off heap data container is not running");
+      }
+      return address + ((long) bucket << 3);
+   }
+
+   /**
+    * Finds the address of the entry with the given marshalled key. The lock for the bucket must be held.
+    */
+   private long lookup(int bucket, byte[] key, int hashCode) {
+      long address = OffHeapMemory.getLong(bucketAddress(bucket), 0);
+      while (address != 0) {
+         if (offHeapEntryFactory.equalsKey(address, key, hashCode)) {
+            return address;
+         }
+         address = offHeapEntryFactory.getNext(address);
+      }
+      return 0;
+   }
+
+   /**
+    * Links the entry at {@code newAddress} in the bucket, replacing and freeing any existing entry with the same key.
+    * The write lock for the bucket must be held.
+    *
+    * @return whether an existing entry was replaced
+    */
+   private boolean replaceOrAdd(int bucket, byte[] key, int hashCode, long newAddress) {
+      long bucketAddress = bucketAddress(bucket);
+      long previous = 0;
+      long address = OffHeapMemory.getLong(bucketAddress, 0);
+      while (address != 0) {
+         long next = offHeapEntryFactory.getNext(address);
+         if (offHeapEntryFactory.equalsKey(address, key, hashCode)) {
+            offHeapEntryFactory.setNext(newAddress, next);
+            if (previous == 0) {
+               OffHeapMemory.putLong(bucketAddress, 0, newAddress);
+            } else {
+               offHeapEntryFactory.setNext(previous, newAddress);
+            }
+            entryReplaced(newAddress, address);
+            offHeapEntryFactory.free(address);
+            return true;
+         }
+         previous = address;
+         address = next;
+      }
+      offHeapEntryFactory.setNext(newAddress, OffHeapMemory.getLong(bucketAddress, 0));
+      OffHeapMemory.putLong(bucketAddress, 0, newAddress);
+      size.increment();
+      entryCreated(newAddress);
+      return false;
+   }
+
+   /**
+    * Unlinks the entry with the given marshalled key from the bucket. The write lock for the bucket must be held and
+    * the caller is responsible for freeing the returned address.
+    *
+    * @return the address of the unlinked entry or 0 if there was none
+    */
+   private long unlink(int bucket, byte[] key, int hashCode) {
+      long bucketAddress = bucketAddress(bucket);
+      long previous = 0;
+      long address = OffHeapMemory.getLong(bucketAddress, 0);
+      while (address != 0) {
+         long next = offHeapEntryFactory.getNext(address);
+         if (offHeapEntryFactory.equalsKey(address, key, hashCode)) {
+            if (previous == 0) {
+               OffHeapMemory.putLong(bucketAddress, 0, next);
+            } else {
+               offHeapEntryFactory.setNext(previous, next);
+            }
+            size.decrement();
+            entryRemoved(address);
+            return address;
+         }
+         previous = address;
+         address = next;
+      }
+      return 0;
+   }
+
+   /**
+    * Invoked while holding the bucket write lock when a new entry has been added.
+    */
+   protected void entryCreated(long address) {
+   }
+
+   /**
+    * Invoked while holding the bucket write lock when an entry has been replaced by a new one for the same key. The old
+    * address is freed after this method returns.
+    */
+   protected void entryReplaced(long newAddress, long oldAddress) {
+   }
+
+   /**
+    * Invoked while holding the bucket write lock when an entry has been unlinked. The address is freed after this
+    * method returns.
+    */
+   protected void entryRemoved(long address) {
+   }
+
+   /**
+    * Invoked while holding the bucket read lock when an entry has been retrieved through {@link #get(Object)}.
+    */
+   protected void entryRetrieved(long address) {
+   }
+
+   /**
+    * Invoked after a write operation has completed and all the locks have been released.
+    */
+   protected void afterWrite() {
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      byte[] key = offHeapEntryFactory.toBytes(k);
+      int hashCode = hashCode(key);
+      int bucket = bucket(hashCode);
+      InternalCacheEntry<K, V> ice;
+      long currentTimeMillis = 0;
+      Lock lock = lockFor(bucket).readLock();
+      lock.lock();
+      try {
+         long address = lookup(bucket, key, hashCode);
+         if (address == 0) {
+            return null;
+         }
+         ice = offHeapEntryFactory.fromMemory(address);
+         if (ice.canExpire()) {
+            currentTimeMillis = timeService.wallClockTime();
+            if (!ice.isExpired(currentTimeMillis)) {
+               ice.touch(currentTimeMillis);
+               offHeapEntryFactory.touch(address, currentTimeMillis);
+            }
+         }
+         entryRetrieved(address);
+      } finally {
+         lock.unlock();
+      }
+      if (ice.canExpire() && ice.isExpired(currentTimeMillis)) {
+         expirationManager.handleInMemoryExpiration(ice, currentTimeMillis);
+         return null;
+      }
+      return ice;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object k) {
+      byte[] key = offHeapEntryFactory.toBytes(k);
+      int hashCode = hashCode(key);
+      int bucket = bucket(hashCode);
+      Lock lock = lockFor(bucket).readLock();
+      lock.lock();
+      try {
+         long address = lookup(bucket, key, hashCode);
+         return address == 0 ? null : offHeapEntryFactory.fromMemory(address);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      InternalCacheEntry<K, V> ice;
+      if (metadata instanceof L1Metadata) {
+         ice = entryFactory.createL1(k, v, ((L1Metadata) metadata).metadata());
+      } else {
+         ice = entryFactory.create(k, v, metadata);
+      }
+      if (trace) {
+         log.tracef("Store %s in off heap container", ice);
+      }
+      byte[] key = offHeapEntryFactory.toBytes(k);
+      int hashCode = hashCode(key);
+      int bucket = bucket(hashCode);
+      long newAddress = offHeapEntryFactory.create(key, hashCode, ice);
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         boolean replaced = replaceOrAdd(bucket, key, hashCode, newAddress);
+         activator.onUpdate(k, !replaced);
+      } finally {
+         lock.unlock();
+      }
+      afterWrite();
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      InternalCacheEntry<K, V> ice = peek(k);
+      return ice != null && !(ice.canExpire() && ice.isExpired(timeService.wallClockTime()));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      byte[] key = offHeapEntryFactory.toBytes(k);
+      int hashCode = hashCode(key);
+      int bucket = bucket(hashCode);
+      InternalCacheEntry<K, V> ice = null;
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         long address = unlink(bucket, key, hashCode);
+         activator.onRemove(k, address == 0);
+         if (address != 0) {
+            ice = offHeapEntryFactory.fromMemory(address);
+            offHeapEntryFactory.free(address);
+         }
+      } finally {
+         lock.unlock();
+      }
+      return ice == null || (ice.canExpire() && ice.isExpired(timeService.wallClockTime())) ? null : ice;
+   }
+
+   @Override
+   public void evict(K k) {
+      byte[] key = offHeapEntryFactory.toBytes(k);
+      int hashCode = hashCode(key);
+      evictEntry(key, hashCode, false);
+   }
+
+   /**
+    * Removes the entry with the given marshalled key, passivating it.
+    *
+    * @param notify whether listeners should be notified about the eviction
+    * @return whether an entry was evicted
+    */
+   protected boolean evictEntry(byte[] key, int hashCode, boolean notify) {
+      int bucket = bucket(hashCode);
+      InternalCacheEntry<K, V> ice;
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         long address = unlink(bucket, key, hashCode);
+         if (address == 0) {
+            return false;
+         }
+         ice = offHeapEntryFactory.fromMemory(address);
+         offHeapEntryFactory.free(address);
+         passivator.passivate(ice);
+      } finally {
+         lock.unlock();
+      }
+      if (notify) {
+         evictionManager.onEntryEviction(Collections.singletonMap(ice.getKey(), ice));
+      }
+      return true;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K k, ComputeAction<K, V> action) {
+      byte[] key = offHeapEntryFactory.toBytes(k);
+      int hashCode = hashCode(key);
+      int bucket = bucket(hashCode);
+      InternalCacheEntry<K, V> result;
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         long address = lookup(bucket, key, hashCode);
+         InternalCacheEntry<K, V> oldEntry = address == 0 ? null : offHeapEntryFactory.fromMemory(address);
+         result = action.compute(k, oldEntry, entryFactory);
+         if (result == oldEntry) {
+            return oldEntry;
+         } else if (result == null) {
+            if (address != 0) {
+               offHeapEntryFactory.free(unlink(bucket, key, hashCode));
+            }
+            activator.onRemove(k, false);
+            return null;
+         }
+         if (trace) {
+            log.tracef("Store %s in off heap container", result);
+         }
+         replaceOrAdd(bucket, key, hashCode, offHeapEntryFactory.create(key, hashCode, result));
+         activator.onUpdate(k, oldEntry == null);
+      } finally {
+         lock.unlock();
+      }
+      afterWrite();
+      return result;
+   }
+
+   @Override
+   public int size() {
+      int size = 0;
+      // We have to loop through to make sure to skip expired entries
+      for (Iterator<InternalCacheEntry<K, V>> iter = iterator(); iter.hasNext(); ) {
+         iter.next();
+         if (++size == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+      }
+      return size;
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      long count = size.sum();
+      return count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing off heap data container");
+      for (ReadWriteLock lock : locks) {
+         lock.writeLock().lock();
+      }
+      try {
+         if (memoryAddresses != 0) {
+            performClear();
+         }
+      } finally {
+         for (ReadWriteLock lock : locks) {
+            lock.writeLock().unlock();
+         }
+      }
+   }
+
+   /**
+    * Frees all the entries in the container. Invoked while holding all of the bucket write locks.
+    */
+   protected void performClear() {
+      for (int i = 0; i < addressCount; ++i) {
+         long bucketAddress = bucketAddress(i);
+         long address = OffHeapMemory.getLong(bucketAddress, 0);
+         while (address != 0) {
+            long next = offHeapEntryFactory.getNext(address);
+            offHeapEntryFactory.free(address);
+            size.decrement();
+            address = next;
+         }
+         OffHeapMemory.putLong(bucketAddress, 0, 0);
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new AbstractSet<K>() {
+         @Override
+         public Iterator<K> iterator() {
+            return new EntryIterator<>(true, InternalCacheEntry::getKey);
+         }
+
+         @Override
+         public boolean contains(Object o) {
+            return peek(o) != null;
+         }
+
+         @Override
+         public int size() {
+            return sizeIncludingExpired();
+         }
+      };
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new AbstractCollection<V>() {
+         @Override
+         public Iterator<V> iterator() {
+            return new EntryIterator<>(true, InternalCacheEntry::getValue);
+         }
+
+         @Override
+         public int size() {
+            return sizeIncludingExpired();
+         }
+      };
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new AbstractSet<InternalCacheEntry<K, V>>() {
+         @Override
+         public Iterator<InternalCacheEntry<K, V>> iterator() {
+            return new EntryIterator<>(false, CoreImmutables::immutableInternalCacheEntry);
+         }
+
+         @Override
+         public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+               return false;
+            }
+            Map.Entry e = (Map.Entry) o;
+            InternalCacheEntry ice = peek(e.getKey());
+            return ice != null && ice.getValue().equals(e.getValue());
+         }
+
+         @Override
+         public int size() {
+            return sizeIncludingExpired();
+         }
+      };
+   }
+
+   @Override
+   public void purgeExpired() {
+      // Just calls to expiration manager to handle this
+      expirationManager.processExpiration();
+   }
+
+   @Override
+   public void executeTask(KeyFilter<? super K> filter, BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (Iterator<InternalCacheEntry<K, V>> iter = iteratorIncludingExpired(); iter.hasNext(); ) {
+         InternalCacheEntry<K, V> ice = iter.next();
+         if (filter.accept(ice.getKey())) {
+            action.accept(ice.getKey(), ice);
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public void executeTask(KeyValueFilter<? super K, ? super V> filter,
+                           BiConsumer<? super K, InternalCacheEntry<K, V>> action) throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (Iterator<InternalCacheEntry<K, V>> iter = iteratorIncludingExpired(); iter.hasNext(); ) {
+         InternalCacheEntry<K, V> ice = iter.next();
+         if (filter.accept(ice.getKey(), ice.getValue(), ice.getMetadata())) {
+            action.accept(ice.getKey(), ice);
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator<>(false, Function.identity());
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      return new EntryIterator<>(true, Function.identity());
+   }
+
+   /**
+    * Iterator that reads the container one bucket at a time, only holding the bucket read lock while the entries of
+    * the bucket are copied on to the heap.
+    */
+   private class EntryIterator<R> implements Iterator<R> {
+      private final boolean includeExpired;
+      private final Function<InternalCacheEntry<K, V>, R> function;
+      private final List<InternalCacheEntry<K, V>> bucketEntries = new ArrayList<>();
+      private int bucket;
+      private int position;
+      private InternalCacheEntry<K, V> next;
+
+      EntryIterator(boolean includeExpired, Function<InternalCacheEntry<K, V>, R> function) {
+         this.includeExpired = includeExpired;
+         this.function = function;
+      }
+
+      private void readBucket(int bucket) {
+         bucketEntries.clear();
+         position = 0;
+         Lock lock = lockFor(bucket).readLock();
+         lock.lock();
+         try {
+            long address = OffHeapMemory.getLong(bucketAddress(bucket), 0);
+            while (address != 0) {
+               bucketEntries.add(offHeapEntryFactory.fromMemory(address));
+               address = offHeapEntryFactory.getNext(address);
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+
+      private InternalCacheEntry<K, V> getNext() {
+         long now = includeExpired ? 0 : timeService.wallClockTime();
+         while (true) {
+            while (position < bucketEntries.size()) {
+               InternalCacheEntry<K, V> ice = bucketEntries.get(position++);
+               if (includeExpired || !ice.canExpire() || !ice.isExpired(now)) {
+                  return ice;
+               }
+            }
+            if (bucket >= addressCount) {
+               return null;
+            }
+            readBucket(bucket++);
+         }
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (next == null) {
+            next = getNext();
+         }
+         return next != null;
+      }
+
+      @Override
+      public R next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         InternalCacheEntry<K, V> toReturn = next;
+         next = null;
+         return function.apply(toReturn);
+      }
+   }
+}
@@ -0,0 +1,219 @@
+package org.infinispan.container.offheap;
+
+import java.io.IOException;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.metadata.L1MetadataInternalCacheEntry;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * Converts {@link InternalCacheEntry} instances to and from their native memory representation.
+ * <p>
+ * Every entry is a single block of native memory with the following layout:
+ * <pre>
+ *    0: address of the next entry in the same bucket (8 bytes)
+ *    8: address of the previous entry in the LRU list (8 bytes)
+ *   16: address of the next entry in the LRU list (8 bytes)
+ *   24: hash code of the marshalled key (4 bytes)
+ *   28: key length (4 bytes)
+ *   32: metadata length (4 bytes)
+ *   36: value length (4 bytes)
+ *   40: created timestamp (8 bytes)
+ *   48: last used timestamp (8 bytes)
+ *   56: flags (1 byte)
+ *   64: key bytes, followed by metadata bytes and value bytes
+ * </pre>
+ * Keys are compared in their marshalled form, therefore the marshaller in use must produce the same bytes for equal
+ * keys.
+ *
+ * @since 9.0
+ */
+public class OffHeapEntryFactory {
+   static final int NEXT_OFFSET = 0;
+   static final int LRU_PREVIOUS_OFFSET = 8;
+   static final int LRU_NEXT_OFFSET = 16;
+   static final int HASH_CODE_OFFSET = 24;
+   static final int KEY_LENGTH_OFFSET = 28;
+   static final int METADATA_LENGTH_OFFSET = 32;
+   static final int VALUE_LENGTH_OFFSET = 36;
+   static final int CREATED_OFFSET = 40;
+   static final int LAST_USED_OFFSET = 48;
+   static final int FLAGS_OFFSET = 56;
+   static final int HEADER_LENGTH = 64;
+
+   private static final byte L1_FLAG = 1;
+
+   private final StreamingMarshaller marshaller;
+   private final OffHeapMemoryAllocator allocator;
+   private final InternalEntryFactory internalEntryFactory;
+
+   public OffHeapEntryFactory(StreamingMarshaller marshaller, OffHeapMemoryAllocator allocator,
+         InternalEntryFactory internalEntryFactory) {
+      this.marshaller = marshaller;
+      this.allocator = allocator;
+      this.internalEntryFactory = internalEntryFactory;
+   }
+
+   /**
+    * Writes the given entry into newly allocated native memory. The pointers of the returned block are all unset.
+    *
+    * @param key the marshalled key of the entry
+    * @param hashCode the hash code computed from the marshalled key
+    * @param ice the entry to store
+    * @return the address of the native memory holding the entry
+    */
+   public long create(byte[] key, int hashCode, InternalCacheEntry<?, ?> ice) {
+      byte[] metadata = toBytes(ice.getMetadata());
+      byte[] value = toBytes(ice.getValue());
+      long totalSize = HEADER_LENGTH + key.length + metadata.length + value.length;
+      long address = allocator.allocate(totalSize);
+
+      OffHeapMemory.putLong(address, NEXT_OFFSET, 0);
+      OffHeapMemory.putLong(address, LRU_PREVIOUS_OFFSET, 0);
+      OffHeapMemory.putLong(address, LRU_NEXT_OFFSET, 0);
+      OffHeapMemory.putInt(address, HASH_CODE_OFFSET, hashCode);
+      OffHeapMemory.putInt(address, KEY_LENGTH_OFFSET, key.length);
+      OffHeapMemory.putInt(address, METADATA_LENGTH_OFFSET, metadata.length);
+      OffHeapMemory.putInt(address, VALUE_LENGTH_OFFSET, value.length);
+      OffHeapMemory.putLong(address, CREATED_OFFSET, ice.getCreated());
+      OffHeapMemory.putLong(address, LAST_USED_OFFSET, ice.getLastUsed());
+      OffHeapMemory.putByte(address, FLAGS_OFFSET, ice.isL1Entry() ? L1_FLAG : 0);
+
+      long offset = HEADER_LENGTH;
+      OffHeapMemory.putBytes(key, 0, address, offset, key.length);
+      offset += key.length;
+      OffHeapMemory.putBytes(metadata, 0, address, offset, metadata.length);
+      offset += metadata.length;
+      OffHeapMemory.putBytes(value, 0, address, offset, value.length);
+      return address;
+   }
+
+   /**
+    * Reads the entry stored at the given address, unmarshalling its key, value and metadata.
+    */
+   public <K, V> InternalCacheEntry<K, V> fromMemory(long address) {
+      int keyLength = OffHeapMemory.getInt(address, KEY_LENGTH_OFFSET);
+      int metadataLength = OffHeapMemory.getInt(address, METADATA_LENGTH_OFFSET);
+      int valueLength = OffHeapMemory.getInt(address, VALUE_LENGTH_OFFSET);
+      long created = OffHeapMemory.getLong(address, CREATED_OFFSET);
+      long lastUsed = OffHeapMemory.getLong(address, LAST_USED_OFFSET);
+      byte flags = OffHeapMemory.getByte(address, FLAGS_OFFSET);
+
+      byte[] bytes = new byte[keyLength + metadataLength + valueLength];
+      OffHeapMemory.getBytes(address, HEADER_LENGTH, bytes, 0, bytes.length);
+
+      K key = (K) fromBytes(bytes, 0, keyLength);
+      Metadata metadata = (Metadata) fromBytes(bytes, keyLength, metadataLength);
+      V value = (V) fromBytes(bytes, keyLength + metadataLength, valueLength);
+      if ((flags & L1_FLAG) != 0) {
+         return new L1MetadataInternalCacheEntry(key, value, metadata, created);
+      }
+      return internalEntryFactory.create(key, value, metadata, created, metadata.lifespan(), lastUsed,
+            metadata.maxIdle());
+   }
+
+   /**
+    * Returns the marshalled key of the entry stored at the given address.
+    */
+   public byte[] getKey(long address) {
+      int keyLength = OffHeapMemory.getInt(address, KEY_LENGTH_OFFSET);
+      byte[] key = new byte[keyLength];
+      OffHeapMemory.getBytes(address, HEADER_LENGTH, key, 0, keyLength);
+      return key;
+   }
+
+   /**
+    * Returns whether the entry stored at the given address has the provided marshalled key.
+    */
+   public boolean equalsKey(long address, byte[] key, int hashCode) {
+      if (OffHeapMemory.getInt(address, HASH_CODE_OFFSET) != hashCode) {
+         return false;
+      }
+      int keyLength = OffHeapMemory.getInt(address, KEY_LENGTH_OFFSET);
+      if (keyLength != key.length) {
+         return false;
+      }
+      for (int i = 0; i < keyLength; ++i) {
+         if (OffHeapMemory.getByte(address, HEADER_LENGTH + i) != key[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Updates the last used timestamp of the entry in place.
+    */
+   public void touch(long address, long currentTimeMillis) {
+      OffHeapMemory.putLong(address, LAST_USED_OFFSET, currentTimeMillis);
+   }
+
+   /**
+    * @return the total amount of native memory, including the header, used by the entry at the given address
+    */
+   public long getSize(long address) {
+      return HEADER_LENGTH + OffHeapMemory.getInt(address, KEY_LENGTH_OFFSET)
+            + OffHeapMemory.getInt(address, METADATA_LENGTH_OFFSET)
+            + OffHeapMemory.getInt(address, VALUE_LENGTH_OFFSET);
+   }
+
+   public int getHashCode(long address) {
+      return OffHeapMemory.getInt(address, HASH_CODE_OFFSET);
+   }
+
+   public long getNext(long address) {
+      return OffHeapMemory.getLong(address, NEXT_OFFSET);
+   }
+
+   public void setNext(long address, long next) {
+      OffHeapMemory.putLong(address, NEXT_OFFSET, next);
+   }
+
+   public long getLruPrevious(long address) {
+      return OffHeapMemory.getLong(address, LRU_PREVIOUS_OFFSET);
+   }
+
+   public void setLruPrevious(long address, long previous) {
+      OffHeapMemory.putLong(address, LRU_PREVIOUS_OFFSET, previous);
+   }
+
+   public long getLruNext(long address) {
+      return OffHeapMemory.getLong(address, LRU_NEXT_OFFSET);
+   }
+
+   public void setLruNext(long address, long next) {
+      OffHeapMemory.putLong(address, LRU_NEXT_OFFSET, next);
+   }
+
+   /**
+    * Frees the native memory of the entry at the given address.
+    */
+   public void free(long address) {
+      allocator.deallocate(address, getSize(address));
+   }
+
+   /**
+    * Marshalls the given object, which is used both for keys when looking them up and for the contents of entries.
+    */
+   public byte[] toBytes(Object obj) {
+      try {
+         return marshaller.objectToByteBuffer(obj);
+      } catch (IOException e) {
+         throw new CacheException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+
+   private Object fromBytes(byte[] bytes, int offset, int length) {
+      try {
+         return marshaller.objectFromByteBuffer(bytes, offset, length);
+      } catch (IOException | ClassNotFoundException e) {
+         throw new CacheException(e);
+      }
+   }
+}
@@ -0,0 +1,90 @@
+package org.infinispan.container.offheap;
+
+import sun.misc.Unsafe;
+
+/**
+ * Simple wrapper around {@link Unsafe} that provides the native memory operations required by the off-heap data
+ * container. Addresses are raw native pointers returned from an {@link OffHeapMemoryAllocator}.
+ *
+ * @since 9.0
+ */
+final class OffHeapMemory {
+   private static final Unsafe UNSAFE = getUnsafe();
+   private static final long BYTE_ARRAY_BASE_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+
+   private OffHeapMemory() { }
+
+   static long allocateMemory(long size) {
+      return UNSAFE.allocateMemory(size);
+   }
+
+   static void freeMemory(long address) {
+      UNSAFE.freeMemory(address);
+   }
+
+   static void setMemory(long address, long bytes, byte value) {
+      UNSAFE.setMemory(address, bytes, value);
+   }
+
+   static byte getByte(long address, long offset) {
+      return UNSAFE.getByte(address + offset);
+   }
+
+   static void putByte(long address, long offset, byte value) {
+      UNSAFE.putByte(address + offset, value);
+   }
+
+   static int getInt(long address, long offset) {
+      return UNSAFE.getInt(address + offset);
+   }
+
+   static void putInt(long address, long offset, int value) {
+      UNSAFE.putInt(address + offset, value);
+   }
+
+   static long getLong(long address, long offset) {
+      return UNSAFE.getLong(address + offset);
+   }
+
+   static void putLong(long address, long offset, long value) {
+      UNSAFE.putLong(address + offset, value);
+   }
+
+   static void getBytes(long srcAddress, long srcOffset, byte[] dest, int destIndex, int length) {
+      UNSAFE.copyMemory(null, srcAddress + srcOffset, dest, BYTE_ARRAY_BASE_OFFSET + destIndex, length);
+   }
+
+   static void putBytes(byte[] src, int srcIndex, long destAddress, long destOffset, int length) {
+      UNSAFE.copyMemory(src, BYTE_ARRAY_BASE_OFFSET + srcIndex, null, destAddress + destOffset, length);
+   }
+
+   /**
+    * Returns a sun.misc.Unsafe.  Suitable for use in a 3rd party package.
+    * Replace with a simple call to Unsafe.getUnsafe when integrating
+    * into a jdk.
+    *
+    * @return a sun.misc.Unsafe
+    */
+   private static Unsafe getUnsafe() {
+      try {
+         return Unsafe.getUnsafe();
+      } catch (SecurityException tryReflectionInstead) {}
+      try {
+         return java.security.AccessController.doPrivileged
+               (new java.security.PrivilegedExceptionAction<Unsafe>() {
+                  public Unsafe run() throws Exception {
+                     Class<Unsafe> k = Unsafe.class;
+                     for (java.lang.reflect.Field f : k.getDeclaredFields()) {
+                        f.setAccessible(true);
+                        Object x = f.get(null);
+                        if (k.isInstance(x))
+                           return k.cast(x);
+                     }
+                     throw new NoSuchFieldError("the Unsafe");
+                  }});
+      } catch (java.security.PrivilegedActionException e) {
+         throw new RuntimeException("Could not initialize intrinsics",
+               e.getCause());
+      }
+   }
+}
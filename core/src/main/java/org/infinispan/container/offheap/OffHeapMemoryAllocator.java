@@ -0,0 +1,30 @@
+package org.infinispan.container.offheap;
+
+/**
+ * Allows for allocation of native memory blocks. Implementations keep track of the amount of memory currently
+ * allocated so that memory based eviction can be applied to the actual native footprint of the container.
+ *
+ * @since 9.0
+ */
+public interface OffHeapMemoryAllocator {
+   /**
+    * Allocates a new chunk of memory sized to the given length.
+    *
+    * @param memoryLength the size of memory to allocate
+    * @return the memory address where the chunk starts
+    */
+   long allocate(long memoryLength);
+
+   /**
+    * Deallocates the memory at the given address, which must have been allocated with the given size.
+    *
+    * @param memoryAddress the address returned by {@link #allocate(long)}
+    * @param size the size that was passed to {@link #allocate(long)}
+    */
+   void deallocate(long memoryAddress, long size);
+
+   /**
+    * @return how many bytes of native memory are currently allocated
+    */
+   long getAllocatedAmount();
+}
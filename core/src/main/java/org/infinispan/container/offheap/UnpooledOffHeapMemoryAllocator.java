@@ -0,0 +1,42 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Memory allocator that just allocates memory directly using {@link sun.misc.Unsafe}, without any pooling.
+ *
+ * @since 9.0
+ */
+public class UnpooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(UnpooledOffHeapMemoryAllocator.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final LongAdder amountAllocated = new LongAdder();
+
+   @Override
+   public long allocate(long memoryLength) {
+      long memoryLocation = OffHeapMemory.allocateMemory(memoryLength);
+      amountAllocated.add(memoryLength);
+      if (trace) {
+         log.tracef("Allocated off heap memory at 0x%016x with %d bytes", memoryLocation, memoryLength);
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      if (trace) {
+         log.tracef("Deallocating off heap memory at 0x%016x with %d bytes", memoryAddress, size);
+      }
+      OffHeapMemory.freeMemory(memoryAddress);
+      amountAllocated.add(-size);
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return amountAllocated.sum();
+   }
+}
@@ -0,0 +1,5 @@
+/**
+ * Data container implementations that keep marshalled entries in native memory outside of the Java heap, along with
+ * the allocator and entry layout used to manage that memory.
+ */
+package org.infinispan.container.offheap;
@@ -32,6 +32,14 @@ public SimpleClusteredVersion(int topologyId, long version) {
       this.topologyId = topologyId;
    }
 
+   public int getTopologyId() {
+      return topologyId;
+   }
+
+   public long getVersion() {
+      return version;
+   }
+
    @Override
    public InequalVersionComparisonResult compareTo(EntryVersion other) {
       if (other instanceof SimpleClusteredVersion) {
@@ -82,4 +82,11 @@ public interface AsyncInvocationContext {
     */
    @Experimental
    Object forkInvocationSync(VisitableCommand newCommand) throws Throwable;
+
+   /**
+    * @return {@code true} if the command was invoked with
+    * {@link org.infinispan.interceptors.AsyncInterceptorChain#invokeAsync(InvocationContext, VisitableCommand)}, so
+    * the interceptors should not block the caller thread while they wait for other nodes or for a store.
+    */
+   boolean isAsyncInvocation();
 }
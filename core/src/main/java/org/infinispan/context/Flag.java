@@ -267,7 +267,15 @@ public enum Flag {
     * that such a thing happened.  This flag was created purely for internal Infinispan usage, and should not be
     * used by clients calling into Infinispan.
     */
-   COMMAND_RETRY
+   COMMAND_RETRY,
+
+   /**
+    * Makes {@link Cache#size()} count the entries by iterating over them, like {@code keySet().size()}, instead of
+    * adding up the number of entries that the data container of each owner keeps for each segment. Use it when the
+    * iteration returns different entries than the data containers hold, e.g. because a custom interceptor filters
+    * them.
+    */
+   EXACT_SIZE
 
    ;
 
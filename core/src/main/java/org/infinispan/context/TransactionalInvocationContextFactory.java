@@ -53,7 +53,7 @@ public InvocationContext createSingleKeyNonTxInvocationContext() {
    @Override
    public InvocationContext createInvocationContext(boolean isWrite, int keyCount) {
       final Transaction runningTx = getRunningTx();
-      if (runningTx == null && !isWrite) {
+      if (!isWrite && (runningTx == null || transactionTable.tryReadOnlyFastPath(runningTx))) {
          if (keyCount == 1)
             return createSingleKeyNonTxInvocationContext();
          else
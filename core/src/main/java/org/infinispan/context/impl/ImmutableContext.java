@@ -139,6 +139,11 @@ public CompletableFuture<Void> forkInvocation(VisitableCommand newCommand,
       throw new UnsupportedOperationException();
    }
 
+   @Override
+   public boolean isAsyncInvocation() {
+      return false;
+   }
+
    @Override
    public Object forkInvocationSync(VisitableCommand newCommand) throws InterruptedException {
       throw new UnsupportedOperationException();
@@ -17,7 +17,13 @@ public enum EvictionStrategy {
    FIFO,
    LRU,
    LIRS,
-   MANUAL;
+   MANUAL,
+   /**
+    * Window TinyLFU: a small LRU admission window in front of a segmented LRU main space, where entries are only
+    * admitted if they are accessed more often than the entry they would replace. Supports both
+    * {@link EvictionType#COUNT} and {@link EvictionType#MEMORY} eviction.
+    */
+   TINY_LFU;
 
    public boolean isEnabled() {
       return this != NONE && this != MANUAL;
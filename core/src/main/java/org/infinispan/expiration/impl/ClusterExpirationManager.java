@@ -2,19 +2,31 @@
 
 import static org.infinispan.commons.util.Util.toStr;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.AdvancedCache;
-import org.infinispan.commons.util.Util;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.RemoveExpiredCommand;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -31,6 +43,11 @@
  * Cache stores however do not supply the value or metadata information which means if an entry is purged from the cache
  * store that it will forcibly remove the value even if a concurrent write updated it just before.  This will be
  * addressed by future SPI changes to the cache store.
+ * <p>
+ * In non transactional caches the lifespan expirations are batched per primary owner, so that a mass expiration does
+ * not issue an RPC per entry. A batch is sent once it holds {@link org.infinispan.configuration.cache.ExpirationConfiguration#batchSize()}
+ * entries, at the end of every reaper run, or after {@link org.infinispan.configuration.cache.ExpirationConfiguration#batchLatency()}
+ * milliseconds otherwise.
  * @param <K>
  * @param <V>
  */
@@ -41,47 +58,54 @@
 
    private ExecutorService asyncExecutor;
    private AdvancedCache<K, V> cache;
+   private RpcManager rpcManager;
+   private CommandsFactory commandsFactory;
+   private ClusteringDependentLogic clusteringDependentLogic;
+
+   private int batchSize;
+   private long batchLatency;
+   // Guarded by this
+   private final Map<Address, List<RemoveExpiredCommand>> batches = new HashMap<>();
+   private boolean flushScheduled;
 
    @Inject
    public void inject(AdvancedCache<K, V> cache,
-           @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR) ExecutorService asyncExecutor) {
+           @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR) ExecutorService asyncExecutor,
+           RpcManager rpcManager, CommandsFactory commandsFactory, ClusteringDependentLogic clusteringDependentLogic) {
       this.cache = cache;
       this.asyncExecutor = asyncExecutor;
+      this.rpcManager = rpcManager;
+      this.commandsFactory = commandsFactory;
+      this.clusteringDependentLogic = clusteringDependentLogic;
+   }
+
+   @Start(priority = 56)
+   public void startBatching() {
+      // The removals of a transactional cache must go through its own implicit transaction
+      batchSize = configuration.transaction().transactionMode().isTransactional() ? 1 :
+            configuration.expiration().batchSize();
+      batchLatency = configuration.expiration().batchLatency();
    }
 
    @Override
    public void processExpiration() {
-      long start = 0;
-      if (!Thread.currentThread().isInterrupted()) {
-         try {
-            if (trace) {
-               log.trace("Purging data container of expired entries");
-               start = timeService.time();
-            }
-            long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.canExpire()) {
-                  if (ExpiryHelper.isExpiredMortal(e.getLifespan(), e.getCreated(), currentTimeMillis)) {
-                     handleLifespanExpireEntry(e, true);
-                  } else if (ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis)) {
-                     super.handleInMemoryExpiration(e, currentTimeMillis);
-                  }
-               }
-            }
-            if (trace) {
-               log.tracef("Purging data container completed in %s",
-                       Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
-            }
-         } catch (Exception e) {
-            log.exceptionPurgingDataContainer(e);
-         }
-      }
+      super.processExpiration();
+      // Don't let the expirations found by this run wait for the latency bound
+      flushBatches();
+   }
 
-      if (!Thread.currentThread().isInterrupted()) {
-         persistenceManager.purgeExpired();
+   @Override
+   protected boolean expireEntry(InternalCacheEntry<K, V> e, long currentTimeMillis) {
+      if (e.canExpire()) {
+         if (ExpiryHelper.isExpiredMortal(e.getLifespan(), e.getCreated(), currentTimeMillis)) {
+            handleLifespanExpireEntry(e, true);
+            return true;
+         } else if (ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis)) {
+            super.handleInMemoryExpiration(e, currentTimeMillis);
+            return true;
+         }
       }
+      return false;
    }
 
    void handleLifespanExpireEntry(InternalCacheEntry<K, V> entry, boolean sync) {
@@ -92,6 +116,9 @@ void handleLifespanExpireEntry(InternalCacheEntry<K, V> entry, boolean sync) {
          if (trace) {
             log.tracef("Submitting expiration removal for key %s which had lifespan of %s", toStr(key), lifespan);
          }
+         if (batchSize > 1 && addToBatch(key, entry.getValue(), lifespan)) {
+            return;
+         }
          Runnable runnable = () -> {
             try {
                removeExpired(key, entry.getValue(), lifespan);
@@ -111,6 +138,100 @@ private void removeExpired(K key, V value, Long lifespan) {
       cache.removeExpired(key, value, lifespan);
    }
 
+   /**
+    * Adds the expiration of a key owned by another node to the batch of its primary owner, sending the batch if it
+    * is full. The key stays in {@link #expiring} until its batch has been sent.
+    *
+    * @return false if the local node is the primary owner, in which case the key must be removed directly
+    */
+   private boolean addToBatch(K key, V value, long lifespan) {
+      Address primaryOwner = clusteringDependentLogic.getPrimaryOwner(key);
+      if (primaryOwner.equals(rpcManager.getAddress())) {
+         return false;
+      }
+      List<RemoveExpiredCommand> fullBatch = null;
+      boolean scheduleFlush = false;
+      synchronized (this) {
+         List<RemoveExpiredCommand> batch = batches.computeIfAbsent(primaryOwner, a -> new ArrayList<>());
+         batch.add(commandsFactory.buildRemoveExpiredCommand(key, value, lifespan));
+         if (batch.size() >= batchSize) {
+            fullBatch = batches.remove(primaryOwner);
+         } else if (!flushScheduled) {
+            flushScheduled = scheduleFlush = true;
+         }
+      }
+      if (fullBatch != null) {
+         sendBatch(primaryOwner, fullBatch);
+      } else if (scheduleFlush) {
+         executor.schedule(this::flushBatches, batchLatency, TimeUnit.MILLISECONDS);
+      }
+      return true;
+   }
+
+   /**
+    * Sends all the pending batches to their primary owners.
+    */
+   void flushBatches() {
+      Map<Address, List<RemoveExpiredCommand>> pending;
+      synchronized (this) {
+         flushScheduled = false;
+         if (batches.isEmpty()) {
+            return;
+         }
+         pending = new HashMap<>(batches);
+         batches.clear();
+      }
+      pending.forEach(this::sendBatch);
+   }
+
+   /**
+    * Sends a batch without waiting for the primary owner, as the caller may be a reader or the shared expiration
+    * scheduler. The keys stay in {@link #expiring} until the primary owner has removed them.
+    */
+   private void sendBatch(Address primaryOwner, List<RemoveExpiredCommand> batch) {
+      if (trace) {
+         log.tracef("Sending %d expired entry removals to %s", batch.size(), primaryOwner);
+      }
+      CompletableFuture<Map<Address, Response>> future;
+      try {
+         future = rpcManager.invokeRemotelyAsync(Collections.singleton(primaryOwner),
+               commandsFactory.buildRemoveExpiredBatchCommand(batch), rpcManager.getDefaultRpcOptions(true));
+      } catch (Exception e) {
+         future = CompletableFutures.completedExceptionFuture(e);
+      }
+      future.whenComplete((responses, throwable) -> {
+         if (throwable == null) {
+            releaseKeys(batch);
+         } else {
+            // The removals block, so they must not run on the thread completing the RPC
+            asyncExecutor.submit(() -> removeOneByOne(primaryOwner, batch, throwable));
+         }
+      });
+   }
+
+   @SuppressWarnings("unchecked")
+   private void removeOneByOne(Address primaryOwner, List<RemoveExpiredCommand> batch, Throwable t) {
+      // The primary owner may have left, let the cache find the current owner of every key
+      log.debugf(t, "Could not send the expired entry removals to %s, removing them one by one", primaryOwner);
+      try {
+         for (RemoveExpiredCommand command : batch) {
+            try {
+               removeExpired((K) command.getKey(), (V) command.getValue(), command.getLifespan());
+            } catch (Exception e) {
+               log.debugf(e, "Could not remove expired key %s", toStr(command.getKey()));
+            }
+         }
+      } finally {
+         releaseKeys(batch);
+      }
+   }
+
+   private void releaseKeys(List<RemoveExpiredCommand> batch) {
+      for (RemoveExpiredCommand command : batch) {
+         expiring.remove(command.getKey());
+      }
+   }
+
    @Override
    public void handleInMemoryExpiration(InternalCacheEntry<K, V> entry, long currentTime) {
       // We need to synchronize on the entry since {@link InternalCacheEntry} locks the entry when doing an update
@@ -5,12 +5,14 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.Cache;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.DefaultDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.factories.KnownComponentNames;
@@ -18,6 +20,12 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
@@ -29,6 +37,7 @@
 import net.jcip.annotations.ThreadSafe;
 
 @ThreadSafe
+@MBean(objectName = "Expiration", description = "Component that removes expired entries from the data container")
 public class ExpirationManagerImpl<K, V> implements ExpirationManager<K, V> {
    protected static final Log log = LogFactory.getLog(ExpirationManagerImpl.class);
    protected static final boolean trace = log.isTraceEnabled();
@@ -52,6 +61,12 @@
     */
    protected ConcurrentMap<K, Object> expiring;
 
+   // Statistics of the reaper, the last run ones are only written by the reaper thread
+   private volatile int lastRunVisited;
+   private volatile int lastRunExpired;
+   private volatile long lastRunDuration;
+   private final AtomicLong expired = new AtomicLong();
+
    @Inject
    public void initialize(@ComponentName(KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR)
          ScheduledExecutorService executor, Cache<K, V> cache, Configuration cfg, DataContainer<K, V> dataContainer,
@@ -88,6 +103,11 @@ public void start() {
             log.notStartingEvictionThread();
             enabled = false;
          } else {
+            if (dataContainer instanceof DefaultDataContainer) {
+               // Index the entries by expiration time so that the reaper only visits the ones that are due
+               ((DefaultDataContainer<K, V>) dataContainer).enableTimerWheel(
+                     configuration.dataContainer().keyEquivalence());
+            }
             expirationTask = executor.scheduleWithFixedDelay(new ScheduledTask(),
                   expWakeUpInt, expWakeUpInt, TimeUnit.MILLISECONDS);
          }
@@ -96,24 +116,39 @@ public void start() {
 
    @Override
    public void processExpiration() {
-      long start = 0;
       if (!Thread.currentThread().isInterrupted()) {
          try {
             if (trace) {
                log.trace("Purging data container of expired entries");
-               start = timeService.time();
             }
+            long start = timeService.time();
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.isExpired(currentTimeMillis)) {
-                  handleInMemoryExpiration(e, currentTimeMillis);
+            int[] counts = new int[2];
+            if (dataContainer instanceof DefaultDataContainer &&
+                  ((DefaultDataContainer<K, V>) dataContainer).isTimerWheelEnabled()) {
+               counts[0] = ((DefaultDataContainer<K, V>) dataContainer).expireDueEntries(currentTimeMillis, e -> {
+                  if (expireEntry(e, currentTimeMillis)) {
+                     counts[1]++;
+                  }
+               });
+            } else {
+               for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
+                    purgeCandidates.hasNext();) {
+                  InternalCacheEntry<K, V> e = purgeCandidates.next();
+                  counts[0]++;
+                  if (expireEntry(e, currentTimeMillis)) {
+                     counts[1]++;
+                  }
                }
             }
+            long duration = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            lastRunVisited = counts[0];
+            lastRunExpired = counts[1];
+            lastRunDuration = duration;
+            expired.addAndGet(counts[1]);
             if (trace) {
-               log.tracef("Purging data container completed in %s",
-                          Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
+               log.tracef("Purging data container completed in %s, visited %d entries and expired %d",
+                          Util.prettyPrintTime(duration), counts[0], counts[1]);
             }
          } catch (Exception e) {
             log.exceptionPurgingDataContainer(e);
@@ -125,6 +160,68 @@ public void processExpiration() {
       }
    }
 
+   /**
+    * Expires the given entry if needed, invoked by {@link #processExpiration()} for every candidate entry.
+    *
+    * @return true if the entry was expired
+    */
+   protected boolean expireEntry(InternalCacheEntry<K, V> e, long currentTimeMillis) {
+      if (e.isExpired(currentTimeMillis)) {
+         handleInMemoryExpiration(e, currentTimeMillis);
+         return true;
+      }
+      return false;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries visited by the last run of the expiration reaper",
+         displayName = "Entries visited by the last expiration run",
+         displayType = DisplayType.SUMMARY
+   )
+   public int getLastRunVisitedEntries() {
+      return lastRunVisited;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries expired by the last run of the expiration reaper",
+         displayName = "Entries expired by the last expiration run",
+         displayType = DisplayType.SUMMARY
+   )
+   public int getLastRunExpiredEntries() {
+      return lastRunExpired;
+   }
+
+   @ManagedAttribute(
+         description = "Duration of the last run of the expiration reaper",
+         displayName = "Duration of the last expiration run",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getLastRunDuration() {
+      return lastRunDuration;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries expired by the expiration reaper",
+         displayName = "Number of entries expired by the reaper",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getExpiredEntries() {
+      return expired.get();
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      lastRunVisited = 0;
+      lastRunExpired = 0;
+      lastRunDuration = 0;
+      expired.set(0);
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
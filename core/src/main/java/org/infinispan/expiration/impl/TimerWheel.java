@@ -0,0 +1,248 @@
+package org.infinispan.expiration.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A hierarchical timing wheel indexing the keys of the entries that can expire by their expiration time, so that the
+ * expiration reaper only needs to visit the entries that are due instead of the whole data container.
+ * <p>
+ * The first level has one bucket per second for the next minute, the following levels have one bucket per minute for
+ * the next hour, one per hour for the next day and one per day and a half for the next week. Entries further in the
+ * future are kept in a single overflow bucket. Whenever the wheel is advanced the buckets of the elapsed ticks are
+ * emptied: the due keys are returned and the others cascade to the more precise levels.
+ * <p>
+ * Writers do not update the wheel directly. {@link #schedule(Object, long)} and {@link #cancel(Object)} only queue
+ * the change, and the queue is drained by {@link #advance(long, Consumer)} or by a writer once it grows large enough.
+ * Changes for the same key must be queued in the order they are applied to the data container, which is why the data
+ * container invokes them while holding the lock of the key, and the reaper checks again that the entry it scheduled is
+ * still the current one. The expiration time recorded for a key may be earlier than
+ * the actual one, e.g. when an entry with max idle has been accessed since, so the due keys must be checked against the
+ * data container and rescheduled if needed.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public final class TimerWheel<K> {
+   // The number of buckets in each level and the number of bits of the expiration time, in milliseconds, that select
+   // the bucket. The spans are roughly 1 second, 1 minute, 1 hour, 1.5 days and 6 days.
+   private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+   private static final int[] SHIFT = {10, 16, 22, 27, 29};
+   private static final int DRAIN_THRESHOLD = 1024;
+   private static final long CANCELLED = Long.MIN_VALUE;
+
+   private final Queue<Node<K>> pending = new ConcurrentLinkedQueue<>();
+   private final AtomicInteger pendingCount = new AtomicInteger();
+   private final ReentrantLock lock = new ReentrantLock();
+   // Guarded by lock
+   private final Node<K>[][] wheel;
+   private final Map<K, Node<K>> nodes;
+   private long time;
+
+   @SuppressWarnings("unchecked")
+   public TimerWheel(Equivalence<? super K> keyEquivalence, long now) {
+      nodes = CollectionFactory.makeMap(keyEquivalence, AnyEquivalence.getInstance());
+      wheel = new Node[BUCKETS.length][];
+      for (int i = 0; i < BUCKETS.length; i++) {
+         wheel[i] = new Node[BUCKETS[i]];
+         for (int j = 0; j < BUCKETS[i]; j++) {
+            wheel[i][j] = Node.sentinel();
+         }
+      }
+      time = now;
+   }
+
+   /**
+    * Records that the entry for the given key expires at the given time, replacing any previous expiration time.
+    */
+   public void schedule(K key, long expiryTime) {
+      enqueue(new Node<>(key, expiryTime));
+   }
+
+   /**
+    * Records that the entry for the given key can no longer expire, because it was removed or replaced by an immortal
+    * entry.
+    */
+   public void cancel(K key) {
+      enqueue(new Node<>(key, CANCELLED));
+   }
+
+   private void enqueue(Node<K> node) {
+      pending.offer(node);
+      if (pendingCount.incrementAndGet() >= DRAIN_THRESHOLD && lock.tryLock()) {
+         try {
+            drainPending();
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Moves the wheel forward to the given time. The keys whose expiration time has been reached are removed from the
+    * wheel and passed to the consumer, after the wheel has been unlocked, so the consumer can schedule them again.
+    *
+    * @return the number of keys passed to the consumer
+    */
+   public int advance(long now, Consumer<? super K> dueKeys) {
+      List<K> due = new ArrayList<>();
+      lock.lock();
+      try {
+         drainPending();
+         long previous = time;
+         if (now > previous) {
+            time = now;
+         }
+         for (int i = 0; i < BUCKETS.length; i++) {
+            long previousTicks = previous >>> SHIFT[i];
+            long currentTicks = time >>> SHIFT[i];
+            // The current bucket of the first level may always hold due keys, the other levels only need to be
+            // visited once their tick changed
+            if (i > 0 && currentTicks == previousTicks) {
+               break;
+            }
+            expire(i, previousTicks, currentTicks, due);
+         }
+      } finally {
+         lock.unlock();
+      }
+      due.forEach(dueKeys);
+      return due.size();
+   }
+
+   /**
+    * @return the number of keys in the wheel, not counting the changes that have not been drained yet
+    */
+   public int size() {
+      lock.lock();
+      try {
+         return nodes.size();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Removes all the keys, along with the changes that have not been drained yet.
+    */
+   public void clear() {
+      lock.lock();
+      try {
+         pending.clear();
+         pendingCount.set(0);
+         nodes.clear();
+         for (Node<K>[] level : wheel) {
+            for (Node<K> sentinel : level) {
+               sentinel.prev = sentinel;
+               sentinel.next = sentinel;
+            }
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private void drainPending() {
+      Node<K> node;
+      while ((node = pending.poll()) != null) {
+         pendingCount.decrementAndGet();
+         if (node.time == CANCELLED) {
+            Node<K> previous = nodes.remove(node.key);
+            if (previous != null) {
+               previous.unlink();
+            }
+         } else {
+            Node<K> previous = nodes.put(node.key, node);
+            if (previous != null) {
+               previous.unlink();
+            }
+            bucketFor(node.time).link(node);
+         }
+      }
+   }
+
+   private void expire(int level, long previousTicks, long currentTicks, List<K> due) {
+      Node<K>[] buckets = wheel[level];
+      int mask = buckets.length - 1;
+      long ticks = Math.min(currentTicks - previousTicks + 1, buckets.length);
+      for (long i = 0; i < ticks; i++) {
+         Node<K> sentinel = buckets[(int) ((previousTicks + i) & mask)];
+         Node<K> node = sentinel.next;
+         // Detach the whole bucket, the nodes that are not due are linked again
+         sentinel.prev = sentinel;
+         sentinel.next = sentinel;
+         while (node != sentinel) {
+            Node<K> next = node.next;
+            node.prev = null;
+            node.next = null;
+            if (node.time <= time) {
+               nodes.remove(node.key);
+               due.add(node.key);
+            } else {
+               bucketFor(node.time).link(node);
+            }
+            node = next;
+         }
+      }
+   }
+
+   private Node<K> bucketFor(long expiryTime) {
+      // Keys that are already due are put in the current bucket, which is visited by the next advance
+      long bucketTime = Math.max(expiryTime, time);
+      long duration = bucketTime - time;
+      for (int i = 0; i < BUCKETS.length - 1; i++) {
+         if (duration < 1L << SHIFT[i + 1]) {
+            return wheel[i][(int) ((bucketTime >>> SHIFT[i]) & (BUCKETS[i] - 1))];
+         }
+      }
+      return wheel[BUCKETS.length - 1][0];
+   }
+
+   private static final class Node<K> {
+      final K key;
+      final long time;
+      Node<K> prev;
+      Node<K> next;
+
+      Node(K key, long time) {
+         this.key = key;
+         this.time = time;
+      }
+
+      static <K> Node<K> sentinel() {
+         Node<K> sentinel = new Node<>(null, CANCELLED);
+         sentinel.prev = sentinel;
+         sentinel.next = sentinel;
+         return sentinel;
+      }
+
+      void link(Node<K> node) {
+         // Only invoked on sentinels, appends at the tail
+         node.prev = prev;
+         node.next = this;
+         prev.next = node;
+         prev = node;
+      }
+
+      void unlink() {
+         if (prev != null) {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+         }
+      }
+   }
+}
@@ -3,11 +3,16 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.EvictionConfiguration;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.DefaultSegmentedDataContainer;
 import org.infinispan.container.entries.MarshalledValueEntrySizeCalculator;
-import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
+import org.infinispan.container.entries.ReflectionEntrySizeCalculator;
+import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
+import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
@@ -35,28 +40,32 @@ public <T> T construct(Class<T> componentType) {
 
          long thresholdSize = configuration.eviction().size();
 
+         if (configuration.eviction().storage() == StorageType.OFF_HEAP) {
+            return (T) createOffHeapContainer(st, level, thresholdSize);
+         }
 
          //handle case when < 0 value signifies unbounded container
          if(thresholdSize < 0) {
-            return (T) DefaultDataContainer.unBoundedDataContainer(
-                    level, keyEquivalence);
+            return (T) createUnboundedContainer(level, keyEquivalence);
          }
 
          DefaultDataContainer dataContainer;
          switch (st) {
             case NONE:
-               return (T) DefaultDataContainer.unBoundedDataContainer(
-                     level, keyEquivalence);
+               return (T) createUnboundedContainer(level, keyEquivalence);
             case UNORDERED:
             case LRU:
+            case TINY_LFU:
 
                if (configuration.eviction().type() == EvictionType.MEMORY) {
-                  EntrySizeCalculator esc;
-                  if (configuration.storeAsBinary().storeKeysAsBinary() &&
-                          configuration.storeAsBinary().storeValuesAsBinary()) {
-                     esc = new MarshalledValueEntrySizeCalculator();
-                  } else {
-                     esc = new PrimitiveEntrySizeCalculator();
+                  EntrySizeCalculator esc = configuration.eviction().sizeCalculator();
+                  if (esc == null) {
+                     if (configuration.storeAsBinary().storeKeysAsBinary() &&
+                             configuration.storeAsBinary().storeValuesAsBinary()) {
+                        esc = new MarshalledValueEntrySizeCalculator();
+                     } else {
+                        esc = new ReflectionEntrySizeCalculator();
+                     }
                   }
                   dataContainer = DefaultDataContainer.boundedDataContainer(
                           level, thresholdSize, st, configuration.eviction().threadPolicy(), keyEquivalence,
@@ -79,4 +88,32 @@ public <T> T construct(Class<T> componentType) {
          return (T) dataContainer;
       }
    }
+
+   private DataContainer createUnboundedContainer(int level, Equivalence keyEquivalence) {
+      // Keeping entries grouped by segment allows state transfer and segment filtered iteration to only touch the
+      // entries of the affected segments
+      CacheMode cacheMode = configuration.clustering().cacheMode();
+      if (cacheMode.isDistributed() || cacheMode.isReplicated()) {
+         return new DefaultSegmentedDataContainer(level, configuration.clustering().hash().numSegments(),
+               keyEquivalence);
+      }
+      return DefaultDataContainer.unBoundedDataContainer(level, keyEquivalence);
+   }
+
+   private DataContainer createOffHeapContainer(EvictionStrategy st, int level, long thresholdSize) {
+      if (thresholdSize < 0 || !st.isEnabled()) {
+         return new OffHeapDataContainer(level, OffHeapDataContainer.DEFAULT_ADDRESS_COUNT);
+      }
+      EvictionType type = configuration.eviction().type();
+      // There is no point having more buckets than entries, when bounded by memory assume the smallest entry size
+      long maxEntries = type == EvictionType.COUNT ? thresholdSize :
+            thresholdSize / OffHeapDataContainer.MIN_ENTRY_MEMORY;
+      int addressCount = (int) Math.min(maxEntries, OffHeapDataContainer.DEFAULT_ADDRESS_COUNT);
+      BoundedOffHeapDataContainer dataContainer = new BoundedOffHeapDataContainer(level, addressCount, thresholdSize,
+            type);
+      configuration.eviction().attributes().attribute(EvictionConfiguration.SIZE).addListener((newSize, old) -> {
+         dataContainer.resize(newSize.get());
+      });
+      return dataContainer;
+   }
 }
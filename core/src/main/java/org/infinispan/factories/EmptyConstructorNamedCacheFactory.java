@@ -11,6 +11,7 @@
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.io.ByteBufferFactoryImpl;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.NonTransactionalInvocationContextFactory;
 import org.infinispan.context.TransactionalInvocationContextFactory;
@@ -28,6 +29,7 @@
 import org.infinispan.functional.impl.FunctionalNotifierImpl;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.marshall.core.BinaryMarshalledEntryFactoryImpl;
 import org.infinispan.marshall.core.MarshalledEntryFactoryImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.notifications.cachelistener.CacheNotifierImpl;
@@ -41,6 +43,7 @@
 import org.infinispan.transaction.totalorder.TotalOrderManager;
 import org.infinispan.transaction.xa.TransactionFactory;
 import org.infinispan.transaction.xa.recovery.RecoveryAdminOperations;
+import org.infinispan.util.concurrent.CommandAckCollector;
 import org.infinispan.xsite.BackupSender;
 import org.infinispan.xsite.BackupSenderImpl;
 import org.infinispan.xsite.statetransfer.XSiteStateConsumer;
@@ -66,7 +69,7 @@
                               TotalOrderManager.class, ByteBufferFactory.class, MarshalledEntryFactory.class,
                               RemoteValueRetrievedListener.class, InvocationContextFactory.class, CommitManager.class,
                               XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
-                              FunctionalNotifier.class})
+                              FunctionalNotifier.class, CommandAckCollector.class})
 public class EmptyConstructorNamedCacheFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
 
    @Override
@@ -124,6 +127,9 @@ public <T> T construct(Class<T> componentType) {
          } else if (componentType.equals(ByteBufferFactory.class)) {
             return (T) new ByteBufferFactoryImpl();
          } else if (componentType.equals(MarshalledEntryFactory.class)) {
+            if (configuration.eviction().storage() == StorageType.BINARY) {
+               return (T) new BinaryMarshalledEntryFactoryImpl();
+            }
             return (T) new MarshalledEntryFactoryImpl();
          } else if (componentType.equals(RemoteValueRetrievedListener.class)) {
             // L1Manager is currently only listener for remotely retrieved values
@@ -140,6 +146,8 @@ public <T> T construct(Class<T> componentType) {
             return (T) new XSiteStateProviderImpl();
          } else if (componentType.equals(FunctionalNotifier.class)) {
             return (T) new FunctionalNotifierImpl<>();
+         } else if (componentType.equals(CommandAckCollector.class)) {
+            return (T) new CommandAckCollector();
          }
       }
 
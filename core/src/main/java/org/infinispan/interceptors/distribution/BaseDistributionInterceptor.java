@@ -3,6 +3,7 @@
 import static org.infinispan.commons.util.Util.toStr;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -10,9 +11,9 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commands.FlagAffectedCommand;
-import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.functional.ReadOnlyManyCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
 import org.infinispan.commands.read.GetAllCommand;
@@ -54,7 +55,9 @@
 import org.infinispan.statetransfer.OutdatedTopologyException;
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.concurrent.CommandAckCollector;
 import org.infinispan.util.concurrent.CompletableFutures;
+import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -74,6 +77,8 @@ public abstract class BaseDistributionInterceptor extends ClusteringInterceptor
    protected RemoteValueRetrievedListener rvrl;
    protected boolean isL1Enabled;
    private GroupManager groupManager;
+   private CommandAckCollector commandAckCollector;
+   private boolean triangle;
 
    private static final Log log = LogFactory.getLog(BaseDistributionInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -85,11 +90,12 @@ protected Log getLog() {
 
    @Inject
    public void injectDependencies(DistributionManager distributionManager, ClusteringDependentLogic cdl,
-         RemoteValueRetrievedListener rvrl, GroupManager groupManager) {
+         RemoteValueRetrievedListener rvrl, GroupManager groupManager, CommandAckCollector commandAckCollector) {
       this.dm = distributionManager;
       this.cdl = cdl;
       this.rvrl = rvrl;
       this.groupManager = groupManager;
+      this.commandAckCollector = commandAckCollector;
    }
 
 
@@ -97,6 +103,8 @@ public void injectDependencies(DistributionManager distributionManager, Clusteri
    public void configure() {
       // Can't rely on the super injectConfiguration() to be called before our injectDependencies() method2
       isL1Enabled = cacheConfiguration.clustering().l1().enabled();
+      triangle = cacheConfiguration.clustering().hash().triangle() &&
+            !cacheConfiguration.transaction().transactionMode().isTransactional();
    }
 
    @Override
@@ -247,7 +255,8 @@ private CompletableFuture<InternalCacheEntry> invokeClusterGetCommandRemotely(Li
       });
    }
 
-   protected Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Set<?> requestedKeys, InvocationContext ctx, long flagsBitSet) throws Throwable {
+   protected CompletableFuture<Map<Object, InternalCacheEntry>> retrieveFromRemoteSources(Set<?> requestedKeys,
+         InvocationContext ctx, long flagsBitSet) {
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext) ctx).getGlobalTransaction() : null;
       CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
       ConsistentHash ch = cacheTopology.getReadConsistentHash();
@@ -262,25 +271,25 @@ protected Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Set<?> reque
          requestedKeysFromNode.add(key);
       }
 
-      Map<Address, ReplicableCommand> commands = new HashMap<>();
+      RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS,
+            DeliverOrder.NONE).build();
+      // Send one asynchronous command per owner, so that no thread waits for the responses
+      Map<Object, InternalCacheEntry> entries = new HashMap<>();
+      CompletableFuture<?>[] futures = new CompletableFuture[ownerKeys.size()];
+      int i = 0;
       for (Map.Entry<Address, List<Object>> entry : ownerKeys.entrySet()) {
          List<Object> keys = entry.getValue();
          ClusteredGetAllCommand remoteGetAll = cf.buildClusteredGetAllCommand(keys, flagsBitSet, gtx);
-         commands.put(entry.getKey(), remoteGetAll);
-      }
-
-      RpcOptionsBuilder rpcOptionsBuilder = rpcManager.getRpcOptionsBuilder(
-            ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE);
-      RpcOptions options = rpcOptionsBuilder.build();
-      Map<Address, Response> responses = rpcManager.invokeRemotely(commands, options);
-
-      Map<Object, InternalCacheEntry> entries = new HashMap<>();
-      for (Map.Entry<Address, Response> entry : responses.entrySet()) {
-         updateWithValues(((ClusteredGetAllCommand) commands.get(entry.getKey())).getKeys(),
-               entry.getValue(), entries);
+         futures[i++] = rpcManager.invokeRemotelyAsync(Collections.singleton(entry.getKey()), remoteGetAll, options)
+               .thenAccept(responses -> {
+                  synchronized (entries) {
+                     for (Response response : responses.values()) {
+                        updateWithValues(keys, response, entries);
+                     }
+                  }
+               });
       }
-
-      return entries;
+      return CompletableFuture.allOf(futures).thenApply(ignored -> entries);
    }
 
    private void updateWithValues(List<?> keys, Response r, Map<Object, InternalCacheEntry> entries) {
@@ -325,7 +334,7 @@ protected final CompletableFuture<Void> handleNonTxWriteCommand(InvocationContex
    }
 
    private CompletableFuture<Object> handleLocalResult(InvocationContext ctx, DataWriteCommand command,
-         Object localResult) {
+         Object localResult) throws Throwable {
       // if this is local mode then skip distributing
       if (isLocalModeForced(command)) {
          return CompletableFuture.completedFuture(localResult);
@@ -335,7 +344,7 @@ private CompletableFuture<Object> handleLocalResult(InvocationContext ctx, DataW
    }
 
    private CompletableFuture<Object> invokeRemotelyIfNeeded(InvocationContext ctx, DataWriteCommand command,
-         Object localResult) {
+         Object localResult) throws Throwable {
       boolean isSync = isSynchronous(command);
       Address primaryOwner = cdl.getPrimaryOwner(command.getKey());
       int commandTopologyId = command.getTopologyId();
@@ -362,6 +371,10 @@ private CompletableFuture<Object> invokeRemotelyIfNeeded(InvocationContext ctx,
                if (trace) log.tracef("Skipping the replication of the conditional command as it did not succeed on primary owner (%s).", command);
                return CompletableFuture.completedFuture(localResult);
             }
+            if (isSync && triangle) {
+               sendToBackupOwners(ctx.getOrigin(), command, primaryOwner, valueMatcher);
+               return CompletableFuture.completedFuture(localResult);
+            }
             List<Address> recipients = cdl.getOwners(command.getKey());
             // Ignore the previous value on the backup owners
             command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
@@ -399,6 +412,9 @@ private CompletableFuture<Object> invokeRemotelyIfNeeded(InvocationContext ctx,
             return CompletableFuture.completedFuture(localResult);
          } else {
             if (trace) log.tracef("I'm not the primary owner, so sending the command to the primary owner(%s) in order to be forwarded", primaryOwner);
+            if (isSync && triangle) {
+               return CompletableFuture.completedFuture(forwardAndWaitForBackupAcks(command, primaryOwner, valueMatcher));
+            }
             boolean isSyncForwarding = isSync || command.isReturnValueExpected();
 
             Map<Address, Response> addressResponseMap;
@@ -418,6 +434,86 @@ private CompletableFuture<Object> invokeRemotelyIfNeeded(InvocationContext ctx,
       }
    }
 
+   /**
+    * Triangle protocol, on the originator: forwards the command to the primary owner and waits for both the reply of
+    * the primary owner and the acknowledgements that the backup owners send directly to the originator. If the primary
+    * owner found the backup owners in a newer topology, the acknowledgements fail the command so that it is retried.
+    */
+   private Object forwardAndWaitForBackupAcks(DataWriteCommand command, Address primaryOwner,
+         ValueMatcher valueMatcher) throws Throwable {
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      Collection<Address> backupOwners = backupOwners(cacheTopology, command.getKey(), primaryOwner);
+      CommandAckCollector.Collector collector = commandAckCollector.create(command.getCommandInvocationId(),
+            backupOwners, cacheTopology.getTopologyId());
+      Object primaryResult;
+      try {
+         Map<Address, Response> addressResponseMap;
+         try {
+            addressResponseMap = rpcManager.invokeRemotely(Collections.singletonList(primaryOwner), command,
+                  rpcManager.getDefaultRpcOptions(true));
+         } finally {
+            command.setValueMatcher(valueMatcher.matcherForRetry());
+         }
+         primaryResult = getResponseFromPrimaryOwner(primaryOwner, addressResponseMap);
+         command.updateStatusFromRemoteResponse(primaryResult);
+      } catch (Throwable t) {
+         collector.dispose();
+         throw t;
+      }
+      if (!command.isSuccessful()) {
+         // The primary owner did not send the command to the backup owners
+         collector.dispose();
+         return primaryResult;
+      }
+      try {
+         collector.await(cacheConfiguration.clustering().remoteTimeout(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+         if (stateTransferManager.getCacheTopology().getTopologyId() != cacheTopology.getTopologyId()) {
+            // A backup owner may have missed the command because the topology changed, retry it
+            throw new OutdatedTopologyException("Cache topology changed while waiting for the backup owners", e);
+         }
+         throw e;
+      }
+      return primaryResult;
+   }
+
+   /**
+    * Triangle protocol, on the primary owner: sends the command to the backup owners without waiting for them, they
+    * acknowledge it directly to the originator. The command is sent while the key is still locked, with the per-sender
+    * order, so that all the backup owners apply the writes of a key in the same order.
+    */
+   private void sendToBackupOwners(Address originator, DataWriteCommand command, Address primaryOwner,
+         ValueMatcher valueMatcher) {
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      Collection<Address> backupOwners = backupOwners(cacheTopology, command.getKey(), primaryOwner);
+      if (backupOwners.isEmpty()) {
+         return;
+      }
+      if (trace) log.tracef("I'm the primary owner, sending the command to the backups (%s), which will acknowledge it to %s",
+            backupOwners, originator);
+      // Ignore the previous value on the backup owners
+      command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
+      try {
+         rpcManager.invokeRemotely(backupOwners,
+               cf.buildBackupWriteRpcCommand(command, originator, cacheTopology.getTopologyId()),
+               rpcManager.getDefaultRpcOptions(false, DeliverOrder.PER_SENDER));
+      } finally {
+         // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
+         command.setValueMatcher(valueMatcher.matcherForRetry());
+      }
+   }
+
+   private Collection<Address> backupOwners(CacheTopology cacheTopology, Object key, Address primaryOwner) {
+      List<Address> owners = cacheTopology.getWriteConsistentHash().locateOwners(key);
+      List<Address> backupOwners = new ArrayList<>(owners.size());
+      for (Address owner : owners) {
+         if (!owner.equals(primaryOwner)) {
+            backupOwners.add(owner);
+         }
+      }
+      return backupOwners;
+   }
+
    private RpcOptions determineRpcOptionsForBackupReplication(RpcManager rpc, boolean isSync, List<Address> recipients) {
       RpcOptions options;
       if (isSync) {
@@ -494,33 +590,22 @@ public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllC
             }
          }
 
-         boolean missingRemoteValues = false;
          if (!requestedKeys.isEmpty()) {
             if (trace) {
                log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
             }
 
-            Map<Object, InternalCacheEntry> justRetrieved = retrieveFromRemoteSources(
-                  requestedKeys, ctx, command.getFlagsBitSet());
-            Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
-            if (previouslyFetched != null) {
-               previouslyFetched.putAll(justRetrieved);
-            } else {
-               command.setRemotelyFetched(justRetrieved);
-            }
-            for (Object key : requestedKeys) {
-               if (!justRetrieved.containsKey(key)) {
-                  missingRemoteValues = true;
-               } else {
-                  InternalCacheEntry remoteEntry = justRetrieved.get(key);
-                  entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.WRAP_NON_NULL,
-                                                 false);
-               }
-            }
-         }
-
-         if (missingRemoteValues) {
-            throw new OutdatedTopologyException("Remote values are missing because of a topology change");
+            return retrieveFromRemoteSources(requestedKeys, ctx, command.getFlagsBitSet())
+                  .thenCompose(justRetrieved -> {
+                     Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
+                     if (previouslyFetched != null) {
+                        previouslyFetched.putAll(justRetrieved);
+                     } else {
+                        command.setRemotelyFetched(justRetrieved);
+                     }
+                     wrapRemoteEntries(ctx, requestedKeys, justRetrieved);
+                     return ctx.continueInvocation();
+                  });
          }
          return ctx.continueInvocation();
       } else { // remote
@@ -589,33 +674,22 @@ public CompletableFuture<Void> visitReadOnlyManyCommand(InvocationContext ctx, R
             }
          }
 
-         boolean missingRemoteValues = false;
          if (!requestedKeys.isEmpty()) {
             if (trace) {
                log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
             }
 
-            Map<Object, InternalCacheEntry> justRetrieved = retrieveFromRemoteSources(
-               requestedKeys, ctx, command.getFlagsBitSet());
-            Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
-            if (previouslyFetched != null) {
-               previouslyFetched.putAll(justRetrieved);
-            } else {
-               command.setRemotelyFetched(justRetrieved);
-            }
-            for (Object key : requestedKeys) {
-               if (!justRetrieved.containsKey(key)) {
-                  missingRemoteValues = true;
-               } else {
-                  InternalCacheEntry remoteEntry = justRetrieved.get(key);
-                  entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.WRAP_NON_NULL,
-                                                 false);
-               }
-            }
-         }
-
-         if (missingRemoteValues) {
-            throw new OutdatedTopologyException("Remote values are missing because of a topology change");
+            return retrieveFromRemoteSources(requestedKeys, ctx, command.getFlagsBitSet())
+                  .thenCompose(justRetrieved -> {
+                     Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
+                     if (previouslyFetched != null) {
+                        previouslyFetched.putAll(justRetrieved);
+                     } else {
+                        command.setRemotelyFetched(justRetrieved);
+                     }
+                     wrapRemoteEntries(ctx, requestedKeys, justRetrieved);
+                     return ctx.continueInvocation();
+                  });
          }
          return ctx.continueInvocation();
       } else { // remote
@@ -643,6 +717,17 @@ public CompletableFuture<Void> visitReadOnlyManyCommand(InvocationContext ctx, R
       }
    }
 
+   private void wrapRemoteEntries(InvocationContext ctx, Set<Object> requestedKeys,
+         Map<Object, InternalCacheEntry> justRetrieved) {
+      for (Object key : requestedKeys) {
+         if (!justRetrieved.containsKey(key)) {
+            throw new OutdatedTopologyException("Remote values are missing because of a topology change");
+         }
+         InternalCacheEntry remoteEntry = justRetrieved.get(key);
+         entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.WRAP_NON_NULL, false);
+      }
+   }
+
    /**
     * @return Whether a remote get is needed to obtain the previous values of the affected entries.
     */
@@ -165,6 +165,11 @@ protected CompletableFuture<Void> performL1Lookup(InvocationContext ctx, boolean
          if (trace) {
             log.tracef("Found current request for key %s, waiting for their invocation's response", key);
          }
+         if (ctx.isAsyncInvocation()) {
+            // Don't park the caller's thread, continue when the other invocation completes
+            return presentSync.toCompletableFuture().thenCompose(
+                  rv -> handleConcurrentLookup(ctx, runInterceptorOnConflict, isEntry, rv));
+         }
          Object returnValue;
          try {
             returnValue = presentSync.get(replicationTimeout, TimeUnit.MILLISECONDS);
@@ -178,15 +183,20 @@ protected CompletableFuture<Void> performL1Lookup(InvocationContext ctx, boolean
          } catch (ExecutionException e) {
             throw e.getCause();
          }
-         if (runInterceptorOnConflict) {
-            // The command needs to write something. Execute the rest of the invocation chain.
-            return ctx.continueInvocation();
-         } else if (!isEntry && returnValue instanceof InternalCacheEntry) {
-            // The command is read-only, and we found the value in the L1 cache. Return it.
-            returnValue = ((InternalCacheEntry) returnValue).getValue();
-         }
-         return ctx.shortCircuit(returnValue);
+         return handleConcurrentLookup(ctx, runInterceptorOnConflict, isEntry, returnValue);
+      }
+   }
+
+   private CompletableFuture<Void> handleConcurrentLookup(InvocationContext ctx, boolean runInterceptorOnConflict,
+         boolean isEntry, Object returnValue) {
+      if (runInterceptorOnConflict) {
+         // The command needs to write something. Execute the rest of the invocation chain.
+         return ctx.continueInvocation();
+      } else if (!isEntry && returnValue instanceof InternalCacheEntry) {
+         // The command is read-only, and we found the value in the L1 cache. Return it.
+         returnValue = ((InternalCacheEntry) returnValue).getValue();
       }
+      return ctx.shortCircuit(returnValue);
    }
 
    protected boolean skipL1Lookup(LocalFlagAffectedCommand command, Object key) {
@@ -2,6 +2,7 @@
 
 import static org.infinispan.commons.util.Util.toStr;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -26,6 +27,7 @@
 public class L1WriteSynchronizer {
    private static final Logger log = Logger.getLogger(L1WriteSynchronizer.class);
    private final L1WriteSync sync = new L1WriteSync();
+   private final CompletableFuture<Object> future = new CompletableFuture<>();
 
    private final long l1Lifespan;
    private final DataContainer<Object, Object> dc;
@@ -146,6 +148,14 @@ public Object get(long time, TimeUnit unit) throws TimeoutException, Interrupted
       return sync.innerGet(time, unit);
    }
 
+   /**
+    * @return a future completed with the same value or exception as {@link #get()}, for the callers that must not
+    *       block while the retrieval is in progress
+    */
+   public CompletableFuture<Object> toCompletableFuture() {
+      return future;
+   }
+
    /**
     * Attempts to mark the L1 update to only retrieve the value and not to actually update the L1 cache.
     * If the L1 skipping is not successful, that means it is currently running, which means for consistency
@@ -158,6 +168,7 @@ public boolean trySkipL1Update() {
 
    public void retrievalEncounteredException(Throwable t) {
       sync.innerException(t);
+      future.completeExceptionally(t);
    }
 
    /**
@@ -197,6 +208,7 @@ public void runL1UpdateIfPossible(InternalCacheEntry ice) {
       }
       finally {
          sync.innerSet(ice);
+         future.complete(ice);
       }
    }
 }
@@ -24,6 +24,12 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
       return super.visitPutMapCommand(ctx, command);
    }
 
+   @Override
+   protected boolean allowNonBlockingLoad() {
+      // Activation moves the entry from the store to the data container, so the load must hold the container's lock
+      return false;
+   }
+
    @Override
    protected void sendNotification(Object key, Object value, boolean pre,
                                    InvocationContext ctx, FlagAffectedCommand cmd) {
@@ -41,6 +41,7 @@ public abstract class BaseAsyncInvocationContext implements InvocationContext {
    private CompletableFuture<Object> future;
    private int action;
    private Object actionValue;
+   private boolean asyncInvocation;
 
    @Override
    public final CompletableFuture<Void> onReturn(AsyncInterceptor.ReturnHandler returnHandler) {
@@ -108,6 +109,11 @@ public Object forkInvocationSync(VisitableCommand newCommand) throws Throwable {
       }
    }
 
+   @Override
+   public final boolean isAsyncInvocation() {
+      return asyncInvocation;
+   }
+
    private Throwable extractCompletableFutureException(Throwable t) {
       return t instanceof ExecutionException ? t.getCause() :
              t instanceof CompletionException ? t.getCause() : t;
@@ -137,6 +143,7 @@ private Object invokeReturnHandlersSync(VisitableCommand command, Object returnV
 
    final CompletableFuture<Object> invoke(VisitableCommand command, InterceptorListNode firstInterceptor) {
       future = new CompletableFuture<>();
+      asyncInvocation = true;
       nextInterceptor = firstInterceptor;
       nextReturnHandler = null;
       action = INVOKE_NEXT;
@@ -159,6 +166,14 @@ private void invokeNextWithContext(VisitableCommand command, Object returnValue,
 
    private void invokeNext(VisitableCommand command, Object returnValue, Throwable throwable) {
       InterceptorListNode interceptorNode = this.nextInterceptor;
+      if (throwable != null) {
+         // The asynchronous part of an interceptor or return handler failed
+         // Skip the remaining interceptors, like when the exception is thrown synchronously
+         throwable = extractCompletableFutureException(throwable);
+         action = INVOKE_NEXT;
+         interceptorNode = null;
+         nextInterceptor = null;
+      }
       while (true) {
          if (action == FORK_INVOCATION) {
             // forkInvocation start
@@ -278,6 +293,7 @@ Object invokeSync(VisitableCommand command, InterceptorListNode firstInterceptor
          throws Throwable {
       nextReturnHandler = null;
       action = INVOKE_NEXT;
+      asyncInvocation = false;
       try {
          Object returnValue = invokeInterceptorsSync(command, firstInterceptor);
          return invokeReturnHandlersSync(command, returnValue, null);
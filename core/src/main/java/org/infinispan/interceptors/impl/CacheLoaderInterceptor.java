@@ -3,8 +3,10 @@
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.PersistenceUtil.convert;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.concurrent.CompletableFuture;
@@ -78,6 +80,7 @@
 import org.infinispan.util.CloseableSuppliedIterator;
 import org.infinispan.util.DistinctKeyDoubleEntryCloseableIterator;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.function.CloseableSupplier;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -140,19 +143,31 @@ public CompletableFuture<Void> visitPutKeyValueCommand(InvocationContext ctx, Pu
    @Override
    public CompletableFuture<Void> visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command)
          throws Throwable {
-      return visitDataCommand(ctx, command);
+      return visitReadCommand(ctx, command);
    }
 
    @Override
    public CompletableFuture<Void> visitGetCacheEntryCommand(InvocationContext ctx,
          GetCacheEntryCommand command) throws Throwable {
-      return visitDataCommand(ctx, command);
+      return visitReadCommand(ctx, command);
    }
 
 
    @Override
    public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllCommand command)
          throws Throwable {
+      if (ctx.isAsyncInvocation()) {
+         List<Object> keysToLoad = new ArrayList<>();
+         for (Object key : command.getKeys()) {
+            if (!skipLoad(command, key, ctx)) {
+               keysToLoad.add(key);
+            }
+         }
+         if (!keysToLoad.isEmpty()) {
+            return loadAsync(ctx, keysToLoad, command);
+         }
+         return ctx.continueInvocation();
+      }
       for (Object key : command.getKeys()) {
          loadIfNeeded(ctx, key, command);
       }
@@ -191,6 +206,74 @@ private <T extends FlagAffectedCommand> CompletableFuture<Void> visitManyDataCom
       return ctx.continueInvocation();
    }
 
+   private CompletableFuture<Void> visitReadCommand(InvocationContext ctx, AbstractDataCommand command)
+         throws Throwable {
+      Object key = command.getKey();
+      if (key != null && ctx.isAsyncInvocation() && !skipLoad(command, key, ctx)) {
+         return loadAsync(ctx, Collections.singletonList(key), command);
+      }
+      return visitDataCommand(ctx, command);
+   }
+
+   /**
+    * Loads the keys without blocking the caller thread, and continues the invocation once the entries are in the
+    * context.
+    * <p>
+    * The entries loaded this way are not stored in the data container: the blocking path holds the container's lock
+    * for the key while it reads the stores, without it a concurrent removal could be undone by a stale load.
+    */
+   private CompletableFuture<Void> loadAsync(InvocationContext ctx, List<?> keys, FlagAffectedCommand command) {
+      if (!allowNonBlockingLoad()) {
+         return CompletableFuture.runAsync(() -> {
+            for (Object key : keys) {
+               loadInContext(ctx, key, command);
+            }
+         }, executorService).thenCompose(ignored -> ctx.continueInvocation());
+      }
+
+      InternalCacheEntry[] inMemory = new InternalCacheEntry[keys.size()];
+      CompletableFuture<MarshalledEntry>[] loads = new CompletableFuture[keys.size()];
+      for (int i = 0; i < loads.length; i++) {
+         Object key = keys.get(i);
+         InternalCacheEntry<K, V> entry = dataContainer.peek(key);
+         if (entry != null && (!entry.canExpire() || !entry.isExpired(timeService.wallClockTime()))) {
+            inMemory[i] = entry;
+            loads[i] = CompletableFutures.completedNull();
+         } else {
+            loads[i] = persistenceManager.loadFromAllStoresAsync(key, ctx).toCompletableFuture();
+         }
+      }
+      // The stores may complete the loads on different threads, so only update the context once all are done
+      return CompletableFuture.allOf(loads).thenCompose(ignored -> {
+         for (int i = 0; i < loads.length; i++) {
+            Object key = keys.get(i);
+            if (inMemory[i] != null) {
+               updateContext(ctx, key, inMemory[i], null, command);
+               continue;
+            }
+            MarshalledEntry loaded = loads[i].join();
+            if (trace) {
+               log.tracef("Loaded %s for key %s from persistence.", loaded, key);
+            }
+            if (loaded != null && loaded.getMetadata() != null &&
+                  loaded.getMetadata().isExpired(timeService.wallClockTime())) {
+               loaded = null;
+            }
+            InternalCacheEntry<K, V> entry = loaded == null ? null : PersistenceUtil.convert(loaded, iceFactory);
+            updateContext(ctx, key, entry, loaded != null, command);
+         }
+         return ctx.continueInvocation();
+      });
+   }
+
+   /**
+    * @return whether the entries can be loaded without storing them in the data container, see {@link
+    *       #loadAsync(InvocationContext, List, FlagAffectedCommand)}
+    */
+   protected boolean allowNonBlockingLoad() {
+      return true;
+   }
+
    private CompletableFuture<Void> visitDataCommand(InvocationContext ctx, AbstractDataCommand command)
          throws Throwable {
       Object key;
@@ -277,7 +360,7 @@ public CompletableFuture<Void> visitKeySetCommand(InvocationContext ctx, KeySetC
 
    @Override
    public CompletableFuture<Void> visitReadOnlyKeyCommand(InvocationContext ctx, ReadOnlyKeyCommand command) throws Throwable {
-      return visitDataCommand(ctx, command);
+      return visitReadCommand(ctx, command);
    }
 
    @Override
@@ -343,6 +426,12 @@ private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCom
       InternalCacheEntry<K, V> entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, (K) key,
                                                                              ctx, timeService, isLoaded);
       Boolean isLoadedValue = isLoaded.get();
+      updateContext(ctx, key, entry, isLoadedValue, cmd);
+      return isLoadedValue;
+   }
+
+   private void updateContext(InvocationContext ctx, Object key, InternalCacheEntry<K, V> entry, Boolean isLoadedValue,
+         FlagAffectedCommand cmd) {
       if (trace) {
          log.tracef("Entry was loaded? %s", isLoadedValue);
       }
@@ -368,7 +457,6 @@ private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCom
             sendNotification(key, value, false, ctx, cmd);
          }
       }
-      return isLoadedValue;
    }
 
    private boolean skipLoad(FlagAffectedCommand cmd, Object key, InvocationContext ctx) {
@@ -470,6 +470,7 @@ public void resetStatistics() {
       prepares.set(0);
       commits.set(0);
       rollbacks.set(0);
+      txTable.resetReadOnlyFastPathReads();
    }
 
    @ManagedAttribute(
@@ -511,6 +512,16 @@ public long getRollbacks() {
       return rollbacks.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of reads in the scope of a transaction that had not written to the cache, and so were performed without tracking the transaction, since last reset",
+         displayName = "Read-only fast path reads",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getReadOnlyFastPathReads() {
+      return txTable.getReadOnlyFastPathReads();
+   }
+
    private CompletableFuture<Void> verifyRemoteTransaction(RemoteTxInvocationContext ctx,
          AbstractTransactionBoundaryCommand command, ForkReturnHandler continuation, Object rv,
          Throwable throwable) throws Throwable {
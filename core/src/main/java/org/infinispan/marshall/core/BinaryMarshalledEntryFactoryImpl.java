@@ -0,0 +1,45 @@
+package org.infinispan.marshall.core;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.metadata.InternalMetadata;
+
+/**
+ * {@link MarshalledEntryFactory} creating {@link BinaryMarshalledEntryImpl} instances, so that the byte[] keys and
+ * values of a cache using {@link org.infinispan.configuration.cache.StorageType#BINARY} reach the stores without
+ * being marshalled again.
+ *
+ * @since 9.0
+ */
+public class BinaryMarshalledEntryFactoryImpl implements MarshalledEntryFactory {
+
+   private StreamingMarshaller marshaller;
+
+   @Inject
+   public void init(StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
+   public BinaryMarshalledEntryFactoryImpl() {
+   }
+
+   public BinaryMarshalledEntryFactoryImpl(StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
+   @Override
+   public MarshalledEntry newMarshalledEntry(ByteBuffer key, ByteBuffer valueBytes, ByteBuffer metadataBytes) {
+      return new BinaryMarshalledEntryImpl(key, valueBytes, metadataBytes, marshaller);
+   }
+
+   @Override
+   public MarshalledEntry newMarshalledEntry(Object key, ByteBuffer valueBytes, ByteBuffer metadataBytes) {
+      return new BinaryMarshalledEntryImpl(key, valueBytes, metadataBytes, marshaller);
+   }
+
+   @Override
+   public MarshalledEntry newMarshalledEntry(Object key, Object value, InternalMetadata im) {
+      return new BinaryMarshalledEntryImpl(key, value, im, marshaller);
+   }
+}
@@ -0,0 +1,99 @@
+package org.infinispan.marshall.core;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.Util;
+import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.persistence.spi.PersistenceException;
+
+/**
+ * {@link MarshalledEntry} used by caches with {@link org.infinispan.configuration.cache.StorageType#BINARY} storage.
+ * Keys and values are byte arrays which are handed to the stores as they are, without being marshalled, and are read
+ * back as byte arrays. Only the metadata goes through the marshaller.
+ *
+ * @since 9.0
+ */
+public class BinaryMarshalledEntryImpl<K, V> extends MarshalledEntryImpl<K, V> {
+
+   public BinaryMarshalledEntryImpl(ByteBuffer key, ByteBuffer valueBytes, ByteBuffer metadataBytes, StreamingMarshaller marshaller) {
+      super(key, valueBytes, metadataBytes, marshaller);
+   }
+
+   public BinaryMarshalledEntryImpl(K key, ByteBuffer valueBytes, ByteBuffer metadataBytes, StreamingMarshaller marshaller) {
+      super(key, valueBytes, metadataBytes, marshaller);
+   }
+
+   public BinaryMarshalledEntryImpl(K key, V value, InternalMetadata im, StreamingMarshaller sm) {
+      super(key, value, im, sm);
+   }
+
+   @Override
+   protected ByteBuffer marshallUserObject(Object obj) {
+      if (obj == null) {
+         return null;
+      }
+      if (!(obj instanceof byte[])) {
+         throw new PersistenceException("Binary storage only supports byte[] keys and values, found " + obj.getClass());
+      }
+      byte[] bytes = (byte[]) obj;
+      return new ByteBufferImpl(bytes, 0, bytes.length);
+   }
+
+   @Override
+   protected Object unmarshallUserObject(ByteBuffer buf) {
+      if (buf == null) {
+         return null;
+      }
+      byte[] raw = buf.getBuf();
+      if (buf.getOffset() == 0 && buf.getLength() == raw.length) {
+         return raw;
+      }
+      byte[] bytes = new byte[buf.getLength()];
+      System.arraycopy(raw, buf.getOffset(), bytes, 0, bytes.length);
+      return bytes;
+   }
+
+   public static class Externalizer extends AbstractExternalizer<BinaryMarshalledEntryImpl> {
+
+      private static final long serialVersionUID = 4032413386425487735L;
+
+      private final StreamingMarshaller marshaller;
+
+      public Externalizer(StreamingMarshaller marshaller) {
+         this.marshaller = marshaller;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, BinaryMarshalledEntryImpl me) throws IOException {
+         output.writeObject(me.getKeyBytes());
+         output.writeObject(me.getValueBytes());
+         output.writeObject(me.getMetadataBytes());
+      }
+
+      @Override
+      public BinaryMarshalledEntryImpl readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         ByteBuffer keyBytes = (ByteBuffer) input.readObject();
+         ByteBuffer valueBytes = (ByteBuffer) input.readObject();
+         ByteBuffer metadataBytes = (ByteBuffer) input.readObject();
+         return new BinaryMarshalledEntryImpl(keyBytes, valueBytes, metadataBytes, marshaller);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.BINARY_MARSHALLED_ENTRY_ID;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Set<Class<? extends BinaryMarshalledEntryImpl>> getTypeClasses() {
+         return Util.<Class<? extends BinaryMarshalledEntryImpl>>asSet(BinaryMarshalledEntryImpl.class);
+      }
+   }
+}
@@ -1,6 +1,7 @@
 package org.infinispan.marshall.core;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -21,11 +22,13 @@
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.commons.marshall.Externalizer;
+import org.infinispan.commons.marshall.GeneratedExternalizer;
 import org.infinispan.commons.marshall.LambdaExternalizer;
 import org.infinispan.commons.marshall.MarshallableFunctionExternalizers;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.ImmutableListCopy;
 import org.infinispan.commons.util.Immutables;
+import org.infinispan.commons.util.ServiceFinder;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.ImmortalCacheValue;
@@ -43,6 +46,10 @@
 import org.infinispan.container.entries.metadata.MetadataTransientCacheValue;
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheValue;
+import org.infinispan.container.entries.versioned.VersionedImmortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedMortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientMortalCacheEntry;
 import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.container.versioning.SimpleClusteredVersion;
 import org.infinispan.context.Flag;
@@ -105,6 +112,7 @@
 import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.remoting.responses.UnsuccessfulResponse;
 import org.infinispan.remoting.responses.UnsureResponse;
+import org.infinispan.remoting.transport.jgroups.BatchedCommands;
 import org.infinispan.remoting.transport.jgroups.JGroupsAddress;
 import org.infinispan.remoting.transport.jgroups.JGroupsTopologyAwareAddress;
 import org.infinispan.statetransfer.StateChunk;
@@ -275,6 +283,7 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new DldGlobalTransaction.Externalizer());
       addInternalExternalizer(new RecoveryAwareDldGlobalTransaction.Externalizer());
       addInternalExternalizer(new JGroupsAddress.Externalizer());
+      addInternalExternalizer(new BatchedCommands.Externalizer());
       addInternalExternalizer(new ImmutableListCopy.Externalizer());
       addInternalExternalizer(new Immutables.ImmutableMapWrapperExternalizer());
       addInternalExternalizer(new MarshalledValue.Externalizer(globalMarshaller));
@@ -309,6 +318,10 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new MetadataMortalCacheValue.Externalizer());
       addInternalExternalizer(new MetadataTransientCacheValue.Externalizer());
       addInternalExternalizer(new MetadataTransientMortalCacheValue.Externalizer());
+      addInternalExternalizer(new VersionedImmortalCacheEntry.Externalizer());
+      addInternalExternalizer(new VersionedMortalCacheEntry.Externalizer());
+      addInternalExternalizer(new VersionedTransientCacheEntry.Externalizer());
+      addInternalExternalizer(new VersionedTransientMortalCacheEntry.Externalizer());
 
       addInternalExternalizer(new DeltaCompositeKey.DeltaCompositeKeyExternalizer());
       addInternalExternalizer(new AtomicHashMap.Externalizer());
@@ -348,6 +361,7 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new KeyValuePair.Externalizer());
       addInternalExternalizer(new InternalMetadataImpl.Externalizer());
       addInternalExternalizer(new MarshalledEntryImpl.Externalizer(globalMarshaller));
+      addInternalExternalizer(new BinaryMarshalledEntryImpl.Externalizer(globalMarshaller));
 
       addInternalExternalizer(new CollectionKeyFilter.Externalizer());
       addInternalExternalizer(new KeyFilterAsKeyValueFilter.Externalizer());
@@ -435,6 +449,17 @@ else if (config.getKey() != null)
          id = checkForeignIdLimit(id, ext);
          updateExtReadersWritersWithTypes(new ForeignExternalizerAdapter(id, ext), generateForeignReaderIndex(id));
       }
+
+      // Externalizers generated for classes annotated with @GenerateExternalizer, unless a type is already configured
+      for (GeneratedExternalizer<?> ext : ServiceFinder.load(GeneratedExternalizer.class, globalCfg.classLoader())) {
+         if (!Collections.disjoint(writers.keySet(), ext.getTypeClasses())) {
+            if (trace)
+               log.tracef("Ignoring generated externalizer %s, its types already have an externalizer", ext.getClass().getName());
+            continue;
+         }
+         int id = checkForeignIdLimit(ext.getId(), ext);
+         updateExtReadersWritersWithTypes(new ForeignExternalizerAdapter(id, ext), generateForeignReaderIndex(id));
+      }
    }
 
    private void updateExtReadersWriters(ExternalizerAdapter adapter, Class<?> typeClass, int readerIndex) {
@@ -174,4 +174,12 @@ public interface Ids extends org.infinispan.commons.marshall.Ids {
    int AFFINITY_FUNCTION_PARTITIONER = 165;
 
    int PERSISTENT_UUID = 166;
+
+   // 167 used by commons
+   int VERSIONED_IMMORTAL_ENTRY = 168;
+   int VERSIONED_MORTAL_ENTRY = 169;
+   int VERSIONED_TRANSIENT_ENTRY = 170;
+   int VERSIONED_TRANSIENT_MORTAL_ENTRY = 171;
+   int BINARY_MARSHALLED_ENTRY_ID = 172;
+   int BATCHED_COMMANDS = 173;
 }
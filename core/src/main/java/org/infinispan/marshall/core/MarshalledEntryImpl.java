@@ -50,7 +50,7 @@ public MarshalledEntryImpl(K key, V value, InternalMetadata im, StreamingMarshal
    @Override
    public K getKey() {
       if (key == null) {
-         key = unmarshall(keyBytes);
+         key = (K) unmarshallUserObject(keyBytes);
       }
       return key;
    }
@@ -58,7 +58,7 @@ public K getKey() {
    @Override
    public V getValue() {
       if (value == null) {
-         value = unmarshall(valueBytes);
+         value = (V) unmarshallUserObject(valueBytes);
       }
       return value;
    }
@@ -77,7 +77,7 @@ public InternalMetadata getMetadata() {
    @Override
    public ByteBuffer getKeyBytes() {
       if (keyBytes == null) {
-         keyBytes = marshall(key);
+         keyBytes = marshallUserObject(key);
       }
       return keyBytes;
    }
@@ -85,7 +85,7 @@ public ByteBuffer getKeyBytes() {
    @Override
    public ByteBuffer getValueBytes() {
       if (valueBytes == null) {
-         valueBytes = marshall(value);
+         valueBytes = marshallUserObject(value);
       }
       return valueBytes;
    }
@@ -100,6 +100,20 @@ public ByteBuffer getMetadataBytes() {
       return metadataBytes;
    }
 
+   /**
+    * Converts a key or value to its byte representation.
+    */
+   protected ByteBuffer marshallUserObject(Object obj) {
+      return marshall(obj);
+   }
+
+   /**
+    * Converts the byte representation of a key or value back to the object.
+    */
+   protected Object unmarshallUserObject(ByteBuffer buf) {
+      return unmarshall(buf);
+   }
+
    private ByteBuffer marshall(Object obj) {
       try {
          return marshaller.objectToBuffer(obj);
@@ -1,5 +1,6 @@
 package org.infinispan.notifications.cachelistener;
 
+import java.lang.annotation.Annotation;
 import java.util.Collection;
 
 import org.infinispan.commands.FlagAffectedCommand;
@@ -110,4 +111,10 @@ void notifyCacheEntryPassivated(K key, V value, boolean pre,
     * @param typeConverter the converter instance; can be {@code null}
     */
    void setTypeConverter(TypeConverter typeConverter);
+
+   /**
+    * @param annotationClass a listener method annotation, e.g. {@link org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated}
+    * @return whether any listener is notified of the events of the given annotation
+    */
+   boolean hasListener(Class<? extends Annotation> annotationClass);
 }
@@ -963,6 +963,11 @@ public List<CacheEntryListenerInvocation<K, V>> getListenerCollectionForAnnotati
       return super.getListenerCollectionForAnnotation(annotation);
    }
 
+   @Override
+   public boolean hasListener(Class<? extends Annotation> annotationClass) {
+      return !getListenerCollectionForAnnotation(annotationClass).isEmpty();
+   }
+
    private void raiseEventForInitialTransfer(UUID identifier, CacheEntry entry, boolean clustered) {
       EventImpl preEvent;
       if (clustered) {
@@ -3,18 +3,23 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.infinispan.Cache;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.AsyncStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
@@ -26,6 +31,10 @@
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
+import org.infinispan.persistence.support.NonBlockingStores;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -47,7 +56,12 @@
  * to define whether cache loader operations are to be asynchronous. If not specified, a cache loader operation is
  * assumed synchronous and this decorator is not applied.
  * <p/>
- * Write operations affecting same key are now coalesced so that only the final state is actually stored.
+ * Write operations affecting same key are now coalesced so that only the final state is actually stored. Overwriting
+ * a key that is already buffered doesn't consume additional buffer space, and a buffered modification is dropped
+ * when a later modification of the same key is waiting to be flushed.
+ * <p/>
+ * Modifications are flushed in batches: stores are written with a single batch write and removals are pipelined. The
+ * batch size adapts to the latency of the underlying store, and batches are further bounded by their marshalled size.
  * <p/>
  *
  * @author Manik Surtani
@@ -61,6 +75,21 @@ public class AsyncCacheWriter extends DelegatingCacheWriter {
    private static final Log log = LogFactory.getLog(AsyncCacheWriter.class);
    private static final boolean trace = log.isTraceEnabled();
    private static final AtomicInteger threadId = new AtomicInteger(0);
+   private static final Executor WITHIN_THREAD = new WithinThreadExecutor();
+
+   /**
+    * Bounds of the adaptive number of modifications flushed to the underlying store in one batch.
+    */
+   private static final int MIN_BATCH_SIZE = 16;
+   private static final int MAX_BATCH_SIZE = 1024;
+   /**
+    * Upper bound of the marshalled size of the entries flushed in one batch.
+    */
+   private static final long MAX_BATCH_BYTES = 4 * 1024 * 1024;
+   /**
+    * The batch size shrinks when flushing a batch takes longer than this, and grows when it takes less than half.
+    */
+   private static final long TARGET_FLUSH_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
    private ExecutorService executor;
    private Thread coordinator;
@@ -75,6 +104,12 @@ public class AsyncCacheWriter extends DelegatingCacheWriter {
 
    protected AsyncStoreConfiguration asyncConfiguration;
 
+   private TimeService timeService;
+   private volatile int batchSize = MIN_BATCH_SIZE;
+   private final AtomicLong flushedBatches = new AtomicLong();
+   private final AtomicLong flushedModifications = new AtomicLong();
+   private final AtomicLong flushNanos = new AtomicLong();
+
    public AsyncCacheWriter(CacheWriter delegate) {
       super(delegate);
    }
@@ -83,6 +118,7 @@ public AsyncCacheWriter(CacheWriter delegate) {
    public void init(InitializationContext ctx) {
       super.init(ctx);
       this.asyncConfiguration = ctx.getConfiguration().async();
+      this.timeService = ctx.getTimeService();
 
       Cache cache = ctx.getCache();
       Configuration cacheCfg = cache != null ? cache.getCacheConfiguration() : null;
@@ -142,30 +178,130 @@ public void stop() {
 
    @Override
    public void write(MarshalledEntry entry) {
-      put(new Store(entry.getKey(), entry), 1);
+      put(entry.getKey(), new Store(entry.getKey(), entry));
    }
 
    @Override
    public boolean delete(Object key) {
-      put(new Remove(key), 1);
+      put(key, new Remove(key));
       return true;
    }
 
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      List<MarshalledEntry> entries = new ArrayList<>();
+      List<Object> keys = new ArrayList<>();
+      long bytes = 0;
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               MarshalledEntry entry = ((Store) m).getStoredValue();
+               entries.add(entry);
+               bytes += marshalledSize(entry);
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               keys.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
+         if (entries.size() + keys.size() >= batchSize || bytes >= MAX_BATCH_BYTES) {
+            flush(entries, keys);
+            entries.clear();
+            keys.clear();
+            bytes = 0;
+         }
+      }
+      if (!entries.isEmpty() || !keys.isEmpty())
+         flush(entries, keys);
+   }
+
+   private void flush(List<MarshalledEntry> entries, List<Object> keys) {
+      long start = timeService.time();
+      CompletableFuture<?>[] stages = new CompletableFuture[keys.size() + 1];
+      stages[0] = entries.isEmpty() ? CompletableFutures.completedNull() :
+            NonBlockingStores.writeBatch(actual, entries, WITHIN_THREAD).toCompletableFuture();
+      for (int i = 0; i < keys.size(); i++) {
+         stages[i + 1] = NonBlockingStores.delete(actual, keys.get(i), WITHIN_THREAD).toCompletableFuture();
+      }
+      try {
+         CompletableFuture.allOf(stages).join();
+      } catch (CompletionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof PersistenceException)
+            throw (PersistenceException) cause;
+         throw new PersistenceException(cause);
+      }
+      long duration = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+      flushedBatches.incrementAndGet();
+      flushedModifications.addAndGet(entries.size() + keys.size());
+      flushNanos.addAndGet(duration);
+      adaptBatchSize(duration);
+   }
+
+   private void adaptBatchSize(long duration) {
+      // Additive increase, multiplicative decrease; updates racing between processor threads are harmless
+      int size = batchSize;
+      if (duration > TARGET_FLUSH_LATENCY_NANOS) {
+         batchSize = Math.max(MIN_BATCH_SIZE, size / 2);
+      } else if (duration < TARGET_FLUSH_LATENCY_NANOS / 2) {
+         batchSize = Math.min(MAX_BATCH_SIZE, size + MIN_BATCH_SIZE);
       }
    }
 
+   private static long marshalledSize(MarshalledEntry entry) {
+      long size = 0;
+      ByteBuffer buffer = entry.getKeyBytes();
+      if (buffer != null)
+         size += buffer.getLength();
+      buffer = entry.getValueBytes();
+      if (buffer != null)
+         size += buffer.getLength();
+      buffer = entry.getMetadataBytes();
+      if (buffer != null)
+         size += buffer.getLength();
+      return size;
+   }
+
+   /**
+    * @return the number of modifications buffered or being flushed to the underlying store
+    */
+   public int getQueueDepth() {
+      int depth = 0;
+      for (State s = state.get(); s != null; s = s.next)
+         depth += s.modifications.size();
+      return depth;
+   }
+
+   /**
+    * @return the current maximum number of modifications flushed to the underlying store in one batch
+    */
+   public int getBatchSize() {
+      return batchSize;
+   }
+
+   /**
+    * @return the number of batches flushed to the underlying store
+    */
+   public long getFlushedBatches() {
+      return flushedBatches.get();
+   }
+
+   /**
+    * @return the average number of modifications per flushed batch
+    */
+   public double getAverageBatchSize() {
+      long batches = flushedBatches.get();
+      return batches == 0 ? 0 : (double) flushedModifications.get() / batches;
+   }
+
+   /**
+    * @return the average time taken to flush a batch to the underlying store
+    */
+   public long getAverageFlushLatency(TimeUnit unit) {
+      long batches = flushedBatches.get();
+      return batches == 0 ? 0 : unit.convert(flushNanos.get() / batches, TimeUnit.NANOSECONDS);
+   }
+
 
    protected State newState(boolean clear, State next) {
       ConcurrentMap<Object, Modification> map = CollectionFactory.makeConcurrentMap(64, concurrencyLevel);
@@ -177,16 +313,28 @@ void assertNotStopped() throws CacheException {
          throw new CacheException("AsyncCacheWriter stopped; no longer accepting more entries.");
    }
 
-   private void put(Modification mod, int count) {
-      stateLock.writeLock(count);
-      try {
-         if (trace)
-            log.tracef("Queue modification: %s", mod);
-
-         assertNotStopped();
-         state.get().put(mod);
-      } finally {
-         stateLock.writeUnlock();
+   private void put(Object key, Modification mod) {
+      for (;;) {
+         stateLock.writeLock(0);
+         try {
+            if (trace)
+               log.tracef("Queue modification: %s", mod);
+
+            assertNotStopped();
+            State s = state.get();
+            // Overwriting a buffered key doesn't need more buffer space, so it doesn't block when the buffer is full.
+            // The check and the reservation happen under the write lock, so the state can't be swapped in between.
+            // Concurrent writes of the same new key may each reserve space, which only overestimates the buffer
+            // until the next swap.
+            if (s.modifications.containsKey(key) || stateLock.tryReserve(1)) {
+               s.put(mod);
+               return;
+            }
+         } finally {
+            stateLock.writeUnlock();
+         }
+         // The buffer only drains once the coordinator gets the read lock, so wait without holding the write lock
+         stateLock.awaitSpace();
       }
    }
 
@@ -309,7 +457,7 @@ private class AsyncStoreProcessor implements Runnable {
       public void run() {
          try {
             // try 3 times to store the modifications
-            retryWork(3);
+            retryWork(3, removeSuperseded());
 
          } finally {
             // decrement active worker threads and disconnect myState if this was the last one
@@ -321,13 +469,50 @@ public void run() {
          }
       }
 
-      private void retryWork(int maxRetries) {
+      /**
+       * Drops the modifications of keys that were modified again in a newer state: the newer modification is
+       * flushed after this one anyway, so writing this one would be wasted.
+       */
+      private List<Modification> removeSuperseded() {
+         State head = state.get();
+         if (head == myState)
+            return modifications;
+         List<Modification> result = new ArrayList<>(modifications.size());
+         for (Modification m : modifications) {
+            if (!isSuperseded(head, m))
+               result.add(m);
+         }
+         if (trace && result.size() < modifications.size())
+            log.tracef("Coalesced %d modifications with newer ones", modifications.size() - result.size());
+         return result;
+      }
+
+      private boolean isSuperseded(State head, Modification m) {
+         Object key;
+         switch (m.getType()) {
+            case STORE:
+               key = ((Store) m).getKey();
+               break;
+            case REMOVE:
+               key = ((Remove) m).getKey();
+               break;
+            default:
+               return false;
+         }
+         for (State s = head; s != null && s != myState; s = s.next) {
+            if (s.modifications.containsKey(key))
+               return true;
+         }
+         return false;
+      }
+
+      private void retryWork(int maxRetries, List<Modification> mods) {
          for (int attempt = 0; attempt < maxRetries; attempt++) {
             if (attempt > 0 && log.isDebugEnabled())
                log.debugf("Retrying due to previous failure. %s attempts left.", maxRetries - attempt);
 
             try {
-               AsyncCacheWriter.this.applyModificationsSync(modifications);
+               AsyncCacheWriter.this.applyModificationsSync(mods);
                return;
             } catch (Exception e) {
                if (log.isDebugEnabled())
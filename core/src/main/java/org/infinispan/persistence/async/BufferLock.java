@@ -146,6 +146,27 @@ void writeLock(int count) {
       sync.acquireShared(1);
    }
 
+   /**
+    * Consumes the specified amount of buffer space, unless the buffer is full. Unlike {@link #writeLock(int)}, it
+    * never blocks, so it can be called with the write lock held.
+    *
+    * @param count
+    *           number of items the caller intends to write
+    * @return false if the buffer is full
+    */
+   boolean tryReserve(int count) {
+      return counter == null || counter.tryAcquireShared(count) >= 0;
+   }
+
+   /**
+    * Blocks until the buffer is not full, without consuming buffer space. Must not be called with the write lock held,
+    * as the buffer is only drained by the reader.
+    */
+   void awaitSpace() {
+      if (counter != null)
+         counter.acquireShared(0);
+   }
+
    /**
     * Releases the write lock.
     */
@@ -1,10 +1,14 @@
 package org.infinispan.persistence.file;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -15,6 +19,8 @@
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -33,9 +39,12 @@
 import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.NonBlockingAdvancedCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.TransferableStore;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -68,7 +77,8 @@
  * @since 6.0
  */
 @ConfiguredBy(SingleFileStoreConfiguration.class)
-public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V>, NonBlockingAdvancedCacheLoader<K, V>,
+      TransferableStore<K, V> {
    private static final Log log = LogFactory.getLog(SingleFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
 
@@ -77,12 +87,14 @@
    private static final int KEYLEN_POS = 4;
    private static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   private static final int PROCESS_PARALLELISM = 16;
 
    private SingleFileStoreConfiguration configuration;
 
    protected InitializationContext ctx;
 
    private FileChannel channel;
+   private AsynchronousFileChannel asyncChannel;
    private Map<K, FileEntry> entries;
    private SortedSet<FileEntry> freeList;
    private long filePos = MAGIC.length;
@@ -115,6 +127,8 @@ public void start() {
             }
          }
          channel = new RandomAccessFile(file, "rw").getChannel();
+         // Only used for the non-blocking loads, the writes always go through the regular channel
+         asyncChannel = AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.READ);
 
          // initialize data structures
          entries = newEntryMap();
@@ -159,6 +173,8 @@ public void stop() {
             // reset state
             channel.close();
             channel = null;
+            asyncChannel.close();
+            asyncChannel = null;
             entries = null;
             freeList = null;
             filePos = MAGIC.length;
@@ -441,34 +457,14 @@ public MarshalledEntry<K, V> load(Object key) {
    }
 
    private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
-      final FileEntry fe;
-      resizeLock.readLock().lock();
-      try {
-         synchronized (entries) {
-            // lookup FileEntry of the key
-            fe = entries.get(key);
-            if (fe == null)
-               return null;
-
-            // Entries are removed due to expiration from {@link SingleFileStore#purge}
-            if (fe.isExpired(timeService.wallClockTime())) {
-               return null;
-            } else {
-               // lock entry for reading before releasing entries monitor
-               fe.lock();
-            }
-         }
-      } finally {
-         resizeLock.readLock().unlock();
-      }
-
-      org.infinispan.commons.io.ByteBuffer valueBb = null;
-      org.infinispan.commons.io.ByteBuffer metadataBb = null;
+      final FileEntry fe = lockEntry(key);
+      if (fe == null)
+         return null;
 
       // If we only require the key, then no need to read disk
       if (!loadValue && !loadMetadata) {
          try {
-            return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, valueBb, metadataBb);
+            return keyOnlyEntry(key);
          } finally {
             fe.unlock();
          }
@@ -487,7 +483,46 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
          // FileEntry is immutable, so its members can't be changed by another thread.
          fe.unlock();
       }
+      return toMarshalledEntry(key, fe, data, loadValue, loadMetadata);
+   }
+
+   /**
+    * Looks up the file entry of a key and locks it for reading.
+    *
+    * @return the locked entry, or {@code null} if the key does not exist or is expired
+    */
+   private FileEntry lockEntry(Object key) {
+      resizeLock.readLock().lock();
+      try {
+         synchronized (entries) {
+            // lookup FileEntry of the key
+            FileEntry fe = entries.get(key);
+            if (fe == null)
+               return null;
+
+            // Entries are removed due to expiration from {@link SingleFileStore#purge}
+            if (fe.isExpired(timeService.wallClockTime())) {
+               return null;
+            } else {
+               // lock entry for reading before releasing entries monitor
+               fe.lock();
+               return fe;
+            }
+         }
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
 
+   private MarshalledEntry<K, V> keyOnlyEntry(Object key) {
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (org.infinispan.commons.io.ByteBuffer) null,
+            (org.infinispan.commons.io.ByteBuffer) null);
+   }
+
+   private MarshalledEntry<K, V> toMarshalledEntry(Object key, FileEntry fe, byte[] data, boolean loadValue,
+         boolean loadMetadata) {
+      org.infinispan.commons.io.ByteBuffer valueBb = null;
+      org.infinispan.commons.io.ByteBuffer metadataBb = null;
       if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
       ByteBufferFactory factory = ctx.getByteBufferFactory();
       org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, fe.keyLen);
@@ -500,6 +535,82 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
    }
 
+   @Override
+   public CompletionStage<MarshalledEntry<K, V>> loadAsync(Object key) {
+      return loadAsync(key, true, true);
+   }
+
+   /**
+    * The in-memory index answers the lookups of missing keys right away, otherwise the entry is read with an {@link
+    * AsynchronousFileChannel} and the stage is completed by one of its threads.
+    */
+   private CompletableFuture<MarshalledEntry<K, V>> loadAsync(Object key, boolean loadValue, boolean loadMetadata) {
+      final FileEntry fe;
+      try {
+         fe = lockEntry(key);
+      } catch (Exception e) {
+         return CompletableFutures.completedExceptionFuture(new PersistenceException(e));
+      }
+      if (fe == null)
+         return CompletableFutures.completedNull();
+
+      if (!loadValue && !loadMetadata) {
+         try {
+            return CompletableFuture.completedFuture(keyOnlyEntry(key));
+         } finally {
+            fe.unlock();
+         }
+      }
+
+      byte[] data = new byte[fe.keyLen + fe.dataLen + (loadMetadata ? fe.metadataLen : 0)];
+      ReadHandler handler = new ReadHandler(key, fe, data, loadValue, loadMetadata);
+      handler.read();
+      return handler.future;
+   }
+
+   /**
+    * Like {@link #contains(Object)}, the answer only requires the in-memory index.
+    */
+   @Override
+   public CompletionStage<Boolean> containsAsync(Object key) {
+      return CompletableFuture.completedFuture(contains(key));
+   }
+
+   @Override
+   public CompletionStage<Void> processAsync(KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+         boolean fetchValue, boolean fetchMetadata) {
+      List<K> keys = keysToProcess(filter);
+      TaskContextImpl taskContext = new TaskContextImpl();
+      int lanes = Math.min(PROCESS_PARALLELISM, keys.size());
+      CompletableFuture<?>[] futures = new CompletableFuture[lanes];
+      for (int i = 0; i < lanes; i++) {
+         ProcessLane lane = new ProcessLane(keys, i, lanes, task, taskContext, executor, fetchValue, fetchMetadata);
+         executor.execute(lane);
+         futures[i] = lane.future;
+      }
+      return CompletableFuture.allOf(futures);
+   }
+
+   /**
+    * @return the keys accepted by the filter, sorted by their position in the file
+    */
+   private List<K> keysToProcess(KeyFilter<? super K> filter) {
+      filter = PersistenceUtil.notNull(filter);
+      ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
+      synchronized (entries) {
+         for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
+            if (filter.accept(e.getKey()))
+               keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
+         }
+      }
+      keysToLoad.sort(Comparator.comparingLong(e -> e.getValue().offset));
+      List<K> keys = new ArrayList<>(keysToLoad.size());
+      for (KeyValuePair<K, FileEntry> e : keysToLoad) {
+         keys.add(e.getKey());
+      }
+      return keys;
+   }
+
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       filter = PersistenceUtil.notNull(filter);
@@ -550,6 +661,122 @@ public Void call() throws Exception {
       }
    }
 
+   /**
+    * A record is the block of the entry on disk, without the unused space at its end.
+    */
+   @Override
+   public void exportRecords(KeyFilter<? super K> filter, RecordConsumer<? super K> consumer) throws InterruptedException {
+      for (K key : keysToProcess(filter)) {
+         FileEntry fe = lockEntry(key);
+         if (fe == null)
+            continue;
+
+         byte[] record = new byte[fe.actualSize()];
+         try {
+            channel.read(ByteBuffer.wrap(record), fe.offset);
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         } finally {
+            fe.unlock();
+         }
+         consumer.accept(key, record);
+      }
+   }
+
+   @Override
+   public K recordKey(byte[] record) {
+      int keyLen = ByteBuffer.wrap(record).getInt(KEYLEN_POS);
+      try {
+         return (K) ctx.getMarshaller().objectFromByteBuffer(record, KEY_POS, keyLen);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public MarshalledEntry<K, V> recordToEntry(byte[] record) {
+      FileEntry fe = recordEntry(0, record);
+      ByteBufferFactory factory = ctx.getByteBufferFactory();
+      org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(record, KEY_POS, fe.keyLen);
+      org.infinispan.commons.io.ByteBuffer valueBb = factory.newByteBuffer(record, KEY_POS + fe.keyLen, fe.dataLen);
+      org.infinispan.commons.io.ByteBuffer metadataBb = fe.metadataLen > 0 ?
+            factory.newByteBuffer(record, KEY_POS + fe.keyLen + fe.dataLen, fe.metadataLen) : null;
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
+   }
+
+   /**
+    * The records are appended at the end of the file with a single write, instead of being allocated one by one.
+    */
+   @Override
+   public void importRecords(Map<K, byte[]> records) {
+      int len = 0;
+      for (byte[] record : records.values()) {
+         len += record.length;
+      }
+      if (len == 0)
+         return;
+
+      List<FileEntry> oldEntries = new ArrayList<>(records.size());
+      resizeLock.readLock().lock();
+      try {
+         long offset;
+         synchronized (freeList) {
+            offset = filePos;
+            filePos += len;
+         }
+
+         ByteBuffer buf = ByteBuffer.allocate(len);
+         for (byte[] record : records.values()) {
+            int position = buf.position();
+            buf.put(record);
+            // the block is exactly as large as the record
+            buf.putInt(position, record.length);
+         }
+         buf.flip();
+         while (buf.hasRemaining()) {
+            channel.write(buf, offset + buf.position());
+         }
+         if (trace) log.tracef("Imported %d entries at %d:%d", records.size(), offset, len);
+
+         // add the new entries to in-memory index
+         long position = offset;
+         for (Map.Entry<K, byte[]> e : records.entrySet()) {
+            FileEntry fe = recordEntry(position, e.getValue());
+            position += fe.size;
+            FileEntry oldEntry = entries.put(e.getKey(), fe);
+            if (oldEntry == null)
+               oldEntry = evict();
+            if (oldEntry != null)
+               oldEntries.add(oldEntry);
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         // in case we replaced or evicted entries, add them to freeList
+         try {
+            for (FileEntry oldEntry : oldEntries) {
+               free(oldEntry);
+            }
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.readLock().unlock();
+         }
+      }
+   }
+
+   /**
+    * @return the file entry of a record stored at the given offset
+    */
+   private static FileEntry recordEntry(long offset, byte[] record) {
+      ByteBuffer header = ByteBuffer.wrap(record);
+      int keyLen = header.getInt(KEYLEN_POS);
+      int dataLen = header.getInt(KEYLEN_POS + 4);
+      int metadataLen = header.getInt(KEYLEN_POS + 8);
+      long expiryTime = header.getLong(KEYLEN_POS + 12);
+      return new FileEntry(offset, record.length, keyLen, dataLen, metadataLen, expiryTime);
+   }
+
    /**
     * Manipulates the free entries for optimizing disk space.
     */
@@ -718,6 +945,132 @@ public SingleFileStoreConfiguration getConfiguration() {
       return configuration;
    }
 
+   /**
+    * Reads the serialized data of an entry from {@link #asyncChannel}, issuing new reads until the buffer is full.
+    * The entry stays locked until the read completes, so that {@link #clear()} can't truncate the file meanwhile.
+    */
+   private class ReadHandler implements CompletionHandler<Integer, Void> {
+      private final Object key;
+      private final FileEntry fe;
+      private final byte[] data;
+      private final ByteBuffer buffer;
+      private final boolean loadValue;
+      private final boolean loadMetadata;
+      private final CompletableFuture<MarshalledEntry<K, V>> future = new CompletableFuture<>();
+
+      ReadHandler(Object key, FileEntry fe, byte[] data, boolean loadValue, boolean loadMetadata) {
+         this.key = key;
+         this.fe = fe;
+         this.data = data;
+         this.buffer = ByteBuffer.wrap(data);
+         this.loadValue = loadValue;
+         this.loadMetadata = loadMetadata;
+      }
+
+      void read() {
+         try {
+            asyncChannel.read(buffer, fe.offset + KEY_POS + buffer.position(), null, this);
+         } catch (Throwable t) {
+            failed(t, null);
+         }
+      }
+
+      @Override
+      public void completed(Integer read, Void attachment) {
+         if (read < 0) {
+            failed(new EOFException("Unexpected end of file reading entry " + key), null);
+         } else if (buffer.hasRemaining()) {
+            read();
+         } else {
+            fe.unlock();
+            try {
+               future.complete(toMarshalledEntry(key, fe, data, loadValue, loadMetadata));
+            } catch (Throwable t) {
+               future.completeExceptionally(new PersistenceException(t));
+            }
+         }
+      }
+
+      @Override
+      public void failed(Throwable t, Void attachment) {
+         fe.unlock();
+         future.completeExceptionally(new PersistenceException(t));
+      }
+   }
+
+   /**
+    * Processes every {@code step}-th key, starting with the key at {@code index}, one key at a time. Always runs on
+    * the executor of the {@link #processAsync(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)} call, and
+    * gives its thread back while a read is in progress.
+    */
+   private class ProcessLane implements Runnable {
+      private final List<K> keys;
+      private final int step;
+      private final CacheLoaderTask<K, V> task;
+      private final TaskContextImpl taskContext;
+      private final Executor executor;
+      private final boolean fetchValue;
+      private final boolean fetchMetadata;
+      private final CompletableFuture<Void> future = new CompletableFuture<>();
+      private int index;
+
+      ProcessLane(List<K> keys, int index, int step, CacheLoaderTask<K, V> task, TaskContextImpl taskContext,
+            Executor executor, boolean fetchValue, boolean fetchMetadata) {
+         this.keys = keys;
+         this.index = index;
+         this.step = step;
+         this.task = task;
+         this.taskContext = taskContext;
+         this.executor = executor;
+         this.fetchValue = fetchValue;
+         this.fetchMetadata = fetchMetadata;
+      }
+
+      @Override
+      public void run() {
+         try {
+            while (index < keys.size() && !taskContext.isStopped()) {
+               CompletableFuture<MarshalledEntry<K, V>> load = loadAsync(keys.get(index), fetchValue, fetchMetadata);
+               index += step;
+               if (!load.isDone()) {
+                  // Continue on the executor once the entry is read
+                  load.whenComplete((entry, throwable) -> executor.execute(() -> {
+                     if (throwable != null) {
+                        future.completeExceptionally(throwable);
+                     } else if (processEntry(entry)) {
+                        run();
+                     }
+                  }));
+                  return;
+               }
+               if (!processEntry(load.join())) {
+                  return;
+               }
+            }
+            future.complete(null);
+         } catch (Throwable t) {
+            future.completeExceptionally(t);
+         }
+      }
+
+      /**
+       * @return {@code true} if the iteration can continue
+       */
+      private boolean processEntry(MarshalledEntry<K, V> entry) {
+         if (entry == null) {
+            return true;
+         }
+         try {
+            task.processEntry(entry, taskContext);
+            return true;
+         } catch (Exception e) {
+            log.errorExecutingParallelStoreTask(e);
+            future.completeExceptionally(new PersistenceException("Execution exception!", e));
+            return false;
+         }
+      }
+   }
+
    /**
     * Helper class to represent an entry in the cache file.
     * <p/>
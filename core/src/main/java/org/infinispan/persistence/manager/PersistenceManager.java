@@ -2,6 +2,7 @@
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 
 import javax.transaction.Transaction;
@@ -60,6 +61,32 @@ public interface PersistenceManager extends Lifecycle {
 
    MarshalledEntry loadFromAllStores(Object key, InvocationContext context);
 
+   /**
+    * Loads an entry like {@link #loadFromAllStores(Object, InvocationContext)}, without blocking the calling thread.
+    * The stores implementing {@link org.infinispan.persistence.spi.NonBlockingCacheLoader} are invoked directly, the
+    * others on the persistence executor.
+    *
+    * @return a stage completed with the entry from the first store that has it, or with {@code null}.
+    */
+   CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context);
+
+   /**
+    * Deletes an entry like {@link #deleteFromAllStores(Object, AccessMode)}, without blocking the calling thread.
+    *
+    * @return a stage completed with {@code true} if the entry was deleted from any store.
+    */
+   CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode);
+
+   /**
+    * Iterates over the entries of all the stores like {@link #processOnAllStores(Executor, KeyFilter,
+    * AdvancedCacheLoader.CacheLoaderTask, boolean, boolean, AccessMode)}, without blocking the calling thread. The
+    * stores are processed one after the other.
+    *
+    * @return a stage completed once all the stores were processed.
+    */
+   CompletionStage<Void> processOnAllStoresAsync(Executor executor, KeyFilter keyFilter,
+         AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
@@ -125,6 +152,23 @@ protected boolean canPerform(StoreConfiguration configuration) {
     */
    void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes to all the non-transactional stores like {@link #writeToAllNonTxStores(MarshalledEntry, AccessMode)},
+    * without blocking the calling thread.
+    *
+    * @return a stage completed once all the stores have persisted the entry.
+    */
+   CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode modes);
+
+   /**
+    * Writes several entries to all the non-transactional stores, without blocking the calling thread. The stores
+    * implementing {@link org.infinispan.persistence.spi.NonBlockingCacheWriter} receive all the entries at once.
+    *
+    * @return a stage completed once all the stores have persisted all the entries.
+    */
+   CompletionStage<Void> writeBatchToAllNonTxStoresAsync(Iterable<MarshalledEntry> marshalledEntries,
+         AccessMode modes);
+
    /**
     * Perform the prepare phase of 2PC on all Tx stores.
     *
@@ -19,6 +19,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -77,8 +79,10 @@
 import org.infinispan.persistence.support.BatchModification;
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
+import org.infinispan.persistence.support.NonBlockingStores;
 import org.infinispan.persistence.support.SingletonCacheWriter;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -491,6 +495,76 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
       }
    }
 
+   @Override
+   public CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context) {
+      // The read lock can't be held until the stores reply, so work on a copy of the loaders
+      List<CacheLoader> candidates = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader l : loaders) {
+            if (context.isOriginLocal() || !isLocalOnlyLoader(l)) {
+               candidates.add(l);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return loadAsync(candidates, 0, key);
+   }
+
+   private CompletionStage<MarshalledEntry> loadAsync(List<CacheLoader> candidates, int index, Object key) {
+      if (index == candidates.size()) {
+         return CompletableFutures.completedNull();
+      }
+      CompletionStage<MarshalledEntry> stage = NonBlockingStores.load(candidates.get(index), key, persistenceExecutor);
+      return stage.thenCompose(load -> load != null ? CompletableFuture.completedFuture(load) :
+            loadAsync(candidates, index + 1, key));
+   }
+
+   @Override
+   public CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode) {
+      List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : nonTxWriters) {
+            if (mode.canPerform(configMap.get(w))) {
+               futures.add(NonBlockingStores.delete(w, key, persistenceExecutor).toCompletableFuture());
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(ignored -> {
+         boolean removed = false;
+         for (CompletableFuture<Boolean> future : futures) {
+            removed |= future.join();
+         }
+         return removed;
+      });
+   }
+
+   @Override
+   public CompletionStage<Void> processOnAllStoresAsync(Executor executor, KeyFilter keyFilter,
+         AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      List<AdvancedCacheLoader> candidates = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader loader : loaders) {
+            if (mode.canPerform(configMap.get(loader)) && loader instanceof AdvancedCacheLoader) {
+               candidates.add((AdvancedCacheLoader) loader);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      CompletionStage<Void> stage = CompletableFutures.completedNull();
+      for (AdvancedCacheLoader loader : candidates) {
+         stage = stage.thenCompose(ignored -> (CompletionStage<Void>) NonBlockingStores.process(loader, keyFilter,
+               task, executor, fetchValue, fetchMetadata));
+      }
+      return stage;
+   }
+
    private boolean isLocalOnlyLoader(CacheLoader loader) {
       if (loader instanceof LocalOnlyCacheLoader) return true;
       if (loader instanceof DelegatingCacheLoader) {
@@ -513,6 +587,40 @@ public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode ac
       }
    }
 
+   @Override
+   public CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode accessMode) {
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter writer : nonTxWriters) {
+            if (accessMode.canPerform(configMap.get(writer))) {
+               futures.add(NonBlockingStores.write(writer, marshalledEntry, persistenceExecutor).toCompletableFuture());
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+   }
+
+   @Override
+   public CompletionStage<Void> writeBatchToAllNonTxStoresAsync(Iterable<MarshalledEntry> marshalledEntries,
+         AccessMode accessMode) {
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter writer : nonTxWriters) {
+            if (accessMode.canPerform(configMap.get(writer))) {
+               futures.add(NonBlockingStores.writeBatch(writer, (Iterable) marshalledEntries, persistenceExecutor)
+                     .toCompletableFuture());
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+   }
+
    @Override
    public void prepareAllTxStores(Transaction transaction, BatchModification batchModification,
                                   AccessMode accessMode) throws PersistenceException {
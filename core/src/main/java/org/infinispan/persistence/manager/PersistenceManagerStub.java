@@ -3,6 +3,8 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 
 import javax.transaction.Transaction;
@@ -14,6 +16,7 @@
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.BatchModification;
+import org.infinispan.util.concurrent.CompletableFutures;
 
 /**
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
@@ -80,10 +83,37 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
       return null;
    }
 
+   @Override
+   public CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, InvocationContext context) {
+      return CompletableFutures.completedNull();
+   }
+
+   @Override
+   public CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode) {
+      return CompletableFuture.completedFuture(Boolean.FALSE);
+   }
+
+   @Override
+   public CompletionStage<Void> processOnAllStoresAsync(Executor executor, KeyFilter keyFilter,
+         AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      return CompletableFutures.completedNull();
+   }
+
    @Override
    public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode modes) {
    }
 
+   @Override
+   public CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode modes) {
+      return CompletableFutures.completedNull();
+   }
+
+   @Override
+   public CompletionStage<Void> writeBatchToAllNonTxStoresAsync(Iterable<MarshalledEntry> marshalledEntries,
+         AccessMode modes) {
+      return CompletableFutures.completedNull();
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       return null;
@@ -0,0 +1,29 @@
+package org.infinispan.persistence.spi;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+import org.infinispan.filter.KeyFilter;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An {@link AdvancedCacheLoader} that can also iterate over the stored entries without blocking the calling thread.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public interface NonBlockingAdvancedCacheLoader<K, V> extends AdvancedCacheLoader<K, V>, NonBlockingCacheLoader<K, V> {
+
+   /**
+    * Iterates over the entries in the storage, like {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean,
+    * boolean)}, but returns as soon as the iteration is started. The <b>task</b> is always invoked on a thread from the
+    * <b>executor</b> pool, as it may block.
+    *
+    * @return a stage completed once the task was invoked for all the entries, or once the iteration stopped because
+    *       of {@link TaskContext#stop()}. The stage is completed exceptionally with a {@link PersistenceException} if
+    *       the storage or the task failed.
+    */
+   CompletionStage<Void> processAsync(KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+         boolean fetchValue, boolean fetchMetadata);
+}
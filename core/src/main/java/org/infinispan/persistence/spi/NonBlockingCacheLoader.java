@@ -0,0 +1,36 @@
+package org.infinispan.persistence.spi;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A {@link CacheLoader} that can read from the storage without blocking the calling thread.
+ * <p>
+ * The {@link org.infinispan.persistence.manager.PersistenceManager} uses these methods instead of the blocking ones
+ * for the asynchronous operations. The returned stages may be completed by a thread owned by the store, so the store
+ * should never complete them while holding a lock.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public interface NonBlockingCacheLoader<K, V> extends CacheLoader<K, V> {
+
+   /**
+    * Fetches an entry from the storage, like {@link #load(Object)}.
+    *
+    * @return a stage completed with the entry, or with {@code null} if the entry does not exist. The stage is
+    *       completed exceptionally with a {@link PersistenceException} in case of an error.
+    */
+   CompletionStage<MarshalledEntry<K, V>> loadAsync(Object key);
+
+   /**
+    * Checks whether the storage contains an entry associated with the given key, like {@link #contains(Object)}.
+    *
+    * @return a stage completed with {@code true} if the entry exists. The stage is completed exceptionally with a
+    *       {@link PersistenceException} in case of an error.
+    */
+   CompletionStage<Boolean> containsAsync(Object key);
+}
@@ -0,0 +1,44 @@
+package org.infinispan.persistence.spi;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A {@link CacheWriter} that can modify the storage without blocking the calling thread.
+ * <p>
+ * The returned stages may be completed by a thread owned by the store, so the store should never complete them while
+ * holding a lock.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public interface NonBlockingCacheWriter<K, V> extends CacheWriter<K, V> {
+
+   /**
+    * Persists the entry to the storage, like {@link #write(MarshalledEntry)}.
+    *
+    * @return a stage completed once the entry is persisted. The stage is completed exceptionally with a {@link
+    *       PersistenceException} in case of an error.
+    */
+   CompletionStage<Void> writeAsync(MarshalledEntry<? extends K, ? extends V> entry);
+
+   /**
+    * Persists several entries to the storage. Implementations should write them together whenever the storage
+    * allows it, instead of paying the cost of a write for each entry.
+    *
+    * @return a stage completed once all the entries are persisted. The stage is completed exceptionally with a {@link
+    *       PersistenceException} in case of an error, in which case some of the entries may have been written.
+    */
+   CompletionStage<Void> writeBatchAsync(Iterable<MarshalledEntry<? extends K, ? extends V>> entries);
+
+   /**
+    * Deletes the entry from the storage, like {@link #delete(Object)}.
+    *
+    * @return a stage completed with {@code true} if the entry existed in the storage and it was deleted. The stage is
+    *       completed exceptionally with a {@link PersistenceException} in case of an error.
+    */
+   CompletionStage<Boolean> deleteAsync(Object key);
+}
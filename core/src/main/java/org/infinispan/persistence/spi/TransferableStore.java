@@ -0,0 +1,48 @@
+package org.infinispan.persistence.spi;
+
+import java.util.Map;
+
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.marshall.core.MarshalledEntry;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An {@link AdvancedCacheLoader} whose entries can be copied during state transfer in the form they are stored in,
+ * to a store of the same kind on another node. The sender does not have to unmarshall the values, and the receiver
+ * adds the records to its storage and its index without going through the regular write path.
+ * <p/>
+ * A record is opaque to the caller, only a store of the same kind can interpret it.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public interface TransferableStore<K, V> extends AdvancedCacheLoader<K, V> {
+
+   /**
+    * Passes the record of each key accepted by the <b>filter</b> to the <b>consumer</b>, in the order they are
+    * stored. Expired entries are skipped. The consumer is invoked in the calling thread.
+    */
+   void exportRecords(KeyFilter<? super K> filter, RecordConsumer<? super K> consumer) throws InterruptedException;
+
+   /**
+    * @return the key of a record exported by a store of the same kind
+    */
+   K recordKey(byte[] record);
+
+   /**
+    * @return the entry contained in a record exported by a store of the same kind
+    */
+   MarshalledEntry<K, V> recordToEntry(byte[] record);
+
+   /**
+    * Stores the records exported by a store of the same kind, replacing the entries of their keys, if any.
+    *
+    * @param records the records, by their key as returned by {@link #recordKey(byte[])}
+    */
+   void importRecords(Map<K, byte[]> records);
+
+   interface RecordConsumer<K> {
+      void accept(K key, byte[] record) throws InterruptedException;
+   }
+}
@@ -0,0 +1,88 @@
+package org.infinispan.persistence.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.CacheLoader;
+import org.infinispan.persistence.spi.CacheWriter;
+import org.infinispan.persistence.spi.NonBlockingAdvancedCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+
+/**
+ * Adapts any store to the non-blocking persistence SPI.
+ * <p>
+ * Stores implementing {@link NonBlockingCacheLoader}, {@link NonBlockingCacheWriter} or {@link
+ * NonBlockingAdvancedCacheLoader} are invoked directly. The blocking methods of the other stores are invoked on the
+ * given executor, so that the caller's thread is never blocked.
+ *
+ * @since 9.0
+ */
+public final class NonBlockingStores {
+
+   private static final Executor WITHIN_THREAD = new WithinThreadExecutor();
+
+   private NonBlockingStores() {
+   }
+
+   public static <K, V> CompletionStage<MarshalledEntry<K, V>> load(CacheLoader<K, V> loader, Object key,
+         Executor executor) {
+      if (loader instanceof NonBlockingCacheLoader) {
+         return ((NonBlockingCacheLoader<K, V>) loader).loadAsync(key);
+      }
+      return CompletableFuture.supplyAsync(() -> loader.load(key), executor);
+   }
+
+   public static CompletionStage<Boolean> contains(CacheLoader<?, ?> loader, Object key, Executor executor) {
+      if (loader instanceof NonBlockingCacheLoader) {
+         return ((NonBlockingCacheLoader<?, ?>) loader).containsAsync(key);
+      }
+      return CompletableFuture.supplyAsync(() -> loader.contains(key), executor);
+   }
+
+   public static <K, V> CompletionStage<Void> write(CacheWriter<K, V> writer,
+         MarshalledEntry<? extends K, ? extends V> entry, Executor executor) {
+      if (writer instanceof NonBlockingCacheWriter) {
+         return ((NonBlockingCacheWriter<K, V>) writer).writeAsync(entry);
+      }
+      return CompletableFuture.runAsync(() -> writer.write(entry), executor);
+   }
+
+   public static <K, V> CompletionStage<Void> writeBatch(CacheWriter<K, V> writer,
+         Iterable<MarshalledEntry<? extends K, ? extends V>> entries, Executor executor) {
+      if (writer instanceof NonBlockingCacheWriter) {
+         return ((NonBlockingCacheWriter<K, V>) writer).writeBatchAsync(entries);
+      }
+      // A single task for the whole batch, so that the entries don't compete for the executor's threads
+      return CompletableFuture.runAsync(() -> {
+         for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+            writer.write(entry);
+         }
+      }, executor);
+   }
+
+   public static CompletionStage<Boolean> delete(CacheWriter<?, ?> writer, Object key, Executor executor) {
+      if (writer instanceof NonBlockingCacheWriter) {
+         return ((NonBlockingCacheWriter<?, ?>) writer).deleteAsync(key);
+      }
+      return CompletableFuture.supplyAsync(() -> writer.delete(key), executor);
+   }
+
+   public static <K, V> CompletionStage<Void> process(AdvancedCacheLoader<K, V> loader, KeyFilter<? super K> filter,
+         AdvancedCacheLoader.CacheLoaderTask<K, V> task, Executor executor, boolean fetchValue,
+         boolean fetchMetadata) {
+      if (loader instanceof NonBlockingAdvancedCacheLoader) {
+         return ((NonBlockingAdvancedCacheLoader<K, V>) loader).processAsync(filter, task, executor, fetchValue,
+               fetchMetadata);
+      }
+      // The blocking process waits for the tasks it hands to its executor, so they must not need another thread of
+      // the executor running it
+      return CompletableFuture.runAsync(() -> loader.process(filter, task, WITHIN_THREAD, fetchValue, fetchMetadata),
+            executor);
+   }
+}
@@ -3,10 +3,13 @@
 import java.util.Collection;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.BackupWriteRpcCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.remoting.inboundhandler.action.ActionState;
 import org.infinispan.remoting.inboundhandler.action.CheckTopologyAction;
@@ -15,6 +18,7 @@
 import org.infinispan.remoting.inboundhandler.action.ReadyAction;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.util.concurrent.BlockingRunnable;
+import org.infinispan.util.concurrent.KeyOrderedExecutor;
 import org.infinispan.util.concurrent.locks.LockListener;
 import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.concurrent.locks.LockState;
@@ -39,6 +43,8 @@ public class NonTotalOrderPerCacheInboundInvocationHandler extends BasePerCacheI
    private LockManager lockManager;
    private ClusteringDependentLogic clusteringDependentLogic;
    private Configuration configuration;
+   private KeyOrderedExecutor keyOrderedExecutor;
+   private KeyOrderedExecutor backupWriteExecutor;
 
    public NonTotalOrderPerCacheInboundInvocationHandler() {
       checkTopologyAction = new CheckTopologyAction(this);
@@ -51,6 +57,14 @@ public void inject(LockManager lockManager, ClusteringDependentLogic clusteringD
       this.configuration = configuration;
    }
 
+   @Start
+   public void start() {
+      if (configuration.locking().perKeyOrdering()) {
+         keyOrderedExecutor = new KeyOrderedExecutor(remoteCommandsExecutor, configuration.dataContainer().keyEquivalence());
+      }
+      backupWriteExecutor = new KeyOrderedExecutor(remoteCommandsExecutor, configuration.dataContainer().keyEquivalence());
+   }
+
    @Override
    public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
       if (order == DeliverOrder.TOTAL) {
@@ -60,17 +74,33 @@ public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
          final int commandTopologyId = extractCommandTopologyId(command);
          final boolean onExecutorService = executeOnExecutorService(order, command);
          final BlockingRunnable runnable;
+         KeyOrderedExecutor orderingExecutor = keyOrderedExecutor;
+         Object orderingKey = null;
 
          switch (command.getCommandId()) {
             case SingleRpcCommand.COMMAND_ID:
                runnable = createReadyActionRunnable(command, reply, commandTopologyId, true, onExecutorService,
                                                     createReadyActionForSingleRpcCommand(commandTopologyId, (SingleRpcCommand) command));
+               if (keyOrderedExecutor != null && onExecutorService) {
+                  orderingKey = extractOrderingKey((SingleRpcCommand) command);
+               }
+               break;
+            case BackupWriteRpcCommand.COMMAND_ID:
+               // the backup writes of a key are sent in order by its primary owner, but applying one may block on the
+               // topology, so they run on the remote executor instead of the delivery thread, still in order per key
+               runnable = createDefaultRunnable(command, reply, commandTopologyId, true, true);
+               orderingExecutor = backupWriteExecutor;
+               orderingKey = ((BackupWriteRpcCommand) command).getCommand().getKey();
                break;
             default:
                runnable = createDefaultRunnable(command, reply, commandTopologyId, command.getCommandId() != StateRequestCommand.COMMAND_ID, onExecutorService);
                break;
          }
-         handleRunnable(runnable, onExecutorService);
+         if (orderingKey != null) {
+            orderingExecutor.execute(orderingKey, runnable);
+         } else {
+            handleRunnable(runnable, onExecutorService);
+         }
       } catch (Throwable throwable) {
          reply.reply(exceptionHandlingCommand(command, throwable));
       }
@@ -131,6 +161,19 @@ private ReadyAction createReadyAction(int topologyId, RemoteLockCommand command)
       return action;
    }
 
+   /**
+    * Only the writes received by the primary owner are ordered: a backup write must not wait behind a write parked on
+    * the lock of the same key, as that write may itself wait for this node to release a lock held as primary owner.
+    */
+   private Object extractOrderingKey(SingleRpcCommand singleRpcCommand) {
+      ReplicableCommand command = singleRpcCommand.getCommand();
+      if (!(command instanceof DataWriteCommand)) {
+         return null;
+      }
+      Object key = ((DataWriteCommand) command).getKey();
+      return clusteringDependentLogic.localNodeIsPrimaryOwner(key) ? key : null;
+   }
+
    private ReadyAction createReadyActionForSingleRpcCommand(int topologyId, SingleRpcCommand singleRpcCommand) {
       ReplicableCommand command = singleRpcCommand.getCommand();
       return command instanceof RemoteLockCommand ? createReadyAction(topologyId, (RemoteLockCommand) command) : null;
@@ -0,0 +1,69 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.commons.util.Util;
+import org.infinispan.marshall.core.Ids;
+
+/**
+ * Several commands sent to the same node in a single message by the {@link RpcBatcher}. The commands are kept in their
+ * marshalled form, so that the batcher knows the size of a batch while building it.
+ * <p>
+ * The batch is not a command itself: {@link CommandAwareRpcDispatcher} unmarshalls and handles each of its commands
+ * separately, and replies with a {@link org.infinispan.remoting.responses.SuccessfulResponse} holding the array of
+ * their responses.
+ *
+ * @since 9.0
+ */
+public final class BatchedCommands {
+   private final byte[][] commands;
+
+   BatchedCommands(byte[][] commands) {
+      this.commands = commands;
+   }
+
+   byte[][] getCommands() {
+      return commands;
+   }
+
+   @Override
+   public String toString() {
+      return "BatchedCommands{" +
+            "commands=" + commands.length +
+            '}';
+   }
+
+   public static class Externalizer extends AbstractExternalizer<BatchedCommands> {
+      @Override
+      public void writeObject(ObjectOutput output, BatchedCommands batch) throws IOException {
+         output.writeInt(batch.commands.length);
+         for (byte[] command : batch.commands) {
+            MarshallUtil.marshallByteArray(command, output);
+         }
+      }
+
+      @Override
+      public BatchedCommands readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         byte[][] commands = new byte[input.readInt()][];
+         for (int i = 0; i < commands.length; i++) {
+            commands[i] = MarshallUtil.unmarshallByteArray(input);
+         }
+         return new BatchedCommands(commands);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.BATCHED_COMMANDS;
+      }
+
+      @Override
+      public Set<Class<? extends BatchedCommands>> getTypeClasses() {
+         return Util.<Class<? extends BatchedCommands>>asSet(BatchedCommands.class);
+      }
+   }
+}
@@ -9,6 +9,7 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.IllegalLifecycleStateException;
 import org.infinispan.commands.FlagAffectedCommand;
@@ -21,6 +22,7 @@
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
 import org.infinispan.remoting.responses.ExceptionResponse;
 import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -154,6 +156,17 @@ public SingleResponseFuture invokeRemoteCommand(Address recipient, ReplicableCom
       }
    }
 
+   /**
+    * Sends the commands of a {@link BatchedCommands} to a single node, which replies once they were all handled.
+    */
+   SingleResponseFuture invokeBatch(Address recipient, BatchedCommands batch, long timeout) {
+      try {
+         return processSingleCall(batch, timeout, recipient, ResponseMode.GET_ALL, DeliverOrder.NONE, req_marshaller);
+      } catch (Exception e) {
+         return rethrowAsCacheException(e);
+      }
+   }
+
    public <T> T rethrowAsCacheException(Throwable t) {
       if (t instanceof CacheException)
          throw (CacheException) t;
@@ -169,13 +182,18 @@ public void handle(Message req, org.jgroups.blocks.Response response) throws Exc
       if (isValid(req)) {
          ReplicableCommand cmd = null;
          try {
-            cmd = (ReplicableCommand) req_marshaller.objectFromBuffer(req.getRawBuffer(), req.getOffset(), req.getLength());
-            if (cmd == null)
+            Object request = req_marshaller.objectFromBuffer(req.getRawBuffer(), req.getOffset(), req.getLength());
+            if (request == null)
                throw new NullPointerException("Unable to execute a null command!  Message was " + req);
-            if (req.getSrc() instanceof SiteAddress) {
-               executeCommandFromRemoteSite(cmd, req, response);
+            if (request instanceof BatchedCommands) {
+               executeBatchFromLocalCluster((BatchedCommands) request, req, response);
             } else {
-               executeCommandFromLocalCluster(cmd, req, response);
+               cmd = (ReplicableCommand) request;
+               if (req.getSrc() instanceof SiteAddress) {
+                  executeCommandFromRemoteSite(cmd, req, response);
+               } else {
+                  executeCommandFromLocalCluster(cmd, req, response);
+               }
             }
          } catch (InterruptedException e) {
             log.shutdownHandlingCommand(cmd);
@@ -209,6 +227,43 @@ private void executeCommandFromLocalCluster(final ReplicableCommand cmd, final M
       handler.handleFromCluster(fromJGroupsAddress(req.getSrc()), cmd, reply, decodeDeliverMode(req));
    }
 
+   /**
+    * Handles each command of a batch and replies with all their responses. The batcher only sends commands that
+    * cannot block, so they are handled right away and none of them delays the responses of the others.
+    */
+   private void executeBatchFromLocalCluster(final BatchedCommands batch, final Message req,
+         final org.jgroups.blocks.Response response) {
+      org.infinispan.remoting.transport.Address origin = fromJGroupsAddress(req.getSrc());
+      byte[][] commands = batch.getCommands();
+      Response[] responses = new Response[commands.length];
+      AtomicInteger pending = new AtomicInteger(commands.length);
+      if (trace) log.tracef("Handling a batch of %d commands from %s", commands.length, origin);
+      for (int i = 0; i < commands.length; i++) {
+         final int index = i;
+         Reply reply = returnValue -> {
+            responses[index] = (Response) returnValue;
+            if (pending.decrementAndGet() == 0) {
+               CommandAwareRpcDispatcher.this.reply(response, SuccessfulResponse.create(responses), batch, req);
+            }
+         };
+         ReplicableCommand cmd = null;
+         try {
+            cmd = (ReplicableCommand) req_marshaller.objectFromBuffer(commands[i], 0, commands[i].length);
+            // The commands of a batch are never ordered, see RpcBatcher
+            handler.handleFromCluster(origin, cmd, reply, DeliverOrder.NONE);
+         } catch (IllegalLifecycleStateException e) {
+            if (trace) log.trace("Ignoring command unmarshalling error during shutdown");
+            reply.reply(CacheNotFoundResponse.INSTANCE);
+         } catch (Throwable t) {
+            if (cmd == null)
+               log.errorUnMarshallingCommand(t);
+            else
+               log.exceptionHandlingCommand(cmd, t);
+            reply.reply(new ExceptionResponse(new CacheException("Problems invoking command.", t)));
+         }
+      }
+   }
+
    private static DeliverOrder decodeDeliverMode(Message request) {
       boolean noTotalOrder = request.isFlagSet(Message.Flag.NO_TOTAL_ORDER);
       boolean oob = request.isFlagSet(Message.Flag.OOB);
@@ -244,8 +299,7 @@ public String toString() {
       return getClass().getSimpleName() + "[Outgoing marshaller: " + req_marshaller + "; incoming marshaller: " + rsp_marshaller + "]";
    }
 
-   private void reply(org.jgroups.blocks.Response response, Object retVal, ReplicableCommand command,
-         Message req) {
+   private void reply(org.jgroups.blocks.Response response, Object retVal, Object command, Message req) {
       if (response != null) {
          if (trace) log.tracef("About to send back response %s for command %s", retVal, command);
          Buffer rsp_buf;
@@ -292,7 +346,7 @@ protected static Message constructMessage(Buffer buf, Address recipient,Response
       return msg;
    }
 
-   Buffer marshallCall(Marshaller marshaller, ReplicableCommand command) {
+   Buffer marshallCall(Marshaller marshaller, Object command) {
       Buffer buf;
       try {
          buf = marshaller.objectToBuffer(command);
@@ -304,7 +358,7 @@ Buffer marshallCall(Marshaller marshaller, ReplicableCommand command) {
       return buf;
    }
 
-   private SingleResponseFuture processSingleCall(ReplicableCommand command, long timeout,
+   private SingleResponseFuture processSingleCall(Object command, long timeout,
                                                   Address destination, ResponseMode mode,
                                                   DeliverOrder deliverOrder, Marshaller marshaller) throws Exception {
       if (trace)
@@ -456,7 +510,7 @@ private RspListFuture processCalls(ReplicableCommand command, boolean broadcast,
       return retval;
    }
 
-   private static boolean isRsvpCommand(ReplicableCommand command) {
+   private static boolean isRsvpCommand(Object command) {
       return command instanceof FlagAffectedCommand
             && ((FlagAffectedCommand) command).hasFlag(Flag.GUARANTEED_DELIVERY);
    }
@@ -39,6 +39,12 @@
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.jmx.JmxUtil;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.notifications.cachemanagerlistener.CacheManagerNotifier;
 import org.infinispan.remoting.RpcException;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
@@ -86,6 +92,10 @@
  * <li><tt>configurationFile</tt> - String pointing to a JGroups XML configuration file</li>
  * <li><tt>channelLookup</tt> - Fully qualified class name of a
  * {@link JGroupsChannelLookup} instance</li>
+ * <li><tt>rpcBatchWindow</tt> - Time in microseconds during which the synchronous commands that cannot block, sent to
+ * the same node, are batched in a single message. Batching is disabled by default.</li>
+ * <li><tt>rpcBatchMaxBytes</tt> - The marshalled size above which a batch is sent without waiting for the end of the
+ * batching window. Defaults to 32768 bytes.</li>
  * </ul>
  * These are normally passed in as Properties in
  * {@link TransportConfigurationBuilder#withProperties(Properties)} or
@@ -95,11 +105,15 @@
  * @author Galder Zamarreño
  * @since 4.0
  */
+@MBean(objectName = "Transport", description = "Sends commands to the other nodes of the cluster")
 public class JGroupsTransport extends AbstractTransport implements MembershipListener {
    public static final String CONFIGURATION_STRING = "configurationString";
    public static final String CONFIGURATION_XML = "configurationXml";
    public static final String CONFIGURATION_FILE = "configurationFile";
    public static final String CHANNEL_LOOKUP = "channelLookup";
+   public static final String RPC_BATCH_WINDOW = "rpcBatchWindow";
+   public static final String RPC_BATCH_MAX_BYTES = "rpcBatchMaxBytes";
+   protected static final int DEFAULT_RPC_BATCH_MAX_BYTES = 32768;
    protected static final String DEFAULT_JGROUPS_CONFIGURATION_FILE = "default-configs/default-jgroups-udp.xml";
 
    private static final Log log = LogFactory.getLog(JGroupsTransport.class);
@@ -107,6 +121,7 @@ public class JGroupsTransport extends AbstractTransport implements MembershipLis
 
    protected boolean connectChannel = true, disconnectChannel = true, closeChannel = true;
    protected CommandAwareRpcDispatcher dispatcher;
+   private RpcBatcher batcher;
    protected TypedProperties props;
    protected StreamingMarshaller marshaller;
    protected CacheManagerNotifier notifier;
@@ -312,6 +327,7 @@ public void stop() {
       coordinator = null;
       isCoordinator = false;
       dispatcher = null;
+      batcher = null;
 
       // Wake up any view waiters
       viewUpdateLock.lock();
@@ -382,6 +398,13 @@ protected void initRPCDispatcher() {
       dispatcher.setRequestMarshaller(adapter);
       dispatcher.setResponseMarshaller(adapter);
       dispatcher.start();
+
+      long batchWindow = props != null ? props.getLongProperty(RPC_BATCH_WINDOW, 0) : 0;
+      if (batchWindow > 0) {
+         int batchMaxBytes = props.getIntProperty(RPC_BATCH_MAX_BYTES, DEFAULT_RPC_BATCH_MAX_BYTES);
+         batcher = new RpcBatcher(dispatcher, timeoutExecutor, timeService, batchWindow, TimeUnit.MICROSECONDS,
+               batchMaxBytes);
+      }
    }
 
    // This is per CM, so the CL in use should be the CM CL
@@ -588,7 +611,7 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
       int membersSize = localMembers.size();
       boolean broadcast = membersSize > 2 && (jgAddressList == null || recipients.size() == membersSize);
       CompletableFuture<RspList<Response>> rspListFuture = null;
-      SingleResponseFuture singleResponseFuture = null;
+      CompletableFuture<Rsp<Response>> singleResponseFuture = null;
       org.jgroups.Address singleJGAddress = null;
 
       if (broadcast) {
@@ -623,9 +646,14 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
          }
 
          if (singleRecipient) {
-            singleResponseFuture = dispatcher
-                  .invokeRemoteCommand(singleJGAddress, rpcCommand, toJGroupsMode(mode), timeout,
-                        deliverOrder);
+            RpcBatcher batcher = this.batcher;
+            if (batcher != null && RpcBatcher.canBatch(rpcCommand, toJGroupsMode(mode), deliverOrder)) {
+               singleResponseFuture = batcher.invoke(singleJGAddress, rpcCommand, timeout);
+            } else {
+               singleResponseFuture = dispatcher
+                     .invokeRemoteCommand(singleJGAddress, rpcCommand, toJGroupsMode(mode), timeout,
+                           deliverOrder);
+            }
          } else {
             rspListFuture = dispatcher
                   .invokeRemoteCommands(jgAddressList, rpcCommand, toJGroupsMode(mode), timeout,
@@ -826,6 +854,85 @@ protected Response checkRsp(Rsp<Response> rsp, Address sender, boolean ignoreTim
       return response;
    }
 
+   // ------------------------------------------------------------------------------------------------------------------
+   // RPC batching statistics
+   // ------------------------------------------------------------------------------------------------------------------
+
+   @ManagedAttribute(
+         description = "Whether synchronous commands sent to the same node are batched",
+         displayName = "RPC batching enabled",
+         dataType = DataType.TRAIT
+   )
+   public boolean isRpcBatchingEnabled() {
+      return batcher != null;
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches of commands sent",
+         displayName = "Number of RPC batches",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getRpcBatches() {
+      RpcBatcher batcher = this.batcher;
+      return batcher != null ? batcher.getBatches() : 0;
+   }
+
+   @ManagedAttribute(
+         description = "Number of commands sent in batches",
+         displayName = "Number of batched commands",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getRpcBatchedCommands() {
+      RpcBatcher batcher = this.batcher;
+      return batcher != null ? batcher.getBatchedCommands() : 0;
+   }
+
+   @ManagedAttribute(
+         description = "Average number of commands in a batch",
+         displayName = "Average RPC batch size",
+         displayType = DisplayType.SUMMARY
+   )
+   public double getAverageRpcBatchSize() {
+      RpcBatcher batcher = this.batcher;
+      if (batcher == null) {
+         return 0;
+      }
+      long batches = batcher.getBatches();
+      return batches > 0 ? (double) batcher.getBatchedCommands() / batches : 0;
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches sent by batch size, in power of two buckets",
+         displayName = "RPC batch size histogram"
+   )
+   public String getRpcBatchSizeHistogram() {
+      RpcBatcher batcher = this.batcher;
+      return batcher != null ? batcher.getBatchSizeHistogram() : "{}";
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches by the time between queueing their first command and receiving their " +
+               "responses, in microseconds, in power of two buckets",
+         displayName = "RPC batch latency histogram"
+   )
+   public String getRpcBatchLatencyHistogram() {
+      RpcBatcher batcher = this.batcher;
+      return batcher != null ? batcher.getBatchLatencyHistogram() : "{}";
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      RpcBatcher batcher = this.batcher;
+      if (batcher != null) {
+         batcher.resetStatistics();
+      }
+   }
+
    // ------------------------------------------------------------------------------------------------------------------
    // Implementations of JGroups interfaces
    // ------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,291 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.jgroups.Address;
+import org.jgroups.blocks.ResponseMode;
+import org.jgroups.util.Buffer;
+import org.jgroups.util.Rsp;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Coalesces the synchronous unicast commands sent to the same node into a single {@link BatchedCommands} message.
+ * <p>
+ * JGroups never bundles the messages of synchronous RPCs, so each of them pays for its own headers and system calls.
+ * The batcher instead keeps the commands for a destination for up to {@code window} nanoseconds, or until their
+ * marshalled size reaches {@code maxBytes}, and sends them together. The receiver handles each command separately and
+ * replies with all their responses at once, which are then handed to the individual callers.
+ * <p>
+ * Only commands with {@link DeliverOrder#NONE} are batched, since the commands of a batch are not ordered with
+ * respect to the commands sent directly. Commands that can block are not batched either: the batch is only answered
+ * once all its commands are, so a command waiting for a lock or a topology would delay the others past their
+ * timeout.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+class RpcBatcher {
+   private static final Log log = LogFactory.getLog(RpcBatcher.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final CommandAwareRpcDispatcher dispatcher;
+   private final ScheduledExecutorService scheduler;
+   private final TimeService timeService;
+   private final long windowNanos;
+   private final int maxBytes;
+   private final ConcurrentMap<Address, DestinationQueue> queues = new ConcurrentHashMap<>();
+
+   private final Histogram batchSizes = new Histogram();
+   private final Histogram batchLatencies = new Histogram();
+   private final LongAdder batches = new LongAdder();
+   private final LongAdder batchedCommands = new LongAdder();
+
+   RpcBatcher(CommandAwareRpcDispatcher dispatcher, ScheduledExecutorService scheduler, TimeService timeService,
+         long window, TimeUnit unit, int maxBytes) {
+      this.dispatcher = dispatcher;
+      this.scheduler = scheduler;
+      this.timeService = timeService;
+      this.windowNanos = unit.toNanos(window);
+      this.maxBytes = maxBytes;
+   }
+
+   /**
+    * @return whether a command sent with the given response mode and order can be batched
+    */
+   static boolean canBatch(ReplicableCommand command, ResponseMode mode, DeliverOrder deliverOrder) {
+      return mode == ResponseMode.GET_ALL && deliverOrder == DeliverOrder.NONE && !command.canBlock();
+   }
+
+   /**
+    * Adds a command to the batch of its destination.
+    *
+    * @return a future completed with the response of the destination, or with a non-received {@link Rsp} if the
+    *       command timed out
+    */
+   CompletableFuture<Rsp<Response>> invoke(Address destination, ReplicableCommand command, long timeout) {
+      Buffer buffer = dispatcher.marshallCall(dispatcher.getMarshaller(), command);
+      PendingCommand pending = new PendingCommand(command, toByteArray(buffer), timeout, timeService.time());
+      if (timeout > 0) {
+         ScheduledFuture<?> timeoutFuture = scheduler.schedule(() -> pending.future.complete(new Rsp<>(destination)),
+               timeout, TimeUnit.MILLISECONDS);
+         pending.future.whenComplete((rsp, throwable) -> timeoutFuture.cancel(false));
+      }
+      List<PendingCommand> batch = queues.computeIfAbsent(destination, DestinationQueue::new).add(pending);
+      if (batch != null) {
+         send(destination, batch);
+      }
+      return pending.future;
+   }
+
+   private void send(Address destination, List<PendingCommand> batch) {
+      if (batch.size() == 1) {
+         // Nothing to coalesce, send the command as if it had not been batched
+         PendingCommand pending = batch.get(0);
+         dispatcher.invokeRemoteCommand(destination, pending.command, ResponseMode.GET_ALL, pending.timeout,
+               DeliverOrder.NONE).whenComplete((rsp, throwable) -> complete(pending, rsp, throwable));
+         return;
+      }
+
+      byte[][] commands = new byte[batch.size()][];
+      long timeout = 0;
+      for (int i = 0; i < commands.length; i++) {
+         PendingCommand pending = batch.get(i);
+         commands[i] = pending.bytes;
+         timeout = pending.timeout > 0 && timeout >= 0 ? Math.max(timeout, pending.timeout) : -1;
+      }
+      if (trace) log.tracef("Sending a batch of %d commands to %s", commands.length, destination);
+      batches.increment();
+      batchedCommands.add(commands.length);
+      batchSizes.record(commands.length);
+      long firstQueued = batch.get(0).queued;
+      dispatcher.invokeBatch(destination, new BatchedCommands(commands), timeout).whenComplete((rsp, throwable) -> {
+         batchLatencies.record(timeService.timeDuration(firstQueued, TimeUnit.MICROSECONDS));
+         Response[] responses = null;
+         if (throwable == null && rsp.wasReceived() && !rsp.hasException() &&
+               rsp.getValue() instanceof SuccessfulResponse) {
+            Object value = ((SuccessfulResponse) rsp.getValue()).getResponseValue();
+            if (value instanceof Response[] && ((Response[]) value).length == batch.size()) {
+               responses = (Response[]) value;
+            }
+         }
+         for (int i = 0; i < batch.size(); i++) {
+            PendingCommand pending = batch.get(i);
+            if (responses != null) {
+               Rsp<Response> commandRsp = new Rsp<>(rsp.getSender());
+               commandRsp.setValue(responses[i]);
+               pending.future.complete(commandRsp);
+            } else {
+               // The batch failed as a whole, e.g. because the destination left or could not unmarshall it
+               complete(pending, rsp, throwable);
+            }
+         }
+      });
+   }
+
+   private static void complete(PendingCommand pending, Rsp<Response> rsp, Throwable throwable) {
+      if (throwable != null) {
+         pending.future.completeExceptionally(throwable);
+      } else {
+         pending.future.complete(rsp);
+      }
+   }
+
+   private static byte[] toByteArray(Buffer buffer) {
+      if (buffer.getOffset() == 0 && buffer.getLength() == buffer.getBuf().length) {
+         return buffer.getBuf();
+      }
+      byte[] bytes = new byte[buffer.getLength()];
+      System.arraycopy(buffer.getBuf(), buffer.getOffset(), bytes, 0, bytes.length);
+      return bytes;
+   }
+
+   long getBatches() {
+      return batches.sum();
+   }
+
+   long getBatchedCommands() {
+      return batchedCommands.sum();
+   }
+
+   String getBatchSizeHistogram() {
+      return batchSizes.toString();
+   }
+
+   String getBatchLatencyHistogram() {
+      return batchLatencies.toString();
+   }
+
+   void resetStatistics() {
+      batches.reset();
+      batchedCommands.reset();
+      batchSizes.reset();
+      batchLatencies.reset();
+   }
+
+   private static class PendingCommand {
+      final ReplicableCommand command;
+      final byte[] bytes;
+      final long timeout;
+      final long queued;
+      final CompletableFuture<Rsp<Response>> future = new CompletableFuture<>();
+
+      PendingCommand(ReplicableCommand command, byte[] bytes, long timeout, long queued) {
+         this.command = command;
+         this.bytes = bytes;
+         this.timeout = timeout;
+         this.queued = queued;
+      }
+   }
+
+   /**
+    * The commands waiting to be sent to a destination.
+    */
+   private class DestinationQueue {
+      private final Address destination;
+      @GuardedBy("this")
+      private List<PendingCommand> commands = new ArrayList<>();
+      @GuardedBy("this")
+      private int bytes;
+      @GuardedBy("this")
+      private ScheduledFuture<?> flushFuture;
+
+      DestinationQueue(Address destination) {
+         this.destination = destination;
+      }
+
+      /**
+       * @return the commands to send right away, or {@code null} if the command must wait for the window to end
+       */
+      synchronized List<PendingCommand> add(PendingCommand command) {
+         commands.add(command);
+         bytes += command.bytes.length;
+         if (bytes >= maxBytes) {
+            return take();
+         }
+         if (flushFuture == null) {
+            flushFuture = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+         }
+         return null;
+      }
+
+      @GuardedBy("this")
+      private List<PendingCommand> take() {
+         List<PendingCommand> batch = commands;
+         commands = new ArrayList<>();
+         bytes = 0;
+         if (flushFuture != null) {
+            flushFuture.cancel(false);
+            flushFuture = null;
+         }
+         return batch;
+      }
+
+      void flush() {
+         List<PendingCommand> batch;
+         synchronized (this) {
+            flushFuture = null;
+            if (commands.isEmpty()) {
+               return;
+            }
+            batch = take();
+         }
+         send(destination, batch);
+      }
+   }
+
+   /**
+    * Counts values in power of two buckets.
+    */
+   private static class Histogram {
+      private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+
+      void record(long value) {
+         buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(Math.max(value, 0)));
+      }
+
+      void reset() {
+         for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+         }
+      }
+
+      @Override
+      public String toString() {
+         StringBuilder sb = new StringBuilder("{");
+         for (int i = 0; i < buckets.length(); i++) {
+            long count = buckets.get(i);
+            if (count > 0) {
+               if (sb.length() > 1) {
+                  sb.append(", ");
+               }
+               long low = i == 0 ? 0 : 1L << (i - 1);
+               long high = i == 0 ? 0 : (1L << i) - 1;
+               sb.append(low);
+               if (high > low) {
+                  sb.append('-').append(high);
+               }
+               sb.append('=').append(count);
+            }
+         }
+         return sb.append('}').toString();
+      }
+   }
+}
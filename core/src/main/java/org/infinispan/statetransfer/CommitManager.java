@@ -7,9 +7,11 @@
 
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.metadata.Metadata;
@@ -127,6 +129,52 @@ public final void commit(final CacheEntry entry, final Metadata metadata, final
       });
    }
 
+   /**
+    * Stores an entry received by state transfer directly in the data container. The entry is not stored if other
+    * operation already has updated its key.
+    *
+    * @param entry     the received entry
+    * @param operation identifies the state transfer (local or remote site) that received the entry
+    * @return {@code true} if the entry was stored, {@code false} if it was discarded
+    */
+   public final boolean commitReceivedEntry(final InternalCacheEntry entry, final Flag operation) {
+      //noinspection unchecked
+      return commitReceivedKey(entry.getKey(), operation,
+            () -> dataContainer.put(entry.getKey(), entry.getValue(), entry.getMetadata()));
+   }
+
+   /**
+    * Stores the value of a key received by state transfer somewhere else than in the data container, e.g. in a cache
+    * store. The value is not stored if other operation already has updated the key.
+    *
+    * @param key       the received key
+    * @param operation identifies the state transfer (local or remote site) that received the key
+    * @param store     stores the value, invoked only if the key was not updated
+    * @return {@code true} if the value was stored, {@code false} if it was discarded
+    */
+   public final boolean commitReceivedKey(final Object key, final Flag operation, final Runnable store) {
+      if (isTrackDisabled(operation)) {
+         if (trace) {
+            log.tracef("Not storing key=%s. It is a state transfer key but no track is enabled!", toStr(key));
+         }
+         return false;
+      }
+      ByRef.Boolean stored = new ByRef.Boolean(false);
+      tracker.compute(key, (o, discardPolicy) -> {
+         if (discardPolicy != null && discardPolicy.ignore(operation)) {
+            if (trace) {
+               log.tracef("Not storing key=%s. It was already overwritten! Discard policy=%s",
+                     toStr(key), discardPolicy);
+            }
+            return discardPolicy;
+         }
+         store.run();
+         stored.set(true);
+         return calculateDiscardPolicy();
+      });
+      return stored.get();
+   }
+
    /**
     * @return {@code true} if the flag is being tracked, {@code false} otherwise.
     */
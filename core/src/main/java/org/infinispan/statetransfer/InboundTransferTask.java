@@ -7,6 +7,7 @@
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commons.CacheException;
@@ -82,6 +83,12 @@ public class InboundTransferTask {
 
    private final RpcOptions rpcOptions;
 
+   private final LongAdder appliedEntries = new LongAdder();
+
+   private final LongAdder discardedEntries = new LongAdder();
+
+   private final LongAdder applyNanos = new LongAdder();
+
    public InboundTransferTask(Set<Integer> segments, Address source, int topologyId, StateConsumerImpl stateConsumer, RpcManager rpcManager, CommandsFactory commandsFactory, long timeout, String cacheName) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("segments must not be null or empty");
@@ -140,6 +147,7 @@ public boolean requestSegments() {
          // start transfer of cache entries
          try {
             StateRequestCommand cmd = commandsFactory.buildStateRequestCommand(StateRequestCommand.Type.START_STATE_TRANSFER, rpcManager.getAddress(), topologyId, segmentsCopy);
+            cmd.setSegmentDigests(stateConsumer.computeDigests(segmentsCopy));
             Map<Address, Response> responses = rpcManager.invokeRemotely(Collections.singleton(source), cmd, rpcOptions);
             Response response = responses.get(source);
             if (response instanceof SuccessfulResponse) {
@@ -243,7 +251,47 @@ public void onStateReceived(int segmentId, boolean isLastChunk) {
       }
    }
 
+   /**
+    * Records the outcome of applying a received chunk of cache entries.
+    *
+    * @param applied   the number of entries stored
+    * @param discarded the number of entries not stored, because they were already updated or failed
+    * @param nanos     the time spent applying the chunk
+    */
+   public void onEntriesApplied(int applied, int discarded, long nanos) {
+      appliedEntries.add(applied);
+      discardedEntries.add(discarded);
+      applyNanos.add(nanos);
+   }
+
+   /**
+    * @return the number of received entries stored so far.
+    */
+   public long getAppliedEntries() {
+      return appliedEntries.sum();
+   }
+
+   /**
+    * @return the number of received entries not stored so far.
+    */
+   public long getDiscardedEntries() {
+      return discardedEntries.sum();
+   }
+
+   /**
+    * @return the number of received entries (stored or discarded) processed per second spent applying them.
+    */
+   public double getApplyThroughput() {
+      long nanos = applyNanos.sum();
+      return nanos == 0 ? 0 : (appliedEntries.sum() + discardedEntries.sum()) * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+   }
+
    private void notifyCompletion(boolean success) {
+      if (log.isDebugEnabled()) {
+         log.debugf("Inbound state transfer of cache %s from node %s applied %d entries and discarded %d entries in %d ms (%.0f entries/s)",
+               cacheName, source, getAppliedEntries(), getDiscardedEntries(),
+               TimeUnit.NANOSECONDS.toMillis(applyNanos.sum()), getApplyThroughput());
+      }
       isCompletedSuccessfully = success;
       completionLatch.countDown();
       stateConsumer.onTaskCompletion(this);
@@ -293,6 +341,8 @@ public String toString() {
                ", topologyId=" + topologyId +
                ", timeout=" + timeout +
                ", cacheName=" + cacheName +
+               ", appliedEntries=" + appliedEntries +
+               ", discardedEntries=" + discardedEntries +
                '}';
       }
    }
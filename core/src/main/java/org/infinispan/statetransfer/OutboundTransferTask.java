@@ -1,32 +1,42 @@
 package org.infinispan.statetransfer;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.TransferableStore;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.util.ReadOnlyDataContainerBackedKeySet;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -71,6 +81,48 @@ public class OutboundTransferTask implements Runnable {
 
    private final Map<Integer, List<InternalCacheEntry>> entriesBySegment = CollectionFactory.makeConcurrentMap();
 
+   /**
+    * Marshals the entries as they are accumulated, if the chunks are bounded by bytes or compressed. In that case
+    * entriesBySegment is not used.
+    */
+   private final StateChunkEncoder encoder;
+
+   /**
+    * Accumulates the records of the store, if it is a {@link TransferableStore} and the records are transferred as is.
+    */
+   private final StateChunkEncoder recordEncoder;
+
+   private final int chunkBytes;
+
+   private final int maxInFlightChunks;
+
+   /**
+    * Each chunk that was sent but not yet applied by the destination holds a credit.
+    */
+   private final Semaphore credits;
+
+   private final TimeService timeService;
+
+   /**
+    * The digests of the entries the destination already holds, or {@code null} if it sends the entries of all buckets.
+    */
+   private final Map<Integer, SegmentDigest> remoteDigests;
+
+   private final SegmentDigestCalculator digestCalculator;
+
+   /**
+    * The buckets of each segment for which the destination holds the same entries as this node.
+    */
+   private Map<Integer, BitSet> unchangedBuckets;
+
+   private long skippedEntries;
+
+   private final LongAdder chunksSent = new LongAdder();
+
+   private final LongAdder bytesSent = new LongAdder();
+
+   private volatile long startTime;
+
    /**
     * The total number of entries from all segments accumulated in entriesBySegment.
     */
@@ -88,7 +140,10 @@ public class OutboundTransferTask implements Runnable {
    public OutboundTransferTask(Address destination, Set<Integer> segments, int stateTransferChunkSize,
                                int topologyId, ConsistentHash readCh, StateProviderImpl stateProvider, DataContainer dataContainer,
                                PersistenceManager persistenceManager, RpcManager rpcManager,
-                               CommandsFactory commandsFactory, InternalEntryFactory ef, long timeout, String cacheName) {
+                               CommandsFactory commandsFactory, InternalEntryFactory ef, long timeout, String cacheName,
+                               int chunkBytes, int maxInFlightChunks, StateChunkEncoder encoder,
+                               StateChunkEncoder recordEncoder, TimeService timeService,
+                               Map<Integer, SegmentDigest> remoteDigests, SegmentDigestCalculator digestCalculator) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -98,6 +153,15 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
       if (stateTransferChunkSize <= 0) {
          throw new IllegalArgumentException("stateTransferChunkSize must be greater than 0");
       }
+      if (maxInFlightChunks <= 0) {
+         throw new IllegalArgumentException("maxInFlightChunks must be greater than 0");
+      }
+      if (chunkBytes > 0 && encoder == null) {
+         throw new IllegalArgumentException("An encoder is required to bound the chunks by bytes");
+      }
+      if (remoteDigests != null && digestCalculator == null) {
+         throw new IllegalArgumentException("A digest calculator is required to compare the digests");
+      }
       this.stateProvider = stateProvider;
       this.destination = destination;
       this.segments.addAll(segments);
@@ -111,6 +175,14 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
       this.commandsFactory = commandsFactory;
       this.timeout = timeout;
       this.cacheName = cacheName;
+      this.chunkBytes = chunkBytes;
+      this.maxInFlightChunks = maxInFlightChunks;
+      this.credits = new Semaphore(maxInFlightChunks);
+      this.encoder = encoder;
+      this.recordEncoder = recordEncoder;
+      this.timeService = timeService;
+      this.remoteDigests = remoteDigests;
+      this.digestCalculator = digestCalculator;
       //the rpc options does not change in runtime. re-use the same instance
       this.rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
             .timeout(timeout, TimeUnit.MILLISECONDS).build();
@@ -141,37 +213,62 @@ public int getTopologyId() {
       return topologyId;
    }
 
+   /**
+    * @return the number of chunk commands sent so far.
+    */
+   public long getChunksSent() {
+      return chunksSent.sum();
+   }
+
+   /**
+    * @return the number of bytes sent so far, before compression. Only known if the entries are marshalled by the
+    * task, i.e. if the chunks are bounded by bytes or compressed.
+    */
+   public long getBytesSent() {
+      return bytesSent.sum();
+   }
+
+   public double getBytesPerSecond() {
+      long start = startTime;
+      if (start == 0) {
+         return 0;
+      }
+      long elapsed = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+      return elapsed > 0 ? bytesSent.sum() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+   }
+
+   /**
+    * @return the number of chunk commands sent but not yet applied by the destination.
+    */
+   public int getOutstandingChunks() {
+      return maxInFlightChunks - credits.availablePermits();
+   }
+
+   public int getMaxInFlightChunks() {
+      return maxInFlightChunks;
+   }
+
    //todo [anistor] check thread interrupt status in loops to implement faster cancellation
    public void run() {
+      startTime = timeService.time();
       try {
-         // send data container entries
-         for (InternalCacheEntry ice : dataContainer) {
-            Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
-            int segmentId = readCh.getSegment(key);
-            if (segments.contains(segmentId)) {
-               sendEntry(ice, segmentId);
-            }
+         AdvancedCacheLoader stProvider = persistenceManager.getStateTransferProvider();
+         if (remoteDigests != null) {
+            unchangedBuckets = findUnchangedBuckets(stProvider);
          }
 
-         AdvancedCacheLoader stProvider = persistenceManager.getStateTransferProvider();
-         if (stProvider != null) {
+         // send data container entries
+         visitDataContainer(this::sendEntry);
+
+         if (stProvider instanceof TransferableStore && recordEncoder != null) {
+            try {
+               sendStoreRecords((TransferableStore<Object, Object>) stProvider);
+            } catch (CacheException e) {
+               log.failedLoadingKeysFromCacheStore(e);
+            }
+         } else if (stProvider != null) {
             try {
-               CollectionKeyFilter filter = new CollectionKeyFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
-               AdvancedCacheLoader.CacheLoaderTask task = new AdvancedCacheLoader.CacheLoaderTask() {
-                  @Override
-                  public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-                        int segmentId = readCh.getSegment(me.getKey());
-                        if (segments.contains(segmentId)) {
-                           try {
-                              InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
-                              sendEntry(icv, segmentId);
-                           } catch (CacheException e) {
-                              log.failedLoadingValueFromCacheStore(me.getKey(), e);
-                           }
-                        }
-                     }
-                  };
-               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+               visitStore(stProvider, this::sendEntry, true);
             } catch (CacheException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -179,6 +276,10 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
 
          // send the last chunk of all segments
          sendEntries(true);
+         if (skippedEntries > 0) {
+            log.debugf("Skipped %d entries of segments %s of cache %s already held by node %s", skippedEntries, segments,
+                  cacheName, destination);
+         }
       } catch (Throwable t) {
          // ignore eventual exceptions caused by cancellation (have InterruptedException as the root cause)
          if (isCancelled()) {
@@ -192,37 +293,194 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
       }
    }
 
-   private void sendEntry(InternalCacheEntry ice, int segmentId) {
+   private void visitDataContainer(EntryVisitor visitor) throws InterruptedException {
+      if (dataContainer instanceof SegmentedDataContainer) {
+         // only visit the entries of the requested segments
+         SegmentedDataContainer<Object, Object> segmentedDataContainer = (SegmentedDataContainer<Object, Object>) dataContainer;
+         for (int segmentId : segments) {
+            Iterator<InternalCacheEntry<Object, Object>> iterator =
+                  segmentedDataContainer.iterator(Collections.singleton(segmentId));
+            while (iterator.hasNext()) {
+               visitor.visit(iterator.next(), segmentId);
+            }
+         }
+      } else {
+         for (InternalCacheEntry ice : dataContainer) {
+            Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
+            int segmentId = readCh.getSegment(key);
+            if (segments.contains(segmentId)) {
+               visitor.visit(ice, segmentId);
+            }
+         }
+      }
+   }
+
+   /**
+    * Visits the entries of the store that are not in the data container.
+    *
+    * @param skipFailedEntries if {@code true}, the entries that cannot be loaded or visited are only logged
+    */
+   private void visitStore(AdvancedCacheLoader stProvider, EntryVisitor visitor, boolean skipFailedEntries) {
+      CollectionKeyFilter filter = new CollectionKeyFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
+      AdvancedCacheLoader.CacheLoaderTask task = new AdvancedCacheLoader.CacheLoaderTask() {
+         @Override
+         public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+            int segmentId = readCh.getSegment(me.getKey());
+            if (segments.contains(segmentId)) {
+               try {
+                  InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
+                  visitor.visit(icv, segmentId);
+               } catch (CacheException e) {
+                  if (!skipFailedEntries) {
+                     throw e;
+                  }
+                  log.failedLoadingValueFromCacheStore(me.getKey(), e);
+               }
+            }
+         }
+      };
+      stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+   }
+
+   /**
+    * Computes the digests of the local entries and compares them with the digests of the destination.
+    *
+    * @return the buckets that match, or {@code null} if the local digests could not be computed
+    */
+   private Map<Integer, BitSet> findUnchangedBuckets(AdvancedCacheLoader stProvider) throws InterruptedException {
+      Map<Integer, SegmentDigest> localDigests = new HashMap<>();
+      for (Map.Entry<Integer, SegmentDigest> e : remoteDigests.entrySet()) {
+         if (segments.contains(e.getKey())) {
+            localDigests.put(e.getKey(), new SegmentDigest(e.getValue().getNumBuckets()));
+         }
+      }
+      EntryVisitor digester = (ice, segmentId) -> {
+         SegmentDigest digest = localDigests.get(segmentId);
+         if (digest != null) {
+            digestCalculator.add(digest, ice.getKey(), ice.getValue(), ice.getMetadata());
+         }
+      };
+      try {
+         visitDataContainer(digester);
+         if (stProvider != null) {
+            // a missing entry could make a bucket match by mistake
+            visitStore(stProvider, digester, false);
+         }
+      } catch (CacheException e) {
+         log.debugf(e, "Failed to compute the digests of segments %s of cache %s, sending all their entries", segments, cacheName);
+         return null;
+      }
+
+      Map<Integer, BitSet> unchanged = new HashMap<>();
+      for (Map.Entry<Integer, SegmentDigest> e : localDigests.entrySet()) {
+         BitSet same = e.getValue().sameBuckets(remoteDigests.get(e.getKey()));
+         if (!same.isEmpty()) {
+            unchanged.put(e.getKey(), same);
+         }
+      }
+      if (trace) {
+         log.tracef("Node %s already holds the entries of %d buckets of segments %s of cache %s", destination,
+               unchanged.values().stream().mapToInt(BitSet::cardinality).sum(), unchanged.keySet(), cacheName);
+      }
+      return unchanged;
+   }
+
+   /**
+    * @return {@code true} if the destination holds the same entries as this node in the bucket of the key
+    */
+   private boolean isUnchanged(int segmentId, Object key) {
+      if (unchangedBuckets == null) {
+         return false;
+      }
+      BitSet buckets = unchangedBuckets.get(segmentId);
+      if (buckets != null && buckets.get(remoteDigests.get(segmentId).bucketOf(digestCalculator.keyHash(key)))) {
+         skippedEntries++;
+         return true;
+      }
+      return false;
+   }
+
+   private void sendEntry(InternalCacheEntry ice, int segmentId) throws InterruptedException {
+      if (isUnchanged(segmentId, ice.getKey())) {
+         return;
+      }
+
       // send if we have a full chunk
-      if (accumulatedEntries >= stateTransferChunkSize) {
+      if (accumulatedEntries >= stateTransferChunkSize || (chunkBytes > 0 && encoder.getAccumulatedBytes() >= chunkBytes)) {
          sendEntries(false);
          accumulatedEntries = 0;
       }
 
-      List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
-      if (entries == null) {
-         entries = new ArrayList<InternalCacheEntry>();
-         entriesBySegment.put(segmentId, entries);
+      if (encoder != null) {
+         encoder.add(segmentId, ice);
+      } else {
+         List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
+         if (entries == null) {
+            entries = new ArrayList<InternalCacheEntry>();
+            entriesBySegment.put(segmentId, entries);
+         }
+         entries.add(ice);
       }
-      entries.add(ice);
       accumulatedEntries++;
    }
 
-   private void sendEntries(boolean isLast) {
-      List<StateChunk> chunks = new ArrayList<StateChunk>();
-      for (Map.Entry<Integer, List<InternalCacheEntry>> e : entriesBySegment.entrySet()) {
-         List<InternalCacheEntry> entries = e.getValue();
-         if (!entries.isEmpty() || isLast) {
-            chunks.add(new StateChunk(e.getKey(), new ArrayList<InternalCacheEntry>(entries), isLast));
-            entries.clear();
+   /**
+    * Sends the records of the keys that are not in the data container, in chunks of their own.
+    */
+   private void sendStoreRecords(TransferableStore<Object, Object> store) throws InterruptedException {
+      // the records of a segment must not be mixed with its entries
+      sendEntries(false);
+      accumulatedEntries = 0;
+
+      CollectionKeyFilter filter = new CollectionKeyFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
+      store.exportRecords(filter, (key, record) -> {
+         int segmentId = readCh.getSegment(key);
+         if (segments.contains(segmentId) && !isUnchanged(segmentId, key)) {
+            if (accumulatedEntries >= stateTransferChunkSize || (chunkBytes > 0 && recordEncoder.getAccumulatedBytes() >= chunkBytes)) {
+               sendRecords();
+               accumulatedEntries = 0;
+            }
+            recordEncoder.add(segmentId, record);
+            accumulatedEntries++;
          }
+      });
+      sendRecords();
+      accumulatedEntries = 0;
+   }
+
+   private void sendRecords() throws InterruptedException {
+      long bytes = recordEncoder.getAccumulatedBytes();
+      List<StateChunk> chunks = recordEncoder.drain(segments, false);
+      if (!chunks.isEmpty()) {
+         if (trace) {
+            log.tracef("Sending %d store records from segments %s of cache %s to node %s", accumulatedEntries, segments, cacheName, destination);
+         }
+         sendChunks(chunks, bytes, false);
       }
+   }
 
-      if (isLast) {
-         for (int segmentId : segments) {
-            List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
-            if (entries == null) {
-               chunks.add(new StateChunk(segmentId, Collections.<InternalCacheEntry>emptyList(), true));
+   private void sendEntries(boolean isLast) throws InterruptedException {
+      List<StateChunk> chunks;
+      long bytes = 0;
+      if (encoder != null) {
+         bytes = encoder.getAccumulatedBytes();
+         chunks = encoder.drain(segments, isLast);
+      } else {
+         chunks = new ArrayList<StateChunk>();
+         for (Map.Entry<Integer, List<InternalCacheEntry>> e : entriesBySegment.entrySet()) {
+            List<InternalCacheEntry> entries = e.getValue();
+            if (!entries.isEmpty() || isLast) {
+               chunks.add(new StateChunk(e.getKey(), new ArrayList<InternalCacheEntry>(entries), isLast));
+               entries.clear();
+            }
+         }
+
+         if (isLast) {
+            for (int segmentId : segments) {
+               List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
+               if (entries == null) {
+                  chunks.add(new StateChunk(segmentId, Collections.<InternalCacheEntry>emptyList(), true));
+               }
             }
          }
       }
@@ -236,23 +494,59 @@ private void sendEntries(boolean isLast) {
             }
          }
 
-         StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
-         // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
+         sendChunks(chunks, bytes, isLast);
+      }
+   }
+
+   private void sendChunks(List<StateChunk> chunks, long bytes, boolean isLast) throws InterruptedException {
+      StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
+      chunksSent.increment();
+      bytesSent.add(bytes);
+      if (isLast) {
+         // send synchronously, once all the previous chunks were applied. it is important that the last chunk is
+         // received last in order to correctly detect completion of the stream of chunks
+         acquireCredits(maxInFlightChunks);
          try {
             rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
-         } catch (SuspectException e) {
-            log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
-            cancel();
          } catch (Exception e) {
-            if (isCancelled()) {
-               log.debugf("Stopping cancelled transfer of segments %s of cache %s to node %s", segments, cacheName, destination);
-            } else {
-               log.errorf(e, "Failed to send entries to node %s : %s", destination, e.getMessage());
-            }
+            handleSendFailure(e);
+         } finally {
+            credits.release(maxInFlightChunks);
          }
+      } else {
+         // the destination responds only after applying the chunk, which returns the credit
+         acquireCredits(1);
+         rpcManager.invokeRemotelyAsync(Collections.singleton(destination), cmd, rpcOptions)
+               .whenComplete((responses, throwable) -> {
+                  credits.release();
+                  if (throwable != null) {
+                     handleSendFailure(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                  }
+               });
       }
    }
 
+   private void acquireCredits(int count) throws InterruptedException {
+      if (!credits.tryAcquire(count, timeout, TimeUnit.MILLISECONDS)) {
+         throw new TimeoutException("Timed out waiting for node " + destination + " to apply the state of cache " + cacheName);
+      }
+   }
+
+   private void handleSendFailure(Throwable t) {
+      if (t instanceof SuspectException) {
+         log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
+         cancel();
+      } else if (isCancelled()) {
+         log.debugf("Stopping cancelled transfer of segments %s of cache %s to node %s", segments, cacheName, destination);
+      } else {
+         log.errorf(t, "Failed to send entries to node %s : %s", destination, t.getMessage());
+      }
+   }
+
+   private interface EntryVisitor {
+      void visit(InternalCacheEntry ice, int segmentId) throws InterruptedException;
+   }
+
    /**
     * Cancel some of the segments. If all segments get cancelled then the whole task will be cancelled.
     *
@@ -265,6 +559,12 @@ public void cancelSegments(Set<Integer> cancelledSegments) {
                   cancelledSegments, cacheName, destination, segments);
          }
          entriesBySegment.keySet().removeAll(cancelledSegments);  // here we do not update accumulatedEntries but this inaccuracy does not cause any harm
+         if (encoder != null) {
+            encoder.removeSegments(cancelledSegments);
+         }
+         if (recordEncoder != null) {
+            recordEncoder.removeSegments(cancelledSegments);
+         }
          if (segments.isEmpty()) {
             cancel();
          }
@@ -292,6 +592,11 @@ public String toString() {
             ", destination=" + destination +
             ", segments=" + segments +
             ", stateTransferChunkSize=" + stateTransferChunkSize +
+            ", chunkBytes=" + chunkBytes +
+            ", maxInFlightChunks=" + maxInFlightChunks +
+            ", outstandingChunks=" + getOutstandingChunks() +
+            ", chunksSent=" + chunksSent +
+            ", bytesSent=" + bytesSent +
             ", timeout=" + timeout +
             ", cacheName='" + cacheName + '\'' +
             '}';
@@ -0,0 +1,118 @@
+package org.infinispan.statetransfer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Summarizes the entries of a segment, so that two nodes can tell which parts of the segment hold different entries
+ * without exchanging the entries.
+ * <p/>
+ * The keys are spread over a fixed number of buckets by the hash of their marshalled form, and each bucket holds the sum
+ * of the hashes of its entries. The sum does not depend on the order in which the entries are added, nor on whether
+ * an entry was found in memory or in a store.
+ *
+ * @since 9.0
+ */
+public final class SegmentDigest {
+
+   private final long[] buckets;
+
+   public SegmentDigest(int numBuckets) {
+      if (numBuckets <= 0) {
+         throw new IllegalArgumentException("numBuckets must be greater than 0");
+      }
+      this.buckets = new long[numBuckets];
+   }
+
+   private SegmentDigest(long[] buckets) {
+      this.buckets = buckets;
+   }
+
+   public int getNumBuckets() {
+      return buckets.length;
+   }
+
+   public int bucketOf(long keyHash) {
+      return (int) ((keyHash >>> 1) % buckets.length);
+   }
+
+   /**
+    * Adds an entry to the bucket of its key. The entries of a segment can be added by several threads.
+    */
+   public synchronized void add(long keyHash, long entryHash) {
+      buckets[bucketOf(keyHash)] += entryHash;
+   }
+
+   /**
+    * @return the buckets that have the same hash in both digests, or an empty set if the digests have a different
+    * number of buckets
+    */
+   public synchronized BitSet sameBuckets(SegmentDigest other) {
+      BitSet same = new BitSet(buckets.length);
+      if (other.buckets.length == buckets.length) {
+         for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == other.buckets[i]) {
+               same.set(i);
+            }
+         }
+      }
+      return same;
+   }
+
+   @Override
+   public synchronized boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      return Arrays.equals(buckets, ((SegmentDigest) o).buckets);
+   }
+
+   @Override
+   public synchronized int hashCode() {
+      return Arrays.hashCode(buckets);
+   }
+
+   @Override
+   public String toString() {
+      return "SegmentDigest{" +
+            "buckets=" + buckets.length +
+            '}';
+   }
+
+   static void writeDigests(Map<Integer, SegmentDigest> digests, ObjectOutput output) throws IOException {
+      if (digests == null) {
+         output.writeInt(-1);
+         return;
+      }
+      output.writeInt(digests.size());
+      for (Map.Entry<Integer, SegmentDigest> e : digests.entrySet()) {
+         long[] buckets = e.getValue().buckets;
+         output.writeInt(e.getKey());
+         output.writeInt(buckets.length);
+         for (long bucket : buckets) {
+            output.writeLong(bucket);
+         }
+      }
+   }
+
+   static Map<Integer, SegmentDigest> readDigests(ObjectInput input) throws IOException {
+      int size = input.readInt();
+      if (size < 0) {
+         return null;
+      }
+      Map<Integer, SegmentDigest> digests = new HashMap<>(size);
+      for (int i = 0; i < size; i++) {
+         int segmentId = input.readInt();
+         long[] buckets = new long[input.readInt()];
+         for (int j = 0; j < buckets.length; j++) {
+            buckets[j] = input.readLong();
+         }
+         digests.put(segmentId, new SegmentDigest(buckets));
+      }
+      return digests;
+   }
+}
@@ -0,0 +1,64 @@
+package org.infinispan.statetransfer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * Computes the hashes added to a {@link SegmentDigest}. Both the sender and the receiver of a state transfer must
+ * compute them the same way, from the marshalled form of the keys and values.
+ * <p/>
+ * If the entry has a version, the version is hashed instead of the value, as it changes with every write.
+ *
+ * @since 9.0
+ */
+final class SegmentDigestCalculator {
+
+   private static final int SEED = 9001;
+
+   private final StreamingMarshaller marshaller;
+
+   SegmentDigestCalculator(StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
+   static Map<Integer, SegmentDigest> newDigests(Set<Integer> segments, int numBuckets) {
+      Map<Integer, SegmentDigest> digests = new HashMap<>(segments.size());
+      for (int segmentId : segments) {
+         digests.put(segmentId, new SegmentDigest(numBuckets));
+      }
+      return digests;
+   }
+
+   long keyHash(Object key) {
+      return MurmurHash3.MurmurHash3_x64_64(toBytes(key), SEED);
+   }
+
+   void add(SegmentDigest digest, Object key, Object value, Metadata metadata) {
+      long keyHash = keyHash(key);
+      EntryVersion version = metadata != null ? metadata.version() : null;
+      long valueHash = MurmurHash3.MurmurHash3_x64_64(toBytes(version != null ? version : value), SEED);
+      long lifespan = metadata != null ? metadata.lifespan() : -1;
+      long maxIdle = metadata != null ? metadata.maxIdle() : -1;
+      long entryHash = MurmurHash3.MurmurHash3_x64_64(new long[]{keyHash, valueHash, lifespan, maxIdle}, SEED);
+      digest.add(keyHash, entryHash);
+   }
+
+   private byte[] toBytes(Object o) {
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+}
@@ -8,12 +8,18 @@
 import java.util.Set;
 
 import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.marshall.core.Ids;
 
 /**
  * Encapsulates a chunk of cache entries that belong to the same segment. This representation is suitable for sending it
  * to another cache during state transfer.
+ * <p/>
+ * The entries are either kept as objects or, when the sender bounds the chunks by bytes or compresses them, already
+ * marshalled by {@link StateChunkEncoder}. In the latter case {@link #getCacheEntries()} returns {@code null}. The
+ * encoded form can also hold the records of a {@link org.infinispan.persistence.spi.TransferableStore} instead of
+ * entries.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -30,6 +36,20 @@ public class StateChunk {
     */
    private final Collection<InternalCacheEntry> cacheEntries;
 
+   /**
+    * The marshalled cache entries, if {@code cacheEntries} is {@code null}.
+    */
+   private final byte[] encodedEntries;
+
+   private final int encodedEntryCount;
+
+   private final boolean compressed;
+
+   /**
+    * Whether the encoded entries are records of a {@link org.infinispan.persistence.spi.TransferableStore}.
+    */
+   private final boolean storeRecords;
+
    /**
     * Indicates to receiver if there are more chunks to come for this segment.
     */
@@ -39,6 +59,21 @@ public StateChunk(int segmentId, Collection<InternalCacheEntry> cacheEntries, bo
       this.segmentId = segmentId;
       this.cacheEntries = cacheEntries;
       this.isLastChunk = isLastChunk;
+      this.encodedEntries = null;
+      this.encodedEntryCount = 0;
+      this.compressed = false;
+      this.storeRecords = false;
+   }
+
+   public StateChunk(int segmentId, byte[] encodedEntries, int encodedEntryCount, boolean compressed,
+                     boolean storeRecords, boolean isLastChunk) {
+      this.segmentId = segmentId;
+      this.cacheEntries = null;
+      this.isLastChunk = isLastChunk;
+      this.encodedEntries = encodedEntries;
+      this.encodedEntryCount = encodedEntryCount;
+      this.compressed = compressed;
+      this.storeRecords = storeRecords;
    }
 
    public int getSegmentId() {
@@ -53,11 +88,34 @@ public boolean isLastChunk() {
       return isLastChunk;
    }
 
+   public boolean isEncoded() {
+      return encodedEntries != null;
+   }
+
+   public byte[] getEncodedEntries() {
+      return encodedEntries;
+   }
+
+   public int getEncodedEntryCount() {
+      return encodedEntryCount;
+   }
+
+   public boolean isCompressed() {
+      return compressed;
+   }
+
+   public boolean isStoreRecords() {
+      return storeRecords;
+   }
+
    @Override
    public String toString() {
       return "StateChunk{" +
             "segmentId=" + segmentId +
-            ", cacheEntries=" + cacheEntries.size() +
+            ", cacheEntries=" + (isEncoded() ? encodedEntryCount : cacheEntries.size()) +
+            ", encodedBytes=" + (isEncoded() ? encodedEntries.length : 0) +
+            ", compressed=" + compressed +
+            ", storeRecords=" + storeRecords +
             ", isLastChunk=" + isLastChunk +
             '}';
    }
@@ -77,7 +135,15 @@ public Set<Class<? extends StateChunk>> getTypeClasses() {
       @Override
       public void writeObject(ObjectOutput output, StateChunk object) throws IOException {
          output.writeInt(object.segmentId);
-         output.writeObject(object.cacheEntries);
+         output.writeBoolean(object.isEncoded());
+         if (object.isEncoded()) {
+            MarshallUtil.marshallByteArray(object.encodedEntries, output);
+            output.writeInt(object.encodedEntryCount);
+            output.writeBoolean(object.compressed);
+            output.writeBoolean(object.storeRecords);
+         } else {
+            output.writeObject(object.cacheEntries);
+         }
          output.writeBoolean(object.isLastChunk);
       }
 
@@ -85,6 +151,14 @@ public void writeObject(ObjectOutput output, StateChunk object) throws IOExcepti
       @SuppressWarnings("unchecked")
       public StateChunk readObject(ObjectInput input) throws IOException, ClassNotFoundException {
          int segmentId = input.readInt();
+         if (input.readBoolean()) {
+            byte[] encodedEntries = MarshallUtil.unmarshallByteArray(input);
+            int encodedEntryCount = input.readInt();
+            boolean compressed = input.readBoolean();
+            boolean storeRecords = input.readBoolean();
+            return new StateChunk(segmentId, encodedEntries, encodedEntryCount, compressed, storeRecords,
+                                  input.readBoolean());
+         }
          Collection<InternalCacheEntry> cacheEntries = (Collection<InternalCacheEntry>) input.readObject();
          boolean isLastChunk = input.readBoolean();
          return new StateChunk(segmentId, cacheEntries, isLastChunk);
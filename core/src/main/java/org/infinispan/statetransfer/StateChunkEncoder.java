@@ -0,0 +1,190 @@
+package org.infinispan.statetransfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * Marshals the entries accumulated by an {@link OutboundTransferTask} as they are read, so that the size of a chunk is
+ * known in bytes before it is sent, and optionally compresses them. The receiver turns the {@link StateChunk}s back
+ * into entries with {@link #decode(StreamingMarshaller, StateChunk)}.
+ * <p/>
+ * Each entry is written as its length followed by its marshalled form. The entries of a segment are compressed
+ * together, when the chunk is created.
+ * <p/>
+ * An encoder created for store records accumulates the records exported by a
+ * {@link org.infinispan.persistence.spi.TransferableStore} the same way, without marshalling them.
+ *
+ * @since 9.0
+ */
+final class StateChunkEncoder {
+
+   private final StreamingMarshaller marshaller;
+
+   private final boolean compression;
+
+   private final boolean storeRecords;
+
+   private final Map<Integer, SegmentBuffer> buffersBySegment = CollectionFactory.makeConcurrentMap();
+
+   /**
+    * The total number of bytes from all segments accumulated in buffersBySegment.
+    */
+   private long accumulatedBytes;
+
+   StateChunkEncoder(StreamingMarshaller marshaller, boolean compression, boolean storeRecords) {
+      this.marshaller = marshaller;
+      this.compression = compression;
+      this.storeRecords = storeRecords;
+   }
+
+   void add(int segmentId, InternalCacheEntry entry) {
+      byte[] bytes;
+      try {
+         bytes = marshaller.objectToByteBuffer(entry);
+      } catch (IOException e) {
+         throw new CacheException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+      add(segmentId, bytes);
+   }
+
+   /**
+    * Adds an entry that is already marshalled, or a store record.
+    */
+   void add(int segmentId, byte[] bytes) {
+      buffersBySegment.computeIfAbsent(segmentId, s -> new SegmentBuffer()).writeEntry(bytes);
+      accumulatedBytes += bytes.length + 4;
+   }
+
+   /**
+    * @return the number of uncompressed bytes accumulated since the last {@link #drain(Set, boolean)}.
+    */
+   long getAccumulatedBytes() {
+      return accumulatedBytes;
+   }
+
+   /**
+    * Creates the chunks of the entries accumulated so far and resets the buffers.
+    *
+    * @param segments the segments still being transferred. If {@code isLast} is {@code true}, a chunk is created for
+    *                 each of them, even if there are no entries to send.
+    */
+   List<StateChunk> drain(Set<Integer> segments, boolean isLast) {
+      List<StateChunk> chunks = new ArrayList<>();
+      for (Map.Entry<Integer, SegmentBuffer> e : buffersBySegment.entrySet()) {
+         SegmentBuffer buffer = e.getValue();
+         if (buffer.entryCount > 0 || isLast) {
+            chunks.add(buffer.toChunk(e.getKey(), isLast));
+            buffer.reset();
+         }
+      }
+
+      if (isLast) {
+         for (int segmentId : segments) {
+            if (!buffersBySegment.containsKey(segmentId)) {
+               chunks.add(new StateChunk(segmentId, Collections.<InternalCacheEntry>emptyList(), true));
+            }
+         }
+      }
+      accumulatedBytes = 0;
+      return chunks;
+   }
+
+   void removeSegments(Set<Integer> segments) {
+      // here we do not update accumulatedBytes but this inaccuracy does not cause any harm
+      buffersBySegment.keySet().removeAll(segments);
+   }
+
+   static Collection<InternalCacheEntry> decode(StreamingMarshaller marshaller, StateChunk stateChunk) {
+      List<InternalCacheEntry> entries = new ArrayList<>(stateChunk.getEncodedEntryCount());
+      try {
+         for (byte[] bytes : decodeRecords(stateChunk)) {
+            entries.add((InternalCacheEntry) marshaller.objectFromByteBuffer(bytes));
+         }
+      } catch (IOException | ClassNotFoundException e) {
+         throw new CacheException("Failed to decode the entries of segment " + stateChunk.getSegmentId(), e);
+      }
+      return entries;
+   }
+
+   /**
+    * @return the store records of a chunk, or its entries still marshalled
+    */
+   static List<byte[]> decodeRecords(StateChunk stateChunk) {
+      List<byte[]> records = new ArrayList<>(stateChunk.getEncodedEntryCount());
+      InputStream in = new ByteArrayInputStream(stateChunk.getEncodedEntries());
+      if (stateChunk.isCompressed()) {
+         in = new InflaterInputStream(in);
+      }
+      try (DataInputStream input = new DataInputStream(in)) {
+         for (int i = 0; i < stateChunk.getEncodedEntryCount(); i++) {
+            byte[] bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+            records.add(bytes);
+         }
+      } catch (IOException e) {
+         throw new CacheException("Failed to decode the entries of segment " + stateChunk.getSegmentId(), e);
+      }
+      return records;
+   }
+
+   private static byte[] deflate(byte[] bytes, int length) {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+         ByteArrayOutputStream output = new ByteArrayOutputStream(length / 2 + 16);
+         try (DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(output, deflater)) {
+            deflaterOutput.write(bytes, 0, length);
+         }
+         return output.toByteArray();
+      } catch (IOException e) {
+         // cannot happen, the output is in memory
+         throw new CacheException(e);
+      } finally {
+         deflater.end();
+      }
+   }
+
+   private final class SegmentBuffer extends ByteArrayOutputStream {
+      private int entryCount;
+
+      void writeEntry(byte[] bytes) {
+         int length = bytes.length;
+         write(length >>> 24);
+         write(length >>> 16);
+         write(length >>> 8);
+         write(length);
+         write(bytes, 0, length);
+         entryCount++;
+      }
+
+      StateChunk toChunk(int segmentId, boolean isLast) {
+         byte[] encoded = compression ? deflate(buf, count) : toByteArray();
+         return new StateChunk(segmentId, encoded, entryCount, compression, storeRecords, isLast);
+      }
+
+      @Override
+      public synchronized void reset() {
+         super.reset();
+         entryCount = 0;
+      }
+   }
+}
@@ -9,6 +9,7 @@
 import static org.infinispan.context.Flag.SKIP_SHARED_CACHE_STORE;
 import static org.infinispan.context.Flag.SKIP_XSITE_BACKUP;
 import static org.infinispan.factories.KnownComponentNames.STATE_TRANSFER_EXECUTOR;
+import static org.infinispan.persistence.PersistenceUtil.internalMetadata;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
 import java.util.ArrayList;
@@ -17,6 +18,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,11 +39,14 @@
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.concurrent.ConcurrentHashSet;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
@@ -57,9 +62,14 @@
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.TransferableStore;
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.responses.SuccessfulResponse;
@@ -75,8 +85,10 @@
 import org.infinispan.transaction.totalorder.TotalOrderManager;
 import org.infinispan.transaction.xa.CacheTransaction;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -119,9 +131,16 @@ public class StateConsumerImpl implements StateConsumer {
    private boolean isTransactional;
    private boolean isInvalidationMode;
    private boolean isTotalOrder;
+   private boolean isBulkApply;
+   private boolean storeReceivedState;
+   private int digestBuckets;
    private volatile KeyInvalidationListener keyInvalidationListener; //for test purpose only!
    private CommitManager commitManager;
    private ExecutorService stateTransferExecutor;
+   private LockManager lockManager;
+   private StreamingMarshaller marshaller;
+   private TimeService timeService;
+   private InternalEntryFactory entryFactory;
 
    private volatile CacheTopology cacheTopology;
 
@@ -196,7 +215,11 @@ public void init(Cache cache,
                     CacheNotifier cacheNotifier,
                     TotalOrderManager totalOrderManager,
                     @ComponentName(KnownComponentNames.REMOTE_COMMAND_EXECUTOR) BlockingTaskAwareExecutorService remoteCommandsExecutor,
-                    CommitManager commitManager) {
+                    CommitManager commitManager,
+                    LockManager lockManager,
+                    StreamingMarshaller marshaller,
+                    TimeService timeService,
+                    InternalEntryFactory entryFactory) {
       this.cache = cache;
       this.cacheName = cache.getName();
       this.stateTransferExecutor = stateTransferExecutor;
@@ -215,6 +238,10 @@ public void init(Cache cache,
       this.totalOrderManager = totalOrderManager;
       this.remoteCommandsExecutor = remoteCommandsExecutor;
       this.commitManager = commitManager;
+      this.lockManager = lockManager;
+      this.marshaller = marshaller;
+      this.timeService = timeService;
+      this.entryFactory = entryFactory;
 
       isInvalidationMode = configuration.clustering().cacheMode().isInvalidation();
 
@@ -222,6 +249,10 @@ public void init(Cache cache,
       isTotalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
 
       timeout = configuration.clustering().stateTransfer().timeout();
+      isBulkApply = configuration.clustering().stateTransfer().bulkApply();
+      // with passivation, the entries are only written to the stores when evicted
+      storeReceivedState = configuration.persistence().usingStores() && !configuration.persistence().passivation();
+      digestBuckets = configuration.clustering().stateTransfer().digestBuckets();
 
       stateRequestCompletionService = new SemaphoreCompletionService<>(stateTransferExecutor, 1);
    }
@@ -574,8 +605,12 @@ private void applyChunk(Address sender, Set<Integer> mySegments, StateChunk stat
          inboundTransfer = transfersBySegment.get(stateChunk.getSegmentId());
       }
       if (inboundTransfer != null) {
-         if (stateChunk.getCacheEntries() != null) {
-            doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
+         if (stateChunk.isStoreRecords()) {
+            applyStoreRecords(sender, stateChunk.getSegmentId(), StateChunkEncoder.decodeRecords(stateChunk), inboundTransfer);
+         } else if (stateChunk.isEncoded()) {
+            doApplyState(sender, stateChunk.getSegmentId(), StateChunkEncoder.decode(marshaller, stateChunk), inboundTransfer);
+         } else if (stateChunk.getCacheEntries() != null) {
+            doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries(), inboundTransfer);
          }
 
          inboundTransfer.onStateReceived(stateChunk.getSegmentId(), stateChunk.isLastChunk());
@@ -586,12 +621,176 @@ private void applyChunk(Address sender, Set<Integer> mySegments, StateChunk stat
       }
    }
 
-   private void doApplyState(Address sender, int segmentId, Collection<InternalCacheEntry> cacheEntries) {
+   private void doApplyState(Address sender, int segmentId, Collection<InternalCacheEntry> cacheEntries,
+                             InboundTransferTask inboundTransfer) {
       if (trace) log.tracef("Applying new state chunk for segment %d of cache %s from node %s: received %d cache entries",
             segmentId, cacheName, sender, cacheEntries.size());
 
+      long startTime = timeService.time();
+      int applied;
+      // the listeners need an event for each entry, which only the commands fire. internal components, like the
+      // transaction table, only listen to topology changes.
+      if (isBulkApply && !cacheNotifier.hasListener(CacheEntryCreated.class)
+            && !cacheNotifier.hasListener(CacheEntryModified.class)) {
+         applied = bulkApplyState(segmentId, cacheEntries);
+      } else {
+         applied = invokeApplyState(cacheEntries);
+      }
+      inboundTransfer.onEntriesApplied(applied, cacheEntries.size() - applied,
+                                       timeService.timeDuration(startTime, TimeUnit.NANOSECONDS));
+      if (trace) log.tracef("Finished applying chunk of segment %d of cache %s", segmentId, cacheName);
+   }
+
+   /**
+    * Imports the records sent by the store of the sender directly in the local store, without going through the data
+    * container. The keys are locked and checked with the {@link CommitManager} like in {@link #bulkApplyState(int,
+    * Collection)}, and the records are applied entry by entry if some key is already locked.
+    */
+   private void applyStoreRecords(Address sender, int segmentId, List<byte[]> records,
+                                  InboundTransferTask inboundTransfer) {
+      if (trace) log.tracef("Importing store records for segment %d of cache %s from node %s: received %d records",
+            segmentId, cacheName, sender, records.size());
+
+      TransferableStore<Object, Object> store = getTransferableStore();
+      if (store == null) {
+         throw log.cannotImportStoreRecords(cacheName, sender);
+      }
+      Map<Object, byte[]> recordsByKey = new LinkedHashMap<>(records.size());
+      for (byte[] record : records) {
+         recordsByKey.put(store.recordKey(record), record);
+      }
+      List<Object> keys = new ArrayList<>(recordsByKey.keySet());
+      Object lockOwner = new Object();
+      try {
+         lockManager.lockAll(keys, lockOwner, 0, TimeUnit.MILLISECONDS).lock();
+      } catch (TimeoutException e) {
+         lockManager.unlockAll(keys, lockOwner);
+         if (trace) log.tracef("Some keys of segment %d of cache %s are locked, applying records entry by entry", segmentId, cacheName);
+         List<InternalCacheEntry> entries = new ArrayList<>(records.size());
+         for (byte[] record : records) {
+            MarshalledEntry<Object, Object> me = store.recordToEntry(record);
+            entries.add(entryFactory.create(me.getKey(), me.getValue(), me.getMetadata()));
+         }
+         doApplyState(sender, segmentId, entries, inboundTransfer);
+         return;
+      } catch (InterruptedException e) {
+         lockManager.unlockAll(keys, lockOwner);
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+      long startTime = timeService.time();
+      Map<Object, byte[]> importedRecords = new HashMap<>(recordsByKey.size());
+      try {
+         for (Map.Entry<Object, byte[]> e : recordsByKey.entrySet()) {
+            commitManager.commitReceivedKey(e.getKey(), PUT_FOR_STATE_TRANSFER,
+                  () -> importedRecords.put(e.getKey(), e.getValue()));
+         }
+         if (importedRecords.isEmpty()) {
+            return;
+         }
+         try {
+            store.importRecords(importedRecords);
+         } catch (PersistenceException e) {
+            log.failedToStoreReceivedState(segmentId, cacheName, e);
+            importedRecords.clear();
+            return;
+         }
+         // same as in bulkApplyState
+         if (!cacheTopology.getWriteConsistentHash().isSegmentLocalToNode(rpcManager.getAddress(), segmentId)) {
+            if (trace) log.tracef("Segment %d of cache %s was removed while importing its records", segmentId, cacheName);
+            invalidateKeys(new ArrayList<>(importedRecords.keySet()));
+            importedRecords.clear();
+         }
+      } finally {
+         lockManager.unlockAll(keys, lockOwner);
+         inboundTransfer.onEntriesApplied(importedRecords.size(), records.size() - importedRecords.size(),
+                                          timeService.timeDuration(startTime, TimeUnit.NANOSECONDS));
+      }
+      if (trace) log.tracef("Finished importing store records of segment %d of cache %s", segmentId, cacheName);
+   }
+
+   private TransferableStore<Object, Object> getTransferableStore() {
+      Set<TransferableStore> stores = persistenceManager.getStores(TransferableStore.class);
+      return stores.isEmpty() ? null : stores.iterator().next();
+   }
+
+   /**
+    * Inserts the entries directly in the data container and writes them to the private stores in a single batch.
+    * <p/>
+    * The keys are locked for the whole chunk, so a concurrent write either completes before the chunk, and its key is
+    * discarded by the {@link CommitManager}, or it waits for the chunk and overwrites it, in memory and in the stores.
+    * If some key is already locked, the chunk is applied entry by entry instead of waiting.
+    *
+    * @return the number of entries stored
+    */
+   private int bulkApplyState(int segmentId, Collection<InternalCacheEntry> cacheEntries) {
+      List<Object> keys = new ArrayList<>(cacheEntries.size());
+      for (InternalCacheEntry e : cacheEntries) {
+         keys.add(e.getKey());
+      }
+      Object lockOwner = new Object();
+      try {
+         lockManager.lockAll(keys, lockOwner, 0, TimeUnit.MILLISECONDS).lock();
+      } catch (TimeoutException e) {
+         lockManager.unlockAll(keys, lockOwner);
+         if (trace) log.tracef("Some keys of segment %d of cache %s are locked, applying chunk entry by entry", segmentId, cacheName);
+         return invokeApplyState(cacheEntries);
+      } catch (InterruptedException e) {
+         lockManager.unlockAll(keys, lockOwner);
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+      try {
+         List<InternalCacheEntry> storedEntries = new ArrayList<>(cacheEntries.size());
+         for (InternalCacheEntry e : cacheEntries) {
+            if (commitManager.commitReceivedEntry(e, PUT_FOR_STATE_TRANSFER)) {
+               storedEntries.add(e);
+            }
+         }
+         if (storedEntries.isEmpty()) {
+            return 0;
+         }
+         // the segment is removed from the topology before its stale entries are, so if it is still owned here, the
+         // entries will be removed with the others if it is removed later
+         if (!cacheTopology.getWriteConsistentHash().isSegmentLocalToNode(rpcManager.getAddress(), segmentId)) {
+            if (trace) log.tracef("Segment %d of cache %s was removed while applying its state", segmentId, cacheName);
+            List<Object> storedKeys = new ArrayList<>(storedEntries.size());
+            for (InternalCacheEntry e : storedEntries) {
+               storedKeys.add(e.getKey());
+            }
+            invalidateKeys(storedKeys);
+            return 0;
+         }
+         if (storeReceivedState) {
+            List<MarshalledEntry> marshalledEntries = new ArrayList<>(storedEntries.size());
+            for (InternalCacheEntry e : storedEntries) {
+               marshalledEntries.add(new MarshalledEntryImpl(e.getKey(), e.getValue(), internalMetadata(e), marshaller));
+            }
+            try {
+               persistenceManager.writeBatchToAllNonTxStoresAsync(marshalledEntries, PRIVATE).toCompletableFuture()
+                     .get(timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               throw new CacheException(e);
+            } catch (ExecutionException | java.util.concurrent.TimeoutException e) {
+               log.failedToStoreReceivedState(segmentId, cacheName, e);
+            }
+         }
+         return storedEntries.size();
+      } finally {
+         lockManager.unlockAll(keys, lockOwner);
+      }
+   }
+
+   /**
+    * Applies each entry with a put command, in its own transaction if the cache is transactional.
+    *
+    * @return the number of entries applied without error
+    */
+   private int invokeApplyState(Collection<InternalCacheEntry> cacheEntries) {
       // CACHE_MODE_LOCAL avoids handling by StateTransferInterceptor and any potential locks in StateTransferLock
       boolean transactional = transactionManager != null;
+      int applied = 0;
       for (InternalCacheEntry e : cacheEntries) {
          try {
             InvocationContext ctx;
@@ -612,6 +811,7 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
             if (transactionManager != null) {
                transactionManager.commit();
             }
+            applied++;
          } catch (Exception ex) {
             if (!cache.getStatus().allowInvocations()) {
                log.debugf("Cache %s is shutting down, stopping state transfer", cacheName);
@@ -629,7 +829,7 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
             }
          }
       }
-      if (trace) log.tracef("Finished applying chunk of segment %d of cache %s", segmentId, cacheName);
+      return applied;
    }
 
    private void applyTransactions(Address sender, Collection<TransactionInfo> transactions, int topologyId) {
@@ -933,13 +1133,22 @@ private void removeStaleData(final Set<Integer> removedSegments) throws Interrup
       // Keys that we used to own, and need to be removed from the data container AND the cache stores
       final ConcurrentHashSet<Object> keysToRemove = new ConcurrentHashSet<Object>();
 
-      dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
-         Object key = ice.getKey();
-         int keySegment = getSegment(key);
-         if (removedSegments.contains(keySegment)) {
-            keysToRemove.add(key);
+      if (dataContainer instanceof SegmentedDataContainer) {
+         // only visit the entries of the removed segments
+         Iterator<InternalCacheEntry<Object, Object>> iterator =
+               ((SegmentedDataContainer<Object, Object>) dataContainer).iteratorIncludingExpired(removedSegments);
+         while (iterator.hasNext()) {
+            keysToRemove.add(iterator.next().getKey());
          }
-      });
+      } else {
+         dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
+            Object key = ice.getKey();
+            int keySegment = getSegment(key);
+            if (removedSegments.contains(keySegment)) {
+               keysToRemove.add(key);
+            }
+         });
+      }
 
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
       if (!removedSegments.isEmpty()) {
@@ -965,16 +1174,20 @@ public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.Ta
       }
 
       if (!keysToRemove.isEmpty()) {
-         try {
-            InvalidateCommand invalidateCmd = commandsFactory.buildInvalidateCommand(EnumUtil.bitSetOf(CACHE_MODE_LOCAL, SKIP_LOCKING), keysToRemove.toArray());
-            InvocationContext ctx = icf.createNonTxInvocationContext();
-            ctx.setLockOwner(invalidateCmd.getKeyLockOwner());
-            interceptorChain.invoke(ctx, invalidateCmd);
+         invalidateKeys(keysToRemove);
+      }
+   }
 
-            if (trace) log.tracef("Removed %d keys, data container now has %d keys", keysToRemove.size(), dataContainer.size());
-         } catch (CacheException e) {
-            log.failedToInvalidateKeys(e);
-         }
+   private void invalidateKeys(Collection<Object> keysToRemove) {
+      try {
+         InvalidateCommand invalidateCmd = commandsFactory.buildInvalidateCommand(EnumUtil.bitSetOf(CACHE_MODE_LOCAL, SKIP_LOCKING), keysToRemove.toArray());
+         InvocationContext ctx = icf.createNonTxInvocationContext();
+         ctx.setLockOwner(invalidateCmd.getKeyLockOwner());
+         interceptorChain.invoke(ctx, invalidateCmd);
+
+         if (trace) log.tracef("Removed %d keys, data container now has %d keys", keysToRemove.size(), dataContainer.size());
+      } catch (CacheException e) {
+         log.failedToInvalidateKeys(e);
       }
    }
 
@@ -1082,6 +1295,59 @@ private boolean removeTransfer(InboundTransferTask inboundTransfer) {
       return false;
    }
 
+   /**
+    * Computes the digests of the entries this node already holds in the given segments, in memory or in its private
+    * stores, so that the sender can skip them.
+    *
+    * @return the digests by segment, or {@code null} if digests are disabled
+    */
+   Map<Integer, SegmentDigest> computeDigests(final Set<Integer> segments) {
+      if (digestBuckets == 0) {
+         return null;
+      }
+
+      try {
+         final Map<Integer, SegmentDigest> digests = SegmentDigestCalculator.newDigests(segments, digestBuckets);
+         final SegmentDigestCalculator calculator = new SegmentDigestCalculator(marshaller);
+         if (dataContainer instanceof SegmentedDataContainer) {
+            for (int segmentId : segments) {
+               Iterator<InternalCacheEntry<Object, Object>> iterator =
+                     ((SegmentedDataContainer<Object, Object>) dataContainer).iterator(Collections.singleton(segmentId));
+               while (iterator.hasNext()) {
+                  InternalCacheEntry<Object, Object> ice = iterator.next();
+                  calculator.add(digests.get(segmentId), ice.getKey(), ice.getValue(), ice.getMetadata());
+               }
+            }
+         } else {
+            for (InternalCacheEntry<Object, Object> ice : dataContainer) {
+               SegmentDigest digest = digests.get(getSegment(ice.getKey()));
+               if (digest != null) {
+                  calculator.add(digest, ice.getKey(), ice.getValue(), ice.getMetadata());
+               }
+            }
+         }
+
+         KeyFilter filter = new KeyFilter() {
+            @Override
+            public boolean accept(Object key) {
+               return !dataContainer.containsKey(key) && segments.contains(getSegment(key));
+            }
+         };
+         persistenceManager.processOnAllStores(filter, new AdvancedCacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+               Object key = marshalledEntry.getKey();
+               calculator.add(digests.get(getSegment(key)), key, marshalledEntry.getValue(), marshalledEntry.getMetadata());
+            }
+         }, true, true, PRIVATE);
+         return digests;
+      } catch (CacheException e) {
+         // the digests are only an optimization, request all the entries instead
+         log.debugf(e, "Failed to compute the digests of segments %s of cache %s", segments, cacheName);
+         return null;
+      }
+   }
+
    void onTaskCompletion(final InboundTransferTask inboundTransfer) {
 
       if (!inboundTransfer.isStartedSuccessfully()) {
@@ -2,6 +2,7 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.infinispan.distexec.DistributedCallable;
@@ -50,8 +51,11 @@ public interface StateProvider {
     * @param destination the address of the requester
     * @param topologyId
     * @param segments
+    * @param segmentDigests the digests of the entries the requester already holds, or {@code null}. The entries in the
+    *                       buckets that match the local digests are not sent.
     */
-   void startOutboundTransfer(Address destination, int topologyId, Set<Integer> segments) throws InterruptedException;
+   void startOutboundTransfer(Address destination, int topologyId, Set<Integer> segments,
+                              Map<Integer, SegmentDigest> segmentDigests) throws InterruptedException;
 
    /**
     * Cancel sending of cache entries that belong to the given set of segments. This is invoked in response to a
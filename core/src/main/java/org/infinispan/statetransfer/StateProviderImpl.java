@@ -17,6 +17,7 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
@@ -26,6 +27,9 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.cluster.ClusterCacheNotifier;
 import org.infinispan.persistence.manager.PersistenceManager;
@@ -35,6 +39,7 @@
 import org.infinispan.transaction.impl.LocalTransaction;
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.CacheTransaction;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -45,6 +50,7 @@
  * @since 5.2
  */
 @Listener
+@MBean(objectName = "StateProvider", description = "Sends the state of the owned segments to the nodes that request it")
 public class StateProviderImpl implements StateProvider {
 
    private static final Log log = LogFactory.getLog(StateProviderImpl.class);
@@ -63,6 +69,12 @@ public class StateProviderImpl implements StateProvider {
    private InternalEntryFactory entryFactory;
    private long timeout;
    private int chunkSize;
+   private int chunkBytes;
+   private int maxInFlightChunks;
+   private boolean compression;
+   private boolean transferStoreRecords;
+   private StreamingMarshaller marshaller;
+   private TimeService timeService;
 
    private StateConsumer stateConsumer;
 
@@ -86,7 +98,9 @@ public void init(Cache cache,
                     DataContainer dataContainer,
                     TransactionTable transactionTable,
                     StateTransferLock stateTransferLock,
-                    StateConsumer stateConsumer, InternalEntryFactory entryFactory) {
+                    StateConsumer stateConsumer, InternalEntryFactory entryFactory,
+                    StreamingMarshaller marshaller,
+                    TimeService timeService) {
       this.cacheName = cache.getName();
       this.executorService = executorService;
       this.configuration = configuration;
@@ -99,10 +113,60 @@ public void init(Cache cache,
       this.stateTransferLock = stateTransferLock;
       this.stateConsumer = stateConsumer;
       this.entryFactory = entryFactory;
+      this.marshaller = marshaller;
+      this.timeService = timeService;
 
       timeout = configuration.clustering().stateTransfer().timeout();
 
       this.chunkSize = configuration.clustering().stateTransfer().chunkSize();
+      this.chunkBytes = configuration.clustering().stateTransfer().chunkBytes();
+      this.maxInFlightChunks = configuration.clustering().stateTransfer().maxInFlightChunks();
+      this.compression = configuration.clustering().stateTransfer().compression();
+      this.transferStoreRecords = configuration.clustering().stateTransfer().transferStoreRecords();
+   }
+
+   @ManagedAttribute(description = "Number of outbound state transfers in progress", displayName = "Outbound state transfers")
+   public int getOutboundTransferCount() {
+      int count = 0;
+      synchronized (transfersByDestination) {
+         for (List<OutboundTransferTask> transfers : transfersByDestination.values()) {
+            count += transfers.size();
+         }
+      }
+      return count;
+   }
+
+   @ManagedAttribute(description = "Number of state chunks sent and not yet applied by their destination", displayName = "Outstanding state chunks")
+   public int getOutstandingChunks() {
+      int count = 0;
+      synchronized (transfersByDestination) {
+         for (List<OutboundTransferTask> transfers : transfersByDestination.values()) {
+            for (OutboundTransferTask transfer : transfers) {
+               count += transfer.getOutstandingChunks();
+            }
+         }
+      }
+      return count;
+   }
+
+   @ManagedAttribute(description = "Number of bytes per second sent by the outbound state transfers in progress, before compression. Only measured if the chunks are bounded by bytes or compressed", displayName = "Outbound state transfer throughput")
+   public double getOutboundBytesPerSecond() {
+      double bytesPerSecond = 0;
+      synchronized (transfersByDestination) {
+         for (List<OutboundTransferTask> transfers : transfersByDestination.values()) {
+            for (OutboundTransferTask transfer : transfers) {
+               bytesPerSecond += transfer.getBytesPerSecond();
+            }
+         }
+      }
+      return bytesPerSecond;
+   }
+
+   @ManagedAttribute(description = "Retrieves the outbound state transfers in progress", displayName = "Outbound state transfers", dataType = DataType.TRAIT)
+   public String getOutboundTransfersAsString() {
+      synchronized (transfersByDestination) {
+         return transfersByDestination.values().toString();
+      }
    }
 
    public boolean isStateTransferInProgress() {
@@ -274,8 +338,8 @@ private void collectTransactionsToTransfer(Address destination,
    }
 
    @Override
-   public void startOutboundTransfer(Address destination, int requestTopologyId, Set<Integer> segments)
-         throws InterruptedException {
+   public void startOutboundTransfer(Address destination, int requestTopologyId, Set<Integer> segments,
+                                     Map<Integer, SegmentDigest> segmentDigests) throws InterruptedException {
       if (trace) {
          log.tracef("Starting outbound transfer of segments %s to node %s with topology id %d for cache %s", segments,
                destination, requestTopologyId, cacheName);
@@ -285,11 +349,21 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, Se
 
       // the destination node must already have an InboundTransferTask waiting for these segments
       OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, requestTopologyId,
-            cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName);
+            cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName,
+            chunkBytes, maxInFlightChunks, createChunkEncoder(), createRecordEncoder(), timeService,
+            segmentDigests, segmentDigests != null ? new SegmentDigestCalculator(marshaller) : null);
       addTransfer(outboundTransfer);
       outboundTransfer.execute(executorService);
    }
 
+   private StateChunkEncoder createChunkEncoder() {
+      return chunkBytes > 0 || compression ? new StateChunkEncoder(marshaller, compression, false) : null;
+   }
+
+   private StateChunkEncoder createRecordEncoder() {
+      return transferStoreRecords ? new StateChunkEncoder(null, compression, true) : null;
+   }
+
    private void addTransfer(OutboundTransferTask transferTask) {
       if (trace) {
          log.tracef("Adding outbound transfer of segments %s to %s", transferTask.getSegments(), transferTask.getDestination());
@@ -4,6 +4,7 @@
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.infinispan.commands.TopologyAffectedCommand;
@@ -43,6 +44,11 @@ public enum Type {
 
    private Set<Integer> segments;
 
+   /**
+    * The digests of the segments already held by the requester, only for START_STATE_TRANSFER.
+    */
+   private Map<Integer, SegmentDigest> segmentDigests;
+
    private StateProvider stateProvider;
 
    private StateRequestCommand() {
@@ -75,7 +81,7 @@ public Object perform(InvocationContext ctx) throws Throwable {
                return stateProvider.getTransactionsForSegments(getOrigin(), topologyId, segments);
 
             case START_STATE_TRANSFER:
-               stateProvider.startOutboundTransfer(getOrigin(), topologyId, segments);
+               stateProvider.startOutboundTransfer(getOrigin(), topologyId, segments, segmentDigests);
                // return a non-null value to ensure it will reach back to originator wrapped in a SuccessfulResponse (a null would not be sent back)
                return true;
 
@@ -122,6 +128,14 @@ public Set<Integer> getSegments() {
       return segments;
    }
 
+   public Map<Integer, SegmentDigest> getSegmentDigests() {
+      return segmentDigests;
+   }
+
+   public void setSegmentDigests(Map<Integer, SegmentDigest> segmentDigests) {
+      this.segmentDigests = segmentDigests;
+   }
+
    @Override
    public byte getCommandId() {
       return COMMAND_ID;
@@ -131,8 +145,12 @@ public byte getCommandId() {
    public void writeTo(ObjectOutput output) throws IOException {
       MarshallUtil.marshallEnum(type, output);
       switch (type) {
-         case GET_TRANSACTIONS:
          case START_STATE_TRANSFER:
+            output.writeObject(getOrigin());
+            MarshallUtil.marshallCollection(segments, output);
+            SegmentDigest.writeDigests(segmentDigests, output);
+            return;
+         case GET_TRANSACTIONS:
          case CANCEL_STATE_TRANSFER:
             output.writeObject(getOrigin());
             MarshallUtil.marshallCollection(segments, output);
@@ -148,9 +166,13 @@ public void writeTo(ObjectOutput output) throws IOException {
    public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
       type = MarshallUtil.unmarshallEnum(input, ordinal -> Type.CACHED_VALUES[ordinal]);
       switch (type) {
+         case START_STATE_TRANSFER:
+            setOrigin((Address) input.readObject());
+            segments = MarshallUtil.unmarshallCollectionUnbounded(input, HashSet::new);
+            segmentDigests = SegmentDigest.readDigests(input);
+            return;
          case GET_TRANSACTIONS:
          case CANCEL_STATE_TRANSFER:
-         case START_STATE_TRANSFER:
             setOrigin((Address) input.readObject());
             segments = MarshallUtil.unmarshallCollectionUnbounded(input, HashSet::new);
          case GET_CACHE_LISTENERS:
@@ -168,6 +190,7 @@ public String toString() {
             ", type=" + type +
             ", topologyId=" + topologyId +
             ", segments=" + segments +
+            ", segmentDigests=" + (segmentDigests == null ? null : segmentDigests.size()) +
             '}';
    }
 }
@@ -36,6 +36,7 @@
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.topology.CacheTopologyHandler;
 import org.infinispan.topology.LocalTopologyManager;
+import org.infinispan.util.concurrent.CommandAckCollector;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -66,6 +67,7 @@ public class StateTransferManagerImpl implements StateTransferManager {
    // topology id will be ignored.
    private volatile int firstTopologyAsMember = Integer.MAX_VALUE;
    private KeyPartitioner keyPartitioner;
+   private CommandAckCollector commandAckCollector;
 
    public StateTransferManagerImpl() {
    }
@@ -81,7 +83,8 @@ public void init(StateConsumer stateConsumer,
                     KeyPartitioner keyPartitioner,
                     LocalTopologyManager localTopologyManager,
                     PartitionHandlingManager partitionHandlingManager,
-                    GlobalStateManager globalStateManager) {
+                    GlobalStateManager globalStateManager,
+                    CommandAckCollector commandAckCollector) {
       this.stateConsumer = stateConsumer;
       this.stateProvider = stateProvider;
       this.cacheName = cache.getName();
@@ -92,6 +95,7 @@ public void init(StateConsumer stateConsumer,
       this.keyPartitioner = keyPartitioner;
       this.localTopologyManager = localTopologyManager;
       this.partitionHandlingManager = partitionHandlingManager;
+      this.commandAckCollector = commandAckCollector;
       if (globalStateManager != null) {
          persistentStateChecksum = globalStateManager.readScopedState(cacheName).map(state -> state.getChecksum());
       } else {
@@ -202,6 +206,8 @@ private void doTopologyUpdate(CacheTopology newCacheTopology, boolean isRebalanc
 
       stateConsumer.onTopologyUpdate(newCacheTopology, isRebalance);
       stateProvider.onTopologyUpdate(newCacheTopology, isRebalance);
+      // Writes waiting for acknowledgements from nodes that left must be retried
+      commandAckCollector.onMembersChange(newCacheTopology.getMembers());
 
       cacheNotifier.notifyTopologyChanged(oldCacheTopology, newCacheTopology, newCacheTopology.getTopologyId(), false);
 
@@ -42,6 +42,7 @@ public abstract class LocalTransaction extends AbstractCacheTransaction {
    private final boolean implicitTransaction;
 
    private volatile boolean isFromRemoteSite;
+   private volatile boolean onePhaseCommit;
 
    private boolean prepareSent;
    private boolean commitOrRollbackSent;
@@ -186,6 +187,20 @@ public void setFromRemoteSite(boolean fromRemoteSite) {
       isFromRemoteSite = fromRemoteSite;
    }
 
+   /**
+    * @return {@code true} if the prepare was skipped because this transaction is going to be committed in one phase.
+    */
+   public boolean isOnePhaseCommit() {
+      return onePhaseCommit;
+   }
+
+   /**
+    * @see #isOnePhaseCommit()
+    */
+   public void setOnePhaseCommit(boolean onePhaseCommit) {
+      this.onePhaseCommit = onePhaseCommit;
+   }
+
    /**
     * Calculates the list of nodes to which a commit/rollback needs to be sent based on the nodes to which prepare
     * was sent. If the commit/rollback is to be sent in the same topologyId, then the 'recipients' param is returned back.
@@ -2,16 +2,22 @@
 
 import static javax.transaction.xa.XAResource.XA_OK;
 import static javax.transaction.xa.XAResource.XA_RDONLY;
+import static org.infinispan.util.DeltaCompositeKeyUtil.filterDeltaCompositeKeys;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
 import javax.transaction.xa.XAException;
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
+import org.infinispan.commands.write.ClearCommand;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.Configurations;
@@ -21,6 +27,11 @@
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.tm.BatchModeTransactionManager;
+import org.infinispan.transaction.tm.DummyTransaction;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.transaction.xa.recovery.RecoveryManager;
 import org.infinispan.util.logging.Log;
@@ -51,22 +62,34 @@ public class TransactionCoordinator {
    private boolean totalOrder;
    private boolean defaultOnePhaseCommit;
    private boolean use1PcForAutoCommitTransactions;
+   private boolean use1PcForSingleOwnerTransactions;
+   private ClusteringDependentLogic clusteringDependentLogic;
+   private boolean batchTransactionManager;
 
    @Inject
    public void init(CommandsFactory commandsFactory, InvocationContextFactory icf, InterceptorChain invoker,
-                    TransactionTable txTable, RecoveryManager recoveryManager, Configuration configuration) {
+                    TransactionTable txTable, RecoveryManager recoveryManager, Configuration configuration,
+                    ClusteringDependentLogic clusteringDependentLogic, TransactionManager transactionManager) {
       this.commandsFactory = commandsFactory;
       this.icf = icf;
       this.invoker = invoker;
       this.txTable = txTable;
       this.recoveryManager = recoveryManager;
       this.configuration = configuration;
+      this.clusteringDependentLogic = clusteringDependentLogic;
 
       use1PcForAutoCommitTransactions = configuration.transaction().use1PcForAutoCommitTransactions();
       totalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
       defaultOnePhaseCommit = Configurations.isOnePhaseCommit(configuration) ||
             Configurations.isOnePhaseTotalOrderCommit(configuration);
-
+      //with a single owner, the owner is the only node locking, validating and committing the keys.
+      //the write skew check, recovery and L1 invalidation need the second phase.
+      use1PcForSingleOwnerTransactions = configuration.transaction().use1PcForSingleOwnerTransactions() &&
+            !defaultOnePhaseCommit && !totalOrder && recoveryManager == null &&
+            configuration.transaction().lockingMode() == LockingMode.OPTIMISTIC &&
+            configuration.clustering().cacheMode().isDistributed() && !configuration.clustering().l1().enabled() &&
+            !Configurations.isVersioningEnabled(configuration);
+      batchTransactionManager = transactionManager instanceof BatchModeTransactionManager;
    }
 
    @Start(priority = 1)
@@ -119,6 +142,10 @@ public final int prepare(LocalTransaction localTransaction, boolean replayEntryW
       if (isOnePhaseCommit(localTransaction)) {
          if (trace) log.tracef("Received prepare for tx: %s. Skipping call as 1PC will be used.", localTransaction);
          return XA_OK;
+      } else if (hasSingleOwner(localTransaction)) {
+         if (trace) log.tracef("Received prepare for tx: %s. Skipping call as its keys have a single owner and 1PC will be used.", localTransaction);
+         localTransaction.setOnePhaseCommit(true);
+         return XA_OK;
       }
 
       PrepareCommand prepareCommand = commandCreator.createPrepareCommand(localTransaction.getGlobalTransaction(), localTransaction.getModifications(), false);
@@ -155,6 +182,12 @@ public final int prepare(LocalTransaction localTransaction, boolean replayEntryW
 
    public boolean commit(LocalTransaction localTransaction, boolean isOnePhase) throws XAException {
       if (trace) log.tracef("Committing transaction %s", localTransaction.getGlobalTransaction());
+      if (localTransaction.isOnePhaseCommit() && !isOnePhase && !hasSingleOwner(localTransaction)) {
+         //the topology changed since the prepare was skipped and another node owns some of the keys now.
+         if (trace) log.tracef("Keys of tx %s no longer have a single owner. Using 2PC.", localTransaction);
+         localTransaction.setOnePhaseCommit(false);
+         prepare(localTransaction);
+      }
       LocalTxInvocationContext ctx = icf.createTxInvocationContext(localTransaction);
       if (isOnePhaseCommit(localTransaction) || isOnePhase) {
          validateNotMarkedForRollback(localTransaction);
@@ -259,6 +292,35 @@ private static interface CommandCreator {
    }
 
    private boolean isOnePhaseCommit(LocalTransaction localTransaction) {
-      return defaultOnePhaseCommit || is1PcForAutoCommitTransaction(localTransaction);
+      return defaultOnePhaseCommit || is1PcForAutoCommitTransaction(localTransaction) ||
+            localTransaction.isOnePhaseCommit();
+   }
+
+   private boolean hasSingleOwner(LocalTransaction localTransaction) {
+      if (!use1PcForSingleOwnerTransactions || localTransaction.isReadOnly() ||
+            localTransaction.hasModification(ClearCommand.class)) {
+         return false;
+      }
+      //the vote can only be postponed to the commit if the cache is the only participant of the transaction.
+      //otherwise the TM may commit the other participants before the owner fails to lock or validate the keys.
+      if (!localTransaction.isImplicitTransaction() && !isOnlyParticipantOfBatch(localTransaction.getTransaction())) {
+         return false;
+      }
+      //optimistic transactions only collect the affected keys during the prepare
+      Set<Object> keys = new HashSet<>();
+      for (WriteCommand modification : localTransaction.getModifications()) {
+         keys.addAll(modification.getAffectedKeys());
+      }
+      Collection<Address> owners = clusteringDependentLogic.getOwners(filterDeltaCompositeKeys(keys));
+      return owners != null && owners.size() == 1;
+   }
+
+   private boolean isOnlyParticipantOfBatch(Transaction transaction) {
+      //the batching transaction manager is shared by all the caches, so a batch may enlist other caches too.
+      if (!batchTransactionManager || !(transaction instanceof DummyTransaction)) {
+         return false;
+      }
+      DummyTransaction dummyTransaction = (DummyTransaction) transaction;
+      return dummyTransaction.getEnlistedResources().size() + dummyTransaction.getEnlistedSynchronization().size() == 1;
    }
 }
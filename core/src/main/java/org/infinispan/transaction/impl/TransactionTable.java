@@ -18,11 +18,13 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import javax.transaction.Status;
+import javax.transaction.SystemException;
 import javax.transaction.Transaction;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.xa.XAException;
@@ -65,6 +67,7 @@
 import org.infinispan.transaction.xa.TransactionFactory;
 import org.infinispan.util.ByteString;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.IsolationLevel;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -112,6 +115,8 @@ public enum CompletedTransactionStatus {
    private boolean isSecondPhaseAsync;
    private boolean isPessimisticLocking;
    private boolean isTotalOrder;
+   private boolean readOnlyFastPath;
+   private final LongAdder readOnlyFastPathReads = new LongAdder();
 
    private ConcurrentMap<Transaction, LocalTransaction> localTransactions;
    private ConcurrentMap<GlobalTransaction, LocalTransaction> globalToLocalTransactions;
@@ -152,6 +157,8 @@ public void start() {
       this.isSecondPhaseAsync = Configurations.isSecondPhaseAsync(configuration);
       this.isPessimisticLocking = configuration.transaction().lockingMode() == LockingMode.PESSIMISTIC;
       this.isTotalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
+      //with repeatable read, the values read must be kept in the transaction context
+      this.readOnlyFastPath = configuration.locking().isolationLevel() == IsolationLevel.READ_COMMITTED;
 
       final int concurrencyLevel = configuration.locking().concurrencyLevel();
       //use the IdentityEquivalence because some Transaction implementation does not have a stable hash code function
@@ -417,6 +424,43 @@ public LocalTransaction getOrCreateLocalTransaction(Transaction transaction, boo
       return current;
    }
 
+   /**
+    * Checks if a read in the scope of {@code transaction} can be invoked as a non-transactional read.
+    * <p/>
+    * With {@link IsolationLevel#READ_COMMITTED} the values read don't need to be kept, and a transaction that didn't
+    * write to this cache doesn't hold locks nor has modifications. Its reads don't need a {@link LocalTransaction}: it
+    * isn't registered in this table nor enlisted in the transaction manager, and it isn't prepared, committed or rolled
+    * back. The first write creates the {@link LocalTransaction} as usual.
+    *
+    * @return {@code true} if the read can be invoked outside the transaction.
+    */
+   public boolean tryReadOnlyFastPath(Transaction transaction) {
+      if (!readOnlyFastPath || !running || localTransactions.containsKey(transaction)) {
+         return false;
+      }
+      try {
+         if (transaction.getStatus() != Status.STATUS_ACTIVE) {
+            //let the transactional path report the invalid transaction
+            return false;
+         }
+      } catch (SystemException e) {
+         return false;
+      }
+      readOnlyFastPathReads.increment();
+      return true;
+   }
+
+   /**
+    * @return the number of reads invoked outside their transaction by {@link #tryReadOnlyFastPath(Transaction)}.
+    */
+   public long getReadOnlyFastPathReads() {
+      return readOnlyFastPathReads.sum();
+   }
+
+   public void resetReadOnlyFastPathReads() {
+      readOnlyFastPathReads.reset();
+   }
+
    /**
     * Removes the {@link org.infinispan.transaction.xa.TransactionXaAdapter} corresponding to the given tx. Returns true
     * if such an tx exists.
@@ -0,0 +1,194 @@
+package org.infinispan.util.concurrent;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commons.CacheException;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Collects the acknowledgements sent by the backup owners directly to the originator of a non-transactional write,
+ * when the primary owner replicates the write without waiting for the backup owners itself.
+ * <p>
+ * The originator creates a {@link Collector} before sending the write to the primary owner and waits on it after the
+ * primary owner replied. Acknowledgements for unknown commands, e.g. for a command that already timed out, and
+ * acknowledgements sent for an older topology, e.g. by a backup owner of a previous attempt of the same command, are
+ * ignored. An acknowledgement sent for a newer topology means that the primary owner sent the command to the backup
+ * owners of that topology, which the originator does not know: the command fails with an
+ * {@link OutdatedTopologyException} and is retried.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class CommandAckCollector {
+   private static final Log log = LogFactory.getLog(CommandAckCollector.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final ConcurrentMap<CommandInvocationId, Collector> collectors = new ConcurrentHashMap<>();
+
+   /**
+    * Starts collecting the acknowledgements of a command.
+    *
+    * @param id         the id of the command
+    * @param backups    the backup owners that must acknowledge the command
+    * @param topologyId the topology id of the command
+    */
+   public Collector create(CommandInvocationId id, Collection<Address> backups, int topologyId) {
+      Collector collector = new Collector(id, backups, topologyId);
+      collectors.put(id, collector);
+      if (trace) {
+         log.tracef("Waiting for acknowledgements of %s from %s in topology %d", id, backups, topologyId);
+      }
+      return collector;
+   }
+
+   /**
+    * Records the acknowledgement of a backup owner.
+    *
+    * @param topologyId the topology in which the primary owner found the backup owners
+    */
+   public void backupAck(CommandInvocationId id, Address from, int topologyId) {
+      Collector collector = collectors.get(id);
+      if (collector != null) {
+         collector.ack(from, topologyId);
+      } else if (trace) {
+         log.tracef("Ignoring acknowledgement of %s from %s, nobody is waiting for it", id, from);
+      }
+   }
+
+   /**
+    * Records that a backup owner failed to apply the command, the originator fails with the same exception.
+    */
+   public void backupFailed(CommandInvocationId id, Address from, int topologyId, Throwable throwable) {
+      Collector collector = collectors.get(id);
+      if (collector != null) {
+         collector.failed(from, topologyId, throwable);
+      }
+   }
+
+   /**
+    * Fails the commands that wait for an acknowledgement from a node that left the cluster, so that they are retried
+    * in the new topology.
+    */
+   public void onMembersChange(Collection<Address> members) {
+      for (Collector collector : collectors.values()) {
+         collector.onMembersChange(members);
+      }
+   }
+
+   /**
+    * @return the number of commands waiting for acknowledgements
+    */
+   public int size() {
+      return collectors.size();
+   }
+
+   public class Collector {
+      private final CommandInvocationId id;
+      private final int topologyId;
+      @GuardedBy("this")
+      private final Set<Address> pending;
+      private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+      private Collector(CommandInvocationId id, Collection<Address> backups, int topologyId) {
+         this.id = id;
+         this.topologyId = topologyId;
+         this.pending = new HashSet<>(backups);
+         if (pending.isEmpty()) {
+            future.complete(null);
+         }
+      }
+
+      private void ack(Address from, int ackTopologyId) {
+         if (!checkTopology(from, ackTopologyId)) {
+            return;
+         }
+         boolean done;
+         synchronized (this) {
+            done = pending.remove(from) && pending.isEmpty();
+         }
+         if (done) {
+            future.complete(null);
+         }
+      }
+
+      private void failed(Address from, int ackTopologyId, Throwable throwable) {
+         if (checkTopology(from, ackTopologyId)) {
+            future.completeExceptionally(throwable);
+         }
+      }
+
+      /**
+       * @return {@code true} if the acknowledgement was sent for the topology of the collector
+       */
+      private boolean checkTopology(Address from, int ackTopologyId) {
+         if (ackTopologyId < topologyId) {
+            if (trace) {
+               log.tracef("Ignoring acknowledgement of %s from %s for topology %d, expecting topology %d", id,
+                     from, ackTopologyId, topologyId);
+            }
+            return false;
+         } else if (ackTopologyId > topologyId) {
+            future.completeExceptionally(new OutdatedTopologyException("The backup owners of " + id +
+                  " were chosen in topology " + ackTopologyId + ", expected topology " + topologyId));
+            return false;
+         }
+         return true;
+      }
+
+      private void onMembersChange(Collection<Address> members) {
+         boolean left;
+         synchronized (this) {
+            left = !members.containsAll(pending);
+         }
+         if (left) {
+            future.completeExceptionally(new OutdatedTopologyException("A backup owner of " + id + " left the cluster"));
+         }
+      }
+
+      /**
+       * Stops collecting the acknowledgements of the command, e.g. because the primary owner did not send it to the
+       * backup owners.
+       */
+      public void dispose() {
+         collectors.remove(id, this);
+      }
+
+      /**
+       * Waits until all the backup owners acknowledged the command, and stops collecting its acknowledgements.
+       *
+       * @throws OutdatedTopologyException if a backup owner left the cluster, or if the primary owner chose the backup
+       *                                   owners in a newer topology
+       * @throws TimeoutException          if the acknowledgements did not arrive in time
+       */
+      public void await(long timeout, TimeUnit unit) throws InterruptedException {
+         try {
+            future.get(timeout, unit);
+         } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new CacheException(cause);
+         } catch (java.util.concurrent.TimeoutException e) {
+            Set<Address> missing;
+            synchronized (this) {
+               missing = new HashSet<>(pending);
+            }
+            throw new TimeoutException("Timed out waiting for the acknowledgements of " + id + " from " + missing);
+         } finally {
+            collectors.remove(id, this);
+         }
+      }
+   }
+}
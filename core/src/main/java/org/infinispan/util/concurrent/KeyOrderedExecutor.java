@@ -0,0 +1,99 @@
+package org.infinispan.util.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentMap;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+
+/**
+ * Dispatches {@link BlockingRunnable}s to a {@link BlockingTaskAwareExecutorService} so that the runnables with the
+ * same key are executed one at a time, in the order they were submitted.
+ * <p/>
+ * Each key with a runnable in progress has its own queue. Only the first runnable of a key is handed to the executor,
+ * the others wait in the queue until it completes, so conflicting commands on a hot key do not occupy threads or the
+ * blocked tasks of the executor. Runnables of different keys run in parallel: they never share a queue, so a runnable
+ * waiting for a resource can only delay the runnables of its own key.
+ *
+ * @since 9.0
+ */
+public class KeyOrderedExecutor {
+   private final BlockingTaskAwareExecutorService executor;
+   /**
+    * The runnables waiting behind the one in progress, by key. A key is mapped only while one of its runnables is in
+    * progress, with an empty queue if no other runnable is waiting.
+    */
+   private final ConcurrentMap<Object, Queue<BlockingRunnable>> pending;
+
+   public KeyOrderedExecutor(BlockingTaskAwareExecutorService executor, Equivalence<Object> keyEquivalence) {
+      this.executor = executor;
+      this.pending = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.getInstance());
+   }
+
+   /**
+    * Executes the runnable after all the runnables previously submitted with the same key have completed.
+    *
+    * @param key      the key that orders the runnable
+    * @param runnable the runnable to execute
+    */
+   public void execute(Object key, BlockingRunnable runnable) {
+      boolean[] first = new boolean[1];
+      pending.compute(key, (k, queue) -> {
+         if (queue == null) {
+            first[0] = true;
+            return new ArrayDeque<>();
+         }
+         queue.add(runnable);
+         return queue;
+      });
+      if (first[0]) {
+         executor.execute(new OrderedRunnable(key, runnable));
+      }
+   }
+
+   /**
+    * @return the next runnable of the key, or {@code null} if none is waiting, in which case the key is released
+    */
+   private BlockingRunnable next(Object key) {
+      BlockingRunnable[] next = new BlockingRunnable[1];
+      pending.computeIfPresent(key, (k, queue) -> {
+         next[0] = queue.poll();
+         return next[0] == null ? null : queue;
+      });
+      return next[0];
+   }
+
+   private class OrderedRunnable implements BlockingRunnable {
+      private final Object key;
+      private final BlockingRunnable runnable;
+
+      OrderedRunnable(Object key, BlockingRunnable runnable) {
+         this.key = key;
+         this.runnable = runnable;
+      }
+
+      @Override
+      public boolean isReady() {
+         return runnable.isReady();
+      }
+
+      @Override
+      public void run() {
+         try {
+            runnable.run();
+         } finally {
+            BlockingRunnable next = next(key);
+            if (next != null) {
+               executor.execute(new OrderedRunnable(key, next));
+            }
+         }
+      }
+
+      @Override
+      public String toString() {
+         return runnable.toString();
+      }
+   }
+}
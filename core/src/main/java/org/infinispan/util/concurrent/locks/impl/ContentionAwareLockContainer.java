@@ -0,0 +1,245 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.locks.DeadlockChecker;
+import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+import org.infinispan.util.concurrent.locks.LockListener;
+import org.infinispan.util.concurrent.locks.LockState;
+
+/**
+ * A per-entry lock container that only creates an {@link InfinispanLock} when a key is contended.
+ * <p/>
+ * An uncontended lock is acquired by a single {@code putIfAbsent} of a small holder, which is also the {@link
+ * ExtendedLockPromise} returned, and it is released by a single conditional remove. When another lock owner tries to
+ * acquire a key held this way, the lock is inflated to an {@link InfinispanLock} owned by the holder, and the other
+ * lock owner is queued in it. The {@link InfinispanLock} is removed once it is released, so the next acquisition of
+ * the key takes the fast path again.
+ * <p/>
+ * Since the holder cannot be waited for, {@link #getLock(Object)} only returns the locks of contended keys.
+ *
+ * @since 9.0
+ */
+public class ContentionAwareLockContainer implements LockContainer {
+
+   private static final int INITIAL_CAPACITY = 32;
+   //values are either UncontendedLock or InfinispanLock
+   private final EquivalentConcurrentHashMapV8<Object, Object> lockMap;
+   private final LongAdder uncontendedAcquisitions = new LongAdder();
+   private final LongAdder contendedAcquisitions = new LongAdder();
+   private TimeService timeService;
+
+   public ContentionAwareLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
+      lockMap = new EquivalentConcurrentHashMapV8<>(INITIAL_CAPACITY, concurrencyLevel, keyEquivalence, AnyEquivalence.getInstance());
+   }
+
+   @Inject
+   public void inject(TimeService timeService) {
+      this.timeService = timeService;
+      for (Object lock : lockMap.values()) {
+         if (lock instanceof InfinispanLock) {
+            ((InfinispanLock) lock).setTimeService(timeService);
+         }
+      }
+   }
+
+   @Override
+   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+      Objects.requireNonNull(lockOwner, "Lock Owner should be non-null");
+      Objects.requireNonNull(timeUnit, "Time Unit should be non-null");
+      UncontendedLock uncontendedLock = new UncontendedLock(lockOwner);
+      Object existing = lockMap.putIfAbsent(key, uncontendedLock);
+      if (existing == null) {
+         uncontendedAcquisitions.increment();
+         return uncontendedLock;
+      } else if (existing instanceof UncontendedLock && ((UncontendedLock) existing).owner.equals(lockOwner)) {
+         return (UncontendedLock) existing;
+      }
+      return acquireContended(key, uncontendedLock, time, timeUnit);
+   }
+
+   @Override
+   public InfinispanLock getLock(Object key) {
+      Object lock = lockMap.get(key);
+      return lock instanceof InfinispanLock ? (InfinispanLock) lock : null;
+   }
+
+   @Override
+   public Object getOwner(Object key) {
+      Object lock = lockMap.get(key);
+      if (lock instanceof UncontendedLock) {
+         return ((UncontendedLock) lock).owner;
+      }
+      return lock == null ? null : ((InfinispanLock) lock).getLockOwner();
+   }
+
+   @Override
+   public void release(Object key, Object lockOwner) {
+      Object lock = lockMap.get(key);
+      if (lock == null) {
+         return;
+      } else if (lock instanceof UncontendedLock) {
+         if (!((UncontendedLock) lock).owner.equals(lockOwner) || lockMap.remove(key, lock)) {
+            //not the owner, nothing to release. or released.
+            return;
+         }
+         //inflated in the meanwhile
+      }
+      lockMap.computeIfPresent(key, (ignoredKey, currentLock) -> {
+         if (currentLock instanceof UncontendedLock) {
+            return currentLock;
+         }
+         InfinispanLock infinispanLock = (InfinispanLock) currentLock;
+         infinispanLock.release(lockOwner);
+         return !infinispanLock.isLocked() ? null : infinispanLock; //remove it if empty
+      });
+   }
+
+   @Override
+   public int getNumLocksHeld() {
+      int count = 0;
+      for (Object lock : lockMap.values()) {
+         if (lock instanceof UncontendedLock || ((InfinispanLock) lock).isLocked()) {
+            count++;
+         }
+      }
+      return count;
+   }
+
+   @Override
+   public boolean isLocked(Object key) {
+      Object lock = lockMap.get(key);
+      return lock instanceof UncontendedLock || (lock != null && ((InfinispanLock) lock).isLocked());
+   }
+
+   @Override
+   public int size() {
+      return lockMap.size();
+   }
+
+   @Override
+   public void deadlockCheck(DeadlockChecker deadlockChecker) {
+      //only contended locks have lock owners waiting
+      lockMap.values().forEach(lock -> {
+         if (lock instanceof InfinispanLock) {
+            ((InfinispanLock) lock).deadlockCheck(deadlockChecker);
+         }
+      });
+   }
+
+   /**
+    * @return the number of locks acquired without another lock owner holding or waiting for the key.
+    */
+   public long getUncontendedAcquisitions() {
+      return uncontendedAcquisitions.sum();
+   }
+
+   /**
+    * @return the number of lock acquisitions that found the key held by, or queued for, another lock owner.
+    */
+   public long getContendedAcquisitions() {
+      return contendedAcquisitions.sum();
+   }
+
+   @Override
+   public String toString() {
+      return "ContentionAwareLockContainer{" +
+            "locks=" + lockMap +
+            '}';
+   }
+
+   private ExtendedLockPromise acquireContended(Object key, UncontendedLock uncontendedLock, long time,
+                                                TimeUnit timeUnit) {
+      ByRef<ExtendedLockPromise> reference = ByRef.create(null);
+      lockMap.compute(key, (aKey, lock) -> {
+         if (lock == null) {
+            //released in the meanwhile
+            uncontendedAcquisitions.increment();
+            reference.set(uncontendedLock);
+            return uncontendedLock;
+         }
+         InfinispanLock infinispanLock;
+         if (lock instanceof UncontendedLock) {
+            UncontendedLock holder = (UncontendedLock) lock;
+            if (holder.owner.equals(uncontendedLock.owner)) {
+               reference.set(holder);
+               return holder;
+            }
+            //inflate: the holder becomes the owner of the InfinispanLock. it is free, so it is acquired immediately.
+            infinispanLock = createInfinispanLock(aKey);
+            infinispanLock.acquire(holder.owner, 0, TimeUnit.MILLISECONDS);
+         } else {
+            infinispanLock = (InfinispanLock) lock;
+         }
+         contendedAcquisitions.increment();
+         reference.set(infinispanLock.acquire(uncontendedLock.owner, time, timeUnit));
+         return infinispanLock;
+      });
+      return reference.get();
+   }
+
+   private InfinispanLock createInfinispanLock(Object key) {
+      return new InfinispanLock(timeService, () -> lockMap.computeIfPresent(key, (ignoredKey, lock) ->
+            lock instanceof InfinispanLock && !((InfinispanLock) lock).isLocked() ? null : lock));
+   }
+
+   /**
+    * A lock acquired without contention. It is always available since nobody waits for it.
+    */
+   private static final class UncontendedLock implements ExtendedLockPromise {
+
+      private final Object owner;
+
+      private UncontendedLock(Object owner) {
+         this.owner = owner;
+      }
+
+      @Override
+      public boolean isAvailable() {
+         return true;
+      }
+
+      @Override
+      public void lock() {
+         //acquired!
+      }
+
+      @Override
+      public void addListener(LockListener listener) {
+         listener.onEvent(LockState.ACQUIRED);
+      }
+
+      @Override
+      public void cancel(LockState cause) {
+         if (cause != LockState.TIMED_OUT && cause != LockState.DEADLOCKED) {
+            throw new IllegalArgumentException("LockState " + cause + " is not valid to cancel.");
+         }
+         //no-op, a thread is inside the critical section.
+      }
+
+      @Override
+      public Object getRequestor() {
+         return owner;
+      }
+
+      @Override
+      public Object getOwner() {
+         return owner;
+      }
+
+      @Override
+      public String toString() {
+         return "UncontendedLock{" +
+               "owner=" + owner +
+               '}';
+      }
+   }
+}
@@ -168,8 +168,7 @@ public boolean isLocked(Object key) {
 
    @Override
    public Object getOwner(Object key) {
-      InfinispanLock lock = lockContainer.getLock(key);
-      return lock == null ? null : lock.getLockOwner();
+      return lockContainer.getOwner(key);
    }
 
    @Override
@@ -193,6 +192,18 @@ public int getNumberOfLocksAvailable() {
       return lockContainer.size() - lockContainer.getNumLocksHeld();
    }
 
+   @ManagedAttribute(description = "The number of locks acquired without waiting for another lock owner. Only tracked by non-transactional caches without lock striping.", displayName = "Number of uncontended lock acquisitions")
+   public long getNumberOfUncontendedAcquisitions() {
+      return lockContainer instanceof ContentionAwareLockContainer ?
+            ((ContentionAwareLockContainer) lockContainer).getUncontendedAcquisitions() : 0;
+   }
+
+   @ManagedAttribute(description = "The number of lock acquisitions that found the key locked by another lock owner. Only tracked by non-transactional caches without lock striping.", displayName = "Number of contended lock acquisitions")
+   public long getNumberOfContendedAcquisitions() {
+      return lockContainer instanceof ContentionAwareLockContainer ?
+            ((ContentionAwareLockContainer) lockContainer).getContendedAcquisitions() : 0;
+   }
+
    @Override
    public InfinispanLock getLock(Object key) {
       return lockContainer.getLock(key);
@@ -1445,4 +1445,23 @@ TimeoutException timeoutWaitingForView(int expectedViewId, int currentViewId,
    @LogMessage(level = WARN)
    @Message(value = "Eviction of an entry invoked without an explicit eviction strategy for cache %s", id = 419)
    void evictionDisabled(String cacheName);
+
+   @Message(value = "Eviction strategy %s is not supported when storing entries off-heap", id = 420)
+   CacheConfigurationException offHeapUnsupportedEvictionStrategy(org.infinispan.eviction.EvictionStrategy strategy);
+
+   @Message(value = "BINARY storage keeps the byte[] keys and values as they are and cannot be used together with store-as-binary or compatibility mode", id = 421)
+   CacheConfigurationException binaryStorageRequiresRawBytes();
+
+   @Message(value = "The expiration batch size must be at least 1 and the batch latency cannot be negative, got %d and %d", id = 422)
+   CacheConfigurationException invalidExpirationBatch(int batchSize, long batchLatency);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to write the state received for segment %d of cache %s to the cache stores", id = 423)
+   void failedToStoreReceivedState(int segmentId, String cacheName, @Cause Throwable t);
+
+   @Message(value = "Cache %s received store records from node %s, but none of its stores can import them", id = 424)
+   CacheException cannotImportStoreRecords(String cacheName, Address sender);
+
+   @Message(value = "BINARY storage compares the byte[] keys and values by content and requires ByteArrayEquivalence for both", id = 425)
+   CacheConfigurationException binaryStorageRequiresByteArrayEquivalence();
 }
@@ -0,0 +1,52 @@
+package org.infinispan.commands.remote;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.ByteString;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link SegmentSizeCommand} also counts the entries of a data container that is not segmented.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "commands.remote.SegmentSizeCommandTest")
+public class SegmentSizeCommandTest extends AbstractInfinispanTest {
+
+   @SuppressWarnings("unchecked")
+   public void testContainerNotSegmented() throws Throwable {
+      ConsistentHash ch = mock(ConsistentHash.class);
+      when(ch.getSegment("k0")).thenReturn(0);
+      when(ch.getSegment("k1")).thenReturn(1);
+      when(ch.getSegment("k2")).thenReturn(2);
+      when(ch.getSegment("k3")).thenReturn(1);
+      CacheTopology cacheTopology = new CacheTopology(5, 1, ch, null, Collections.emptyList(), null);
+      StateTransferManager stateTransferManager = mock(StateTransferManager.class);
+      when(stateTransferManager.getCacheTopology()).thenReturn(cacheTopology);
+
+      List<InternalCacheEntry<Object, Object>> entries = Arrays.asList(new ImmortalCacheEntry("k0", "v"),
+            new ImmortalCacheEntry("k1", "v"), new ImmortalCacheEntry("k2", "v"), new ImmortalCacheEntry("k3", "v"));
+      DataContainer<Object, Object> dataContainer = mock(DataContainer.class);
+      when(dataContainer.iterator()).thenAnswer(invocation -> entries.iterator());
+
+      SegmentSizeCommand command = new SegmentSizeCommand(ByteString.fromString("cache"),
+            new HashSet<>(Arrays.asList(1, 2)));
+      command.setTopologyId(5);
+      command.init(dataContainer, stateTransferManager);
+      assertEquals(3, command.perform(null));
+   }
+}
@@ -144,19 +144,16 @@ protected ConcurrentMap<byte[], byte[]> createComparingConcurrentMap() {
             EQUIVALENCE, EQUIVALENCE);
    }
 
+   /**
+    * Reads from many threads are recorded in lossy buffers, so the eviction order after concurrent reads is only
+    * approximate. The map must still be trimmed back to its capacity.
+    */
    public void testCacheGetHits() throws InterruptedException {
       final int COUNT_PER_THREAD = 10000;
       final int THREADS = 10;
       final int COUNT = COUNT_PER_THREAD * THREADS;
 
-      final EvictionListener<Integer, Integer> l = new NullEvictionListener<Integer, Integer>() {
-         @Override
-         public void onEntryChosenForEviction(Entry<Integer, Integer> entry) {
-            assertEquals(COUNT, entry.getValue().intValue());
-         }
-      };
-
-      final Map<Integer, Integer> bchm = createMap(COUNT + 1, evictionPolicy(), l);
+      final Map<Integer, Integer> bchm = createMap(COUNT + 1, evictionPolicy());
 
       // fill the cache (note: <=, i.e. including an entry for COUNT)
       for (int i = 0; i <= COUNT; i++)
@@ -179,12 +176,9 @@ public void run() {
       for (int i = 0; i < THREADS; i++)
          threads[i].join();
 
-      // adding one more entry must evict COUNT
+      // adding one more entry must evict one
       bchm.put(COUNT + 1, COUNT + 1);
 
-      if (COUNT + 1!= bchm.size()) {
-         System.currentTimeMillis();
-      }
       assertEquals(COUNT + 1, bchm.size());
       int manualCount = 0;
       for (Entry<Integer, Integer> entry : bchm.entrySet()) {
@@ -192,12 +186,35 @@ public void run() {
             manualCount++;
          }
       }
-      if (COUNT + 1!= manualCount) {
-         System.currentTimeMillis();
-      }
       assertEquals(COUNT + 1, manualCount);
    }
 
+   /**
+    * Reads from a single thread are never dropped, so they must all be applied before choosing what to evict.
+    */
+   public void testGetHitsAppliedBeforeEviction() {
+      final int COUNT = 1000;
+
+      final EvictionListener<Integer, Integer> l = new NullEvictionListener<Integer, Integer>() {
+         @Override
+         public void onEntryChosenForEviction(Entry<Integer, Integer> entry) {
+            assertEquals(COUNT, entry.getValue().intValue());
+         }
+      };
+
+      final Map<Integer, Integer> bchm = createMap(COUNT + 1, evictionPolicy(), l);
+      for (int i = 0; i <= COUNT; i++)
+         bchm.put(i, i);
+
+      // access all entries except COUNT, which becomes the least recently used
+      for (int i = 0; i < COUNT; i++)
+         assertNotNull(bchm.get(i));
+
+      bchm.put(COUNT + 1, COUNT + 1);
+      assertEquals(COUNT + 1, bchm.size());
+      assertFalse(bchm.containsKey(COUNT));
+   }
+
    /*
     * This test is to verify that LIRS works properly when we have a ton of write hits.
     * That is we have a value that already exists and it was updated
@@ -0,0 +1,62 @@
+package org.infinispan.commons.util.concurrent.jdk8backported;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Map;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+import org.testng.annotations.Test;
+
+/**
+ * Tests bounded concurrent hash map V8 logic with the Window TinyLFU eviction policy.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "util.concurrent.BoundedEquivalentConcurrentHashMapV8TinyLFUTest")
+public class BoundedEquivalentConcurrentHashMapV8TinyLFUTest extends BoundedEquivalentConcurrentHashMapV8BaseTest {
+   @Override
+   protected Eviction evictionPolicy() {
+      return Eviction.TINY_LFU;
+   }
+
+   public void testHotEntriesSurviveScan() {
+      final int MAX = 100;
+      final int HOT = 50;
+      final Map<Integer, Integer> bchm = createMap(MAX, evictionPolicy());
+      for (int i = 0; i < HOT; i++)
+         bchm.put(i, i);
+      for (int round = 0; round < 10; round++) {
+         for (int i = 0; i < HOT; i++)
+            assertNotNull(bchm.get(i));
+      }
+
+      // A scan of keys that are never accessed again must not flush the hot entries
+      for (int i = HOT; i < HOT + 10 * MAX; i++)
+         bchm.put(i, i);
+
+      assertEquals(MAX, bchm.size());
+      int hotRetained = 0;
+      for (int i = 0; i < HOT; i++) {
+         if (bchm.containsKey(i))
+            hotRetained++;
+      }
+      assertTrue("Only " + hotRetained + " hot entries retained", hotRetained >= HOT * 9 / 10);
+   }
+
+   public void testMemoryBasedEviction() {
+      BoundedEquivalentConcurrentHashMapV8<Integer, byte[]> bchm = new BoundedEquivalentConcurrentHashMapV8<>(
+            10_000, Eviction.TINY_LFU, BoundedEquivalentConcurrentHashMapV8.getNullEvictionListener(),
+            AnyEquivalence.getInstance(), AnyEquivalence.getInstance(), (k, v) -> v.length);
+      for (int i = 0; i < 1000; i++)
+         bchm.put(i, new byte[100]);
+
+      long total = 0;
+      for (byte[] value : bchm.values())
+         total += value.length;
+      assertTrue("Stored " + total + " bytes", total < 10_000);
+      assertTrue(bchm.size() > 0);
+   }
+}
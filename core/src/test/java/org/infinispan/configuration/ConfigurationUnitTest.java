@@ -392,4 +392,27 @@ public void call() {
       });
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "bulkApply cannot be enabled together with .*")
+   public void testInvalidBulkApplyWithIndexing() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC).stateTransfer().bulkApply(true);
+      builder.indexing().index(Index.ALL);
+      builder.validate();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testInvalidMaxInFlightChunks() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC).stateTransfer().maxInFlightChunks(0);
+      builder.validate();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testInvalidDigestBuckets() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC).stateTransfer().digestBuckets(-1);
+      builder.validate();
+   }
+
 }
@@ -0,0 +1,123 @@
+package org.infinispan.container;
+
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link SimpleDataContainerTest} tests against the segmented container and verifies that segment restricted
+ * operations only see the entries of the requested segments.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "container.DefaultSegmentedDataContainerTest")
+public class DefaultSegmentedDataContainerTest extends SimpleDataContainerTest {
+   private static final int NUM_SEGMENTS = 4;
+
+   @Override
+   protected DataContainer createContainer() {
+      DefaultSegmentedDataContainer dc = new DefaultSegmentedDataContainer<Object, String>(16, NUM_SEGMENTS,
+            AnyEquivalence.getInstance());
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      ActivationManager activationManager = mock(ActivationManager.class);
+      doNothing().when(activationManager).onUpdate(Mockito.anyObject(), Mockito.anyBoolean());
+      dc.initialize(null, null, internalEntryFactory, activationManager, null, TIME_SERVICE, null, mock(
+            ExpirationManager.class));
+      dc.injectKeyPartitioner(new ModuloKeyPartitioner());
+      return dc;
+   }
+
+   public void testSegmentIteration() {
+      SegmentedDataContainer<Object, String> sdc = (SegmentedDataContainer<Object, String>) dc;
+      for (int i = 0; i < 20; i++) {
+         sdc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      }
+
+      Set<Integer> segments = new HashSet<>(Arrays.asList(1, 3));
+      Set<Object> keys = new HashSet<>();
+      for (Iterator<InternalCacheEntry<Object, String>> it = sdc.iterator(segments); it.hasNext(); ) {
+         Object key = it.next().getKey();
+         assertTrue(segments.contains((Integer) key % NUM_SEGMENTS));
+         keys.add(key);
+      }
+      assertEquals(10, keys.size());
+      assertEquals(10, sdc.sizeIncludingExpired(segments));
+      assertEquals(5, sdc.sizeIncludingExpired(Collections.singleton(0)));
+      assertEquals(20, sdc.size());
+
+      sdc.remove(1);
+      assertEquals(9, sdc.sizeIncludingExpired(segments));
+      assertFalse(sdc.containsKey(1));
+   }
+
+   public void testSegmentIterationExpired() throws InterruptedException {
+      SegmentedDataContainer<Object, String> sdc = (SegmentedDataContainer<Object, String>) dc;
+      sdc.put(2, "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      sdc.put(6, "v", new EmbeddedMetadata.Builder().build());
+      Thread.sleep(10);
+
+      Set<Integer> segments = Collections.singleton(2);
+      assertEquals(2, count(sdc.iteratorIncludingExpired(segments)));
+      assertEquals(1, count(sdc.iterator(segments)));
+      assertEquals(0, count(sdc.iterator(Collections.singleton(1))));
+   }
+
+   public void testSegmentSizeExpired() throws InterruptedException {
+      SegmentedDataContainer<Object, String> sdc = (SegmentedDataContainer<Object, String>) dc;
+      sdc.put(2, "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      sdc.put(6, "v", new EmbeddedMetadata.Builder().build());
+      sdc.put(3, "v", new EmbeddedMetadata.Builder().build());
+      Thread.sleep(10);
+
+      Set<Integer> segments = Collections.singleton(2);
+      assertEquals(2, sdc.sizeIncludingExpired(segments));
+      assertEquals(1, sdc.size(segments));
+      assertEquals(2, sdc.size());
+
+      // Once the segment has no entry that can expire, its size is read from its map
+      sdc.remove(2);
+      assertEquals(1, sdc.size(segments));
+      assertEquals(1, sdc.size(segments));
+
+      // Writing an entry that can expire to the segment makes the size visit its entries again
+      sdc.put(10, "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      Thread.sleep(10);
+      assertEquals(1, sdc.size(segments));
+      assertEquals(2, sdc.size());
+   }
+
+   private int count(Iterator<?> iterator) {
+      int count = 0;
+      while (iterator.hasNext()) {
+         iterator.next();
+         count++;
+      }
+      return count;
+   }
+
+   private static class ModuloKeyPartitioner implements KeyPartitioner {
+      @Override
+      public int getSegment(Object key) {
+         return key instanceof Integer ? (Integer) key % NUM_SEGMENTS : Math.abs(key.hashCode() % NUM_SEGMENTS);
+      }
+   }
+}
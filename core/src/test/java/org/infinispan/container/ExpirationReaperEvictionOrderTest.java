@@ -0,0 +1,71 @@
+package org.infinispan.container;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.ControlledTimeService;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the expiration reaper visiting the due entries of the timer wheel doesn't change the eviction order.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "container.ExpirationReaperEvictionOrderTest")
+public class ExpirationReaperEvictionOrderTest extends AbstractInfinispanTest {
+
+   @SuppressWarnings("unchecked")
+   public void testReaperDoesNotPromoteEntries() {
+      ControlledTimeService timeService = new ControlledTimeService(1_000_000);
+      DefaultDataContainer<String, String> dc = DefaultDataContainer.boundedDataContainer(16, 3, EvictionStrategy.LRU,
+            EvictionThreadPolicy.DEFAULT, AnyEquivalence.getInstance(), EvictionType.COUNT);
+      InternalEntryFactoryImpl entryFactory = new InternalEntryFactoryImpl();
+      entryFactory.injectTimeService(timeService);
+      dc.initialize(mock(EvictionManager.class), mock(PassivationManager.class), entryFactory,
+            mock(ActivationManager.class), null, timeService, null, mock(ExpirationManager.class));
+      dc.enableTimerWheel(AnyEquivalence.getInstance());
+
+      Metadata maxIdle = new EmbeddedMetadata.Builder().maxIdle(10, TimeUnit.SECONDS).build();
+      Metadata immortal = new EmbeddedMetadata.Builder().build();
+      dc.put("a", "v", maxIdle);
+      dc.put("b", "v", immortal);
+      dc.put("c", "v", immortal);
+
+      // Accessing "a" pushes its expiration back, but it stays scheduled at its first expiration time
+      timeService.advance(TimeUnit.SECONDS.toMillis(5));
+      dc.get("a");
+      dc.get("b");
+      dc.get("c");
+
+      // The reaper visits "a", which is not expired yet
+      timeService.advance(TimeUnit.SECONDS.toMillis(6));
+      List<InternalCacheEntry<String, String>> expired = new ArrayList<>();
+      assertEquals(1, dc.expireDueEntries(timeService.wallClockTime(), expired::add));
+      assertEquals(0, expired.size());
+
+      // "a" is still the least recently used entry
+      dc.put("d", "v", immortal);
+      assertNull(dc.peek("a"));
+      assertNotNull(dc.peek("b"));
+      assertNotNull(dc.peek("c"));
+      assertNotNull(dc.peek("d"));
+   }
+}
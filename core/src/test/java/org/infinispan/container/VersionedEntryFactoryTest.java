@@ -0,0 +1,126 @@
+package org.infinispan.container;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.ReflectionEntrySizeCalculator;
+import org.infinispan.container.entries.metadata.MetadataImmortalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataMortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedImmortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedMortalCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientCacheEntry;
+import org.infinispan.container.entries.versioned.VersionedTransientMortalCacheEntry;
+import org.infinispan.container.versioning.InequalVersionComparisonResult;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.container.versioning.SimpleClusteredVersion;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link InternalEntryFactoryImpl} stores versioned embedded metadata inline in the entries.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "container.VersionedEntryFactoryTest")
+public class VersionedEntryFactoryTest extends AbstractInfinispanTest {
+   private InternalEntryFactoryImpl factory;
+
+   @BeforeMethod
+   public void setUp() {
+      factory = new InternalEntryFactoryImpl();
+      factory.injectTimeService(TIME_SERVICE);
+   }
+
+   public void testEntryTypes() {
+      NumericVersion version = new NumericVersion(5);
+      assertEquals(VersionedImmortalCacheEntry.class,
+            factory.create("k", "v", new EmbeddedMetadata.Builder().version(version).build()).getClass());
+      assertEquals(VersionedMortalCacheEntry.class,
+            factory.create("k", "v", new EmbeddedMetadata.Builder().version(version).lifespan(1000).build()).getClass());
+      assertEquals(VersionedTransientCacheEntry.class,
+            factory.create("k", "v", new EmbeddedMetadata.Builder().version(version).maxIdle(1000).build()).getClass());
+      assertEquals(VersionedTransientMortalCacheEntry.class,
+            factory.create("k", "v", new EmbeddedMetadata.Builder().version(version).lifespan(1000).maxIdle(1000).build())
+                  .getClass());
+   }
+
+   public void testMetadataRoundTrip() {
+      Metadata numeric = new EmbeddedMetadata.Builder().version(new NumericVersion(42)).lifespan(1000).build();
+      InternalCacheEntry entry = factory.create("k", "v", numeric);
+      assertEquals(numeric, entry.getMetadata());
+      assertEquals(1000, entry.getLifespan());
+
+      SimpleClusteredVersion version = new SimpleClusteredVersion(3, 7);
+      entry = factory.create("k", "v", new EmbeddedMetadata.Builder().version(version).build());
+      assertEquals(InequalVersionComparisonResult.EQUAL, version.compareTo(entry.getMetadata().version()));
+      assertEquals(InequalVersionComparisonResult.EQUAL,
+            version.compareTo(entry.toInternalCacheValue().getMetadata().version()));
+   }
+
+   public void testCustomMetadataNotInlined() {
+      Metadata metadata = new CustomMetadata(new NumericVersion(1));
+      assertEquals(MetadataImmortalCacheEntry.class, factory.create("k", "v", metadata).getClass());
+   }
+
+   public void testUpdate() {
+      InternalCacheEntry entry = factory.create("k", "v",
+            new EmbeddedMetadata.Builder().version(new NumericVersion(1)).lifespan(1000).build());
+
+      InternalCacheEntry updated = factory.update(entry,
+            new EmbeddedMetadata.Builder().version(new NumericVersion(2)).lifespan(2000).build());
+      assertSame(entry, updated);
+      assertEquals(new NumericVersion(2), updated.getMetadata().version());
+      assertEquals(2000, updated.getLifespan());
+
+      updated = factory.update(entry, new EmbeddedMetadata.Builder().version(new NumericVersion(3)).build());
+      assertNotSame(entry, updated);
+      assertEquals(VersionedImmortalCacheEntry.class, updated.getClass());
+      assertEquals(new NumericVersion(3), updated.getMetadata().version());
+
+      updated = factory.update(updated, new CustomMetadata(new NumericVersion(4)));
+      assertEquals(MetadataImmortalCacheEntry.class, updated.getClass());
+   }
+
+   public void testFootprint() {
+      ReflectionEntrySizeCalculator calculator = new ReflectionEntrySizeCalculator();
+      Metadata metadata = new EmbeddedMetadata.Builder().version(new SimpleClusteredVersion(1, 1)).lifespan(1000).build();
+      long versioned = calculator.calculateSize(null, factory.create("k", "v", metadata));
+      long referenced = calculator.calculateSize(null, new MetadataMortalCacheEntry("k", "v", metadata, 0));
+      assertTrue("Versioned entry uses " + versioned + " bytes, metadata entry " + referenced,
+            versioned < referenced);
+   }
+
+   private static class CustomMetadata implements Metadata {
+      private final NumericVersion version;
+
+      CustomMetadata(NumericVersion version) {
+         this.version = version;
+      }
+
+      @Override
+      public long lifespan() {
+         return -1;
+      }
+
+      @Override
+      public long maxIdle() {
+         return -1;
+      }
+
+      @Override
+      public NumericVersion version() {
+         return version;
+      }
+
+      @Override
+      public Builder builder() {
+         return new EmbeddedMetadata.Builder().version(version);
+      }
+   }
+}
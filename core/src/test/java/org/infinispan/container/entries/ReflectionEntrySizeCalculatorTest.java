@@ -0,0 +1,72 @@
+package org.infinispan.container.entries;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests the field layout based size estimation of {@link ReflectionEntrySizeCalculator}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "container.entries.ReflectionEntrySizeCalculatorTest")
+public class ReflectionEntrySizeCalculatorTest {
+   private final ReflectionEntrySizeCalculator calculator = new ReflectionEntrySizeCalculator();
+   private final PrimitiveEntrySizeCalculator primitiveCalculator = new PrimitiveEntrySizeCalculator();
+
+   public void testKnownTypesMatchPrimitiveCalculator() {
+      assertEquals(primitiveCalculator.calculateSize("key", 1234567L), calculator.calculateSize("key", 1234567L));
+      assertEquals(primitiveCalculator.calculateSize(new byte[100], new int[10]),
+            calculator.calculateSize(new byte[100], new int[10]));
+   }
+
+   public void testSizeGrowsWithContents() {
+      long empty = calculator.calculateSize("key", new Node(null, new ArrayList<>()));
+      List<String> values = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+         values.add("value" + i);
+      }
+      long full = calculator.calculateSize("key", new Node(null, values));
+      assertTrue(full > empty + 100 * primitiveCalculator.handleObject("value0"));
+   }
+
+   public void testSharedObjectsCountedOnce() {
+      String shared = "shared value";
+      List<String> once = new ArrayList<>();
+      once.add(shared);
+      List<String> twice = new ArrayList<>(once);
+      twice.add(shared);
+      long onceSize = calculator.calculateSize("key", once);
+      long twiceSize = calculator.calculateSize("key", twice);
+      // The second element only costs a reference in the backing array
+      assertTrue(twiceSize - onceSize < primitiveCalculator.handleObject(shared));
+   }
+
+   public void testCycles() {
+      Node first = new Node(null, null);
+      Node second = new Node(first, null);
+      first.next = second;
+      long size = calculator.calculateSize(first, second);
+      assertEquals(calculator.calculateSize(new Node(null, null), new Node(null, null)), size);
+   }
+
+   public void testEnumsAreShared() {
+      assertEquals(calculator.calculateSize(new Node(null, null), null),
+            calculator.calculateSize(new Node(null, TimeUnit.SECONDS), null));
+   }
+
+   static class Node {
+      Node next;
+      Object value;
+
+      Node(Node next, Object value) {
+         this.next = next;
+         this.value = value;
+      }
+   }
+}
@@ -0,0 +1,120 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapDataContainerTest")
+public class OffHeapDataContainerTest extends SingleCacheManagerTest {
+
+   private static final int COUNT_SIZE = 100;
+   private static final long MEMORY_SIZE = 1 << 20;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.eviction().storage(StorageType.OFF_HEAP);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+
+      ConfigurationBuilder countBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      countBuilder.eviction().storage(StorageType.OFF_HEAP).strategy(EvictionStrategy.LRU).size(COUNT_SIZE);
+      cm.defineConfiguration("count", countBuilder.build());
+
+      ConfigurationBuilder memoryBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      memoryBuilder.eviction().storage(StorageType.OFF_HEAP).strategy(EvictionStrategy.LRU)
+            .type(EvictionType.MEMORY).size(MEMORY_SIZE);
+      cm.defineConfiguration("memory", memoryBuilder.build());
+
+      cache = cm.getCache();
+      return cm;
+   }
+
+   public void testContainerType() {
+      assertTrue(cache.getAdvancedCache().getDataContainer() instanceof OffHeapDataContainer);
+      assertTrue(cacheManager.getCache("count").getAdvancedCache().getDataContainer() instanceof BoundedOffHeapDataContainer);
+   }
+
+   public void testPutGetRemove() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      assertEquals("v1", cache.get("k1"));
+      assertEquals("v2", cache.get("k2"));
+      assertEquals(2, cache.size());
+
+      assertEquals("v1", cache.put("k1", "v1-updated"));
+      assertEquals("v1-updated", cache.get("k1"));
+      assertEquals(2, cache.size());
+
+      assertEquals("v2", cache.remove("k2"));
+      assertNull(cache.get("k2"));
+      assertFalse(cache.containsKey("k2"));
+      assertEquals(1, cache.size());
+
+      cache.clear();
+      assertTrue(cache.isEmpty());
+   }
+
+   public void testMetadataIsPreserved() {
+      cache.put("k", "v", 10, TimeUnit.MINUTES, 5, TimeUnit.MINUTES);
+      InternalCacheEntry<Object, Object> ice = cache.getAdvancedCache().getDataContainer().peek("k");
+      assertEquals(TimeUnit.MINUTES.toMillis(10), ice.getLifespan());
+      assertEquals(TimeUnit.MINUTES.toMillis(5), ice.getMaxIdle());
+      assertEquals("v", ice.getValue());
+   }
+
+   public void testIteration() {
+      Set<String> expected = new HashSet<>();
+      for (int i = 0; i < 50; ++i) {
+         cache.put("k" + i, "v" + i);
+         expected.add("k" + i);
+      }
+      DataContainer<Object, Object> container = cache.getAdvancedCache().getDataContainer();
+      for (InternalCacheEntry<Object, Object> ice : container) {
+         assertTrue(expected.remove(ice.getKey()));
+      }
+      assertTrue("Did not see keys " + expected, expected.isEmpty());
+   }
+
+   public void testCountEviction() {
+      DataContainer<Object, Object> container = cacheManager.getCache("count").getAdvancedCache().getDataContainer();
+      for (int i = 0; i < COUNT_SIZE * 2; ++i) {
+         cacheManager.getCache("count").put(i, "value-" + i);
+      }
+      assertEquals(COUNT_SIZE, container.size());
+      // The most recently written entries are the ones kept
+      assertEquals("value-" + (COUNT_SIZE * 2 - 1), cacheManager.getCache("count").get(COUNT_SIZE * 2 - 1));
+      assertNull(container.peek(0));
+   }
+
+   public void testMemoryEviction() {
+      BoundedOffHeapDataContainer<Object, Object> container = (BoundedOffHeapDataContainer<Object, Object>)
+            cacheManager.getCache("memory").getAdvancedCache().getDataContainer();
+      // write about 10 MiB of values, more than the bound
+      for (int i = 0; i < 10_000; ++i) {
+         cacheManager.getCache("memory").put(i, new byte[1024]);
+      }
+      assertTrue(container.getEntriesMemory() <= container.capacity());
+      // the bucket table is sized from the bound, not from the default address count
+      long tableMemory = container.getAllocatedMemory() - container.getEntriesMemory();
+      assertTrue(tableMemory > 0);
+      assertTrue(tableMemory <= MEMORY_SIZE / OffHeapDataContainer.MIN_ENTRY_MEMORY * 8);
+      assertTrue(container.size() < 1_000);
+      assertTrue(container.size() > 100);
+   }
+}
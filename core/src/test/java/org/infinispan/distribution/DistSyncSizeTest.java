@@ -0,0 +1,38 @@
+package org.infinispan.distribution;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link Cache#size()} adds up the entries that the owners of each segment hold, without counting the
+ * backup copies or the L1 entries.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distribution.DistSyncSizeTest")
+public class DistSyncSizeTest extends BaseDistFunctionalTest<Object, String> {
+   private static final int NUM_KEYS = 100;
+
+   public void testSize() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         c1.put("k" + i, "v" + i);
+      }
+      // Create L1 entries on c4 for the keys it doesn't own
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, c4.get("k" + i));
+      }
+
+      for (Cache<Object, String> cache : caches) {
+         assertEquals(NUM_KEYS, cache.size());
+         assertEquals(NUM_KEYS, cache.getAdvancedCache().withFlags(Flag.EXACT_SIZE).size());
+      }
+
+      c2.remove("k0");
+      for (Cache<Object, String> cache : caches) {
+         assertEquals(NUM_KEYS - 1, cache.size());
+      }
+   }
+}
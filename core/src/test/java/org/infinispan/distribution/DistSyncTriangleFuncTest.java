@@ -0,0 +1,50 @@
+package org.infinispan.distribution;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.CommandAckCollector;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the distributed cache functional tests with the triangle write protocol, in which the backup owners acknowledge
+ * the writes directly to the originator.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distribution.DistSyncTriangleFuncTest")
+public class DistSyncTriangleFuncTest extends DistSyncFuncTest {
+   @Override
+   public Object[] factory() {
+      return new Object[] {
+         new DistSyncTriangleFuncTest(),
+         new DistSyncTriangleFuncTest().l1(false)
+      };
+   }
+
+   @Override
+   protected ConfigurationBuilder buildConfiguration() {
+      ConfigurationBuilder configuration = super.buildConfiguration();
+      configuration.clustering().hash().triangle(true);
+      return configuration;
+   }
+
+   public void testBackupOwnerUpdatedWhenWriteFromNonOwnerReturns() {
+      MagicKey key = new MagicKey(c2, c3);
+      for (int i = 0; i < 10; i++) {
+         String value = "v" + i;
+         c1.put(key, value);
+         // The originator must not return before the backup owner acknowledged the write
+         InternalCacheEntry entry = c3.getAdvancedCache().getDataContainer().get(key);
+         assertEquals(value, entry.getValue());
+      }
+      c1.remove(key);
+      assertEquals(null, c3.getAdvancedCache().getDataContainer().get(key));
+      for (Cache<Object, String> cache : caches) {
+         assertEquals(0, TestingUtil.extractComponent(cache, CommandAckCollector.class).size());
+      }
+   }
+}
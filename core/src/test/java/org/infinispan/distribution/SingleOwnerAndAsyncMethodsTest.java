@@ -3,13 +3,24 @@
 import static org.infinispan.test.TestingUtil.k;
 import static org.infinispan.test.TestingUtil.v;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
+import org.infinispan.cache.impl.CacheImpl;
+import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.context.Flag;
+import org.infinispan.test.TestingUtil;
 import org.testng.annotations.Test;
 
 /**
@@ -66,6 +77,68 @@ public void testAsyncGet(Method m) throws Exception {
       assert f.get().equals(value);
    }
 
+   public void testAsyncGetDoesNotBlockCaller(Method m) throws Exception {
+      final String key = k(m);
+      final String value = v(m);
+      Cache<Object, String> ownerCache = getOwner(key);
+      Cache<Object, String> nonOwnerCache = getNonOwner(key);
+      ownerCache.put(key, value);
+      CyclicBarrier barrier = new CyclicBarrier(2);
+      BlockingInterceptor blockingInterceptor = new BlockingInterceptor(barrier, GetCacheEntryCommand.class, false,
+            false);
+      ownerCache.getAdvancedCache().getAsyncInterceptorChain().addInterceptor(blockingInterceptor, 0);
+      // Any task handed to the async executor of the caller means a thread waits for the remote get
+      ExecutorService asyncExecutor = TestingUtil.extractField(nonOwnerCache.getAdvancedCache(), "asyncExecutor");
+      AtomicInteger asyncTasks = new AtomicInteger();
+      ExecutorService countingExecutor = new AbstractExecutorService() {
+         @Override
+         public void execute(Runnable command) {
+            asyncTasks.incrementAndGet();
+            asyncExecutor.execute(command);
+         }
+
+         @Override
+         public void shutdown() {
+         }
+
+         @Override
+         public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+         }
+
+         @Override
+         public boolean isShutdown() {
+            return false;
+         }
+
+         @Override
+         public boolean isTerminated() {
+            return false;
+         }
+
+         @Override
+         public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+         }
+      };
+      TestingUtil.replaceField(countingExecutor, "asyncExecutor", nonOwnerCache.getAdvancedCache(), CacheImpl.class);
+      try {
+         // The owner blocks the remote get, but the caller gets the future right away
+         CompletableFuture<String> f = nonOwnerCache.getAsync(key);
+         assertFalse(f.isDone());
+         barrier.await(10, TimeUnit.SECONDS);
+         assertFalse(f.isDone());
+         assertEquals(0, asyncTasks.get());
+
+         barrier.await(10, TimeUnit.SECONDS);
+         assertEquals(value, f.get(10, TimeUnit.SECONDS));
+         assertEquals(0, asyncTasks.get());
+      } finally {
+         TestingUtil.replaceField(asyncExecutor, "asyncExecutor", nonOwnerCache.getAdvancedCache(), CacheImpl.class);
+         ownerCache.getAdvancedCache().getAsyncInterceptorChain().removeInterceptor(0);
+      }
+   }
+
    public void testAsyncReplace(Method m) throws Exception {
       // Calling replaceAsync() on a cache that does not own the key will force
       // a remote get call to find out whether the key is associated with any
@@ -2,7 +2,10 @@
 
 import static org.testng.AssertJUnit.assertTrue;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
@@ -247,8 +250,36 @@ public void testStringArray() throws Exception {
       assertTrue(cache.getAdvancedCache().getDataContainer().size() < numberInserted);
    }
 
+   public void testCustomObject() throws Exception {
+      int listSize = 10;
+      long numberInserted = CACHE_SIZE / listSize;
+      Random random = new Random();
+      // Note that there is overhead for the map itself, so we will not get exactly the same amount
+      // More than likely there will be a few hundred byte overhead
+      for (long i = 0; i < numberInserted; i++) {
+         List<Long> values = new ArrayList<>(listSize);
+         for (int j = 0; j < listSize; j++) {
+            values.add(random.nextLong());
+         }
+         cache.put(i, new Person(randomStringFullOfInt(random, 10), random.nextInt(), values));
+      }
+      assertTrue(cache.getAdvancedCache().getDataContainer().size() < numberInserted);
+   }
+
    protected String randomStringFullOfInt(Random random, int digits) {
       return random.ints(digits, 0, 10).collect(StringBuilder::new, StringBuilder::append,
               StringBuilder::append).toString();
    }
+
+   public static class Person implements Serializable {
+      final String name;
+      final int age;
+      final List<Long> values;
+
+      Person(String name, int age, List<Long> values) {
+         this.name = name;
+         this.age = age;
+         this.values = values;
+      }
+   }
 }
@@ -0,0 +1,104 @@
+package org.infinispan.executors;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.concurrent.BlockingRunnable;
+import org.infinispan.util.concurrent.BlockingTaskAwareExecutorServiceImpl;
+import org.infinispan.util.concurrent.KeyOrderedExecutor;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link KeyOrderedExecutor} runs the tasks of a key one at a time and in order, while the tasks of other
+ * keys run in parallel.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "executors.KeyOrderedExecutorTest")
+public class KeyOrderedExecutorTest extends AbstractInfinispanTest {
+   private static final int NUM_TASKS = 100;
+
+   public void testSameKeyIsOrdered() throws Exception {
+      BlockingTaskAwareExecutorServiceImpl executorService = createExecutorService();
+      try {
+         KeyOrderedExecutor executor = new KeyOrderedExecutor(executorService, AnyEquivalence.getInstance());
+         AtomicInteger running = new AtomicInteger();
+         List<Integer> executed = new CopyOnWriteArrayList<>();
+         for (int i = 0; i < NUM_TASKS; i++) {
+            int index = i;
+            executor.execute("k", new ReadyRunnable(() -> {
+               assertEquals(1, running.incrementAndGet());
+               executed.add(index);
+               running.decrementAndGet();
+            }));
+         }
+         eventually(() -> executed.size() == NUM_TASKS);
+         for (int i = 0; i < NUM_TASKS; i++) {
+            assertEquals(i, (int) executed.get(i));
+         }
+      } finally {
+         executorService.shutdownNow();
+      }
+   }
+
+   public void testBlockedKeyDoesNotBlockOtherKeys() throws Exception {
+      BlockingTaskAwareExecutorServiceImpl executorService = createExecutorService();
+      try {
+         KeyOrderedExecutor executor = new KeyOrderedExecutor(executorService, AnyEquivalence.getInstance());
+         BlockingTaskAwareExecutorServiceTest.DoSomething blocked = new BlockingTaskAwareExecutorServiceTest.DoSomething();
+         BlockingTaskAwareExecutorServiceTest.DoSomething queued = new BlockingTaskAwareExecutorServiceTest.DoSomething();
+         queued.markReady();
+         executor.execute(0, blocked);
+         executor.execute(0, queued);
+
+         CountDownLatch otherKey = new CountDownLatch(1);
+         executor.execute(1, new ReadyRunnable(otherKey::countDown));
+         assertTrue(otherKey.await(10, TimeUnit.SECONDS));
+         assertTrue(!blocked.isExecuted());
+         assertTrue(!queued.isExecuted());
+
+         blocked.markReady();
+         executorService.checkForReadyTasks();
+         eventually(queued::isExecuted);
+         assertTrue(blocked.isExecuted());
+      } finally {
+         executorService.shutdownNow();
+      }
+   }
+
+   private BlockingTaskAwareExecutorServiceImpl createExecutorService() {
+      String controllerName = "Controller-" + getClass().getSimpleName();
+      ExecutorService realOne = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                                                       new BlockingTaskAwareExecutorServiceTest.DummyThreadFactory());
+      return new BlockingTaskAwareExecutorServiceImpl(controllerName, realOne, TIME_SERVICE);
+   }
+
+   private static class ReadyRunnable implements BlockingRunnable {
+      private final Runnable runnable;
+
+      ReadyRunnable(Runnable runnable) {
+         this.runnable = runnable;
+      }
+
+      @Override
+      public boolean isReady() {
+         return true;
+      }
+
+      @Override
+      public void run() {
+         runnable.run();
+      }
+   }
+}
@@ -3,12 +3,16 @@
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNull;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.distribution.MagicKey;
+import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.test.MultipleCacheManagersTest;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.InCacheMode;
@@ -42,6 +46,7 @@ public class ClusterExpirationFunctionalTest extends MultipleCacheManagersTest {
    protected void createCacheManagers() throws Throwable {
       ConfigurationBuilder builder = new ConfigurationBuilder();
       builder.clustering().cacheMode(cacheMode);
+      builder.expiration().batchSize(4);
       createCluster(builder, 3);
       waitForClusterToForm();
       injectTimeServices();
@@ -114,4 +119,24 @@ public void testExpiredOnBoth() {
       assertNull(cache0.get(key));
       assertNull(cache1.get(key));
    }
+
+   public void testBatchedExpirationOnBackupOwner() {
+      List<MagicKey> keys = new ArrayList<>();
+      // More keys than the batch size, so that both full and partial batches are sent
+      for (int i = 0; i < 10; i++) {
+         MagicKey key = new MagicKey(cache0, cache1);
+         keys.add(key);
+         cache0.put(key, key.toString(), 10, TimeUnit.MINUTES);
+      }
+
+      // Only the backup owner sees the entries as expired, its reaper sends them to the primary owner in batches
+      ts1.advance(TimeUnit.MINUTES.toMillis(10) + 1);
+      TestingUtil.extractComponent(cache1, ExpirationManager.class).processExpiration();
+
+      // The batches are sent without waiting for the primary owner
+      for (MagicKey key : keys) {
+         eventually(() -> !cache0.getAdvancedCache().getDataContainer().containsKey(key) &&
+               !cache1.getAdvancedCache().getDataContainer().containsKey(key), 10, TimeUnit.SECONDS);
+      }
+   }
 }
@@ -0,0 +1,98 @@
+package org.infinispan.expiration.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link TimerWheel} only returns the keys whose expiration time has been reached.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "expiration.impl.TimerWheelTest")
+public class TimerWheelTest extends AbstractInfinispanTest {
+   private static final long START = 1_000_000_000L;
+
+   public void testDueKeys() {
+      TimerWheel<String> wheel = new TimerWheel<>(AnyEquivalence.getInstance(), START);
+      wheel.schedule("a", START + 100);
+      wheel.schedule("b", START + 5000);
+      wheel.schedule("c", START - 10);
+
+      assertEquals(Arrays.asList("c"), advance(wheel, START));
+      assertEquals(Arrays.asList("a"), advance(wheel, START + 100));
+      assertEquals(0, advance(wheel, START + 4999).size());
+      assertEquals(Arrays.asList("b"), advance(wheel, START + 5000));
+      assertEquals(0, wheel.size());
+   }
+
+   public void testCancelAndReschedule() {
+      TimerWheel<String> wheel = new TimerWheel<>(AnyEquivalence.getInstance(), START);
+      wheel.schedule("a", START + 100);
+      wheel.schedule("b", START + 100);
+      wheel.cancel("a");
+      wheel.schedule("b", START + 2000);
+
+      assertEquals(0, advance(wheel, START + 1000).size());
+      assertEquals(1, wheel.size());
+      assertEquals(Arrays.asList("b"), advance(wheel, START + 2000));
+   }
+
+   public void testCascade() {
+      TimerWheel<String> wheel = new TimerWheel<>(AnyEquivalence.getInstance(), START);
+      long minute = TimeUnit.MINUTES.toMillis(1);
+      long hour = TimeUnit.HOURS.toMillis(1);
+      long day = TimeUnit.DAYS.toMillis(1);
+      wheel.schedule("minute", START + minute + 1);
+      wheel.schedule("hour", START + hour + 1);
+      wheel.schedule("day", START + day + 1);
+      wheel.schedule("month", START + 30 * day);
+
+      // Advance in small steps, the keys must not be returned before their time nor too late
+      List<String> due = new ArrayList<>();
+      for (long now = START; now <= START + 31 * day; now += 10_000) {
+         for (String key : advance(wheel, now)) {
+            due.add(key);
+            long expected = key.equals("minute") ? minute + 1 : key.equals("hour") ? hour + 1 :
+                  key.equals("day") ? day + 1 : 30 * day;
+            assertTrue(key + " returned at " + (now - START), now - START >= expected);
+            assertTrue(key + " returned at " + (now - START), now - START < expected + 10_000);
+         }
+      }
+      assertEquals(Arrays.asList("minute", "hour", "day", "month"), due);
+   }
+
+   public void testLargeJump() {
+      TimerWheel<Integer> wheel = new TimerWheel<>(AnyEquivalence.getInstance(), START);
+      for (int i = 0; i < 5000; i++) {
+         wheel.schedule(i, START + i * 1000L);
+      }
+      assertEquals(2501, advance(wheel, START + 2_500_000).size());
+      assertEquals(2499, advance(wheel, START + TimeUnit.DAYS.toMillis(10)).size());
+      assertEquals(0, wheel.size());
+   }
+
+   public void testClear() {
+      TimerWheel<String> wheel = new TimerWheel<>(AnyEquivalence.getInstance(), START);
+      wheel.schedule("a", START + 100);
+      advance(wheel, START);
+      wheel.schedule("b", START + 100);
+      wheel.clear();
+      assertEquals(0, wheel.size());
+      assertEquals(0, advance(wheel, START + 1000).size());
+   }
+
+   private static <K> List<K> advance(TimerWheel<K> wheel, long now) {
+      List<K> due = new ArrayList<>();
+      assertEquals(wheel.advance(now, due::add), due.size());
+      return due;
+   }
+}
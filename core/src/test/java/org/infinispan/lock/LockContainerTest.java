@@ -16,6 +16,7 @@
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.LockPromise;
+import org.infinispan.util.concurrent.locks.impl.ContentionAwareLockContainer;
 import org.infinispan.util.concurrent.locks.impl.LockContainer;
 import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
 import org.infinispan.util.concurrent.locks.impl.StripedLockContainer;
@@ -55,6 +56,51 @@ public void testSingleCounterWithStriped() throws ExecutionException, Interrupte
       doSingleCounterTest(lockContainer, 16);
    }
 
+   public void testSingleLockWithContentionAware() throws InterruptedException {
+      ContentionAwareLockContainer lockContainer = new ContentionAwareLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doSingleLockTest(lockContainer, -1);
+   }
+
+   public void testSingleCounterWithContentionAware() throws ExecutionException, InterruptedException {
+      ContentionAwareLockContainer lockContainer = new ContentionAwareLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doSingleCounterTest(lockContainer, -1);
+   }
+
+   public void testContentionAwareInflatesOnlyWhenContended() throws InterruptedException {
+      ContentionAwareLockContainer lockContainer = new ContentionAwareLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+
+      LockPromise lockPromise1 = lockContainer.acquire("key", "LO1", 0, TimeUnit.MILLISECONDS);
+      acquireLock(lockPromise1, false);
+      AssertJUnit.assertNull(lockContainer.getLock("key"));
+      AssertJUnit.assertEquals("LO1", lockContainer.getOwner("key"));
+      AssertJUnit.assertEquals(1, lockContainer.getUncontendedAcquisitions());
+      AssertJUnit.assertEquals(0, lockContainer.getContendedAcquisitions());
+
+      LockPromise lockPromise2 = lockContainer.acquire("key", "LO2", 1, TimeUnit.DAYS);
+      AssertJUnit.assertFalse(lockPromise2.isAvailable());
+      AssertJUnit.assertNotNull(lockContainer.getLock("key"));
+      AssertJUnit.assertEquals("LO1", lockContainer.getOwner("key"));
+      AssertJUnit.assertEquals(1, lockContainer.getContendedAcquisitions());
+
+      lockContainer.release("key", "LO1");
+      acquireLock(lockPromise2, false);
+      AssertJUnit.assertEquals("LO2", lockContainer.getOwner("key"));
+
+      lockContainer.release("key", "LO2");
+      AssertJUnit.assertEquals(0, lockContainer.getNumLocksHeld());
+      AssertJUnit.assertEquals(0, lockContainer.size());
+
+      //the key is not contended anymore
+      acquireLock(lockContainer.acquire("key", "LO3", 0, TimeUnit.MILLISECONDS), false);
+      AssertJUnit.assertNull(lockContainer.getLock("key"));
+      AssertJUnit.assertEquals(2, lockContainer.getUncontendedAcquisitions());
+      lockContainer.release("key", "LO3");
+      AssertJUnit.assertEquals(0, lockContainer.size());
+   }
+
    private void doSingleCounterTest(LockContainer lockContainer, int poolSize) throws InterruptedException, ExecutionException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final String key = "key";
@@ -71,7 +117,7 @@ private void doSingleCounterTest(LockContainer lockContainer, int poolSize) thro
             barrier.await();
             while (true) {
                lockContainer.acquire(key, lockOwner, 1, TimeUnit.DAYS).lock();
-               AssertJUnit.assertEquals(lockOwner, lockContainer.getLock(key).getLockOwner());
+               AssertJUnit.assertEquals(lockOwner, lockContainer.getOwner(key));
                try {
                   int value = counter.getCount();
                   if (value == maxCounterValue) {
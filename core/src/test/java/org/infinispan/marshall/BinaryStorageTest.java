@@ -0,0 +1,107 @@
+package org.infinispan.marshall;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.ByteArrayEquivalence;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.BinaryMarshalledEntryFactoryImpl;
+import org.infinispan.marshall.core.BinaryMarshalledEntryImpl;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "marshall.BinaryStorageTest")
+public class BinaryStorageTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.eviction().storage(StorageType.BINARY);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testByteArrayEquivalenceIsUsed() {
+      Configuration configuration = cache.getCacheConfiguration();
+      assertSame(ByteArrayEquivalence.INSTANCE, configuration.dataContainer().keyEquivalence());
+      assertSame(ByteArrayEquivalence.INSTANCE, configuration.dataContainer().valueEquivalence());
+
+      byte[] key = {1, 2, 3};
+      byte[] value = {4, 5, 6};
+      cache.put(key, value);
+      assertTrue(Arrays.equals(value, (byte[]) cache.get(new byte[]{1, 2, 3})));
+   }
+
+   public void testBytesAreNotMarshalledForStores() {
+      MarshalledEntryFactory factory = TestingUtil.extractComponent(cache, MarshalledEntryFactory.class);
+      assertTrue(factory instanceof BinaryMarshalledEntryFactoryImpl);
+
+      byte[] key = {1, 2, 3};
+      byte[] value = {4, 5, 6, 7};
+      MarshalledEntry entry = factory.newMarshalledEntry(key, value, null);
+      ByteBuffer keyBytes = entry.getKeyBytes();
+      ByteBuffer valueBytes = entry.getValueBytes();
+      assertSame(key, keyBytes.getBuf());
+      assertEquals(key.length, keyBytes.getLength());
+      assertSame(value, valueBytes.getBuf());
+      assertEquals(value.length, valueBytes.getLength());
+
+      MarshalledEntry loaded = factory.newMarshalledEntry(keyBytes, valueBytes, null);
+      assertTrue(Arrays.equals(key, (byte[]) loaded.getKey()));
+      assertTrue(Arrays.equals(value, (byte[]) loaded.getValue()));
+   }
+
+   public void testBinaryEntriesKeepTheirType() throws Exception {
+      StreamingMarshaller marshaller = TestingUtil.extractGlobalMarshaller(cacheManager);
+      byte[] key = {1, 2, 3};
+      byte[] value = {4, 5, 6, 7};
+      MarshalledEntry binaryEntry = new BinaryMarshalledEntryImpl<>(key, value, null, marshaller);
+      MarshalledEntry copy = (MarshalledEntry) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(binaryEntry));
+      assertEquals(BinaryMarshalledEntryImpl.class, copy.getClass());
+      assertTrue(Arrays.equals(key, (byte[]) copy.getKey()));
+      assertTrue(Arrays.equals(value, (byte[]) copy.getValue()));
+
+      MarshalledEntry entry = new MarshalledEntryImpl<>("k", "v", null, marshaller);
+      copy = (MarshalledEntry) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(entry));
+      assertEquals(MarshalledEntryImpl.class, copy.getClass());
+      assertEquals("v", copy.getValue());
+   }
+
+   public void testExplicitByteArrayEquivalenceAllowed() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.dataContainer().keyEquivalence(ByteArrayEquivalence.INSTANCE);
+      builder.eviction().storage(StorageType.BINARY);
+      Configuration configuration = builder.build();
+      assertSame(ByteArrayEquivalence.INSTANCE, configuration.dataContainer().keyEquivalence());
+      assertSame(ByteArrayEquivalence.INSTANCE, configuration.dataContainer().valueEquivalence());
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testOtherEquivalenceNotAllowed() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.dataContainer().keyEquivalence(AnyEquivalence.getInstance());
+      builder.eviction().storage(StorageType.BINARY);
+      builder.build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testStoreAsBinaryNotAllowed() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.eviction().storage(StorageType.BINARY).storeAsBinary().enable();
+      builder.build();
+   }
+}
@@ -1,10 +1,26 @@
 package org.infinispan.persistence.file;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.NonBlockingAdvancedCacheLoader;
+import org.infinispan.persistence.spi.TransferableStore;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.AfterClass;
@@ -44,4 +60,64 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
       store.init(createContext(configurationBuilder.build()));
       return store;
    }
+
+   public void testLoadAsync() throws Exception {
+      NonBlockingAdvancedCacheLoader<Object, Object> store = (NonBlockingAdvancedCacheLoader<Object, Object>) cl;
+      cl.write(marshalledEntry("k", wrap("k", "v"), null));
+
+      MarshalledEntry<Object, Object> entry = store.loadAsync("k").toCompletableFuture().get(10, TimeUnit.SECONDS);
+      assertEquals("v", unwrap(entry.getValue()));
+      assertTrue(store.containsAsync("k").toCompletableFuture().get(10, TimeUnit.SECONDS));
+
+      // Missing keys are answered by the in-memory index
+      CompletableFuture<MarshalledEntry<Object, Object>> missing = store.loadAsync("k2").toCompletableFuture();
+      assertTrue(missing.isDone());
+      assertNull(missing.get());
+   }
+
+   public void testProcessAsync() throws Exception {
+      NonBlockingAdvancedCacheLoader<Object, Object> store = (NonBlockingAdvancedCacheLoader<Object, Object>) cl;
+      int numEntries = 100;
+      for (int i = 0; i < numEntries; i++) {
+         cl.write(marshalledEntry("k" + i, wrap("k" + i, "v" + i), null));
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(4, getTestThreadFactory("Process"));
+      try {
+         Set<Object> keys = ConcurrentHashMap.newKeySet();
+         store.processAsync(null, (entry, taskContext) -> {
+            assertEquals("v" + ((String) entry.getKey()).substring(1), unwrap(entry.getValue()));
+            keys.add(entry.getKey());
+         }, executor, true, false).toCompletableFuture().get(10, TimeUnit.SECONDS);
+         assertEquals(numEntries, keys.size());
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   public void testExportImportRecords() throws Exception {
+      TransferableStore<Object, Object> store = (TransferableStore<Object, Object>) cl;
+      int numEntries = 50;
+      for (int i = 0; i < numEntries; i++) {
+         cl.write(marshalledEntry("k" + i, wrap("k" + i, "v" + i), null));
+      }
+
+      Map<Object, byte[]> records = new HashMap<>();
+      store.exportRecords(key -> !key.equals("k0"), records::put);
+      assertEquals(numEntries - 1, records.size());
+      for (Map.Entry<Object, byte[]> e : records.entrySet()) {
+         assertEquals(e.getKey(), store.recordKey(e.getValue()));
+         assertEquals("v" + ((String) e.getKey()).substring(1), unwrap(store.recordToEntry(e.getValue()).getValue()));
+      }
+
+      cl.clear();
+      cl.write(marshalledEntry("k1", wrap("k1", "old"), null));
+      store.importRecords(records);
+
+      assertEquals(numEntries - 1, cl.size());
+      assertNull(cl.load("k0"));
+      for (int i = 1; i < numEntries; i++) {
+         assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+      }
+   }
 }
@@ -7,6 +7,7 @@
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
 import java.lang.reflect.Method;
@@ -548,6 +549,109 @@ public void run() {
       assertEquals(3, underlying.threads.size());
    }
 
+   public void testBlockedWritesResumeWhenBufferDrains(final Method m) throws Exception {
+      LockableStore underlying = new LockableStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+
+      LockableStoreConfigurationBuilder lcscsBuilder = (LockableStoreConfigurationBuilder) builder
+            .persistence()
+            .addStore(new LockableStoreConfigurationBuilder(builder.persistence()));
+      lcscsBuilder.async()
+            .modificationQueueSize(10)
+            .threadPoolSize(3);
+
+      writer = new AdvancedAsyncCacheWriter(underlying);
+      InitializationContext ctx =
+            PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller);
+      writer.init(ctx);
+      writer.start();
+      underlying.init(ctx);
+      underlying.start();
+      try {
+         final CountDownLatch done = new CountDownLatch(1);
+
+         underlying.lock.lock();
+         try {
+            Thread t = new Thread() {
+               @Override
+               public void run() {
+                  try {
+                     // Overwrites of buffered keys mixed with new keys
+                     for (int i = 0; i < 100; i++) {
+                        writer.write(new MarshalledEntryImpl(k(m, i), v(m, i), null, marshaller()));
+                        writer.write(new MarshalledEntryImpl(k(m, i), v(m, i), null, marshaller()));
+                     }
+                  } catch (Exception e) {
+                     log.error("Error storing entry", e);
+                  }
+                  done.countDown();
+               }
+            };
+            t.start();
+
+            assertFalse("Background thread should have blocked after adding 10 entries", done.await(1, TimeUnit.SECONDS));
+         } finally {
+            underlying.lock.unlock();
+         }
+         assertTrue("Blocked writes should resume once the buffer is drained", done.await(10, TimeUnit.SECONDS));
+      } finally {
+         writer.stop();
+      }
+      for (int i = 0; i < 100; i++)
+         assertEquals(v(m, i), underlying.load(k(m, i)).getValue());
+   }
+
+   public void testOverwritesAreCoalesced(final Method m) throws Exception {
+      LockableStore underlying = new LockableStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+
+      LockableStoreConfigurationBuilder lcscsBuilder = (LockableStoreConfigurationBuilder) builder
+            .persistence()
+            .addStore(new LockableStoreConfigurationBuilder(builder.persistence()));
+      lcscsBuilder.async()
+            .modificationQueueSize(10)
+            .threadPoolSize(3);
+
+      writer = new AdvancedAsyncCacheWriter(underlying);
+      InitializationContext ctx =
+            PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller);
+      writer.init(ctx);
+      writer.start();
+      underlying.init(ctx);
+      underlying.start();
+      underlying.clearStats();
+      try {
+         final CountDownLatch done = new CountDownLatch(1);
+
+         underlying.lock.lock();
+         try {
+            Thread t = new Thread() {
+               @Override
+               public void run() {
+                  try {
+                     for (int i = 0; i < 100; i++)
+                        writer.write(new MarshalledEntryImpl(k(m), v(m, i), null, marshaller()));
+                  } catch (Exception e) {
+                     log.error("Error storing entry", e);
+                  }
+                  done.countDown();
+               }
+            };
+            t.start();
+
+            assertTrue("Overwriting a buffered key should not block", done.await(10, TimeUnit.SECONDS));
+         } finally {
+            underlying.lock.unlock();
+         }
+      } finally {
+         writer.stop();
+      }
+      assertEquals(v(m, 99), underlying.load(k(m)).getValue());
+      assertTrue(underlying.stats().get("write") < 100);
+      assertEquals(0, writer.getQueueDepth());
+      assertTrue(writer.getFlushedBatches() > 0);
+   }
+
    private static abstract class OneEntryCacheManagerCallable extends CacheManagerCallable {
       protected final Cache<String, String> cache;
       protected final LockableStore store;
@@ -0,0 +1,50 @@
+package org.infinispan.persistence.support;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the adaptation of blocking stores to the non-blocking persistence SPI.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.support.NonBlockingStoresTest")
+public class NonBlockingStoresTest extends AbstractInfinispanTest {
+
+   @SuppressWarnings("unchecked")
+   public void testProcessDoesNotWaitForItsOwnExecutor() throws Exception {
+      AdvancedCacheLoader<Object, Object> loader = mock(AdvancedCacheLoader.class);
+      AtomicInteger processed = new AtomicInteger();
+      // Like the stores, process hands its work to the executor and waits for it
+      doAnswer(invocation -> {
+         Executor executor = (Executor) invocation.getArguments()[2];
+         CompletableFuture.runAsync(processed::incrementAndGet, executor).get(10, TimeUnit.SECONDS);
+         return null;
+      }).when(loader).process(any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class),
+            any(Executor.class), anyBoolean(), anyBoolean());
+
+      ExecutorService executor = Executors.newSingleThreadExecutor(getTestThreadFactory("Persistence"));
+      try {
+         NonBlockingStores.process(loader, KeyFilter.ACCEPT_ALL_FILTER, (entry, taskContext) -> {},
+               executor, true, true).toCompletableFuture().get(10, TimeUnit.SECONDS);
+         assertEquals(1, processed.get());
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+}
@@ -0,0 +1,138 @@
+package org.infinispan.remoting.inboundhandler;
+
+import static org.infinispan.test.TestingUtil.extractLockManager;
+import static org.infinispan.test.TestingUtil.wrapPerCacheInboundInvocationHandler;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.group.Group;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a write received as backup owner does not wait behind a write parked on the lock of a key with the same
+ * hash code, received as primary owner.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "remoting.inboundhandler.PerKeyOrderingTest")
+public class PerKeyOrderingTest extends MultipleCacheManagersTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2).groups().enabled();
+      builder.locking().perKeyOrdering(true).lockAcquisitionTimeout(TimeUnit.SECONDS.toMillis(30));
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   public void testBackupWriteDoesNotWaitForCollidingPrimaryWrite() throws Exception {
+      // "Aa" and "BB" have the same hash code, the group only picks the primary owner
+      CollidingKey primaryOn1 = new CollidingKey("Aa", groupOwnedBy(1));
+      CollidingKey primaryOn0 = new CollidingKey("BB", groupOwnedBy(0));
+      assertEquals(primaryOn1.hashCode(), primaryOn0.hashCode());
+
+      NotifyingInboundInvocationHandler handler = wrapPerCacheInboundInvocationHandler(cache(1),
+            (cache, current) -> new NotifyingInboundInvocationHandler(current, primaryOn1), true);
+
+      LockManager lockManager = extractLockManager(cache(1));
+      Object lockOwner = "lock owner";
+      lockManager.lock(primaryOn1, lockOwner, 0, TimeUnit.MILLISECONDS).lock();
+      Future<Object> primaryWrite;
+      try {
+         // node 1 receives the write as primary owner, it waits for the lock
+         primaryWrite = fork(() -> cache(0).put(primaryOn1, "v1"));
+         assertTrue(handler.handled.await(10, TimeUnit.SECONDS));
+
+         // node 1 receives the write of the other key as backup owner, it must not wait for the lock
+         fork(() -> cache(0).put(primaryOn0, "v0")).get(10, TimeUnit.SECONDS);
+         assertEquals("v0", cache(1).getAdvancedCache().getDataContainer().get(primaryOn0).getValue());
+         assertFalse(primaryWrite.isDone());
+      } finally {
+         lockManager.unlock(primaryOn1, lockOwner);
+      }
+      assertNull(primaryWrite.get(10, TimeUnit.SECONDS));
+      assertEquals("v1", cache(1).get(primaryOn1));
+   }
+
+   private String groupOwnedBy(int index) {
+      DistributionManager distributionManager = TestingUtil.extractComponent(cache(0), DistributionManager.class);
+      for (int i = 0; ; i++) {
+         String group = "group" + i;
+         if (distributionManager.getPrimaryLocation(new CollidingKey("", group)).equals(address(index))) {
+            return group;
+         }
+      }
+   }
+
+   public static class CollidingKey implements Serializable {
+      private final String name;
+      private final String group;
+
+      CollidingKey(String name, String group) {
+         this.name = name;
+         this.group = group;
+      }
+
+      @Group
+      public String getGroup() {
+         return group;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) return true;
+         if (o == null || getClass() != o.getClass()) return false;
+         CollidingKey that = (CollidingKey) o;
+         return name.equals(that.name) && group.equals(that.group);
+      }
+
+      @Override
+      public int hashCode() {
+         return name.hashCode();
+      }
+
+      @Override
+      public String toString() {
+         return "CollidingKey{name=" + name + ", group=" + group + "}";
+      }
+   }
+
+   private static class NotifyingInboundInvocationHandler implements PerCacheInboundInvocationHandler {
+      private final PerCacheInboundInvocationHandler delegate;
+      private final Object key;
+      final CountDownLatch handled = new CountDownLatch(1);
+
+      NotifyingInboundInvocationHandler(PerCacheInboundInvocationHandler delegate, Object key) {
+         this.delegate = delegate;
+         this.key = key;
+      }
+
+      @Override
+      public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
+         delegate.handle(command, reply, order);
+         if (command instanceof SingleRpcCommand) {
+            Object wrapped = ((SingleRpcCommand) command).getCommand();
+            if (wrapped instanceof DataWriteCommand && key.equals(((DataWriteCommand) wrapped).getKey())) {
+               handled.countDown();
+            }
+         }
+      }
+   }
+}
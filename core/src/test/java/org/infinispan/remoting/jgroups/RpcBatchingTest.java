@@ -0,0 +1,106 @@
+package org.infinispan.remoting.jgroups;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the synchronous commands sent concurrently to the same node are batched when the {@link
+ * JGroupsTransport#RPC_BATCH_WINDOW} property is set, that each caller gets its own response, and that the commands
+ * that can block are sent on their own.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "remoting.jgroups.RpcBatchingTest")
+public class RpcBatchingTest extends MultipleCacheManagersTest {
+   private static final int NUM_THREADS = 8;
+   private static final int NUM_KEYS = 50;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1);
+      for (int i = 0; i < 2; i++) {
+         GlobalConfigurationBuilder globalBuilder = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         globalBuilder.transport().addProperty(JGroupsTransport.RPC_BATCH_WINDOW, "5000");
+         addClusterEnabledCacheManager(globalBuilder, builder);
+      }
+      waitForClusterToForm();
+   }
+
+   public void testConcurrentWritesAreBatched() throws Exception {
+      MagicKey[][] keys = new MagicKey[NUM_THREADS][NUM_KEYS];
+      for (int t = 0; t < NUM_THREADS; t++) {
+         for (int i = 0; i < NUM_KEYS; i++) {
+            keys[t][i] = new MagicKey("t" + t + "-" + i, cache(1));
+         }
+      }
+
+      List<Future<?>> futures = new ArrayList<>(NUM_THREADS);
+      for (MagicKey[] threadKeys : keys) {
+         futures.add(fork(() -> {
+            for (MagicKey key : threadKeys) {
+               assertEquals(null, cache(0).put(key, key.toString()));
+               assertEquals(key.toString(), cache(0).get(key));
+            }
+         }));
+      }
+      for (Future<?> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+
+      for (MagicKey[] threadKeys : keys) {
+         for (MagicKey key : threadKeys) {
+            assertEquals(key.toString(), cache(1).get(key));
+         }
+      }
+
+      JGroupsTransport transport = (JGroupsTransport) TestingUtil.extractGlobalComponent(manager(0), Transport.class);
+      assertTrue(transport.isRpcBatchingEnabled());
+      assertTrue(transport.getRpcBatches() > 0);
+      assertTrue(transport.getAverageRpcBatchSize() > 1);
+   }
+
+   public void testBlockedWriteDoesNotDelayBatchedReads() throws Exception {
+      MagicKey lockedKey = new MagicKey("locked", cache(1));
+      LockManager lockManager = TestingUtil.extractLockManager(cache(1));
+      lockManager.lock(lockedKey, "lock owner", 0, TimeUnit.MILLISECONDS).lock();
+      Future<Object> blockedPut;
+      try {
+         // the write waits for the lock on the primary owner, it must not be batched with the reads
+         blockedPut = fork(() -> cache(0).put(lockedKey, "value"));
+         List<Future<?>> futures = new ArrayList<>(NUM_THREADS);
+         for (int t = 0; t < NUM_THREADS; t++) {
+            int thread = t;
+            futures.add(fork(() -> {
+               for (int i = 0; i < NUM_KEYS; i++) {
+                  assertEquals(null, cache(0).get(new MagicKey("read-" + thread + "-" + i, cache(1))));
+               }
+            }));
+         }
+         for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+         }
+         assertFalse(blockedPut.isDone());
+      } finally {
+         lockManager.unlock(lockedKey, "lock owner");
+      }
+      assertEquals(null, blockedPut.get(10, TimeUnit.SECONDS));
+   }
+}
@@ -0,0 +1,91 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link SegmentDigest}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "statetransfer.SegmentDigestTest")
+public class SegmentDigestTest extends AbstractInfinispanTest {
+
+   private static final int NUM_BUCKETS = 8;
+
+   public void testOrderDoesNotMatter() {
+      SegmentDigest digest1 = new SegmentDigest(NUM_BUCKETS);
+      SegmentDigest digest2 = new SegmentDigest(NUM_BUCKETS);
+      for (long i = 0; i < 100; i++) {
+         digest1.add(i * 31, i);
+         digest2.add((99 - i) * 31, 99 - i);
+      }
+      assertEquals(digest1, digest2);
+      assertEquals(NUM_BUCKETS, digest1.sameBuckets(digest2).cardinality());
+   }
+
+   public void testDifferentEntry() {
+      SegmentDigest digest1 = new SegmentDigest(NUM_BUCKETS);
+      SegmentDigest digest2 = new SegmentDigest(NUM_BUCKETS);
+      for (long i = 0; i < 100; i++) {
+         digest1.add(i, i);
+         digest2.add(i, i == 42 ? -1 : i);
+      }
+      BitSet same = digest1.sameBuckets(digest2);
+      assertEquals(NUM_BUCKETS - 1, same.cardinality());
+      assertFalse(same.get(digest1.bucketOf(42)));
+   }
+
+   public void testMissingEntry() {
+      SegmentDigest digest1 = new SegmentDigest(NUM_BUCKETS);
+      SegmentDigest digest2 = new SegmentDigest(NUM_BUCKETS);
+      for (long i = 0; i < 100; i++) {
+         digest1.add(i, i);
+         if (i != 42) {
+            digest2.add(i, i);
+         }
+      }
+      assertFalse(digest1.sameBuckets(digest2).get(digest1.bucketOf(42)));
+   }
+
+   public void testDifferentNumberOfBuckets() {
+      assertTrue(new SegmentDigest(NUM_BUCKETS).sameBuckets(new SegmentDigest(NUM_BUCKETS * 2)).isEmpty());
+   }
+
+   public void testNegativeKeyHash() {
+      int bucket = new SegmentDigest(NUM_BUCKETS).bucketOf(Long.MIN_VALUE);
+      assertTrue(bucket >= 0 && bucket < NUM_BUCKETS);
+   }
+
+   public void testWriteAndRead() throws Exception {
+      SegmentDigest digest = new SegmentDigest(NUM_BUCKETS);
+      digest.add(1, 2);
+      digest.add(3, 4);
+      Map<Integer, SegmentDigest> read = writeAndRead(Collections.singletonMap(5, digest));
+      assertEquals(Collections.singletonMap(5, digest), read);
+      assertNull(writeAndRead(null));
+   }
+
+   private Map<Integer, SegmentDigest> writeAndRead(Map<Integer, SegmentDigest> digests) throws Exception {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+         SegmentDigest.writeDigests(digests, output);
+      }
+      try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+         return SegmentDigest.readDigests(input);
+      }
+   }
+}
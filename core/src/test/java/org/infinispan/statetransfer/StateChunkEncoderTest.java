@@ -0,0 +1,109 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the entries encoded by {@link StateChunkEncoder} are decoded unchanged.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "statetransfer.StateChunkEncoderTest")
+public class StateChunkEncoderTest extends AbstractInfinispanTest {
+
+   private TestObjectStreamMarshaller marshaller;
+
+   @BeforeClass
+   public void setUp() {
+      marshaller = new TestObjectStreamMarshaller();
+   }
+
+   @AfterClass
+   public void tearDown() {
+      marshaller.stop();
+   }
+
+   public void testEntriesRoundTrip() {
+      testEntriesRoundTrip(false);
+   }
+
+   public void testCompressedEntriesRoundTrip() {
+      testEntriesRoundTrip(true);
+   }
+
+   public void testStoreRecordsRoundTrip() {
+      StateChunkEncoder encoder = new StateChunkEncoder(marshaller, true, true);
+      byte[] record1 = {1, 2, 3};
+      byte[] record2 = new byte[1000];
+      Arrays.fill(record2, (byte) 7);
+      encoder.add(0, record1);
+      encoder.add(0, record2);
+
+      List<StateChunk> chunks = encoder.drain(new HashSet<>(Arrays.asList(0)), true);
+      assertEquals(1, chunks.size());
+      StateChunk chunk = chunks.get(0);
+      assertTrue(chunk.isStoreRecords());
+      assertTrue(chunk.isCompressed());
+      assertTrue(chunk.getEncodedEntries().length < record2.length);
+
+      List<byte[]> records = StateChunkEncoder.decodeRecords(chunk);
+      assertEquals(2, records.size());
+      assertTrue(Arrays.equals(record1, records.get(0)));
+      assertTrue(Arrays.equals(record2, records.get(1)));
+   }
+
+   private void testEntriesRoundTrip(boolean compression) {
+      StateChunkEncoder encoder = new StateChunkEncoder(marshaller, compression, false);
+      Map<Integer, List<InternalCacheEntry>> entriesBySegment = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+         int segmentId = i % 2;
+         InternalCacheEntry entry = new ImmortalCacheEntry("key" + i, "value" + i);
+         entriesBySegment.computeIfAbsent(segmentId, s -> new ArrayList<>()).add(entry);
+         encoder.add(segmentId, entry);
+      }
+      assertTrue(encoder.getAccumulatedBytes() > 0);
+
+      // segment 2 has no entries, but it still gets its last chunk
+      List<StateChunk> chunks = encoder.drain(new HashSet<>(Arrays.asList(0, 1, 2)), true);
+      assertEquals(0, encoder.getAccumulatedBytes());
+      assertEquals(3, chunks.size());
+      for (StateChunk chunk : chunks) {
+         assertTrue(chunk.isLastChunk());
+         assertFalse(chunk.isStoreRecords());
+         if (chunk.getSegmentId() == 2) {
+            assertFalse(chunk.isEncoded());
+            assertTrue(chunk.getCacheEntries().isEmpty());
+            continue;
+         }
+         assertTrue(chunk.isEncoded());
+         assertEquals(compression, chunk.isCompressed());
+
+         List<InternalCacheEntry> expected = entriesBySegment.get(chunk.getSegmentId());
+         Collection<InternalCacheEntry> decoded = StateChunkEncoder.decode(marshaller, chunk);
+         assertEquals(expected.size(), decoded.size());
+         int i = 0;
+         for (InternalCacheEntry entry : decoded) {
+            assertEquals(expected.get(i).getKey(), entry.getKey());
+            assertEquals(expected.get(i).getValue(), entry.getValue());
+            i++;
+         }
+      }
+   }
+}
@@ -2,7 +2,11 @@
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
@@ -13,6 +17,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +33,8 @@
 
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.hash.MurmurHash3;
 import org.infinispan.commons.util.CollectionFactory;
@@ -40,11 +47,13 @@
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.distribution.TestAddress;
 import org.infinispan.distribution.ch.impl.DefaultConsistentHash;
 import org.infinispan.distribution.ch.impl.DefaultConsistentHashFactory;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
@@ -57,6 +66,7 @@
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.Transport;
 import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.topology.PersistentUUID;
 import org.infinispan.topology.PersistentUUIDManager;
@@ -68,8 +78,12 @@
 import org.infinispan.util.ByteString;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.concurrent.IsolationLevel;
+import org.infinispan.util.concurrent.locks.KeyAwareLockPromise;
+import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.testng.annotations.AfterMethod;
@@ -203,7 +217,8 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       final StateConsumerImpl stateConsumer = new StateConsumerImpl();
       stateConsumer.init(cache, pooledExecutorService, stateTransferManager, interceptorChain, icf, configuration, rpcManager, null,
             commandsFactory, persistenceManager, dataContainer, transactionTable, stateTransferLock, cacheNotifier,
-            totalOrderManager, remoteCommandsExecutor, new CommitManager(AnyEquivalence.getInstance()));
+            totalOrderManager, remoteCommandsExecutor, new CommitManager(AnyEquivalence.getInstance()), null, null,
+            TIME_SERVICE, null);
       stateConsumer.start();
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
@@ -266,4 +281,117 @@ public Object call() throws Exception {
       stateConsumer.stop();
       assertFalse(stateConsumer.hasActiveTransfers());
    }
+
+   public void testSegmentRemovedWhileApplyingBulkState() throws Exception {
+      ConfigurationBuilder cb = new ConfigurationBuilder();
+      cb.clustering().cacheMode(CacheMode.DIST_SYNC)
+            .clustering().stateTransfer().timeout(10000).bulkApply(true);
+      Configuration configuration = cb.build();
+      PersistentUUIDManager persistentUUIDManager = new PersistentUUIDManagerImpl();
+
+      Address[] addresses = new Address[3];
+      for (int i = 0; i < 3; i++) {
+         addresses[i] = new TestAddress(i);
+         persistentUUIDManager.addPersistentAddressMapping(addresses[i], PersistentUUID.randomUUID());
+      }
+
+      // node 0 joins and receives some segments
+      DefaultConsistentHashFactory chf = new DefaultConsistentHashFactory();
+      DefaultConsistentHash ch1 = chf.create(MurmurHash3.getInstance(), 2, 40, Arrays.asList(addresses[1], addresses[2]), null);
+      final DefaultConsistentHash ch2 = chf.updateMembers(ch1, Arrays.asList(addresses[0], addresses[1], addresses[2]), null);
+      DefaultConsistentHash ch3 = chf.rebalance(ch2);
+      DefaultConsistentHash ch23 = chf.union(ch2, ch3);
+
+      Cache cache = mock(Cache.class);
+      when(cache.getName()).thenReturn("testCache");
+      pooledExecutorService = new ThreadPoolExecutor(10, 20, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingDeque<Runnable>(), getTestThreadFactory("PooledExecutorThread"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+      CacheNotifier cacheNotifier = mock(CacheNotifier.class);
+      RpcManager rpcManager = mock(RpcManager.class);
+      Transport transport = mock(Transport.class);
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+      DataContainer dataContainer = mock(DataContainer.class);
+      InterceptorChain interceptorChain = mock(InterceptorChain.class);
+      InvocationContextFactory icf = mock(InvocationContextFactory.class);
+      LockManager lockManager = mock(LockManager.class);
+
+      when(commandsFactory.buildStateRequestCommand(any(StateRequestCommand.Type.class), any(Address.class), anyInt(), any(Set.class))).thenAnswer(new Answer<StateRequestCommand>() {
+         @Override
+         public StateRequestCommand answer(InvocationOnMock invocation) {
+            return new StateRequestCommand(ByteString.fromString("cache1"), (StateRequestCommand.Type) invocation.getArguments()[0], (Address) invocation.getArguments()[1], (Integer) invocation.getArguments()[2], (Set) invocation.getArguments()[3]);
+         }
+      });
+      when(commandsFactory.buildInvalidateCommand(anyLong(), Matchers.<Object>anyVararg())).thenAnswer(new Answer<InvalidateCommand>() {
+         @Override
+         public InvalidateCommand answer(InvocationOnMock invocation) {
+            Object[] args = invocation.getArguments();
+            return new InvalidateCommand(null, (Long) args[0], null, Arrays.copyOfRange(args, 1, args.length));
+         }
+      });
+      when(icf.createNonTxInvocationContext()).thenReturn(mock(InvocationContext.class));
+      when(lockManager.lockAll(any(Collection.class), any(), anyLong(), any(TimeUnit.class)))
+            .thenReturn(mock(KeyAwareLockPromise.class));
+      when(transport.getViewId()).thenReturn(1);
+      when(rpcManager.getAddress()).thenReturn(addresses[0]);
+      when(rpcManager.getTransport()).thenReturn(transport);
+      when(rpcManager.invokeRemotely(any(Collection.class), any(StateRequestCommand.class), any(RpcOptions.class)))
+            .thenAnswer(new Answer<Map<Address, Response>>() {
+               @Override
+               public Map<Address, Response> answer(InvocationOnMock invocation) {
+                  Address recipient = ((Collection<Address>) invocation.getArguments()[0]).iterator().next();
+                  return Collections.<Address, Response>singletonMap(recipient, SuccessfulResponse.SUCCESSFUL_EMPTY_RESPONSE);
+               }
+            });
+      when(rpcManager.getRpcOptionsBuilder(any(ResponseMode.class))).thenAnswer(new Answer<RpcOptionsBuilder>() {
+         public RpcOptionsBuilder answer(InvocationOnMock invocation) {
+            Object[] args = invocation.getArguments();
+            return new RpcOptionsBuilder(10000, TimeUnit.MILLISECONDS, (ResponseMode) args[0], DeliverOrder.PER_SENDER);
+         }
+      });
+
+      CommitManager commitManager = new CommitManager(AnyEquivalence.getInstance());
+      commitManager.inject(dataContainer);
+      final StateConsumerImpl stateConsumer = new StateConsumerImpl();
+      stateConsumer.init(cache, pooledExecutorService, mock(StateTransferManager.class), interceptorChain, icf,
+            configuration, rpcManager, null, commandsFactory, mock(PersistenceManager.class), dataContainer,
+            mock(TransactionTable.class), mock(StateTransferLock.class), cacheNotifier, mock(TotalOrderManager.class),
+            mock(BlockingTaskAwareExecutorService.class), commitManager, lockManager, null, TIME_SERVICE, null);
+      stateConsumer.start();
+
+      stateConsumer.onTopologyUpdate(new CacheTopology(1, 1, ch2, null, ch2.getMembers(), persistentUUIDManager.mapAddresses(ch2.getMembers())), false);
+      stateConsumer.onTopologyUpdate(new CacheTopology(2, 2, ch2, ch3, ch23, ch23.getMembers(), persistentUUIDManager.mapAddresses(ch23.getMembers())), true);
+      assertTrue(stateConsumer.hasActiveTransfers());
+
+      Set<Integer> newSegments = ch3.getSegmentsForOwner(addresses[0]);
+      newSegments.removeAll(ch2.getSegmentsForOwner(addresses[0]));
+      int segment = newSegments.iterator().next();
+      Object key1 = new TestKey("key1", segment, ch3);
+      Object key2 = new TestKey("key2", segment, ch3);
+
+      // the rebalance is cancelled after the first entry of the chunk is stored
+      final CacheTopology cancelledTopology = new CacheTopology(3, 2, ch2, null, ch2.getMembers(), persistentUUIDManager.mapAddresses(ch2.getMembers()));
+      doAnswer(new Answer<Void>() {
+         @Override
+         public Void answer(InvocationOnMock invocation) {
+            TestingUtil.replaceField(cancelledTopology, "cacheTopology", stateConsumer, StateConsumerImpl.class);
+            return null;
+         }
+      }).when(dataContainer).put(any(), any(), any(Metadata.class));
+
+      List<InternalCacheEntry> cacheEntries = Arrays.<InternalCacheEntry>asList(
+            new ImmortalCacheEntry(key1, "value1"), new ImmortalCacheEntry(key2, "value2"));
+      stateConsumer.applyState(ch2.locatePrimaryOwnerForSegment(segment), 2,
+            Collections.singletonList(new StateChunk(segment, cacheEntries, false)));
+
+      // the entries were stored by the bulk apply, not by commands, and then removed
+      verify(dataContainer, times(2)).put(any(), any(), any(Metadata.class));
+      ArgumentCaptor<VisitableCommand> commandCaptor = ArgumentCaptor.forClass(VisitableCommand.class);
+      verify(interceptorChain).invoke(any(InvocationContext.class), commandCaptor.capture());
+      InvalidateCommand invalidateCommand = (InvalidateCommand) commandCaptor.getValue();
+      assertEquals(new HashSet<>(Arrays.asList(invalidateCommand.getKeys())), new HashSet<>(Arrays.asList(key1, key2)));
+
+      stateConsumer.stop();
+   }
 }
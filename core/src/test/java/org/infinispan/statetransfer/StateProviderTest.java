@@ -17,11 +17,17 @@
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
@@ -37,11 +43,14 @@
 import org.infinispan.distribution.TestAddress;
 import org.infinispan.distribution.ch.impl.DefaultConsistentHash;
 import org.infinispan.distribution.ch.impl.DefaultConsistentHashFactory;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
 import org.infinispan.notifications.cachelistener.cluster.ClusterCacheNotifier;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.rpc.RpcOptionsBuilder;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.topology.CacheTopology;
@@ -52,6 +61,7 @@
 import org.infinispan.transaction.impl.RemoteTransaction;
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.util.ByteString;
+import org.infinispan.util.DefaultTimeService;
 import org.infinispan.util.concurrent.IsolationLevel;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -174,7 +184,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, null, new DefaultTimeService());
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -207,7 +217,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       verifyNoMoreInteractions(stateTransferLock);
 
-      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0), null);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
@@ -217,7 +227,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       assertFalse(stateProvider.isStateTransferInProgress());
 
-      stateProvider.startOutboundTransfer(D, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(D, 1, Collections.singleton(0), null);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
@@ -283,7 +293,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, null, new DefaultTimeService());
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -320,7 +330,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       verifyNoMoreInteractions(stateTransferLock);
 
-      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0), null);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
@@ -331,7 +341,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       assertFalse(stateProvider.isStateTransferInProgress());
 
-      stateProvider.startOutboundTransfer(E, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(E, 1, Collections.singleton(0), null);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
@@ -339,4 +349,121 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       assertFalse(stateProvider.isStateTransferInProgress());
    }
+
+   public void testChunksAreBoundedByBytesAndCredits() throws Exception {
+      final int chunkBytes = 1000;
+      final int maxInFlightChunks = 2;
+      ConfigurationBuilder cb = new ConfigurationBuilder();
+      cb.clustering().cacheMode(CacheMode.DIST_SYNC)
+            .clustering().stateTransfer().timeout(10000).chunkSize(1000).chunkBytes(chunkBytes)
+            .maxInFlightChunks(maxInFlightChunks);
+
+      DefaultConsistentHashFactory chf = new DefaultConsistentHashFactory();
+      DefaultConsistentHash ch = chf.create(MurmurHash3.getInstance(), 2, 4, Arrays.<Address>asList(A, B), null);
+      cacheTopology = new CacheTopology(1, 1, ch, null, ch.getMembers(), persistentUUIDManager.mapAddresses(ch.getMembers()));
+
+      TestObjectStreamMarshaller marshaller = new TestObjectStreamMarshaller();
+      ExecutorService executorService = Executors.newSingleThreadExecutor();
+      ScheduledExecutorService responseExecutor = Executors.newSingleThreadScheduledExecutor();
+      try {
+         final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
+         char[] value = new char[100];
+         Arrays.fill(value, 'v');
+         int entryBytes = 0;
+         for (int i = 0; i < 100; i++) {
+            InternalCacheEntry entry = new ImmortalCacheEntry(String.format("key%03d", i), new String(value));
+            cacheEntries.add(entry);
+            entryBytes = Math.max(entryBytes, marshaller.objectToByteBuffer(entry).length + 4);
+         }
+         DataContainer dataContainer = mock(DataContainer.class);
+         when(dataContainer.iterator()).thenAnswer(new Answer<Iterator<InternalCacheEntry>>() {
+            @Override
+            public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
+               return cacheEntries.iterator();
+            }
+         });
+
+         final AtomicInteger lastCommandBytes = new AtomicInteger();
+         CommandsFactory commandsFactory = mock(CommandsFactory.class);
+         when(commandsFactory.buildStateResponseCommand(any(Address.class), anyInt(), any(Collection.class))).thenAnswer(new Answer<StateResponseCommand>() {
+            @Override
+            public StateResponseCommand answer(InvocationOnMock invocation) {
+               int bytes = 0;
+               for (StateChunk chunk : (Collection<StateChunk>) invocation.getArguments()[2]) {
+                  if (chunk.isEncoded()) {
+                     bytes += chunk.getEncodedEntries().length;
+                  }
+               }
+               lastCommandBytes.set(bytes);
+               return new StateResponseCommand(ByteString.fromString("testCache"), (Address) invocation.getArguments()[0],
+                     (Integer) invocation.getArguments()[1], (Collection<StateChunk>) invocation.getArguments()[2]);
+            }
+         });
+
+         RpcManager rpcManager = mock(RpcManager.class);
+         when(rpcManager.getAddress()).thenReturn(A);
+         when(rpcManager.getRpcOptionsBuilder(any(ResponseMode.class))).thenAnswer(new Answer<RpcOptionsBuilder>() {
+            @Override
+            public RpcOptionsBuilder answer(InvocationOnMock invocation) {
+               Object[] args = invocation.getArguments();
+               return new RpcOptionsBuilder(10000, TimeUnit.MILLISECONDS, (ResponseMode) args[0], DeliverOrder.PER_SENDER);
+            }
+         });
+
+         final StateProviderImpl stateProvider = new StateProviderImpl();
+         final List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<Integer>());
+         final AtomicInteger maxOutstandingChunks = new AtomicInteger();
+         final AtomicInteger unappliedChunks = new AtomicInteger();
+         final AtomicInteger unappliedChunksBeforeLast = new AtomicInteger(-1);
+         final CountDownLatch lastChunkSent = new CountDownLatch(1);
+         // the destination applies each chunk some time after receiving it
+         when(rpcManager.invokeRemotelyAsync(any(Collection.class), any(StateResponseCommand.class), any(RpcOptions.class)))
+               .thenAnswer(new Answer<CompletableFuture<Map<Address, Response>>>() {
+                  @Override
+                  public CompletableFuture<Map<Address, Response>> answer(InvocationOnMock invocation) {
+                     chunkSizes.add(lastCommandBytes.get());
+                     int outstanding = stateProvider.getOutstandingChunks();
+                     if (outstanding > maxOutstandingChunks.get()) {
+                        maxOutstandingChunks.set(outstanding);
+                     }
+                     unappliedChunks.incrementAndGet();
+                     CompletableFuture<Map<Address, Response>> future = new CompletableFuture<>();
+                     responseExecutor.schedule(() -> {
+                        unappliedChunks.decrementAndGet();
+                        future.complete(Collections.<Address, Response>emptyMap());
+                     }, 50, TimeUnit.MILLISECONDS);
+                     return future;
+                  }
+               });
+         when(rpcManager.invokeRemotely(any(Collection.class), any(StateResponseCommand.class), any(RpcOptions.class)))
+               .thenAnswer(new Answer<Map<Address, Response>>() {
+                  @Override
+                  public Map<Address, Response> answer(InvocationOnMock invocation) {
+                     unappliedChunksBeforeLast.set(unappliedChunks.get());
+                     lastChunkSent.countDown();
+                     return Collections.emptyMap();
+                  }
+               });
+
+         stateProvider.init(cache, executorService, cb.build(), rpcManager, commandsFactory, cacheNotifier,
+               persistenceManager, dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, marshaller,
+               new DefaultTimeService());
+         stateProvider.startOutboundTransfer(B, 1, ch.getSegmentsForOwner(A), null);
+         assertTrue(lastChunkSent.await(10, TimeUnit.SECONDS));
+
+         // each chunk is sent as soon as it reaches chunkBytes
+         assertTrue(chunkSizes.size() > maxInFlightChunks);
+         for (int bytes : chunkSizes) {
+            assertTrue("Chunk of " + bytes + " bytes", bytes >= chunkBytes && bytes < chunkBytes + entryBytes);
+         }
+         // the sender waited for the credits, and waited for all of them before sending the last chunk
+         assertEquals(maxInFlightChunks, maxOutstandingChunks.get());
+         assertEquals(0, unappliedChunksBeforeLast.get());
+         stateProvider.stop();
+      } finally {
+         executorService.shutdownNow();
+         responseExecutor.shutdownNow();
+         marshaller.stop();
+      }
+   }
 }
@@ -0,0 +1,104 @@
+package org.infinispan.statetransfer;
+
+import static org.infinispan.test.TestingUtil.extractLockManager;
+import static org.infinispan.test.TestingUtil.wrapPerCacheInboundInvocationHandler;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.statetransfer.StateTransferStoreRecordsFunctionalTest.DelayingStateRequestHandler;
+import org.infinispan.statetransfer.StateTransferStoreRecordsFunctionalTest.StateAppliedInterceptor;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Same as {@link StateTransferCacheLoaderFunctionalTest}, but the received state is inserted in bulk.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferBulkApplyFunctionalTest")
+public class StateTransferBulkApplyFunctionalTest extends StateTransferCacheLoaderFunctionalTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      super.createCacheManagers();
+      configurationBuilder.clustering().stateTransfer().bulkApply(true);
+   }
+
+   public void testStateIsAppliedInBulk() throws Exception {
+      CountDownLatch startTransfer = new CountDownLatch(1);
+      try {
+         Cache<Object, Object> cache1 = createCacheManager().getCache(cacheName);
+         writeInitialData(cache1);
+         wrapPerCacheInboundInvocationHandler(cache1,
+               (cache, current) -> new DelayingStateRequestHandler(current, startTransfer), false);
+
+         configurationBuilder.clustering().stateTransfer().awaitInitialTransfer(false);
+         Cache<Object, Object> cache2 = createCacheManager().getCache(cacheName);
+         StateTransferPutCounter counter = new StateTransferPutCounter();
+         cache2.getAdvancedCache().addInterceptor(counter, 0);
+         startTransfer.countDown();
+         TestingUtil.waitForRehashToComplete(cache1, cache2);
+
+         // the transaction table listens to the cache, but it doesn't need a command for each entry
+         assertEquals(0, counter.puts.get());
+         verifyInitialDataOnLoader(cache2);
+         verifyInitialData(cache2);
+      } finally {
+         startTransfer.countDown();
+      }
+   }
+
+   public void testLockedKeysAreAppliedEntryByEntry() throws Exception {
+      CountDownLatch startTransfer = new CountDownLatch(1);
+      try {
+         Cache<Object, Object> cache1 = createCacheManager().getCache(cacheName);
+         writeInitialData(cache1);
+         wrapPerCacheInboundInvocationHandler(cache1,
+               (cache, current) -> new DelayingStateRequestHandler(current, startTransfer), false);
+
+         // the joiner must lock a key before its state arrives
+         configurationBuilder.clustering().stateTransfer().awaitInitialTransfer(false);
+         Cache<Object, Object> cache2 = createCacheManager().getCache(cacheName);
+         StateAppliedInterceptor interceptor = new StateAppliedInterceptor(A_B_NAME);
+         cache2.getAdvancedCache().addInterceptor(interceptor, 0);
+
+         LockManager lockManager = extractLockManager(cache2);
+         lockManager.lock(A_B_NAME, "lock owner", 0, TimeUnit.MILLISECONDS).lock();
+         try {
+            startTransfer.countDown();
+            // the chunk with the locked key is applied with commands, which wait for the lock
+            assertTrue(interceptor.applied.await(10, TimeUnit.SECONDS));
+         } finally {
+            lockManager.unlock(A_B_NAME, "lock owner");
+         }
+         TestingUtil.waitForRehashToComplete(cache1, cache2);
+
+         verifyInitialDataOnLoader(cache2);
+         verifyInitialData(cache2);
+      } finally {
+         startTransfer.countDown();
+      }
+   }
+
+   static class StateTransferPutCounter extends CommandInterceptor {
+      final AtomicInteger puts = new AtomicInteger();
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         if (command.hasFlag(Flag.PUT_FOR_STATE_TRANSFER)) {
+            puts.incrementAndGet();
+         }
+         return super.visitPutKeyValueCommand(ctx, command);
+      }
+   }
+}
@@ -0,0 +1,22 @@
+package org.infinispan.statetransfer;
+
+import org.testng.annotations.Test;
+
+/**
+ * Same as {@link StateTransferFunctionalTest}, but the chunks are bounded by bytes, compressed and several of them are
+ * sent without waiting for the previous ones to be applied.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferCompressedChunksFunctionalTest")
+public class StateTransferCompressedChunksFunctionalTest extends StateTransferFunctionalTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      super.createCacheManagers();
+      configurationBuilder.clustering().stateTransfer()
+            .chunkBytes(512)
+            .compression(true)
+            .maxInFlightChunks(4);
+   }
+}
@@ -0,0 +1,91 @@
+package org.infinispan.statetransfer;
+
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_B_AGE;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_B_NAME;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_C_AGE;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_C_NAME;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.BOB;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.FORTY;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.TWENTY;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.verifyInitialData;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.writeInitialData;
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.infinispan.Cache;
+import org.infinispan.container.DataContainer;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Same as {@link StateTransferFileCacheLoaderFunctionalTest}, but the joiners send the digests of the entries they
+ * already hold in their store.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferDigestFunctionalTest")
+public class StateTransferDigestFunctionalTest extends StateTransferFileCacheLoaderFunctionalTest {
+
+   private static final List<Object> UNCHANGED_KEYS = Arrays.asList(A_B_AGE, A_C_NAME, A_C_AGE);
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      super.createCacheManagers();
+      configurationBuilder.clustering().stateTransfer().digestBuckets(16);
+   }
+
+   public void testRestartWithWarmStore() throws Exception {
+      CacheContainer cm1 = null, cm2 = null;
+      try {
+         cm1 = createCacheManager(tmpDirectory1);
+         Cache<Object, Object> cache1 = cm1.getCache(cacheName);
+         writeInitialData(cache1);
+
+         cm2 = createCacheManager(tmpDirectory2);
+         Cache<Object, Object> cache2 = cm2.getCache(cacheName);
+         TestingUtil.blockUntilViewsReceived(60000, cache1, cache2);
+         TestingUtil.waitForRehashToComplete(cache1, cache2);
+         verifyInitialData(cache2);
+
+         // the store of the second node survives the restart, only one entry changes meanwhile
+         cm2.stop();
+         TestingUtil.blockUntilViewsReceived(60000, false, cache1);
+         TestingUtil.waitForRehashToComplete(cache1);
+         cache1.put(A_B_NAME, "JOHN");
+
+         cm2 = createCacheManager(tmpDirectory2);
+         cache2 = cm2.getCache(cacheName);
+         TestingUtil.blockUntilViewsReceived(60000, cache1, cache2);
+         TestingUtil.waitForRehashToComplete(cache1, cache2);
+
+         // the received entries are stored in memory, the skipped ones are only in the store
+         DataContainer dataContainer = cache2.getAdvancedCache().getDataContainer();
+         assertEquals("JOHN", dataContainer.get(A_B_NAME).getValue());
+         ConsistentHash ch = extractComponent(cache2, StateTransferManager.class).getCacheTopology().getReadConsistentHash();
+         int skippedKeys = 0;
+         for (Object key : UNCHANGED_KEYS) {
+            // the digest of the segment of the changed key differs, its other keys may be sent again
+            if (ch.getSegment(key) != ch.getSegment(A_B_NAME)) {
+               assertFalse("Key " + key + " should not have been sent again", dataContainer.containsKey(key));
+               skippedKeys++;
+            }
+         }
+         assertTrue(skippedKeys > 0);
+
+         assertEquals("JOHN", cache2.get(A_B_NAME));
+         assertEquals(TWENTY, cache2.get(A_B_AGE));
+         assertEquals(BOB, cache2.get(A_C_NAME));
+         assertEquals(FORTY, cache2.get(A_C_AGE));
+      } finally {
+         if (cm1 != null) cm1.stop();
+         if (cm2 != null) cm2.stop();
+      }
+   }
+}
@@ -0,0 +1,166 @@
+package org.infinispan.statetransfer;
+
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_B_AGE;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_B_NAME;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_C_AGE;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.A_C_NAME;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.verifyInitialData;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.verifyInitialDataOnLoader;
+import static org.infinispan.statetransfer.StateTransferTestingUtil.writeInitialData;
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.infinispan.test.TestingUtil.extractLockManager;
+import static org.infinispan.test.TestingUtil.wrapPerCacheInboundInvocationHandler;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.container.DataContainer;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.inboundhandler.PerCacheInboundInvocationHandler;
+import org.infinispan.remoting.inboundhandler.Reply;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Same as {@link StateTransferFileCacheLoaderFunctionalTest}, but the entries of the single file store are transferred
+ * as store records.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferStoreRecordsFunctionalTest")
+public class StateTransferStoreRecordsFunctionalTest extends StateTransferFileCacheLoaderFunctionalTest {
+
+   private static final List<Object> KEYS = Arrays.asList(A_B_NAME, A_B_AGE, A_C_NAME, A_C_AGE);
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      super.createCacheManagers();
+      configurationBuilder.clustering().stateTransfer().transferStoreRecords(true);
+   }
+
+   public void testStoreRecordsAreImported() throws Exception {
+      CacheContainer cm1 = null, cm2 = null;
+      try {
+         cm1 = createCacheManager(tmpDirectory1);
+         Cache<Object, Object> cache1 = cm1.getCache(cacheName);
+         // the entries are only in the store, so they are sent as records
+         writeInitialData(cache1);
+
+         cm2 = createCacheManager(tmpDirectory2);
+         Cache<Object, Object> cache2 = cm2.getCache(cacheName);
+         TestingUtil.blockUntilViewsReceived(60000, cache1, cache2);
+         TestingUtil.waitForRehashToComplete(cache1, cache2);
+
+         // the records are imported in the store, applying them as entries would have stored them in memory too
+         DataContainer dataContainer = cache2.getAdvancedCache().getDataContainer();
+         for (Object key : KEYS) {
+            assertFalse(dataContainer.containsKey(key));
+         }
+         verifyInitialDataOnLoader(cache2);
+         verifyInitialData(cache2);
+      } finally {
+         if (cm1 != null) cm1.stop();
+         if (cm2 != null) cm2.stop();
+      }
+   }
+
+   public void testLockedKeysAreAppliedAsEntries() throws Exception {
+      CacheContainer cm1 = null, cm2 = null;
+      CountDownLatch startTransfer = new CountDownLatch(1);
+      try {
+         cm1 = createCacheManager(tmpDirectory1);
+         Cache<Object, Object> cache1 = cm1.getCache(cacheName);
+         writeInitialData(cache1);
+         wrapPerCacheInboundInvocationHandler(cache1,
+               (cache, current) -> new DelayingStateRequestHandler(current, startTransfer), false);
+
+         // the joiner must lock a key before its state arrives
+         configurationBuilder.clustering().stateTransfer().awaitInitialTransfer(false);
+         cm2 = createCacheManager(tmpDirectory2);
+         Cache<Object, Object> cache2 = cm2.getCache(cacheName);
+         StateAppliedInterceptor interceptor = new StateAppliedInterceptor(A_B_NAME);
+         cache2.getAdvancedCache().addInterceptor(interceptor, 0);
+
+         LockManager lockManager = extractLockManager(cache2);
+         lockManager.lock(A_B_NAME, "lock owner", 0, TimeUnit.MILLISECONDS).lock();
+         try {
+            startTransfer.countDown();
+            // the record of the locked key is applied through the interceptor chain, which waits for the lock
+            assertTrue(interceptor.applied.await(10, TimeUnit.SECONDS));
+         } finally {
+            lockManager.unlock(A_B_NAME, "lock owner");
+         }
+         TestingUtil.waitForRehashToComplete(cache1, cache2);
+
+         DataContainer dataContainer = cache2.getAdvancedCache().getDataContainer();
+         ConsistentHash ch = extractComponent(cache2, StateTransferManager.class).getCacheTopology().getReadConsistentHash();
+         eventually(() -> dataContainer.containsKey(A_B_NAME));
+         for (Object key : KEYS) {
+            // the records of the other segments were imported in the store only
+            if (ch.getSegment(key) != ch.getSegment(A_B_NAME)) {
+               assertFalse(dataContainer.containsKey(key));
+            }
+         }
+         verifyInitialDataOnLoader(cache2);
+         verifyInitialData(cache2);
+      } finally {
+         startTransfer.countDown();
+         configurationBuilder.clustering().stateTransfer().awaitInitialTransfer(true);
+         if (cm1 != null) cm1.stop();
+         if (cm2 != null) cm2.stop();
+      }
+   }
+
+   static class DelayingStateRequestHandler implements PerCacheInboundInvocationHandler {
+      private final PerCacheInboundInvocationHandler delegate;
+      private final CountDownLatch latch;
+
+      DelayingStateRequestHandler(PerCacheInboundInvocationHandler delegate, CountDownLatch latch) {
+         this.delegate = delegate;
+         this.latch = latch;
+      }
+
+      @Override
+      public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
+         if (command instanceof StateRequestCommand &&
+               ((StateRequestCommand) command).getType() == StateRequestCommand.Type.START_STATE_TRANSFER) {
+            try {
+               latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+         delegate.handle(command, reply, order);
+      }
+   }
+
+   static class StateAppliedInterceptor extends CommandInterceptor {
+      private final Object key;
+      final CountDownLatch applied = new CountDownLatch(1);
+
+      StateAppliedInterceptor(Object key) {
+         this.key = key;
+      }
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         if (command.hasFlag(Flag.PUT_FOR_STATE_TRANSFER) && key.equals(command.getKey())) {
+            applied.countDown();
+         }
+         return super.visitPutKeyValueCommand(ctx, command);
+      }
+   }
+}
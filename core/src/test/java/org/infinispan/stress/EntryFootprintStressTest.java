@@ -0,0 +1,64 @@
+package org.infinispan.stress;
+
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.function.LongFunction;
+
+import org.infinispan.container.InternalEntryFactoryImpl;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataImmortalCacheEntry;
+import org.infinispan.container.versioning.SimpleClusteredVersion;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.DefaultTimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the heap used by the entries of a large cache, comparing versioned entries that reference their metadata
+ * with the ones that inline the version. The number of entries defaults to 10 million and can be changed with the
+ * {@code infinispan.stress.footprint.entries} system property; the test should be run with enough heap to hold them.
+ *
+ * @since 9.0
+ */
+@Test(testName = "stress.EntryFootprintStressTest", groups = "stress",
+      description = "Disabled by default, designed to be run manually.")
+public class EntryFootprintStressTest {
+   private static final Log log = LogFactory.getLog(EntryFootprintStressTest.class);
+   private static final int NUM_ENTRIES = Integer.getInteger("infinispan.stress.footprint.entries", 10_000_000);
+
+   public void testVersionedEntryFootprint() {
+      InternalEntryFactoryImpl factory = new InternalEntryFactoryImpl();
+      factory.injectTimeService(new DefaultTimeService());
+      String value = "value";
+
+      long referenced = measure("metadata", i -> new MetadataImmortalCacheEntry(i, value, versionedMetadata(i)));
+      long inlined = measure("inlined", i -> factory.create(i, value, versionedMetadata(i)));
+      assertTrue("Inlined entries used " + inlined + " bytes, metadata entries " + referenced, inlined < referenced);
+   }
+
+   private static Metadata versionedMetadata(long i) {
+      return new EmbeddedMetadata.Builder().version(new SimpleClusteredVersion(1, i)).build();
+   }
+
+   private long measure(String name, LongFunction<InternalCacheEntry> entryCreator) {
+      InternalCacheEntry[] entries = new InternalCacheEntry[NUM_ENTRIES];
+      long before = usedMemory();
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         entries[i] = entryCreator.apply(i);
+      }
+      long used = usedMemory() - before;
+      // The keys are boxed longs which are the same for both layouts
+      log.infof("%s entries: %d bytes in total, %d bytes per entry", name, used, used / entries.length);
+      return used;
+   }
+
+   private static long usedMemory() {
+      Runtime runtime = Runtime.getRuntime();
+      for (int i = 0; i < 3; i++) {
+         System.gc();
+      }
+      return runtime.totalMemory() - runtime.freeMemory();
+   }
+}
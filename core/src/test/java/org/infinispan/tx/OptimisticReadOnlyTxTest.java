@@ -31,7 +31,8 @@ protected void configure(ConfigurationBuilder builder) {
 
    @Override
    protected int numberCommitCommand() {
-      //with optimistic locking, the transactions are committed in 2 phases. So 1 CommitCommand is expected
-      return 1;
+      //with optimistic locking, the transactions are committed in 2 phases. So 1 CommitCommand is expected, unless
+      //the read-only transaction isn't tracked at all
+      return isReadOnlyFastPath() ? 0 : 1;
    }
 }
@@ -18,6 +18,7 @@
 import org.infinispan.transaction.LockingMode;
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.LocalXaTransaction;
+import org.infinispan.util.concurrent.IsolationLevel;
 import org.testng.AssertJUnit;
 import org.testng.annotations.Test;
 
@@ -46,7 +47,26 @@ public void testSimpleReadOnlTx() throws Exception {
       assert cache.get("k") == null;
       Transaction transaction = tm().suspend();
       LocalXaTransaction localTransaction = (LocalXaTransaction) txTable().getLocalTransaction(transaction);
-      assert localTransaction != null && localTransaction.isReadOnly();
+      if (isReadOnlyFastPath()) {
+         assert localTransaction == null;
+         AssertJUnit.assertEquals(1, txTable().getReadOnlyFastPathReads());
+      } else {
+         assert localTransaction != null && localTransaction.isReadOnly();
+      }
+   }
+
+   public void testReadOnlyFastPathUntilFirstWrite() throws Exception {
+      cache.put("k", "v1");
+      tm().begin();
+      AssertJUnit.assertEquals("v1", cache.get("k"));
+      AssertJUnit.assertEquals(isReadOnlyFastPath(), txTable().getLocalTransaction(tm().getTransaction()) == null);
+      cache.put("k", "v2");
+      AssertJUnit.assertEquals("v2", cache.get("k"));
+      LocalXaTransaction localTransaction = (LocalXaTransaction) txTable().getLocalTransaction(tm().getTransaction());
+      assert localTransaction != null && !localTransaction.isReadOnly();
+      tm().commit();
+      AssertJUnit.assertEquals("v2", cache.get("k"));
+      AssertJUnit.assertEquals(0, txTable().getLocalTxCount());
    }
 
    public void testNotROWhenHasWrites() throws Exception {
@@ -93,6 +113,11 @@ protected int numberCommitCommand() {
       return 0;
    }
 
+   protected boolean isReadOnlyFastPath() {
+      //with read committed, reads before the first write don't create a local transaction
+      return cache.getCacheConfiguration().locking().isolationLevel() == IsolationLevel.READ_COMMITTED;
+   }
+
    private TransactionTable txTable() {
       return TestingUtil.getTransactionTable(cache);
    }
@@ -0,0 +1,129 @@
+package org.infinispan.tx;
+
+import static org.infinispan.test.TestingUtil.extractLockManager;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.RollbackException;
+import javax.transaction.TransactionManager;
+
+import org.infinispan.commands.tx.CommitCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.tm.BatchModeTransactionManager;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a batch is only committed in one phase by a single owner if the cache is the only participant of the
+ * batch, the batching transaction manager being shared by all the caches.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "tx.SingleOwnerOnePhaseCommitBatchingTest")
+@CleanupAfterMethod
+public class SingleOwnerOnePhaseCommitBatchingTest extends MultipleCacheManagersTest {
+
+   private TxCheckInterceptor interceptor;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder config = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      config.clustering().hash().numOwners(1);
+      config.invocationBatching().enable();
+      config.transaction().transactionManagerLookup(BatchModeTransactionManager::getInstance)
+            .lockingMode(LockingMode.OPTIMISTIC).use1PcForSingleOwnerTransactions(true);
+      config.locking().lockAcquisitionTimeout(500);
+      createCluster(config, 3);
+      waitForClusterToForm();
+
+      interceptor = new TxCheckInterceptor();
+      advancedCache(2).addInterceptor(interceptor, 1);
+   }
+
+   public void testBatchWithSingleParticipant() throws Exception {
+      Object k1 = getKeyForCache(2);
+      Object k2 = getKeyForCache(2);
+
+      cache(0).startBatch();
+      cache(0).put(k1, "v1");
+      cache(0).put(k2, "v2");
+      cache(0).endBatch(true);
+
+      assertEquals(1, interceptor.remotePrepares);
+      assertEquals(0, interceptor.remoteCommits);
+      assertEquals("v1", cache(2).get(k1));
+      assertEquals("v2", cache(2).get(k2));
+   }
+
+   public void testTransactionWithTwoParticipants() throws Exception {
+      Object k1 = getKeyForCache(2);
+      Object k2 = getKeyForCache(2);
+
+      TransactionManager tm = tm(0);
+      assertTrue(tm instanceof BatchModeTransactionManager);
+      tm.begin();
+      cache(0).put(k1, "v1");
+      cache(1).put(k2, "v2");
+      tm.commit();
+
+      // Both caches send their prepare before the transaction manager commits any of them
+      assertEquals(2, interceptor.remotePrepares);
+      assertEquals(2, interceptor.remoteCommits);
+      assertEquals("v1", cache(2).get(k1));
+      assertEquals("v2", cache(2).get(k2));
+   }
+
+   public void testOwnerFailsToLockWithTwoParticipants() throws Exception {
+      Object k1 = getKeyForCache(2);
+      Object k2 = getKeyForCache(2);
+
+      LockManager lockManager = extractLockManager(cache(2));
+      lockManager.lock(k1, "lock owner", 0, TimeUnit.MILLISECONDS).lock();
+      try {
+         TransactionManager tm = tm(0);
+         tm.begin();
+         cache(0).put(k1, "v1");
+         cache(1).put(k2, "v2");
+         try {
+            tm.commit();
+            fail("The transaction should have been rolled back");
+         } catch (RollbackException e) {
+            // expected
+         }
+         assertEquals(0, interceptor.remoteCommits);
+      } finally {
+         lockManager.unlock(k1, "lock owner");
+      }
+      // The other participant must not have committed
+      assertNull(cache(2).get(k1));
+      assertNull(cache(2).get(k2));
+   }
+
+   private static class TxCheckInterceptor extends CommandInterceptor {
+      private volatile int remotePrepares;
+      private volatile int remoteCommits;
+
+      @Override
+      public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
+         if (!ctx.isOriginLocal()) remotePrepares++;
+         return super.visitPrepareCommand(ctx, command);
+      }
+
+      @Override
+      public Object visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
+         if (!ctx.isOriginLocal()) remoteCommits++;
+         return super.visitCommitCommand(ctx, command);
+      }
+   }
+}
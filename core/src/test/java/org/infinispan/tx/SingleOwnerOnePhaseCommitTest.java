@@ -0,0 +1,177 @@
+package org.infinispan.tx;
+
+import static org.infinispan.test.TestingUtil.extractLockManager;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.RollbackException;
+
+import org.infinispan.commands.tx.CommitCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that optimistic transactions whose keys are owned by a single node are committed in one phase.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "tx.SingleOwnerOnePhaseCommitTest")
+@CleanupAfterMethod
+public class SingleOwnerOnePhaseCommitTest extends MultipleCacheManagersTest {
+
+   private TxCheckInterceptor i1;
+   private TxCheckInterceptor i2;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder config = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      config.clustering().hash().numOwners(1);
+      config.transaction().lockingMode(LockingMode.OPTIMISTIC).use1PcForSingleOwnerTransactions(true);
+      config.locking().lockAcquisitionTimeout(500);
+      createCluster(config, 3);
+      waitForClusterToForm();
+
+      i1 = new TxCheckInterceptor();
+      i2 = new TxCheckInterceptor();
+      advancedCache(1).addInterceptor(i1, 1);
+      advancedCache(2).addInterceptor(i2, 1);
+   }
+
+   public void testSingleOwnerAutoCommit() throws Exception {
+      Object k1 = getKeyForCache(2);
+      Object k2 = getKeyForCache(2);
+      Map<Object, Object> entries = new HashMap<>();
+      entries.put(k1, "v1");
+      entries.put(k2, "v2");
+
+      cache(0).putAll(entries);
+
+      assertEquals(1, i2.remotePrepares);
+      assertEquals(0, i2.remoteCommits);
+      assertEquals(0, i1.remotePrepares);
+      assertEquals("v1", cache(2).get(k1));
+      assertEquals("v2", cache(2).get(k2));
+      assertNoTransactionsOrLocks(k1, k2);
+   }
+
+   public void testSingleOwnerExplicitTransaction() throws Exception {
+      Object k1 = getKeyForCache(2);
+      Object k2 = getKeyForCache(2);
+
+      // The transaction manager may have other participants, the owner must vote in the prepare
+      tm(0).begin();
+      cache(0).put(k1, "v1");
+      cache(0).put(k2, "v2");
+      tm(0).commit();
+
+      assertEquals(1, i2.remotePrepares);
+      assertEquals(1, i2.remoteCommits);
+      assertEquals("v1", cache(2).get(k1));
+      assertEquals("v2", cache(2).get(k2));
+      assertNoTransactionsOrLocks(k1, k2);
+   }
+
+   public void testOwnerFailsToLock() throws Exception {
+      Object k1 = getKeyForCache(2);
+      cache(2).put(k1, "v0");
+      i2.reset();
+
+      LockManager lockManager = extractLockManager(cache(2));
+      lockManager.lock(k1, "lock owner", 0, TimeUnit.MILLISECONDS).lock();
+      try {
+         tm(0).begin();
+         cache(0).put(k1, "v1");
+         // The failure to lock must be reported by the prepare, before the transaction manager decides the outcome
+         try {
+            tm(0).commit();
+            fail("The transaction should have been rolled back");
+         } catch (RollbackException e) {
+            // expected
+         }
+         assertEquals(1, i2.remotePrepares);
+         assertEquals(0, i2.remoteCommits);
+      } finally {
+         lockManager.unlock(k1, "lock owner");
+      }
+      assertEquals("v0", cache(2).get(k1));
+      assertNoTransactionsOrLocks(k1);
+   }
+
+   public void testMultipleOwners() throws Exception {
+      Object k1 = getKeyForCache(1);
+      Object k2 = getKeyForCache(2);
+
+      tm(0).begin();
+      cache(0).put(k1, "v1");
+      cache(0).put(k2, "v2");
+      tm(0).commit();
+
+      assertEquals(1, i1.remotePrepares);
+      assertEquals(1, i1.remoteCommits);
+      assertEquals(1, i2.remotePrepares);
+      assertEquals(1, i2.remoteCommits);
+      assertEquals("v1", cache(1).get(k1));
+      assertEquals("v2", cache(2).get(k2));
+      assertNoTransactionsOrLocks(k1, k2);
+   }
+
+   public void testRollback() throws Exception {
+      Object k1 = getKeyForCache(2);
+      cache(2).put(k1, "v0");
+      i2.reset();
+
+      tm(0).begin();
+      cache(0).put(k1, "v1");
+      tm(0).rollback();
+
+      assertEquals(0, i2.remotePrepares);
+      assertEquals("v0", cache(2).get(k1));
+      assertNoTransactionsOrLocks(k1);
+   }
+
+   private void assertNoTransactionsOrLocks(Object... keys) {
+      for (int i = 0; i < 3; i++) {
+         final int index = i;
+         eventually(() -> TestingUtil.getTransactionTable(cache(index)).getRemoteTxCount() == 0 &&
+               TestingUtil.getTransactionTable(cache(index)).getLocalTxCount() == 0);
+         for (Object key : keys) {
+            assertFalse(extractLockManager(cache(i)).isLocked(key));
+         }
+      }
+   }
+
+   private static class TxCheckInterceptor extends CommandInterceptor {
+      private volatile int remotePrepares;
+      private volatile int remoteCommits;
+
+      @Override
+      public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
+         if (!ctx.isOriginLocal()) remotePrepares++;
+         return super.visitPrepareCommand(ctx, command);
+      }
+
+      @Override
+      public Object visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
+         if (!ctx.isOriginLocal()) remoteCommits++;
+         return super.visitCommitCommand(ctx, command);
+      }
+
+      void reset() {
+         remotePrepares = remoteCommits = 0;
+      }
+   }
+}
@@ -61,7 +61,7 @@ public void setUp() throws XAException {
       CommandsFactory commandsFactory = mock(CommandsFactory.class);
       InterceptorChain invoker = mock(InterceptorChain.class);
       txCoordinator = new TransactionCoordinator();
-      txCoordinator.init(commandsFactory, icf, invoker, txTable, null, configuration);
+      txCoordinator.init(commandsFactory, icf, invoker, txTable, null, configuration, null, null);
       xaAdapter = new TransactionXaAdapter(localTx, txTable);
 
       xaAdapter.start(xid, 0);
@@ -109,13 +109,13 @@ public void testPrepareTxMarkedForRollback() {
 
    public void testOnePhaseCommitConfigured() throws XAException {
       Configuration configuration = new ConfigurationBuilder().clustering().cacheMode(CacheMode.INVALIDATION_ASYNC).build();
-      txCoordinator.init(null, null, null, null, null, configuration);
+      txCoordinator.init(null, null, null, null, null, configuration, null);
       assert XAResource.XA_OK == xaAdapter.prepare(xid);
    }
 
    public void test1PcAndNonExistentXid() {
       Configuration configuration = new ConfigurationBuilder().clustering().cacheMode(CacheMode.INVALIDATION_ASYNC).build();
-      txCoordinator.init(null, null, null, null, null, configuration);
+      txCoordinator.init(null, null, null, null, null, configuration, null);
       try {
          DummyXid doesNotExists = new DummyXid(uuid);
          xaAdapter.commit(doesNotExists, false);
@@ -127,7 +127,7 @@ public void test1PcAndNonExistentXid() {
 
    public void test1PcAndNonExistentXid2() {
       Configuration configuration = new ConfigurationBuilder().clustering().cacheMode(CacheMode.DIST_SYNC).build();
-      txCoordinator.init(null, null, null, null, null, configuration);
+      txCoordinator.init(null, null, null, null, null, configuration, null);
       try {
          DummyXid doesNotExists = new DummyXid(uuid);
          xaAdapter.commit(doesNotExists, true);
@@ -0,0 +1,64 @@
+package org.infinispan.util.concurrent;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link CommandAckCollector} only completes a command with the acknowledgements of its topology.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "util.concurrent.CommandAckCollectorTest")
+public class CommandAckCollectorTest extends AbstractInfinispanTest {
+   private static final TestAddress A = new TestAddress(0, "A");
+   private static final TestAddress B = new TestAddress(1, "B");
+   private static final TestAddress C = new TestAddress(2, "C");
+
+   public void testAllBackupsAcknowledged() throws Exception {
+      CommandAckCollector ackCollector = new CommandAckCollector();
+      CommandInvocationId id = CommandInvocationId.generateId(A);
+      CommandAckCollector.Collector collector = ackCollector.create(id, Arrays.asList(B, C), 5);
+      ackCollector.backupAck(id, B, 5);
+      ackCollector.backupAck(id, C, 5);
+      collector.await(10, TimeUnit.SECONDS);
+      assertEquals(0, ackCollector.size());
+   }
+
+   public void testOlderTopologyAckIsIgnored() throws Exception {
+      CommandAckCollector ackCollector = new CommandAckCollector();
+      CommandInvocationId id = CommandInvocationId.generateId(A);
+      CommandAckCollector.Collector collector = ackCollector.create(id, Arrays.asList(B), 5);
+      // sent by the backup owner of a previous attempt
+      ackCollector.backupAck(id, B, 4);
+      ackCollector.backupFailed(id, B, 4, new IllegalStateException());
+      ackCollector.backupAck(id, B, 5);
+      collector.await(10, TimeUnit.SECONDS);
+   }
+
+   @Test(expectedExceptions = OutdatedTopologyException.class)
+   public void testNewerTopologyAckFailsCommand() throws Exception {
+      CommandAckCollector ackCollector = new CommandAckCollector();
+      CommandInvocationId id = CommandInvocationId.generateId(A);
+      CommandAckCollector.Collector collector = ackCollector.create(id, Arrays.asList(B), 5);
+      // the primary owner sent the command to the backup owners of a topology the originator does not know
+      ackCollector.backupAck(id, C, 6);
+      collector.await(10, TimeUnit.SECONDS);
+   }
+
+   @Test(expectedExceptions = OutdatedTopologyException.class)
+   public void testNewerTopologyFailureFailsCommandWithOutdatedTopology() throws Exception {
+      CommandAckCollector ackCollector = new CommandAckCollector();
+      CommandInvocationId id = CommandInvocationId.generateId(A);
+      CommandAckCollector.Collector collector = ackCollector.create(id, Arrays.asList(B), 5);
+      ackCollector.backupFailed(id, C, 6, new IllegalStateException());
+      collector.await(10, TimeUnit.SECONDS);
+   }
+}
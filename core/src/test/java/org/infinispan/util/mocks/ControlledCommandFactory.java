@@ -22,6 +22,7 @@
 import org.infinispan.Cache;
 import org.infinispan.atomic.Delta;
 import org.infinispan.commands.CancelCommand;
+import org.infinispan.commands.CommandInvocationId;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.CreateCacheCommand;
 import org.infinispan.commands.ReplicableCommand;
@@ -44,9 +45,13 @@
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
+import org.infinispan.commands.remote.BackupAckCommand;
+import org.infinispan.commands.remote.BackupWriteRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.RemoveExpiredBatchCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -59,6 +64,7 @@
 import org.infinispan.commands.tx.VersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -256,6 +262,27 @@ public SingleRpcCommand buildSingleRpcCommand(ReplicableCommand call) {
       return actual.buildSingleRpcCommand(call);
    }
 
+   @Override
+   public RemoveExpiredBatchCommand buildRemoveExpiredBatchCommand(Collection<RemoveExpiredCommand> commands) {
+      return actual.buildRemoveExpiredBatchCommand(commands);
+   }
+
+   @Override
+   public BackupWriteRpcCommand buildBackupWriteRpcCommand(DataWriteCommand command, Address originator,
+         int topologyId) {
+      return actual.buildBackupWriteRpcCommand(command, originator, topologyId);
+   }
+
+   @Override
+   public BackupAckCommand buildBackupAckCommand(CommandInvocationId id, int topologyId, Throwable throwable) {
+      return actual.buildBackupAckCommand(id, topologyId, throwable);
+   }
+
+   @Override
+   public SegmentSizeCommand buildSegmentSizeCommand(Set<Integer> segments) {
+      return actual.buildSegmentSizeCommand(segments);
+   }
+
    @Override
    public ClusteredGetCommand buildClusteredGetCommand(Object key, long flagsBitSet, boolean acquireRemoteLock, GlobalTransaction gtx) {
       return actual.buildClusteredGetCommand(key, flagsBitSet, acquireRemoteLock, gtx);
@@ -0,0 +1,241 @@
+package org.infinispan.marshall.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.infinispan.commons.marshall.GenerateExternalizer;
+import org.infinispan.commons.marshall.GeneratedExternalizer;
+import org.kohsuke.MetaInfServices;
+
+/**
+ * Generates a {@link GeneratedExternalizer} for each class annotated with {@link GenerateExternalizer}, and lists them
+ * in {@code META-INF/services/org.infinispan.commons.marshall.GeneratedExternalizer} so that the global marshaller
+ * registers them.
+ * <p/>
+ * The service file only lists the externalizers generated by the current compilation, so a module whose annotated
+ * classes are compiled incrementally must be rebuilt entirely before it is packaged.
+ *
+ * @since 9.0
+ */
+@MetaInfServices(Processor.class)
+@SupportedAnnotationTypes("org.infinispan.commons.marshall.GenerateExternalizer")
+public class ExternalizerProcessor extends AbstractProcessor {
+
+   static final String SERVICE_FILE = "META-INF/services/" + GeneratedExternalizer.class.getName();
+
+   static final String SUFFIX = "_Externalizer";
+
+   private final Set<String> generated = new TreeSet<>();
+
+   @Override
+   public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+   }
+
+   @Override
+   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(GenerateExternalizer.class)) {
+         TypeElement type = (TypeElement) element;
+         List<MarshalledField> fields = new ArrayList<>();
+         boolean valid = validateType(type);
+         // report the invalid fields even if the class is invalid too
+         valid = collectFields(type, fields) && valid;
+         if (valid) {
+            generate(type, fields);
+         }
+      }
+      if (roundEnv.processingOver() && !generated.isEmpty()) {
+         writeServiceFile();
+      }
+      return true;
+   }
+
+   private boolean validateType(TypeElement type) {
+      boolean valid = true;
+      if (type.getKind() != ElementKind.CLASS) {
+         error(type, "@GenerateExternalizer can only be used on classes");
+         return false;
+      }
+      if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+         error(type, "@GenerateExternalizer cannot be used on abstract classes");
+         valid = false;
+      }
+      for (Element e = type; e.getKind().isClass(); e = e.getEnclosingElement()) {
+         TypeElement t = (TypeElement) e;
+         if (t.getNestingKind() != NestingKind.TOP_LEVEL && t.getNestingKind() != NestingKind.MEMBER
+               || t.getNestingKind() == NestingKind.MEMBER && !t.getModifiers().contains(Modifier.STATIC)) {
+            error(type, "@GenerateExternalizer can only be used on top level or static nested classes");
+            valid = false;
+            break;
+         }
+         if (t.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, "@GenerateExternalizer cannot be used on private classes");
+            valid = false;
+            break;
+         }
+      }
+      boolean hasConstructor = false;
+      for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+         if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            hasConstructor = true;
+         }
+      }
+      if (!hasConstructor) {
+         error(type, "A class annotated with @GenerateExternalizer needs a non-private constructor without parameters");
+         valid = false;
+      }
+      if (type.getAnnotation(GenerateExternalizer.class).id() < 0) {
+         error(type, "The id of a generated externalizer cannot be negative");
+         valid = false;
+      }
+      return valid;
+   }
+
+   /**
+    * Collects the fields to marshall, those of the superclasses first.
+    */
+   private boolean collectFields(TypeElement type, List<MarshalledField> fields) {
+      List<TypeElement> hierarchy = new ArrayList<>();
+      for (TypeElement t = type; t != null; t = superclass(t)) {
+         hierarchy.add(0, t);
+      }
+
+      boolean valid = true;
+      PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+      for (TypeElement declaringType : hierarchy) {
+         for (VariableElement field : ElementFilter.fieldsIn(declaringType.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+               continue;
+            }
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+               error(field, "Field %s of %s cannot be private or final, make it transient to skip it", field.getSimpleName(),
+                     declaringType.getQualifiedName());
+               valid = false;
+            } else if (!modifiers.contains(Modifier.PUBLIC)
+                  && !processingEnv.getElementUtils().getPackageOf(declaringType).equals(pkg)) {
+               error(type, "Field %s of %s is not accessible from package %s", field.getSimpleName(),
+                     declaringType.getQualifiedName(), pkg.getQualifiedName());
+               valid = false;
+            } else {
+               fields.add(new MarshalledField(field, declaringType == type ? null : declaringType, kindOf(field.asType())));
+            }
+         }
+      }
+      return valid;
+   }
+
+   private TypeElement superclass(TypeElement type) {
+      TypeMirror superclass = type.getSuperclass();
+      if (superclass.getKind() != TypeKind.DECLARED) {
+         return null;
+      }
+      TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+      return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+   }
+
+   private FieldKind kindOf(TypeMirror type) {
+      switch (type.getKind()) {
+         case BOOLEAN:
+            return FieldKind.BOOLEAN;
+         case BYTE:
+            return FieldKind.BYTE;
+         case SHORT:
+            return FieldKind.SHORT;
+         case CHAR:
+            return FieldKind.CHAR;
+         case INT:
+            return FieldKind.INT;
+         case LONG:
+            return FieldKind.LONG;
+         case FLOAT:
+            return FieldKind.FLOAT;
+         case DOUBLE:
+            return FieldKind.DOUBLE;
+         case ARRAY:
+            TypeMirror byteArray = processingEnv.getTypeUtils().getArrayType(
+                  processingEnv.getTypeUtils().getPrimitiveType(TypeKind.BYTE));
+            return processingEnv.getTypeUtils().isSameType(type, byteArray) ? FieldKind.BYTE_ARRAY : FieldKind.OBJECT;
+         case DECLARED:
+            Element element = ((DeclaredType) type).asElement();
+            if (element.getKind() == ElementKind.ENUM) {
+               return FieldKind.ENUM;
+            }
+            if (((TypeElement) element).getQualifiedName().contentEquals(String.class.getName())) {
+               return FieldKind.STRING;
+            }
+            return FieldKind.OBJECT;
+         default:
+            return FieldKind.OBJECT;
+      }
+   }
+
+   private void generate(TypeElement type, List<MarshalledField> fields) {
+      String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+      String simpleName = externalizerSimpleName(type);
+      String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+      ExternalizerWriter writer = new ExternalizerWriter(processingEnv.getTypeUtils(), packageName, simpleName,
+            type.getQualifiedName().toString(), type.getAnnotation(GenerateExternalizer.class).id(), fields);
+      try (Writer out = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+         out.write(writer.write());
+         generated.add(qualifiedName);
+      } catch (IOException e) {
+         error(type, "Failed to generate %s: %s", qualifiedName, e.getMessage());
+      }
+   }
+
+   /**
+    * @return the name of the externalizer of a class, {@code Outer_Inner_Externalizer} for a nested class
+    */
+   static String externalizerSimpleName(TypeElement type) {
+      StringBuilder sb = new StringBuilder(type.getSimpleName());
+      for (Element e = type.getEnclosingElement(); e.getKind().isClass(); e = e.getEnclosingElement()) {
+         sb.insert(0, '_').insert(0, e.getSimpleName());
+      }
+      return sb.append(SUFFIX).toString();
+   }
+
+   private void writeServiceFile() {
+      try {
+         FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+         try (Writer out = file.openWriter()) {
+            for (String name : generated) {
+               out.write(name);
+               out.write('\n');
+            }
+         }
+      } catch (IOException e) {
+         processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+               "Failed to write " + SERVICE_FILE + ": " + e.getMessage());
+      }
+   }
+
+   private void error(Element element, String format, Object... args) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+   }
+}
@@ -0,0 +1,118 @@
+package org.infinispan.marshall.processor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.util.Types;
+
+/**
+ * Writes the source of a generated externalizer. The types of the user are always referenced by their qualified name,
+ * so that they cannot clash with the imports of the externalizer.
+ *
+ * @since 9.0
+ */
+final class ExternalizerWriter {
+
+   private final Types types;
+   private final String packageName;
+   private final String simpleName;
+   private final String typeName;
+   private final int id;
+   private final List<MarshalledField> fields;
+
+   /**
+    * The name of the copy of {@code values()} of each enum type, by enum type.
+    */
+   private final Map<String, String> enumValues = new LinkedHashMap<>();
+
+   ExternalizerWriter(Types types, String packageName, String simpleName, String typeName, int id,
+                      List<MarshalledField> fields) {
+      this.types = types;
+      this.packageName = packageName;
+      this.simpleName = simpleName;
+      this.typeName = typeName;
+      this.id = id;
+      this.fields = fields;
+      for (MarshalledField field : fields) {
+         if (field.kind == FieldKind.ENUM) {
+            enumValues.computeIfAbsent(fieldType(field), t -> "VALUES_" + enumValues.size());
+         }
+      }
+   }
+
+   String write() {
+      StringBuilder sb = new StringBuilder(2048);
+      if (!packageName.isEmpty()) {
+         sb.append("package ").append(packageName).append(";\n\n");
+      }
+      sb.append("import java.io.IOException;\n");
+      sb.append("import java.io.ObjectInput;\n");
+      sb.append("import java.io.ObjectOutput;\n");
+      sb.append("import java.util.Collections;\n");
+      sb.append("import java.util.Set;\n\n");
+      sb.append("import org.infinispan.commons.marshall.GeneratedExternalizer;\n");
+      sb.append("import org.infinispan.commons.marshall.MarshallUtil;\n\n");
+      sb.append("/**\n");
+      sb.append(" * Externalizer of {@link ").append(typeName).append("}, generated by ")
+            .append(ExternalizerProcessor.class.getName()).append(".\n");
+      sb.append(" */\n");
+      sb.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+      sb.append("public final class ").append(simpleName).append(" implements GeneratedExternalizer<")
+            .append(typeName).append("> {\n");
+
+      for (Map.Entry<String, String> e : enumValues.entrySet()) {
+         sb.append("   private static final ").append(e.getKey()).append("[] ").append(e.getValue()).append(" = ")
+               .append(e.getKey()).append(".values();\n");
+      }
+      if (!enumValues.isEmpty()) {
+         sb.append('\n');
+      }
+
+      sb.append("   @Override\n");
+      sb.append("   public Set<Class<? extends ").append(typeName).append(">> getTypeClasses() {\n");
+      sb.append("      return Collections.<Class<? extends ").append(typeName).append(">>singleton(")
+            .append(typeName).append(".class);\n");
+      sb.append("   }\n\n");
+
+      sb.append("   @Override\n");
+      sb.append("   public Integer getId() {\n");
+      sb.append("      return ").append(id).append(";\n");
+      sb.append("   }\n\n");
+
+      sb.append("   @Override\n");
+      sb.append("   public void writeObject(ObjectOutput output, ").append(typeName)
+            .append(" object) throws IOException {\n");
+      for (MarshalledField field : fields) {
+         sb.append("      ").append(String.format(field.kind.write, field.access())).append(";\n");
+      }
+      sb.append("   }\n\n");
+
+      sb.append("   @Override\n");
+      sb.append("   public ").append(typeName)
+            .append(" readObject(ObjectInput input) throws IOException, ClassNotFoundException {\n");
+      sb.append("      ").append(typeName).append(" object = new ").append(typeName).append("();\n");
+      for (MarshalledField field : fields) {
+         sb.append("      ").append(field.access()).append(" = ").append(read(field)).append(";\n");
+      }
+      sb.append("      return object;\n");
+      sb.append("   }\n");
+      sb.append("}\n");
+      return sb.toString();
+   }
+
+   private String read(MarshalledField field) {
+      switch (field.kind) {
+         case ENUM:
+            return String.format(field.kind.read, enumValues.get(fieldType(field)));
+         case OBJECT:
+            return String.format(field.kind.read, fieldType(field));
+         default:
+            return field.kind.read;
+      }
+   }
+
+   private String fieldType(MarshalledField field) {
+      return types.erasure(field.field.asType()).toString();
+   }
+}
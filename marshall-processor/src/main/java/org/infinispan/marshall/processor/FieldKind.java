@@ -0,0 +1,36 @@
+package org.infinispan.marshall.processor;
+
+/**
+ * How a field is written and read by a generated externalizer. {@code %s} stands for the field in the write
+ * expressions.
+ *
+ * @since 9.0
+ */
+enum FieldKind {
+   BOOLEAN("output.writeBoolean(%s)", "input.readBoolean()"),
+   BYTE("output.writeByte(%s)", "input.readByte()"),
+   SHORT("output.writeShort(%s)", "input.readShort()"),
+   CHAR("output.writeChar(%s)", "input.readChar()"),
+   INT("output.writeInt(%s)", "input.readInt()"),
+   LONG("output.writeLong(%s)", "input.readLong()"),
+   FLOAT("output.writeFloat(%s)", "input.readFloat()"),
+   DOUBLE("output.writeDouble(%s)", "input.readDouble()"),
+   STRING("MarshallUtil.marshallString(%s, output)", "MarshallUtil.unmarshallString(input)"),
+   BYTE_ARRAY("MarshallUtil.marshallByteArray(%s, output)", "MarshallUtil.unmarshallByteArray(input)"),
+   /**
+    * The ordinal, read back through a copy of {@code values()} held by the externalizer, named by the second {@code %s}.
+    */
+   ENUM("MarshallUtil.marshallEnum(%s, output)", "MarshallUtil.unmarshallEnum(input, ordinal -> %s[ordinal])"),
+   /**
+    * Any other type goes through the global marshaller, cast to the erasure of the field type given by {@code %s}.
+    */
+   OBJECT("output.writeObject(%s)", "(%s) input.readObject()");
+
+   final String write;
+   final String read;
+
+   FieldKind(String write, String read) {
+      this.write = write;
+      this.read = read;
+   }
+}
@@ -0,0 +1,33 @@
+package org.infinispan.marshall.processor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+
+/**
+ * A field written by a generated externalizer.
+ *
+ * @since 9.0
+ */
+final class MarshalledField {
+   final VariableElement field;
+   /**
+    * The superclass declaring the field, or {@code null} if it is declared by the annotated class.
+    */
+   final TypeElement declaringSuperclass;
+   final FieldKind kind;
+
+   MarshalledField(VariableElement field, TypeElement declaringSuperclass, FieldKind kind) {
+      this.field = field;
+      this.declaringSuperclass = declaringSuperclass;
+      this.kind = kind;
+   }
+
+   /**
+    * @return the expression accessing the field of {@code object}, through a cast if a subclass could hide it
+    */
+   String access() {
+      String name = field.getSimpleName().toString();
+      return declaringSuperclass == null ? "object." + name
+            : "((" + declaringSuperclass.getQualifiedName() + ") object)." + name;
+   }
+}
@@ -0,0 +1,220 @@
+package org.infinispan.marshall.processor;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.infinispan.commons.marshall.GeneratedExternalizer;
+import org.infinispan.commons.util.Util;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Compiles annotated classes with the {@link ExternalizerProcessor} and uses the generated externalizers.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "marshall.processor.ExternalizerProcessorTest")
+public class ExternalizerProcessorTest {
+
+   private static final String BASE = "package p;\n" +
+         "public class Base {\n" +
+         "   public long stamp;\n" +
+         "   String name;\n" +
+         "}\n";
+
+   private static final String PERSON = "package p;\n" +
+         "import java.util.List;\n" +
+         "import org.infinispan.commons.marshall.GenerateExternalizer;\n" +
+         "@GenerateExternalizer(id = 1000)\n" +
+         "public class Person extends Base {\n" +
+         "   public enum Color { RED, GREEN }\n" +
+         "   String name;\n" +
+         "   int age;\n" +
+         "   boolean active;\n" +
+         "   double score;\n" +
+         "   byte[] data;\n" +
+         "   List<String> tags;\n" +
+         "   Color color;\n" +
+         "   Address address;\n" +
+         "   transient int cached;\n" +
+         "   static int instances;\n" +
+         "   @GenerateExternalizer(id = 1001)\n" +
+         "   public static class Address implements java.io.Serializable {\n" +
+         "      String street;\n" +
+         "   }\n" +
+         "}\n";
+
+   private Path dir;
+
+   @BeforeMethod
+   public void createDir() throws IOException {
+      dir = Files.createTempDirectory("externalizer-processor");
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void deleteDir() {
+      Util.recursiveFileRemove(dir.toFile());
+   }
+
+   public void testGeneratedExternalizer() throws Exception {
+      DiagnosticCollector<JavaFileObject> diagnostics = compile(BASE, PERSON);
+      assertTrue(diagnostics.getDiagnostics().toString(), errors(diagnostics).isEmpty());
+
+      List<String> services = Files.readAllLines(dir.resolve(ExternalizerProcessor.SERVICE_FILE), StandardCharsets.UTF_8);
+      assertEquals(Arrays.asList("p.Person_Address_Externalizer", "p.Person_Externalizer"), services);
+
+      try (URLClassLoader classLoader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass().getClassLoader())) {
+         Class<?> baseClass = classLoader.loadClass("p.Base");
+         Class<?> personClass = classLoader.loadClass("p.Person");
+         GeneratedExternalizer<Object> externalizer = (GeneratedExternalizer<Object>)
+               classLoader.loadClass("p.Person_Externalizer").newInstance();
+         assertEquals(1000, externalizer.getId().intValue());
+         assertEquals(Collections.singleton(personClass), externalizer.getTypeClasses());
+
+         Object person = personClass.newInstance();
+         set(baseClass, person, "stamp", 42L);
+         set(baseClass, person, "name", "base");
+         set(person, "name", "person");
+         set(person, "age", 33);
+         set(person, "active", true);
+         set(person, "score", 1.5);
+         set(person, "data", new byte[]{1, 2, 3});
+         set(person, "tags", Arrays.asList("a", "b"));
+         set(person, "color", personClass.getDeclaredField("color").getType().getEnumConstants()[1]);
+         set(person, "cached", 7);
+
+         Object copy = roundTrip(externalizer, person);
+         assertEquals(42L, get(baseClass, copy, "stamp"));
+         assertEquals("base", get(baseClass, copy, "name"));
+         assertEquals("person", get(copy, "name"));
+         assertEquals(33, get(copy, "age"));
+         assertEquals(true, get(copy, "active"));
+         assertEquals(1.5, get(copy, "score"));
+         assertTrue(Arrays.equals(new byte[]{1, 2, 3}, (byte[]) get(copy, "data")));
+         assertEquals(Arrays.asList("a", "b"), get(copy, "tags"));
+         assertEquals(get(person, "color"), get(copy, "color"));
+         assertNull(get(copy, "address"));
+         assertEquals(0, get(copy, "cached"));
+
+         Object empty = roundTrip(externalizer, personClass.newInstance());
+         assertNull(get(empty, "name"));
+         assertNull(get(empty, "data"));
+         assertNull(get(empty, "color"));
+      }
+   }
+
+   public void testInvalidClass() throws Exception {
+      DiagnosticCollector<JavaFileObject> diagnostics = compile("package p;\n" +
+            "@org.infinispan.commons.marshall.GenerateExternalizer(id = -1)\n" +
+            "public class Invalid {\n" +
+            "   private int hidden;\n" +
+            "   final int constant = 1;\n" +
+            "   Invalid(int value) {\n" +
+            "   }\n" +
+            "}\n");
+      List<String> errors = errors(diagnostics);
+      assertEquals(errors.toString(), 4, errors.size());
+      assertTrue(errors.toString(), errors.stream().anyMatch(e -> e.contains("constructor")));
+      assertTrue(errors.toString(), errors.stream().anyMatch(e -> e.contains("negative")));
+      assertTrue(errors.toString(), errors.stream().anyMatch(e -> e.contains("Field hidden")));
+      assertTrue(errors.toString(), errors.stream().anyMatch(e -> e.contains("Field constant")));
+      assertFalse(Files.exists(dir.resolve(ExternalizerProcessor.SERVICE_FILE)));
+   }
+
+   public void testInnerClass() throws Exception {
+      DiagnosticCollector<JavaFileObject> diagnostics = compile("package p;\n" +
+            "public class Outer {\n" +
+            "   @org.infinispan.commons.marshall.GenerateExternalizer(id = 1)\n" +
+            "   public class Inner {\n" +
+            "   }\n" +
+            "}\n");
+      List<String> errors = errors(diagnostics);
+      assertEquals(errors.toString(), 1, errors.size());
+      assertTrue(errors.get(0), errors.get(0).contains("static nested"));
+   }
+
+   private DiagnosticCollector<JavaFileObject> compile(String... sources) throws IOException {
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+      try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+         File[] files = new File[sources.length];
+         for (int i = 0; i < sources.length; i++) {
+            String name = sources[i].split("public class ")[1].split("[ {]")[0];
+            files[i] = dir.resolve(name + ".java").toFile();
+            Files.write(files[i].toPath(), sources[i].getBytes(StandardCharsets.UTF_8));
+         }
+         List<String> options = Arrays.asList("-d", dir.toString(), "-s", dir.toString(),
+               "-classpath", System.getProperty("java.class.path"));
+         JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+               fileManager.getJavaFileObjects(files));
+         task.setProcessors(Collections.singleton(new ExternalizerProcessor()));
+         task.call();
+      }
+      return diagnostics;
+   }
+
+   private List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+      return diagnostics.getDiagnostics().stream()
+            .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+            .map(d -> d.getMessage(Locale.ROOT))
+            .collect(Collectors.toList());
+   }
+
+   private Object roundTrip(GeneratedExternalizer<Object> externalizer, Object object) throws Exception {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+         externalizer.writeObject(output, object);
+      }
+      try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+         return externalizer.readObject(input);
+      }
+   }
+
+   private void set(Object object, String name, Object value) throws Exception {
+      set(object.getClass(), object, name, value);
+   }
+
+   private void set(Class<?> declaringClass, Object object, String name, Object value) throws Exception {
+      Field field = declaringClass.getDeclaredField(name);
+      field.setAccessible(true);
+      field.set(object, value);
+   }
+
+   private Object get(Object object, String name) throws Exception {
+      return get(object.getClass(), object, name);
+   }
+
+   private Object get(Class<?> declaringClass, Object object, String name) throws Exception {
+      Field field = declaringClass.getDeclaredField(name);
+      field.setAccessible(true);
+      return field.get(object);
+   }
+}
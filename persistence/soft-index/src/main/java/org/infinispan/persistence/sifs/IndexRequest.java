@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.commons.util.Util;
@@ -31,6 +32,7 @@ public enum Type {
    private final byte[] serializedKey;
    private final int size;
    private volatile Object result;
+   private final CompletableFuture<Object> resultFuture = new CompletableFuture<>();
    private AtomicInteger countDown;
 
    private IndexRequest(Type type, Object key, byte[] serializedKey, int file, int offset, int size, int prevFile, int prevOffset) {
@@ -96,11 +98,25 @@ public byte[] getSerializedKey() {
       return serializedKey;
    }
 
-   public synchronized void setResult(Object result) {
-      if (this.result == null) {
-         this.result = result;
+   public void setResult(Object result) {
+      boolean first;
+      synchronized (this) {
+         first = this.result == null;
+         if (first) {
+            this.result = result;
+         }
+         notifyAll();
       }
-      notifyAll();
+      if (first) {
+         resultFuture.complete(result);
+      }
+   }
+
+   /**
+    * @return a future completed with the result, by the thread that sets it
+    */
+   public CompletableFuture<Object> getResultAsync() {
+      return resultFuture;
    }
 
    public synchronized Object getResult() throws InterruptedException {
@@ -1,7 +1,12 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -18,8 +23,10 @@
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -97,7 +104,7 @@
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-public class SoftIndexFileStore implements AdvancedLoadWriteStore {
+public class SoftIndexFileStore implements AdvancedLoadWriteStore, NonBlockingCacheWriter {
 
    private static final Log log = LogFactory.getLog(SoftIndexFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -301,6 +308,15 @@ public void purge(Executor threadPool, PurgeListener listener) {
 
    @Override
    public void write(MarshalledEntry entry) {
+      checkKeyLength(entry);
+      try {
+         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private void checkKeyLength(MarshalledEntry entry) {
       int keyLength = entry.getKeyBytes().getLength();
       if (keyLength > maxKeyLength) {
          throw new PersistenceException("Configuration 'maxNodeSize' is too low - with maxNodeSize="
@@ -310,10 +326,40 @@ public void write(MarshalledEntry entry) {
          // TODO this limitation could be removed by different key length encoding
          throw new PersistenceException("SoftIndexFileStore is limited to keys with serialized size <= 32767 bytes");
       }
+   }
+
+   /**
+    * The entry is handed to the log appender like in {@link #write(MarshalledEntry)}, and the stage is completed by
+    * the log appender thread once the entry is in the log.
+    */
+   @Override
+   public CompletionStage<Void> writeAsync(MarshalledEntry entry) {
       try {
-         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
+         checkKeyLength(entry);
+         return toPersistenceStage(storeQueue.pushAsync(LogRequest.storeRequest(entry)));
       } catch (Exception e) {
-         throw new PersistenceException(e);
+         return CompletableFutures.completedExceptionFuture(toPersistenceException(e));
+      }
+   }
+
+   /**
+    * The log appender processes the requests in order, so the whole batch is in the log once the last entry is.
+    */
+   @Override
+   public CompletionStage<Void> writeBatchAsync(Iterable entries) {
+      try {
+         List<LogRequest> requests = new ArrayList<>();
+         for (Object entry : entries) {
+            checkKeyLength((MarshalledEntry) entry);
+            requests.add(LogRequest.storeRequest((MarshalledEntry) entry));
+         }
+         CompletableFuture<Void> last = CompletableFutures.completedNull();
+         for (LogRequest request : requests) {
+            last = storeQueue.pushAsync(request);
+         }
+         return toPersistenceStage(last);
+      } catch (Exception e) {
+         return CompletableFutures.completedExceptionFuture(toPersistenceException(e));
       }
    }
 
@@ -328,6 +374,40 @@ public boolean delete(Object key) {
       }
    }
 
+   /**
+    * The stage is completed by the index updater thread, once the index knows whether the key existed.
+    */
+   @Override
+   public CompletionStage<Boolean> deleteAsync(Object key) {
+      try {
+         LogRequest request = LogRequest.deleteRequest(key, toBuffer(marshaller.objectToByteBuffer(key)));
+         return toPersistenceStage(storeQueue.pushAsync(request)
+               .thenCompose(ignored -> request.getIndexRequest().getResultAsync())
+               .thenApply(Boolean.class::cast));
+      } catch (Exception e) {
+         return CompletableFutures.completedExceptionFuture(toPersistenceException(e));
+      }
+   }
+
+   private static <T> CompletableFuture<T> toPersistenceStage(CompletableFuture<T> future) {
+      CompletableFuture<T> result = new CompletableFuture<>();
+      future.whenComplete((value, throwable) -> {
+         if (throwable != null) {
+            result.completeExceptionally(toPersistenceException(throwable));
+         } else {
+            result.complete(value);
+         }
+      });
+      return result;
+   }
+
+   private static PersistenceException toPersistenceException(Throwable t) {
+      if (t instanceof CompletionException && t.getCause() != null) {
+         t = t.getCause();
+      }
+      return t instanceof PersistenceException ? (PersistenceException) t : new PersistenceException(t);
+   }
+
    @Override
    public boolean contains(Object key) {
       try {
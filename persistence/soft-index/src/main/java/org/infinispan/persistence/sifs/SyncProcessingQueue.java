@@ -1,6 +1,10 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Multiple producer-single consumer queue. The producers are expected to call pushAndWait(),
@@ -33,6 +37,8 @@
    private long processorPopIndex = 0;
    private int poppedInRow = 0;
    private volatile boolean error;
+   // Producers that don't want to block, ordered by index
+   private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
 
    public SyncProcessingQueue() {
       this(Integer.MAX_VALUE);
@@ -46,6 +52,27 @@ public void pushAndWait(T element) throws InterruptedException {
       waitFor(push(element));
    }
 
+   /**
+    * Non-blocking variant of {@link #pushAndWait(Object)}.
+    *
+    * @return a future completed once the consumer has processed the element. It is completed by the consumer thread.
+    */
+   public CompletableFuture<Void> pushAsync(T element) {
+      Waiter waiter = new Waiter(push(element));
+      synchronized (sync) {
+         if (!error && waiter.index > popIndex) {
+            waiters.add(waiter);
+            return waiter.future;
+         }
+      }
+      if (error) {
+         waiter.future.completeExceptionally(new IllegalStateException("Exception in consumer"));
+      } else {
+         waiter.future.complete(null);
+      }
+      return waiter.future;
+   }
+
    public long push(T element) {
       synchronized (queue) {
          queue.push(element);
@@ -90,6 +117,7 @@ public void notifyAndWait() {
       synchronized (sync) {
          sync.notifyAll();
       }
+      completeWaiters();
       synchronized (queue) {
          if (queue.isEmpty()) {
             try {
@@ -107,6 +135,7 @@ public void notifyNoWait() {
       synchronized (sync) {
          sync.notifyAll();
       }
+      completeWaiters();
    }
 
    public void notifyError() {
@@ -115,5 +144,43 @@ public void notifyError() {
       synchronized (sync) {
          sync.notifyAll();
       }
+      completeWaiters();
+   }
+
+   private void completeWaiters() {
+      List<Waiter> completed = null;
+      synchronized (sync) {
+         while (!waiters.isEmpty() && waiters.peek().index <= popIndex) {
+            if (completed == null) {
+               completed = new ArrayList<>();
+            }
+            completed.add(waiters.poll());
+         }
+      }
+      if (completed == null) {
+         return;
+      }
+      // Complete the futures outside the lock, they may run the producers' callbacks
+      for (Waiter waiter : completed) {
+         if (error) {
+            waiter.future.completeExceptionally(new IllegalStateException("Exception in consumer"));
+         } else {
+            waiter.future.complete(null);
+         }
+      }
+   }
+
+   private static class Waiter implements Comparable<Waiter> {
+      final long index;
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+
+      Waiter(long index) {
+         this.index = index;
+      }
+
+      @Override
+      public int compareTo(Waiter o) {
+         return Long.compare(index, o.index);
+      }
    }
 }
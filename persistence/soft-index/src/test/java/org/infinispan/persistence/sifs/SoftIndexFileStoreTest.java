@@ -7,6 +7,9 @@
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -119,6 +122,25 @@ public void testLoadUnload() {
       }
    }
 
+   public void testWriteAndDeleteAsync() throws Exception {
+      store.writeAsync(marshalledEntry(internalCacheEntry("k1", "v1", -1))).toCompletableFuture()
+            .get(10, TimeUnit.SECONDS);
+      assertEquals("v1", store.load("k1").getValue());
+
+      List<MarshalledEntry> batch = new ArrayList<>();
+      for (int i = 0; i < 10; ++i) {
+         batch.add(marshalledEntry(internalCacheEntry(key(i), "value" + i, -1)));
+      }
+      store.writeBatchAsync(batch).toCompletableFuture().get(10, TimeUnit.SECONDS);
+      for (int i = 0; i < 10; ++i) {
+         assertEquals("value" + i, store.load(key(i)).getValue());
+      }
+
+      assertEquals(Boolean.TRUE, store.deleteAsync("k1").toCompletableFuture().get(10, TimeUnit.SECONDS));
+      assertNull(store.load("k1"));
+      assertEquals(Boolean.FALSE, store.deleteAsync("k2").toCompletableFuture().get(10, TimeUnit.SECONDS));
+   }
+
    // test for ISPN-5658
    public void testStopStartAndMultipleWrites() {
       MarshalledEntry<Object, Object> entry1 = marshalledEntry(internalCacheEntry("k1", "v1", -1));